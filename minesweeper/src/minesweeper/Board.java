@@ -16,19 +16,36 @@
  */
 package minesweeper;
 
+import java.util.ArrayDeque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntUnaryOperator;
 
 /**
  * Represents a board with mines.
+ * <p>Only what differs from a fresh board is stored: the statuses of positions 
+ * that are no longer covered, the flags, the mines and the neighbor counts of 
+ * positions next to mines. A board made with {@link #makeBoard(int, Position)} 
+ * doesn't even place its mines until the first position is revealed, and 
+ * then keeps that position and, room permitting, its neighbors clear, so that 
+ * the first click is never fatal. Making a board thus takes the same time no 
+ * matter how large the board is.</p>
  * @author Alonso del Arte
  */
 public class Board {
     
-    private static final Position TOP_LEFT_CORNER = new Position(0, 0);
+    private static final Random RANDOM = new Random();
+    
+    private static final NoGuessGenerator NO_GUESS_GENERATOR 
+            = new NoGuessGenerator();
     
     private static final PositionStatus[] STATUS_VALUES 
             = PositionStatus.values();
@@ -37,13 +54,17 @@ public class Board {
     
     private final HashMap<Position, PositionStatus> statuses = new HashMap<>();
     
-    private final HashMap<Position, Optional<Flag>> flags = new HashMap<>();
+    private final HashMap<Position, Flag> flags = new HashMap<>();
     
-    private final HashMap<Position, Optional<Mine>> mines = new HashMap<>();
+    private final HashMap<Position, Mine> mines = new HashMap<>();
     
     private final HashMap<Position, Integer> neighborCounts = new HashMap<>();
     
-    private final int mineCount;
+    private int mineCount;
+    
+    private IntUnaryOperator pendingDraw;
+    
+    private GameCode gameCode;
     
     private int goodFlagCount = 0;
     
@@ -53,6 +74,48 @@ public class Board {
     
     private boolean gameLost = false;
     
+    private final List<StatusChangeListener> listeners 
+            = new CopyOnWriteArrayList<>();
+    
+    private final FrontierIndex frontierIndex;
+    
+    private OpeningIndex openingIndex = null;
+    
+    private long stateHash;
+    
+    /**
+     * Gives the bottom right corner of this board. The top left corner is 
+     * always (0, 0).
+     * @return The position of the bottom right corner. For example, (9, 25) 
+     * for a board with 10 rows and 26 columns.
+     */
+    public Position getMaxCorner() {
+        return this.maxCorner;
+    }
+    
+    /**
+     * Tells how many mines were placed on this board. This does not change as 
+     * the game progresses.
+     * @return The number of mines. For example, 26.
+     */
+    public int getMineCount() {
+        return this.mineCount;
+    }
+    
+    /**
+     * Gives the code from which this board can be made again, if it was made 
+     * from a seed. Once the first move has placed the mines, the code includes 
+     * that move, and the board made again from the code has the same mines 
+     * and the first move already made.
+     * @return The code, or an empty <code>Optional</code> if this board was 
+     * made from a shared generator or with its mines already placed. For 
+     * example, the code "16-30-99-1C1" before the first move, or 
+     * "16-30-99-1C1-8-15" after (8, 15) was revealed first.
+     */
+    public Optional<GameCode> getGameCode() {
+        return Optional.ofNullable(this.gameCode);
+    }
+    
     /**
      * Tells whether the game is underway or not. If no mine has detonated, and 
      * there are mines left to flag or positions without mines to unflag, the 
@@ -86,7 +149,7 @@ public class Board {
      */
     public PositionStatus query(Position position) {
         if (position.isWithinBounds(this.maxCorner)) {
-            return this.statuses.get(position);
+            return this.statusOf(position);
         } else {
             String excMsg = "Position " + position.toString() 
                     + " is beyond maximum corner " + this.maxCorner.toString();
@@ -94,8 +157,208 @@ public class Board {
         }
     }
     
+    /**
+     * Registers a listener to be notified of every change of status on this 
+     * board, including the positions uncovered by a cascade and the mines 
+     * shown after the game is lost.
+     * @param listener The listener to add. For example, a graphical component 
+     * that needs to know which parts of the board to repaint.
+     */
+    public void addStatusChangeListener(StatusChangeListener listener) {
+        this.listeners.add(listener);
+    }
+    
+    /**
+     * Unregisters a listener. If the listener was not registered, this has no 
+     * effect.
+     * @param listener The listener to remove.
+     */
+    public void removeStatusChangeListener(StatusChangeListener listener) {
+        this.listeners.remove(listener);
+    }
+    
+    /**
+     * Unregisters every listener, so that a board handed on to someone else 
+     * doesn't keep notifying the listeners of whoever had it before.
+     */
+    void removeAllStatusChangeListeners() {
+        this.listeners.clear();
+    }
+    
+    /**
+     * Gives an iterator over the frontier, the covered positions next to at 
+     * least one revealed number. Flagged positions are not included. The 
+     * frontier is kept up to date as the game goes on, so this takes time 
+     * proportional to the size of the frontier, not the size of the board.
+     * @return An iterator that doesn't support <code>remove()</code>. It should 
+     * not be used after the board changes.
+     */
+    public Iterator<Position> frontierIterator() {
+        return this.frontierIndex.getFrontier().iterator();
+    }
+    
+    /**
+     * Tells how many positions are in the frontier.
+     * @return The number of covered positions next to at least one revealed 
+     * number. For example, 0 before the first move.
+     */
+    public int getFrontierSize() {
+        return this.frontierIndex.getFrontier().size();
+    }
+    
+    /**
+     * Gives an iterator over the active numbers, the revealed numbers that 
+     * still have at least one covered neighbor. Like {@link 
+     * #frontierIterator()}, this takes time proportional to how many there 
+     * are.
+     * @return An iterator that doesn't support <code>remove()</code>. It should 
+     * not be used after the board changes.
+     */
+    public Iterator<Position> activeNumberIterator() {
+        return this.frontierIndex.getActiveNumbers().iterator();
+    }
+    
+    /**
+     * Tells how many revealed numbers have at least one covered neighbor.
+     * @return The number of active numbers. For example, 0 before the first 
+     * move.
+     */
+    public int getActiveNumberCount() {
+        return this.frontierIndex.getActiveNumbers().size();
+    }
+    
+    /**
+     * Tells how many positions are covered, not counting flagged positions.
+     * @return The number of covered positions. For example, 260 for a board 
+     * of 10 rows and 26 columns before the first move.
+     */
+    public int getCoveredCount() {
+        return this.frontierIndex.getCoveredCount();
+    }
+    
+    /**
+     * Tells how many positions are flagged, whether rightly or wrongly.
+     * @return The number of flags. For example, 0 before the first move.
+     */
+    public int getFlagCount() {
+        return this.frontierIndex.getFlaggedCount();
+    }
+    
+    private PositionStatus statusOf(Position position) {
+        return this.statuses.getOrDefault(position, PositionStatus.COVERED);
+    }
+    
+    private int neighborCountOf(Position position) {
+        return this.neighborCounts.getOrDefault(position, 0);
+    }
+    
+    private void checkBounds(Position position) {
+        if (!position.isWithinBounds(this.maxCorner)) {
+            String excMsg = "Position " + position.toString() 
+                    + " is beyond maximum corner " + this.maxCorner.toString();
+            throw new NoSuchElementException(excMsg);
+        }
+    }
+    
+    /**
+     * Tells how many neighbors of a position are covered, not counting flagged 
+     * neighbors.
+     * @param position The position. For example, (4, 7).
+     * @return The number of covered neighbors, from 0 to 8.
+     * @throws NoSuchElementException If <code>position</code> is out of bounds.
+     */
+    public int coveredNeighborCount(Position position) {
+        this.checkBounds(position);
+        return this.frontierIndex.coveredNeighborCount(position);
+    }
+    
+    /**
+     * Tells how many of a revealed number's mines have not been flagged. This 
+     * is the number shown minus the number of flagged neighbors, so it can be 
+     * negative if neighbors have been wrongly flagged.
+     * @param position The position of the number. For example, (4, 7).
+     * @return The number of mines yet to be flagged around the position. For 
+     * example, 1 if the position shows 3 and two of its neighbors are flagged.
+     * @throws IllegalStateException If the position is not a revealed empty 
+     * position.
+     * @throws NoSuchElementException If <code>position</code> is out of bounds.
+     */
+    public int remainingMineCount(Position position) {
+        this.checkBounds(position);
+        int number = this.statusOf(position).ordinal();
+        if (number > PositionStatus.REVEALED_EMPTY_NEAR_8.ordinal()) {
+            String excMsg = "Position " + position.toString() 
+                    + " is not a revealed empty position";
+            throw new IllegalStateException(excMsg);
+        }
+        return number - this.frontierIndex.flaggedNeighborCount(position);
+    }
+    
+    /**
+     * Gives a 64-bit hash of what the player can see: the dimensions, the 
+     * number of mines and the status of every position. Two boards with the 
+     * same dimensions and number of mines that show the same statuses have 
+     * the same hash, however they got there, which is what makes the hash 
+     * useful as a key for caching analyses. The hash is a Zobrist hash, kept 
+     * up to date with two exclusive ors per change of status, so calling this 
+     * function costs nothing.
+     * @return The hash. For example, 7382016543908273615.
+     */
+    public long getStateHash() {
+        return this.stateHash;
+    }
+    
+    private static long zobristMix(long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    /**
+     * Gives the Zobrist key of a position having a status. Covered positions 
+     * have the key 0, so that the hash of a new board only depends on its 
+     * dimensions and number of mines. The other keys are the outputs of the 
+     * SplitMix64 generator at a counter made from the position and the 
+     * status.
+     */
+    private long zobristKey(Position position, PositionStatus status) {
+        if (status == PositionStatus.COVERED) {
+            return 0L;
+        }
+        long index = (long) position.getX() * (this.maxCorner.getY() + 1) 
+                + position.getY();
+        long counter = index * STATUS_VALUES.length + status.ordinal() + 1;
+        return zobristMix(counter * 0x9E3779B97F4A7C15L);
+    }
+    
+    /**
+     * Gives the hash of a board on which every position is covered.
+     */
+    private long initialHash() {
+        return zobristMix(((long) this.maxCorner.getX() << 40) 
+                ^ ((long) this.maxCorner.getY() << 20) ^ this.mineCount);
+    }
+    
+    private void setStatus(Position position, PositionStatus status) {
+        PositionStatus previous = status == PositionStatus.COVERED 
+                ? this.statuses.remove(position) 
+                : this.statuses.put(position, status);
+        if (previous == null) {
+            previous = PositionStatus.COVERED;
+        }
+        if (previous != status) {
+            this.stateHash ^= this.zobristKey(position, previous) 
+                    ^ this.zobristKey(position, status);
+            this.frontierIndex.update(position, previous, status);
+            for (StatusChangeListener listener : this.listeners) {
+                listener.statusChanged(position, previous, status);
+            }
+        }
+    }
+    
     private void revealEmptySquare(Position position) {
-        int neighborCount = this.neighborCounts.get(position);
+        int neighborCount = this.neighborCountOf(position);
         PositionStatus status;
         switch (neighborCount) {
             case 0:
@@ -130,77 +393,141 @@ public class Board {
                         + " is not valid";
                 throw new RuntimeException(msg);
         }
-        this.statuses.put(position, status);
+        this.setStatus(position, status);
     }
     
     private void revealEmptyNeighbors(Position initial) {
-        HashSet<Position> positions = new HashSet<>();
-        HashSet<Position> prevNeighbors = new HashSet<>();
-        HashSet<Position> neighbors, specNeighbors;
-        prevNeighbors.add(initial);
-        int prevCount = 0;
-        int currCount = 1;
-        while (prevCount < currCount) {
-            neighbors = new HashSet<>();
-            for (Position position : prevNeighbors) {
-                specNeighbors = position.getNeighbors(this.maxCorner);
-                specNeighbors.removeAll(positions);
-                for (Position neighbor : specNeighbors) {
-                    if (this.mines.get(neighbor).isPresent()) {
-                        specNeighbors.remove(neighbor);
-                    } else {
-                        if (this.neighborCounts.get(neighbor) == 0) {
-                            neighbors.add(neighbor);
-                        } else {
-                            this.revealEmptySquare(neighbor);
-                        }
+        ArrayDeque<Position> pending = new ArrayDeque<>();
+        pending.add(initial);
+        while (!pending.isEmpty()) {
+            Position position = pending.remove();
+            for (Position neighbor : position.getNeighbors(this.maxCorner)) {
+                if (this.statusOf(neighbor).equals(PositionStatus.COVERED) 
+                        && !this.mines.containsKey(neighbor)) {
+                    this.revealEmptySquare(neighbor);
+                    if (this.neighborCountOf(neighbor) == 0) {
+                        pending.add(neighbor);
                     }
                 }
             }
-            positions.addAll(neighbors);
-            prevNeighbors = neighbors;
-            prevCount = currCount;
-            currCount = positions.size();
         }
-        positions.remove(initial);
-        positions.forEach((currPos) -> {
-            this.statuses.put(currPos, PositionStatus.REVEALED_EMPTY);
-        });
     }
     
-    private void gradeFlags() {
-        Flag currFlag;
-        for (Position currPos = TOP_LEFT_CORNER; 
-                currPos.isWithinBounds(this.maxCorner); 
-                currPos = currPos.nextColumnWithReset(this.maxCorner)) {
-            if (this.flags.get(currPos).isPresent()) {
-                currFlag = this.flags.get(currPos).get();
-                if (!currFlag.isCorrect()) {
-                    this.statuses.put(currPos, PositionStatus.WRONGLY_FLAGGED);
+    /**
+     * Gives the openings of this board, working them out the first time 
+     * they're needed.
+     * @return The opening index.
+     * @throws IllegalStateException If the mines have not been placed yet, 
+     * which happens at the first move on a board made without them.
+     */
+    OpeningIndex getOpeningIndex() {
+        if (this.pendingDraw != null) {
+            String excMsg = "Mines have not been placed yet";
+            throw new IllegalStateException(excMsg);
+        }
+        if (this.openingIndex == null) {
+            this.openingIndex = new OpeningIndex(this.maxCorner, 
+                    this.mines.keySet(), this.neighborCounts);
+        }
+        return this.openingIndex;
+    }
+    
+    /**
+     * Uncovers the rest of the opening a position with no neighboring mines 
+     * belongs to, which is already laid out in the opening index. If a flag 
+     * or an earlier reveal cut the opening short, this falls back to 
+     * searching outward from the position, so that the result is the same 
+     * either way.
+     * @param position The position just uncovered. Its neighbor count must be 
+     * 0.
+     */
+    private void revealOpening(Position position) {
+        OpeningIndex index = this.getOpeningIndex();
+        int opening = index.openingOf(position);
+        int[] cells = index.getCells();
+        int start = index.start(opening);
+        int end = index.end(opening);
+        for (int i = start; i < end; i++) {
+            if (index.numberAt(cells[i]) == 0) {
+                Position curr = index.positionOf(cells[i]);
+                if (!this.statusOf(curr).equals(PositionStatus.COVERED) 
+                        && !curr.equals(position)) {
+                    this.revealEmptyNeighbors(position);
+                    return;
                 }
             }
         }
+        for (int i = start; i < end; i++) {
+            Position curr = index.positionOf(cells[i]);
+            if (this.statusOf(curr).equals(PositionStatus.COVERED)) {
+                this.setStatus(curr, STATUS_VALUES[index.numberAt(cells[i])]);
+            }
+        }
+    }
+    
+    private void gradeFlags() {
+        for (Flag flag : this.flags.values()) {
+            if (!flag.isCorrect()) {
+                this.setStatus(flag.getPosition(), 
+                        PositionStatus.WRONGLY_FLAGGED);
+            }
+        }
     }
     
     private void showUndetonatedMines() {
-        PositionStatus status;
-        for (Position currPos = TOP_LEFT_CORNER; 
-                currPos.isWithinBounds(this.maxCorner); 
-                currPos = currPos.nextColumnWithReset(this.maxCorner)) {
-            if (this.mines.get(currPos).isPresent()) {
-                status = this.statuses.get(currPos);
-                if (status.equals(PositionStatus.COVERED)) {
-                    this.statuses.put(currPos, PositionStatus.REVEALED_MINED);
-                }
+        for (Position position : this.mines.keySet()) {
+            if (this.statusOf(position).equals(PositionStatus.COVERED)) {
+                this.setStatus(position, PositionStatus.REVEALED_MINED);
+            }
+        }
+    }
+    
+    /**
+     * Places the mines of a board made without them. If the first move is a 
+     * reveal, the position revealed and, if there is room, its neighbors are 
+     * kept clear. The first move is added to the game code, if there is one.
+     * @param firstMove The position about to be revealed or flagged.
+     * @param flagging Whether the mines are being placed because a position 
+     * is being flagged first.
+     */
+    private void placePendingMines(Position firstMove, boolean flagging) {
+        IntUnaryOperator draw = this.pendingDraw;
+        this.pendingDraw = null;
+        if (this.gameCode != null) {
+            this.gameCode = this.gameCode.withFirstMove(firstMove, flagging);
+        }
+        HashSet<Position> excluded = new HashSet<>();
+        if (!flagging) {
+            long area = ((long) this.maxCorner.getX() + 1) 
+                    * ((long) this.maxCorner.getY() + 1);
+            HashSet<Position> neighbors 
+                    = firstMove.getNeighbors(this.maxCorner);
+            if (this.mineCount <= area - 1 - neighbors.size()) {
+                excluded.addAll(neighbors);
+            }
+            if (this.mineCount <= area - 1) {
+                excluded.add(firstMove);
             }
         }
+        HashSet<Position> mineLocations = new HashSet<>();
+        Position mineLocation;
+        while (mineLocations.size() < this.mineCount) {
+            mineLocation = new Position(draw.applyAsInt(this.maxCorner.getX() 
+                    + 1), draw.applyAsInt(this.maxCorner.getY() + 1));
+            if (!excluded.contains(mineLocation)) {
+                mineLocations.add(mineLocation);
+            }
+        }
+        this.setMines(mineLocations);
     }
     
     /**
      * Uncovers a position, potentially revealing a mine, but more hopefully 
      * revealing neighbor counts, or a large swath of adjacent empty squares. 
      * This is not a pure function, on account of the possible side effect of 
-     * uncovering several additional positions.
+     * uncovering several additional positions. On a board whose mines have 
+     * not been placed yet, this places them first, away from 
+     * <code>position</code>.
      * @param position The position to uncover.
      * @return An <code>Optional</code> object that is either empty or it 
      * contains a <code>Mine</code> object matching <code>position</code>.
@@ -214,26 +541,30 @@ public class Board {
             throw new IllegalStateException(excMsg);
         }
         if (position.isWithinBounds(this.maxCorner)) {
-            PositionStatus status = this.statuses.get(position);
+            PositionStatus status = this.statusOf(position);
             if (!status.equals(PositionStatus.COVERED)) {
                 String excMsg = "Can't reveal " + position.toString() 
                         + " because its status is " + status.toString();
                 throw new IllegalStateException(excMsg);
             }
-            Optional<Mine> option = this.mines.get(position);
+            if (this.pendingDraw != null) {
+                this.placePendingMines(position, false);
+            }
+            Optional<Mine> option 
+                    = Optional.ofNullable(this.mines.get(position));
             if (option.isPresent()) {
                 option.get().detonate();
-                this.statuses.put(position, PositionStatus.DETONATED);
+                this.setStatus(position, PositionStatus.DETONATED);
                 this.gradeFlags();
                 this.showUndetonatedMines();
                 this.gameOver = true;
                 this.gameLost = true;
             } else {
-                int neighborCount = this.neighborCounts.get(position);
+                int neighborCount = this.neighborCountOf(position);
                 status = STATUS_VALUES[neighborCount];
-                this.statuses.put(position, status);
+                this.setStatus(position, status);
                 if (neighborCount == 0) {
-                    revealEmptyNeighbors(position);
+                    this.revealOpening(position);
                 }
             }
             return option;
@@ -251,7 +582,9 @@ public class Board {
     }
     
     /**
-     * Flags a position.
+     * Flags a position. On a board whose mines have not been placed yet, this 
+     * places them first, anywhere, since whether the flag is right has to be 
+     * settled now.
      * @param position The position to flag. For example, (4, 7).
      * @throws IllegalStateException If the position is already flagged, or if 
      * the game is over.
@@ -263,16 +596,18 @@ public class Board {
             throw new IllegalStateException(excMsg);
         }
         if (position.isWithinBounds(this.maxCorner)) {
-            if (this.flags.get(position).isPresent()) {
+            if (this.flags.containsKey(position)) {
                 String excMsg = "Position " + position.toString() 
                         + " is already flagged";
                 throw new IllegalStateException(excMsg);
             }
-            boolean correctness = this.mines.get(position).isPresent();
+            if (this.pendingDraw != null) {
+                this.placePendingMines(position, true);
+            }
+            boolean correctness = this.mines.containsKey(position);
             Flag flag = new Flag(position, correctness);
-            Optional<Flag> option = Optional.of(flag);
-            this.flags.put(position, option);
-            this.statuses.put(position, PositionStatus.FLAGGED);
+            this.flags.put(position, flag);
+            this.setStatus(position, PositionStatus.FLAGGED);
             if (correctness) {
                 this.goodFlagCount++;
             } else {
@@ -299,20 +634,18 @@ public class Board {
             throw new IllegalStateException(excMsg);
         }
         if (position.isWithinBounds(this.maxCorner)) {
-            Optional<Flag> option = this.flags.get(position);
-            if (!option.isPresent()) {
+            Flag flag = this.flags.remove(position);
+            if (flag == null) {
                 String excMsg = "Position " + position.toString() 
                         + " can't be unflagged, it's not currently flagged";
                 throw new IllegalStateException(excMsg);
             }
-            Flag flag = option.get();
             if (flag.isCorrect()) {
                 this.goodFlagCount--;
             } else {
                 this.wrongFlagCount--;
             }
-            this.flags.put(position, Optional.empty());
-            this.statuses.put(position, PositionStatus.COVERED);
+            this.setStatus(position, PositionStatus.COVERED);
             this.checkIfWon();
         } else {
             String excMsg = "Position " + position.toString() 
@@ -321,15 +654,187 @@ public class Board {
         }
     }
     
+    /**
+     * Puts this board back the way a new board is, with every position 
+     * covered and no mines placed. Listeners stay registered, and are told of 
+     * each position going back to covered. The maps are cleared rather than 
+     * replaced, so they keep the room they grew into, and a board can be 
+     * played again and again without making much garbage.
+     * @param numberOfMines How many mines the board is to have now.
+     */
+    private void clearState(int numberOfMines) {
+        this.flags.clear();
+        this.mines.clear();
+        this.neighborCounts.clear();
+        this.mineCount = numberOfMines;
+        this.goodFlagCount = 0;
+        this.wrongFlagCount = 0;
+        this.gameOver = false;
+        this.gameLost = false;
+        this.frontierIndex.clear();
+        this.openingIndex = null;
+        this.stateHash = this.initialHash();
+        Iterator<Map.Entry<Position, PositionStatus>> iter 
+                = this.statuses.entrySet().iterator();
+        while (iter.hasNext()) {
+            Map.Entry<Position, PositionStatus> entry = iter.next();
+            Position position = entry.getKey();
+            PositionStatus previous = entry.getValue();
+            iter.remove();
+            for (StatusChangeListener listener : this.listeners) {
+                listener.statusChanged(position, previous, 
+                        PositionStatus.COVERED);
+            }
+        }
+    }
+    
+    /**
+     * Starts this board over with the same dimensions and number of mines, to 
+     * be placed from a given seed at the first reveal. Afterwards this board 
+     * is just like one made by {@link #makeBoard(int, Position, long)} with 
+     * the same arguments, except that it keeps its listeners and the room its 
+     * maps had grown into. That makes this cheaper than making a new board 
+     * when playing many games in a row, see {@link BoardPool}.
+     * @param seed The seed. For example, 1729.
+     */
+    public void reset(long seed) {
+        this.reset(new GameCode(this.maxCorner, this.mineCount, seed));
+    }
+    
+    /**
+     * Makes the first move of a game code on this board, if the code has one.
+     * @param code The code this board was just made or started over from.
+     */
+    private void playFirstMove(GameCode code) {
+        Optional<Position> firstMove = code.getFirstMove();
+        if (firstMove.isPresent()) {
+            if (code.isFirstMoveFlagged()) {
+                this.flag(firstMove.get());
+            } else {
+                this.reveal(firstMove.get());
+            }
+        }
+    }
+    
+    /**
+     * Starts this board over from a game code, with the mines to be placed at 
+     * the first move, or with the code's first move already made if it has 
+     * one.
+     * @param code The code. It may call for a different number of mines than 
+     * before, but not for different dimensions.
+     * @throws IllegalArgumentException If the code is for a board of 
+     * different dimensions.
+     */
+    void reset(GameCode code) {
+        if (!code.getMaxCorner().equals(this.maxCorner)) {
+            String excMsg = "Code " + code.toString() 
+                    + " is not for a board with maximum corner " 
+                    + this.maxCorner.toString();
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.clearState(code.getMineCount());
+        this.pendingDraw = new SplittableRandom(code.getSeed())::nextInt;
+        this.gameCode = code;
+        this.playFirstMove(code);
+    }
+    
+    /**
+     * Starts this board over with its mines placed at given locations.
+     * @param mineLocations A set of locations where to place the mines. For 
+     * example, (0, 3), (2, 5) and (4, 7).
+     * @throws IllegalArgumentException If any of the locations is out of 
+     * bounds.
+     */
+    void reset(HashSet<Position> mineLocations) {
+        if (anyOutOfBounds(this.maxCorner, mineLocations)) {
+            String excMsg = "All mine locations should be within bounds";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.clearState(mineLocations.size());
+        this.pendingDraw = null;
+        this.gameCode = null;
+        this.setMines(mineLocations);
+    }
+    
     /**
      * Creates a new board, with a specified number of mines. The board is 
-     * rectangular.
+     * rectangular. The mines are only placed when the first position is 
+     * revealed, away from that position and, room permitting, its neighbors.
      * @param numberOfMines How many mines the board should have. Preferably a 
      * positive number, but 0 is allowed.
      * @param maxPosition The bottom right corner position.
-     * @return A new board, with the mines' positions chosen pseudorandomly.
+     * @return A new board, with the mines' positions to be chosen 
+     * pseudorandomly.
      */
     public static Board makeBoard(int numberOfMines, Position maxPosition) {
+        return makeBoard(numberOfMines, maxPosition, RANDOM);
+    }
+    
+    /**
+     * Creates a new board, with a specified number of mines placed with a 
+     * given pseudorandom number generator. This lets simulations on several 
+     * threads each use their own generator, and lets a board be made again 
+     * from the same seed. As with {@link #makeBoard(int, Position)}, the 
+     * mines are only placed when the first position is revealed, drawing from 
+     * the generator at that time.
+     * @param numberOfMines How many mines the board should have. Preferably a 
+     * positive number, but 0 is allowed.
+     * @param maxPosition The bottom right corner position.
+     * @param random The pseudorandom number generator. For example, a 
+     * <code>java.util.Random</code> seeded with 1729.
+     * @return A new board, with the mines' positions to be chosen 
+     * pseudorandomly.
+     * @throws IllegalArgumentException If <code>numberOfMines</code> is 
+     * negative or more than the board can hold.
+     */
+    public static Board makeBoard(int numberOfMines, Position maxPosition, 
+            Random random) {
+        checkMineCount(numberOfMines, maxPosition);
+        return new Board(maxPosition, numberOfMines, random::nextInt, null);
+    }
+    
+    /**
+     * Creates a new board, with a specified number of mines to be placed with 
+     * a stream split off a given generator. The split happens right away, so 
+     * the board has a stream of its own, and the caller may go on using the 
+     * generator, for example to make more boards on the same thread.
+     * @param numberOfMines How many mines the board should have. Preferably a 
+     * positive number, but 0 is allowed.
+     * @param maxPosition The bottom right corner position.
+     * @param random The generator to split. For example, a 
+     * <code>java.util.SplittableRandom</code> seeded with 1729.
+     * @return A new board, with the mines' positions to be chosen 
+     * pseudorandomly when the first position is revealed.
+     * @throws IllegalArgumentException If <code>numberOfMines</code> is 
+     * negative or more than the board can hold.
+     */
+    public static Board makeBoard(int numberOfMines, Position maxPosition, 
+            SplittableRandom random) {
+        checkMineCount(numberOfMines, maxPosition);
+        return new Board(maxPosition, numberOfMines, random.split()::nextInt, 
+                null);
+    }
+    
+    /**
+     * Creates a new board, with a specified number of mines to be placed from 
+     * a given seed. The board can be made again from its {@link GameCode}.
+     * @param numberOfMines How many mines the board should have. Preferably a 
+     * positive number, but 0 is allowed.
+     * @param maxPosition The bottom right corner position.
+     * @param seed The seed. For example, 1729.
+     * @return A new board, with the mines' positions to be chosen 
+     * pseudorandomly when the first position is revealed. The same arguments 
+     * and the same first move always give the same mines.
+     * @throws IllegalArgumentException If <code>numberOfMines</code> is 
+     * negative or more than the board can hold.
+     */
+    public static Board makeBoard(int numberOfMines, Position maxPosition, 
+            long seed) {
+        return new GameCode(maxPosition, numberOfMines, seed).makeBoard();
+    }
+    
+    private static void checkMineCount(int numberOfMines, 
+            Position maxPosition) {
         if (numberOfMines < 0) {
             String excMsg = "Number of mines " + numberOfMines
                     + " is not valid, should be at least 0";
@@ -341,13 +846,59 @@ public class Board {
                     + " mines but capacity for only " + capacity;
             throw new IllegalArgumentException(excMsg);
         }
-        HashSet<Position> mineLocations = new HashSet<>();
-        Position mineLocation;
-        while (mineLocations.size() < numberOfMines) {
-            mineLocation = Position.random(maxPosition);
-            mineLocations.add(mineLocation);
-        }
-        return new Board(maxPosition, mineLocations);
+    }
+    
+    /**
+     * Creates a new board that can be solved without guessing, starting from 
+     * a given first click. The first click and, room permitting, its 
+     * neighbors are free of mines, so that the first click usually opens up 
+     * an area. Candidate boards are checked in parallel on the common 
+     * fork/join pool, see {@link NoGuessGenerator}.
+     * @param numberOfMines How many mines the board should have. For example, 
+     * 99.
+     * @param maxPosition The bottom right corner position. For example, (15, 
+     * 29).
+     * @param firstClick The position the player will reveal first. For 
+     * example, (7, 14).
+     * @return A new board, with the mines' positions chosen pseudorandomly.
+     * @throws IllegalArgumentException If <code>firstClick</code> is not on 
+     * the board, or if there are too many mines to leave it clear or fewer 
+     * than 0.
+     * @throws IllegalStateException If no board that can be solved without 
+     * guessing turned up within {@link 
+     * NoGuessGenerator#DEFAULT_ATTEMPT_LIMIT} attempts. This is very likely 
+     * with mines on more than about a fifth of the positions.
+     */
+    public static Board makeNoGuessBoard(int numberOfMines, 
+            Position maxPosition, Position firstClick) {
+        return makeNoGuessBoard(numberOfMines, maxPosition, firstClick, 
+                RANDOM);
+    }
+    
+    /**
+     * Creates a new board that can be solved without guessing, starting from 
+     * a given first click, with the seed for placing the mines drawn from a 
+     * given pseudorandom number generator.
+     * @param numberOfMines How many mines the board should have. For example, 
+     * 99.
+     * @param maxPosition The bottom right corner position. For example, (15, 
+     * 29).
+     * @param firstClick The position the player will reveal first. For 
+     * example, (7, 14).
+     * @param random The pseudorandom number generator. For example, a 
+     * <code>java.util.Random</code> seeded with 1729.
+     * @return A new board, with the mines' positions chosen pseudorandomly.
+     * @throws IllegalArgumentException If <code>firstClick</code> is not on 
+     * the board, or if there are too many mines to leave it clear or fewer 
+     * than 0.
+     * @throws IllegalStateException If no board that can be solved without 
+     * guessing turned up within {@link 
+     * NoGuessGenerator#DEFAULT_ATTEMPT_LIMIT} attempts.
+     */
+    public static Board makeNoGuessBoard(int numberOfMines, 
+            Position maxPosition, Position firstClick, Random random) {
+        return NO_GUESS_GENERATOR.generate(numberOfMines, maxPosition, 
+                firstClick, random.nextLong());
     }
     
     private static boolean anyOutOfBounds(Position maxPos, 
@@ -362,69 +913,62 @@ public class Board {
         return !boundFlag;
     }
     
-    private void setStatuses() {
-        for (Position curr = TOP_LEFT_CORNER; 
-                curr.isWithinBounds(this.maxCorner);
-                curr = curr.nextColumnWithReset(this.maxCorner)) {
-            this.statuses.put(curr, PositionStatus.COVERED);
-        }
-    }
-    
-    private void prepFieldForFlagging() {
-        for (Position curr = TOP_LEFT_CORNER; 
-                curr.isWithinBounds(this.maxCorner);
-                curr = curr.nextColumnWithReset(this.maxCorner)) {
-            this.flags.put(curr, Optional.empty());
-        }
-    }
-    
     private void setMines(HashSet<Position> mineLocations) {
-        mineLocations.forEach((position) -> {
-            Mine mine = new Mine(position);
-            this.mines.put(position, Optional.of(mine));
-        });
-        for (Position curr = TOP_LEFT_CORNER; 
-                curr.isWithinBounds(this.maxCorner);
-                curr = curr.nextColumnWithReset(this.maxCorner)) {
-            if (!this.mines.containsKey(curr)) {
-                this.mines.put(curr, Optional.empty());
+        for (Position position : mineLocations) {
+            this.mines.put(position, new Mine(position));
+            for (Position neighbor : position.getNeighbors(this.maxCorner)) {
+                this.neighborCounts.merge(neighbor, 1, Integer::sum);
             }
         }
     }
     
-    private void countNeighbors() {
-        int counter;
-        for (Position curr = TOP_LEFT_CORNER; 
-                curr.isWithinBounds(this.maxCorner);
-                curr = curr.nextColumnWithReset(this.maxCorner)) {
-            HashSet<Position> neighbors = curr.getNeighbors(this.maxCorner);
-            counter = 0;
-            // TODO: Evaluate "Can use functional operators" warning
-            for (Position neighbor : neighbors) {
-                if (this.mines.get(neighbor).isPresent()) {
-                    counter++;
-                }
-            }
-            this.neighborCounts.put(curr, counter);
-        }
-    }
-    
     /**
-     * Sole constructor.
+     * Constructor for a board with its mines already placed.
      * @param maxPos The position of the bottom right corner.
      * @param mineLocations A set of locations where to place the mines.
      */
     Board(Position maxPos, HashSet<Position> mineLocations) {
+        this(maxPos, mineLocations.size(), null, null);
         if (anyOutOfBounds(maxPos, mineLocations)) {
             String excMsg = "All mine locations should be within bounds";
             throw new IllegalArgumentException(excMsg);
         }
-        this.mineCount = mineLocations.size();
-        this.maxCorner = maxPos;
-        this.setStatuses();
-        this.prepFieldForFlagging();
         this.setMines(mineLocations);
-        this.countNeighbors();
+    }
+    
+    /**
+     * Constructor for a board made from a game code, with its mines to be 
+     * placed at the first move, or with the code's first move already made if 
+     * it has one.
+     * @param code The code. The code has already checked that the board can 
+     * hold its mines.
+     */
+    Board(GameCode code) {
+        this(code.getMaxCorner(), code.getMineCount(), 
+                new SplittableRandom(code.getSeed())::nextInt, code);
+        this.playFirstMove(code);
+    }
+    
+    /**
+     * Constructor for a board whose mines are placed at the first reveal. 
+     * This only records the dimensions and the number of mines, so it takes 
+     * the same time no matter how large the board is.
+     * @param maxPos The position of the bottom right corner.
+     * @param numberOfMines How many mines to place. The caller makes sure the 
+     * board can hold them.
+     * @param draw The source of pseudorandom numbers below a given bound to 
+     * place the mines with when the time comes, or null if the caller places 
+     * them.
+     * @param code The code the board was made from, or null if none.
+     */
+    private Board(Position maxPos, int numberOfMines, IntUnaryOperator draw, 
+            GameCode code) {
+        this.mineCount = numberOfMines;
+        this.maxCorner = maxPos;
+        this.pendingDraw = draw;
+        this.gameCode = code;
+        this.frontierIndex = new FrontierIndex(maxPos);
+        this.stateHash = this.initialHash();
     }
     
 }
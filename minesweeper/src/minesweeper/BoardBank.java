@@ -0,0 +1,305 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps boards made ahead of time, so that a new game doesn't have to wait 
+ * for its board to be built. There is a bounded queue of boards for each 
+ * {@link BoardSpec} asked for. Whenever a queue drops below its low watermark, 
+ * a background thread makes boards for it until it reaches its high 
+ * watermark. Taking a board from a queue that has one is a hit and costs 
+ * next to nothing; taking one from an empty queue is a miss, and the board is 
+ * made right then on the calling thread.
+ * <p>For each specification, the bank keeps count of hits and misses, and of 
+ * how long the background threads took on average to make each board. The 
+ * background threads are daemon threads, so a bank that isn't closed won't 
+ * keep the program from exiting.</p>
+ * @author Alonso del Arte
+ */
+public class BoardBank implements AutoCloseable {
+    
+    /**
+     * How few boards a queue may have by default before it gets refilled.
+     */
+    public static final int DEFAULT_LOW_WATERMARK = 2;
+    
+    /**
+     * How many boards a queue gets refilled to by default.
+     */
+    public static final int DEFAULT_HIGH_WATERMARK = 8;
+    
+    private final int lowWatermark;
+    
+    private final int highWatermark;
+    
+    private final ExecutorService refillers;
+    
+    private final ConcurrentHashMap<BoardSpec, Reserve> reserves 
+            = new ConcurrentHashMap<>();
+    
+    private volatile boolean closed = false;
+    
+    /**
+     * The queue of boards for one specification, with its counters.
+     */
+    private final class Reserve {
+        
+        private final BoardSpec spec;
+        
+        private final ArrayBlockingQueue<Board> boards;
+        
+        private final AtomicBoolean refilling = new AtomicBoolean(false);
+        
+        private final LongAdder hits = new LongAdder();
+        
+        private final LongAdder misses = new LongAdder();
+        
+        private final LongAdder refillCount = new LongAdder();
+        
+        private final LongAdder refillNanos = new LongAdder();
+        
+        private final LongAdder failures = new LongAdder();
+        
+        /**
+         * Schedules a refill if the queue has fewer boards than a given 
+         * threshold and no refill is already under way.
+         */
+        void refillBelow(int threshold) {
+            if (BoardBank.this.closed || this.boards.size() >= threshold 
+                    || !this.refilling.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                BoardBank.this.refillers.execute(this::refill);
+            } catch (RejectedExecutionException ree) {
+                this.refilling.set(false);
+            }
+        }
+        
+        private void refill() {
+            boolean failed = false;
+            try {
+                while (!BoardBank.this.closed && this.boards.size() 
+                        < BoardBank.this.highWatermark) {
+                    long start = System.nanoTime();
+                    Board board = this.spec.makeBoard(ThreadLocalRandom
+                            .current());
+                    this.refillNanos.add(System.nanoTime() - start);
+                    this.refillCount.increment();
+                    if (!this.boards.offer(board)) {
+                        break;
+                    }
+                }
+            } catch (RuntimeException re) {
+                this.failures.increment();
+                failed = true;
+            } finally {
+                this.refilling.set(false);
+            }
+            if (!failed) {
+                this.refillBelow(BoardBank.this.lowWatermark);
+            }
+        }
+        
+        Board take() {
+            Board board = this.boards.poll();
+            if (board == null) {
+                this.misses.increment();
+                board = this.spec.makeBoard(ThreadLocalRandom.current());
+            } else {
+                this.hits.increment();
+            }
+            this.refillBelow(BoardBank.this.lowWatermark);
+            return board;
+        }
+        
+        Reserve(BoardSpec boardSpec) {
+            this.spec = boardSpec;
+            this.boards = new ArrayBlockingQueue<>(BoardBank.this.highWatermark);
+        }
+        
+    }
+    
+    private Reserve reserveFor(BoardSpec spec) {
+        return this.reserves.computeIfAbsent(spec, Reserve::new);
+    }
+    
+    /**
+     * Starts filling the queue for a specification up to the high watermark 
+     * in the background, so that the first board taken is already a hit.
+     * @param spec The specification. For example, 16 by 30 with 99 mines.
+     */
+    public void prepare(BoardSpec spec) {
+        this.reserveFor(spec).refillBelow(this.highWatermark);
+    }
+    
+    /**
+     * Takes a board to a given specification. If the queue for the 
+     * specification has a board ready, that one is given. Otherwise a board is 
+     * made on the calling thread. Either way, the queue is topped up in the 
+     * background if it has dropped below the low watermark.
+     * @param spec The specification. For example, 16 by 30 with 99 mines.
+     * @return A board to the specification, with none of its positions 
+     * revealed yet.
+     * @throws IllegalStateException If the board had to be made on the 
+     * calling thread and couldn't be, see {@link BoardSpec#makeBoard}.
+     */
+    public Board take(BoardSpec spec) {
+        return this.reserveFor(spec).take();
+    }
+    
+    /**
+     * Tells how many boards are ready for a specification.
+     * @param spec The specification. For example, 16 by 30 with 99 mines.
+     * @return The number of boards in the queue, 0 if no boards to the 
+     * specification have been asked for yet. For example, 5.
+     */
+    public int getQueueSize(BoardSpec spec) {
+        Reserve reserve = this.reserves.get(spec);
+        return reserve == null ? 0 : reserve.boards.size();
+    }
+    
+    /**
+     * Tells how many boards to a specification were ready when taken.
+     * @param spec The specification. For example, 16 by 30 with 99 mines.
+     * @return The number of hits. For example, 95.
+     */
+    public long getHitCount(BoardSpec spec) {
+        Reserve reserve = this.reserves.get(spec);
+        return reserve == null ? 0L : reserve.hits.sum();
+    }
+    
+    /**
+     * Tells how many boards to a specification had to be made when taken.
+     * @param spec The specification. For example, 16 by 30 with 99 mines.
+     * @return The number of misses. For example, 5.
+     */
+    public long getMissCount(BoardSpec spec) {
+        Reserve reserve = this.reserves.get(spec);
+        return reserve == null ? 0L : reserve.misses.sum();
+    }
+    
+    /**
+     * Tells what fraction of boards to a specification were ready when taken.
+     * @param spec The specification. For example, 16 by 30 with 99 mines.
+     * @return A number from 0.0 to 1.0, 0.0 if no boards have been taken. For 
+     * example, 0.95.
+     */
+    public double getHitRate(BoardSpec spec) {
+        long hitCount = this.getHitCount(spec);
+        long total = hitCount + this.getMissCount(spec);
+        return total == 0L ? 0.0 : (double) hitCount / total;
+    }
+    
+    /**
+     * Tells how many boards to a specification the background threads have 
+     * made.
+     * @param spec The specification. For example, 16 by 30 with 99 mines.
+     * @return The number of boards made in the background. For example, 100.
+     */
+    public long getRefillCount(BoardSpec spec) {
+        Reserve reserve = this.reserves.get(spec);
+        return reserve == null ? 0L : reserve.refillCount.sum();
+    }
+    
+    /**
+     * Tells how long the background threads took on average to make a board 
+     * to a specification.
+     * @param spec The specification. For example, 16 by 30 with 99 mines.
+     * @return The average time in nanoseconds, 0.0 if no boards have been made 
+     * in the background. For example, 1.4E7.
+     */
+    public double getMeanRefillLatency(BoardSpec spec) {
+        Reserve reserve = this.reserves.get(spec);
+        if (reserve == null) {
+            return 0.0;
+        }
+        long count = reserve.refillCount.sum();
+        return count == 0L ? 0.0 : (double) reserve.refillNanos.sum() / count;
+    }
+    
+    /**
+     * Tells how many times a background thread failed to make a board to a 
+     * specification. A failed refill is not retried until the next board is 
+     * taken.
+     * @param spec The specification. For example, 16 by 30 with 99 mines.
+     * @return The number of failures. For example, 0.
+     */
+    public long getRefillFailureCount(BoardSpec spec) {
+        Reserve reserve = this.reserves.get(spec);
+        return reserve == null ? 0L : reserve.failures.sum();
+    }
+    
+    /**
+     * Stops the background threads. Boards already in the queues can still be 
+     * taken, but the queues are no longer refilled.
+     */
+    @Override
+    public void close() {
+        this.closed = true;
+        this.refillers.shutdownNow();
+    }
+    
+    /**
+     * Constructor with the default watermarks and one background thread.
+     */
+    public BoardBank() {
+        this(DEFAULT_LOW_WATERMARK, DEFAULT_HIGH_WATERMARK, 1);
+    }
+    
+    /**
+     * Constructor.
+     * @param low How few boards a queue may have before it gets refilled. For 
+     * example, 2.
+     * @param high How many boards a queue gets refilled to. For example, 8.
+     * @param threads How many background threads to make boards on. For 
+     * example, 2.
+     * @throws IllegalArgumentException If <code>low</code> is negative, 
+     * <code>high</code> is less than 1 or less than <code>low</code>, or 
+     * <code>threads</code> is less than 1.
+     */
+    public BoardBank(int low, int high, int threads) {
+        if (low < 0 || high < 1 || high < low) {
+            String excMsg = "Watermarks " + low + " and " + high 
+                    + " are not valid, low should be at least 0 and at most " 
+                    + "high, high should be at least 1";
+            throw new IllegalArgumentException(excMsg);
+        }
+        if (threads < 1) {
+            String excMsg = "Thread count " + threads 
+                    + " is not valid, should be at least 1";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.lowWatermark = low;
+        this.highWatermark = high;
+        this.refillers = Executors.newFixedThreadPool(threads, (runnable) -> {
+            Thread thread = new Thread(runnable, "BoardBank refill");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+}
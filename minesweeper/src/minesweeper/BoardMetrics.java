@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper;
+
+import java.util.Arrays;
+
+/**
+ * Measures how much work a board takes to clear. The best known measure is 
+ * the 3BV, short for Bechtel's Board Benchmark Value, which is the least 
+ * number of clicks that uncovers every position without a mine: one click 
+ * for each opening, plus one for each isolated number, a position with 
+ * neighboring mines that doesn't border any opening. For example, an expert 
+ * board usually has a 3BV somewhere between 100 and 250.
+ * <p>The openings are found with one union-find pass over primitive arrays, 
+ * so measuring a board takes time linear in its area. Generators that only 
+ * need to know whether the 3BV falls in a given range can use a counter that 
+ * gives up as soon as the 3BV is sure to exceed the range.</p>
+ * @author Alonso del Arte
+ */
+public final class BoardMetrics {
+    
+    private final int openingCount;
+    
+    private final int isolatedNumberCount;
+    
+    private final int largestOpeningSize;
+    
+    private final int mineCount;
+    
+    private final long area;
+    
+    /**
+     * Counts the 3BV of mine layouts given as arrays with positions numbered 
+     * row by row. A counter keeps its scratch arrays from one count to the 
+     * next, so one counter should not be used by two threads at once.
+     */
+    static final class Counter {
+        
+        private int[] parents = new int[0];
+        
+        private int[] marks = new int[0];
+        
+        private int stamp = 0;
+        
+        private int find(int cell) {
+            int root = cell;
+            while (this.parents[root] != root) {
+                root = this.parents[root];
+            }
+            int curr = cell;
+            while (this.parents[curr] != root) {
+                int next = this.parents[curr];
+                this.parents[curr] = root;
+                curr = next;
+            }
+            return root;
+        }
+        
+        private boolean union(int a, int b) {
+            int rootA = this.find(a);
+            int rootB = this.find(b);
+            if (rootA == rootB) {
+                return false;
+            }
+            if (rootA < rootB) {
+                this.parents[rootB] = rootA;
+            } else {
+                this.parents[rootA] = rootB;
+            }
+            return true;
+        }
+        
+        /**
+         * Counts the 3BV of a layout, giving up once it's sure to exceed a 
+         * limit. The count goes row by row. Once a row is done, openings that 
+         * don't reach it can't grow any more, so openings and isolated 
+         * numbers found so far give a lower bound, which is checked against 
+         * the limit after each row.
+         * @param rows How many rows the board has. For example, 16.
+         * @param columns How many columns the board has. For example, 30.
+         * @param mined Which positions have mines.
+         * @param numbers How many mines neighbor each position.
+         * @param max The most the 3BV can be before counting stops. For 
+         * example, 150.
+         * @return The 3BV if it's at most <code>max</code>, some number more 
+         * than <code>max</code> otherwise.
+         */
+        int count(int rows, int columns, boolean[] mined, byte[] numbers, 
+                int max) {
+            int size = rows * columns;
+            if (this.parents.length < size) {
+                this.parents = new int[size];
+                this.marks = new int[size];
+                this.stamp = 0;
+            }
+            int components = 0;
+            int isolated = 0;
+            for (int x = 0; x < rows; x++) {
+                int rowStart = x * columns;
+                for (int y = 0; y < columns; y++) {
+                    int cell = rowStart + y;
+                    if (mined[cell]) {
+                        continue;
+                    }
+                    boolean zero = numbers[cell] == 0;
+                    if (zero) {
+                        this.parents[cell] = cell;
+                        components++;
+                    }
+                    boolean bordersZero = false;
+                    for (int i = Math.max(0, x - 1); 
+                            i <= Math.min(rows - 1, x + 1); i++) {
+                        for (int j = Math.max(0, y - 1); 
+                                j <= Math.min(columns - 1, y + 1); j++) {
+                            int neighbor = i * columns + j;
+                            if (neighbor == cell || mined[neighbor] 
+                                    || numbers[neighbor] != 0) {
+                                continue;
+                            }
+                            bordersZero = true;
+                            if (zero && neighbor < cell 
+                                    && this.union(cell, neighbor)) {
+                                components--;
+                            }
+                        }
+                    }
+                    if (!zero && !bordersZero) {
+                        isolated++;
+                    }
+                }
+                this.stamp++;
+                if (this.stamp == 0) {
+                    Arrays.fill(this.marks, 0);
+                    this.stamp = 1;
+                }
+                int live = 0;
+                for (int y = 0; y < columns; y++) {
+                    int cell = rowStart + y;
+                    if (!mined[cell] && numbers[cell] == 0) {
+                        int root = this.find(cell);
+                        if (this.marks[root] != this.stamp) {
+                            this.marks[root] = this.stamp;
+                            live++;
+                        }
+                    }
+                }
+                long lowerBound = (long) isolated + components - live 
+                        + Math.min(live, 1);
+                if (lowerBound > max) {
+                    return max + 1;
+                }
+            }
+            return isolated + components;
+        }
+        
+    }
+    
+    /**
+     * Gives the 3BV, the least number of clicks to uncover every position 
+     * without a mine.
+     * @return The 3BV. For example, 130.
+     */
+    public int getThreeBV() {
+        return this.openingCount + this.isolatedNumberCount;
+    }
+    
+    /**
+     * Tells how many openings the board has. An opening is a region of 
+     * positions with no neighboring mines, which one click uncovers together 
+     * with its numbered border.
+     * @return The number of openings. For example, 25.
+     */
+    public int getOpeningCount() {
+        return this.openingCount;
+    }
+    
+    /**
+     * Tells how many isolated numbers the board has, positions with 
+     * neighboring mines that don't border any opening and so take a click 
+     * each.
+     * @return The number of isolated numbers. For example, 105.
+     */
+    public int getIsolatedNumberCount() {
+        return this.isolatedNumberCount;
+    }
+    
+    /**
+     * Tells how many positions the largest opening uncovers, counting its 
+     * numbered border.
+     * @return The size of the largest opening, or 0 if there are no openings. 
+     * For example, 60.
+     */
+    public int getLargestOpeningSize() {
+        return this.largestOpeningSize;
+    }
+    
+    /**
+     * Tells how many mines the board has.
+     * @return The number of mines. For example, 99.
+     */
+    public int getMineCount() {
+        return this.mineCount;
+    }
+    
+    /**
+     * Tells what fraction of the board's positions have mines.
+     * @return The density of mines. For example, 0.20625 for 99 mines on a 16 
+     * by 30 board.
+     */
+    public double getDensity() {
+        return (double) this.mineCount / this.area;
+    }
+    
+    @Override
+    public String toString() {
+        return "3BV " + this.getThreeBV() + " (" + this.openingCount 
+                + " openings, " + this.isolatedNumberCount 
+                + " isolated numbers), " + this.mineCount + " mines";
+    }
+    
+    /**
+     * Measures a board. This only depends on where the mines are, not on how 
+     * far along the game is, so a finished game can be measured just as well 
+     * as a new one.
+     * @param board The board to measure. Its mines must already be placed.
+     * @return The measurements.
+     * @throws IllegalStateException If <code>board</code> was made without 
+     * its mines and nothing has been revealed or flagged on it yet.
+     */
+    public static BoardMetrics of(Board board) {
+        OpeningIndex index = board.getOpeningIndex();
+        int largest = 0;
+        for (int opening = 0; opening < index.getOpeningCount(); opening++) {
+            largest = Math.max(largest, 
+                    index.end(opening) - index.start(opening));
+        }
+        Position corner = board.getMaxCorner();
+        long area = ((long) corner.getX() + 1) * ((long) corner.getY() + 1);
+        return new BoardMetrics(index.getOpeningCount(), 
+                index.getIsolatedNumberCount(), largest, board.getMineCount(), 
+                area);
+    }
+    
+    private BoardMetrics(int openings, int isolated, int largest, int mines, 
+            long positions) {
+        this.openingCount = openings;
+        this.isolatedNumberCount = isolated;
+        this.largestOpeningSize = largest;
+        this.mineCount = mines;
+        this.area = positions;
+    }
+    
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+
+/**
+ * Keeps boards that are done with so that they can be played again instead 
+ * of making new ones. Each thread has a pool of its own, with a stack of idle 
+ * boards for each size of board, so taking and giving back boards needs no 
+ * locking. A board taken from the pool is started over with {@link 
+ * Board#reset(long)}, which clears its maps in place, so a simulation that 
+ * takes a board for each game and gives it back afterwards makes hardly any 
+ * garbage once each of its threads has had its first few games.
+ * <p>Boards given back to the pool lose their listeners. A board should not be 
+ * used after it has been given back, since the next game taken from the pool 
+ * on the same thread may be played on it.</p>
+ * @author Alonso del Arte
+ */
+public class BoardPool {
+    
+    /**
+     * How many idle boards of each size each thread keeps by default.
+     */
+    public static final int DEFAULT_CAPACITY = 4;
+    
+    private final int capacity;
+    
+    private final ThreadLocal<HashMap<Position, ArrayDeque<Board>>> pools 
+            = ThreadLocal.withInitial(HashMap::new);
+    
+    /**
+     * Takes a board from the calling thread's pool, or makes one if there is 
+     * no idle board of the requested size.
+     * @param numberOfMines How many mines the board should have. For example, 
+     * 99.
+     * @param maxPosition The bottom right corner position. For example, (15, 
+     * 29).
+     * @param seed The seed to place the mines from at the first reveal. For 
+     * example, 1729.
+     * @return A board just like one made by {@link Board#makeBoard(int, 
+     * Position, long)} with the same arguments, but quite possibly one that 
+     * has been played on before.
+     * @throws IllegalArgumentException If <code>numberOfMines</code> is 
+     * negative or more than the board can hold.
+     */
+    public Board acquire(int numberOfMines, Position maxPosition, long seed) {
+        ArrayDeque<Board> idle = this.pools.get().get(maxPosition);
+        if (idle == null || idle.isEmpty()) {
+            return Board.makeBoard(numberOfMines, maxPosition, seed);
+        }
+        GameCode code = new GameCode(maxPosition, numberOfMines, seed);
+        Board board = idle.pop();
+        board.reset(code);
+        return board;
+    }
+    
+    /**
+     * Gives a board back to the calling thread's pool. If the pool already 
+     * has as many idle boards of that size as it can keep, or already has this 
+     * very board, the board is let go instead.
+     * @param board The board to give back. It need not have come from this 
+     * pool, nor have been taken on the same thread.
+     */
+    public void release(Board board) {
+        ArrayDeque<Board> idle = this.pools.get().computeIfAbsent(
+                board.getMaxCorner(), corner -> new ArrayDeque<>());
+        if (idle.size() < this.capacity && !idle.contains(board)) {
+            board.removeAllStatusChangeListeners();
+            idle.push(board);
+        }
+    }
+    
+    /**
+     * Tells how many idle boards of a given size the calling thread's pool 
+     * has.
+     * @param maxPosition The bottom right corner position. For example, (8, 
+     * 8).
+     * @return The number of idle boards, from 0 to the capacity.
+     */
+    public int getIdleCount(Position maxPosition) {
+        ArrayDeque<Board> idle = this.pools.get().get(maxPosition);
+        return idle == null ? 0 : idle.size();
+    }
+    
+    /**
+     * Tells how many idle boards of each size each thread keeps.
+     * @return The capacity. For example, 4.
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+    
+    /**
+     * Constructor for a pool that keeps up to {@link #DEFAULT_CAPACITY} idle 
+     * boards of each size on each thread.
+     */
+    public BoardPool() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * Constructor.
+     * @param capacity How many idle boards of each size each thread keeps. 
+     * For example, 4.
+     * @throws IllegalArgumentException If <code>capacity</code> is less than 1.
+     */
+    public BoardPool(int capacity) {
+        if (capacity < 1) {
+            String excMsg = "Capacity " + capacity 
+                    + " is not valid, should be at least 1";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.capacity = capacity;
+    }
+    
+}
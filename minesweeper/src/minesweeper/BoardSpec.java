@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper;
+
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * Describes the kind of board a game calls for: its size, its number of mines 
+ * and any constraints on where the mines may go. Two specifications that are 
+ * equal describe interchangeable boards, so a {@link BoardBank} can make 
+ * boards to a specification ahead of time and hand them out later.
+ * @author Alonso del Arte
+ */
+public final class BoardSpec {
+    
+    private final Position maxCorner;
+    
+    private final int mineCount;
+    
+    private final Optional<Position> noGuessFirstClick;
+    
+    /**
+     * Gives the bottom right corner of boards to this specification.
+     * @return The corner. For example, (15, 29).
+     */
+    public Position getMaxCorner() {
+        return this.maxCorner;
+    }
+    
+    /**
+     * Gives the number of mines on boards to this specification.
+     * @return The number of mines. For example, 99.
+     */
+    public int getMineCount() {
+        return this.mineCount;
+    }
+    
+    /**
+     * Tells whether boards to this specification have to be solvable without 
+     * guessing, and if so, from which first click.
+     * @return The first click, or an empty <code>Optional</code> if guessing 
+     * may be needed. For example, (7, 14).
+     */
+    public Optional<Position> getNoGuessFirstClick() {
+        return this.noGuessFirstClick;
+    }
+    
+    /**
+     * Makes a new board to this specification. Unless it has to be solvable 
+     * without guessing, the board is made from a seed drawn from the given 
+     * generator, so it has a {@link GameCode}.
+     * @param random The pseudorandom number generator to draw the seed from. 
+     * For example, a <code>java.util.Random</code> seeded with 1729.
+     * @return A new board, with none of its positions revealed yet.
+     * @throws IllegalStateException If the board has to be solvable without 
+     * guessing and no such board turned up, see {@link 
+     * Board#makeNoGuessBoard(int, Position, Position, Random)}.
+     */
+    public Board makeBoard(Random random) {
+        if (this.noGuessFirstClick.isPresent()) {
+            return Board.makeNoGuessBoard(this.mineCount, this.maxCorner, 
+                    this.noGuessFirstClick.get(), random);
+        }
+        return Board.makeBoard(this.mineCount, this.maxCorner, 
+                random.nextLong());
+    }
+    
+    @Override
+    public String toString() {
+        String s = (this.maxCorner.getX() + 1) + " by " 
+                + (this.maxCorner.getY() + 1) + " with " + this.mineCount 
+                + " mines";
+        if (this.noGuessFirstClick.isPresent()) {
+            s = s + ", no guessing from " 
+                    + this.noGuessFirstClick.get().toString();
+        }
+        return s;
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (!this.getClass().equals(obj.getClass())) {
+            return false;
+        }
+        final BoardSpec other = (BoardSpec) obj;
+        return this.mineCount == other.mineCount 
+                && this.maxCorner.equals(other.maxCorner) 
+                && this.noGuessFirstClick.equals(other.noGuessFirstClick);
+    }
+    
+    @Override
+    public int hashCode() {
+        int hash = 31 * this.maxCorner.hashCode() + this.mineCount;
+        return 31 * hash + this.noGuessFirstClick.hashCode();
+    }
+    
+    private BoardSpec(Position corner, int mines, 
+            Optional<Position> firstClick) {
+        long capacity = ((long) corner.getX() + 1) * ((long) corner.getY() + 1);
+        if (firstClick.isPresent()) {
+            capacity--;
+        }
+        if (mines < 0 || mines > capacity) {
+            String excMsg = "Number of mines " + mines 
+                    + " is not valid, should be at least 0 and at most " 
+                    + capacity;
+            throw new IllegalArgumentException(excMsg);
+        }
+        if (firstClick.isPresent() && !firstClick.get().isWithinBounds(corner)) {
+            String excMsg = "First click " + firstClick.get().toString() 
+                    + " is beyond maximum corner " + corner.toString();
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.maxCorner = corner;
+        this.mineCount = mines;
+        this.noGuessFirstClick = firstClick;
+    }
+    
+    /**
+     * Constructor for boards that may need guessing.
+     * @param corner The bottom right corner. For example, (15, 29).
+     * @param mines How many mines. For example, 99.
+     * @throws IllegalArgumentException If <code>mines</code> is negative or 
+     * more than the board can hold.
+     */
+    public BoardSpec(Position corner, int mines) {
+        this(corner, mines, Optional.empty());
+    }
+    
+    /**
+     * Constructor for boards that can be solved without guessing from a given 
+     * first click.
+     * @param corner The bottom right corner. For example, (15, 29).
+     * @param mines How many mines. For example, 99.
+     * @param firstClick The position the player will reveal first. For 
+     * example, (7, 14).
+     * @throws IllegalArgumentException If <code>mines</code> is negative or 
+     * more than the board can hold with the first click clear, or if 
+     * <code>firstClick</code> is not on the board.
+     */
+    public BoardSpec(Position corner, int mines, Position firstClick) {
+        this(corner, mines, Optional.of(firstClick));
+    }
+    
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper;
+
+/**
+ * The difficulty levels, corresponding to the "-easy", "-medium" and "-hard" 
+ * command line options. Each level is a proportion of mines to positions, so 
+ * that boards of any size can be made at any level. The proportions are such 
+ * that a 10 &times; 26 board gets 10 mines on easy, 26 on medium and 52 on 
+ * hard.
+ * @author Alonso del Arte
+ */
+public enum Difficulty {
+    
+    /**
+     * One mine for every 26 positions.
+     */
+    EASY ("-easy", 26),
+    
+    /**
+     * One mine for every 10 positions.
+     */
+    MEDIUM ("-medium", 10),
+    
+    /**
+     * One mine for every 5 positions.
+     */
+    HARD ("-hard", 5);
+    
+    private final String option;
+    
+    private final int positionsPerMine;
+    
+    /**
+     * Gives the command line option for this level.
+     * @return The option. For example, "-easy" for {@link #EASY}.
+     */
+    public String getOption() {
+        return this.option;
+    }
+    
+    /**
+     * Determines how many mines a board of a given size should have at this 
+     * level.
+     * @param corner The bottom right corner of the board. For example, (9, 
+     * 25).
+     * @return The number of mines. For example, 26 for {@link #MEDIUM} on a 10 
+     * &times; 26 board.
+     */
+    public int mineCount(Position corner) {
+        long area = ((long) corner.getX() + 1) * ((long) corner.getY() + 1);
+        return (int) Math.min(area / this.positionsPerMine, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Determines the level for a command line option.
+     * @param option The option, case insensitive. For example, "-Hard".
+     * @return The corresponding level, or {@link #MEDIUM} if the option is not 
+     * recognized. For example, {@link #HARD}.
+     */
+    public static Difficulty fromOption(String option) {
+        for (Difficulty level : values()) {
+            if (level.option.equalsIgnoreCase(option)) {
+                return level;
+            }
+        }
+        return MEDIUM;
+    }
+    
+    private Difficulty(String opt, int proportion) {
+        this.option = opt;
+        this.positionsPerMine = proportion;
+    }
+    
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Keeps track of a board's frontier as the game goes on, so that solvers don't 
+ * have to scan the whole board to find it. The frontier is made up of the 
+ * covered positions next to at least one revealed number, and the revealed 
+ * numbers with at least one covered neighbor, called active numbers. For each 
+ * position, the index also keeps how many of its neighbors are covered, how 
+ * many are flagged and how many are revealed numbers.
+ * <p>The board tells the index about every change of status, and the index 
+ * then updates the counts of the changed position's neighbors and rechecks 
+ * whether the changed position and its neighbors belong in the frontier. That 
+ * is a constant amount of work per changed position, so that a cascade costs 
+ * time proportional to the number of positions it uncovers. The frontier sets 
+ * are linked hash sets, so they iterate in the order positions joined them, in 
+ * time proportional to their size.</p>
+ * <p>The arrays of counts are only allocated at the first change of status. 
+ * Until then, the counts follow from the dimensions alone, so that making a 
+ * board costs the same no matter how large it is.</p>
+ * @author Alonso del Arte
+ */
+final class FrontierIndex {
+    
+    private static final byte COVERED 
+            = (byte) PositionStatus.COVERED.ordinal();
+    
+    private static final byte FLAGGED 
+            = (byte) PositionStatus.FLAGGED.ordinal();
+    
+    private static final int HIGHEST_NUMBER 
+            = PositionStatus.REVEALED_EMPTY_NEAR_8.ordinal();
+    
+    private final int rows;
+    
+    private final int columns;
+    
+    private byte[] ordinals = null;
+    
+    private byte[] coveredNeighbors = null;
+    
+    private byte[] flaggedNeighbors = null;
+    
+    private byte[] numberNeighbors = null;
+    
+    private final LinkedHashSet<Position> frontier = new LinkedHashSet<>();
+    
+    private final LinkedHashSet<Position> activeNumbers 
+            = new LinkedHashSet<>();
+    
+    private final Set<Position> frontierView 
+            = Collections.unmodifiableSet(this.frontier);
+    
+    private final Set<Position> activeNumbersView 
+            = Collections.unmodifiableSet(this.activeNumbers);
+    
+    private int coveredCount;
+    
+    private int flaggedCount = 0;
+    
+    private static boolean isNumber(int ordinal) {
+        return ordinal > 0 && ordinal <= HIGHEST_NUMBER;
+    }
+    
+    private int indexOf(Position position) {
+        return position.getX() * this.columns + position.getY();
+    }
+    
+    /**
+     * Counts the neighbors a position has on the board, from 3 in a corner to 
+     * 8 in the interior.
+     */
+    private int neighborCount(int x, int y) {
+        int height = (x > 0 ? 1 : 0) + (x < this.rows - 1 ? 1 : 0) + 1;
+        int width = (y > 0 ? 1 : 0) + (y < this.columns - 1 ? 1 : 0) + 1;
+        return height * width - 1;
+    }
+    
+    private void allocate() {
+        int size = this.rows * this.columns;
+        this.ordinals = new byte[size];
+        this.coveredNeighbors = new byte[size];
+        this.flaggedNeighbors = new byte[size];
+        this.numberNeighbors = new byte[size];
+        this.fillCovered();
+    }
+    
+    private void fillCovered() {
+        Arrays.fill(this.ordinals, COVERED);
+        Arrays.fill(this.flaggedNeighbors, (byte) 0);
+        Arrays.fill(this.numberNeighbors, (byte) 0);
+        for (int x = 0; x < this.rows; x++) {
+            for (int y = 0; y < this.columns; y++) {
+                this.coveredNeighbors[x * this.columns + y] 
+                        = (byte) this.neighborCount(x, y);
+            }
+        }
+    }
+    
+    private void recheck(int x, int y) {
+        int index = x * this.columns + y;
+        int ordinal = this.ordinals[index];
+        Position position = new Position(x, y);
+        if (ordinal == COVERED && this.numberNeighbors[index] > 0) {
+            this.frontier.add(position);
+        } else {
+            this.frontier.remove(position);
+        }
+        if (isNumber(ordinal) && this.coveredNeighbors[index] > 0) {
+            this.activeNumbers.add(position);
+        } else {
+            this.activeNumbers.remove(position);
+        }
+    }
+    
+    /**
+     * Takes a change of status into account.
+     * @param position The position that changed. For example, (4, 7).
+     * @param previous The status it had. For example, covered.
+     * @param current The status it has now. For example, revealed empty but 
+     * neighboring two mines.
+     */
+    void update(Position position, PositionStatus previous, 
+            PositionStatus current) {
+        int before = previous.ordinal();
+        int after = current.ordinal();
+        int coveredChange = (after == COVERED ? 1 : 0) 
+                - (before == COVERED ? 1 : 0);
+        int flaggedChange = (after == FLAGGED ? 1 : 0) 
+                - (before == FLAGGED ? 1 : 0);
+        int numberChange = (isNumber(after) ? 1 : 0) 
+                - (isNumber(before) ? 1 : 0);
+        if (this.ordinals == null) {
+            this.allocate();
+        }
+        this.ordinals[this.indexOf(position)] = (byte) after;
+        this.coveredCount += coveredChange;
+        this.flaggedCount += flaggedChange;
+        int x = position.getX();
+        int y = position.getY();
+        int minX = Math.max(0, x - 1);
+        int maxX = Math.min(this.rows - 1, x + 1);
+        int minY = Math.max(0, y - 1);
+        int maxY = Math.min(this.columns - 1, y + 1);
+        for (int i = minX; i <= maxX; i++) {
+            for (int j = minY; j <= maxY; j++) {
+                if (i != x || j != y) {
+                    int index = i * this.columns + j;
+                    this.coveredNeighbors[index] += coveredChange;
+                    this.flaggedNeighbors[index] += flaggedChange;
+                    this.numberNeighbors[index] += numberChange;
+                }
+                this.recheck(i, j);
+            }
+        }
+    }
+    
+    /**
+     * Goes back to every position being covered, as when the board was new. 
+     * The arrays of counts, if already allocated, are refilled rather than 
+     * allocated again.
+     */
+    void clear() {
+        if (this.ordinals != null) {
+            this.fillCovered();
+        }
+        this.frontier.clear();
+        this.activeNumbers.clear();
+        this.coveredCount = this.rows * this.columns;
+        this.flaggedCount = 0;
+    }
+    
+    /**
+     * Gives the covered positions next to at least one revealed number.
+     * @return An unmodifiable view. It reflects later moves, so an iterator 
+     * over it should not be kept across moves.
+     */
+    Set<Position> getFrontier() {
+        return this.frontierView;
+    }
+    
+    /**
+     * Gives the revealed numbers with at least one covered neighbor.
+     * @return An unmodifiable view. It reflects later moves, so an iterator 
+     * over it should not be kept across moves.
+     */
+    Set<Position> getActiveNumbers() {
+        return this.activeNumbersView;
+    }
+    
+    /**
+     * Tells how many positions are covered, not counting flagged positions.
+     * @return The number of covered positions.
+     */
+    int getCoveredCount() {
+        return this.coveredCount;
+    }
+    
+    /**
+     * Tells how many positions are flagged.
+     * @return The number of flagged positions.
+     */
+    int getFlaggedCount() {
+        return this.flaggedCount;
+    }
+    
+    /**
+     * Tells how many neighbors of a position are covered, not counting flagged 
+     * neighbors.
+     * @param position The position. For example, (4, 7).
+     * @return The number of covered neighbors, from 0 to 8.
+     */
+    int coveredNeighborCount(Position position) {
+        if (this.coveredNeighbors == null) {
+            return this.neighborCount(position.getX(), position.getY());
+        }
+        return this.coveredNeighbors[this.indexOf(position)];
+    }
+    
+    /**
+     * Tells how many neighbors of a position are flagged.
+     * @param position The position. For example, (4, 7).
+     * @return The number of flagged neighbors, from 0 to 8.
+     */
+    int flaggedNeighborCount(Position position) {
+        if (this.flaggedNeighbors == null) {
+            return 0;
+        }
+        return this.flaggedNeighbors[this.indexOf(position)];
+    }
+    
+    /**
+     * Constructor for a board on which every position is covered.
+     * @param corner The bottom right corner of the board. For example, (9, 
+     * 25).
+     */
+    FrontierIndex(Position corner) {
+        this.rows = corner.getX() + 1;
+        this.columns = corner.getY() + 1;
+        this.coveredCount = this.rows * this.columns;
+    }
+    
+}
@@ -0,0 +1,260 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper;
+
+import java.util.Optional;
+
+/**
+ * A short code from which a game can be made again: the dimensions of the 
+ * board, its number of mines, the seed its mines are placed from and, once 
+ * the mines have been placed, the first move. The code is written as the 
+ * number of rows, the number of columns and the number of mines in decimal 
+ * and the seed in base 36, separated by hyphens. For example, "16-30-99-1C1". 
+ * The first move follows as its row and column, counting from 0, and an "F" 
+ * if it was a flag rather than a reveal. For example, "16-30-99-1C1-8-15". 
+ * Players can pass codes around to play the same board, and a game that went 
+ * wrong can be made again to find out why.
+ * <p>The mines are placed at the first move, away from the position revealed 
+ * if that move is a reveal, so the layout depends on the first move as well 
+ * as on the seed. A board made from a code without a first move places its 
+ * mines at its own first move. A board made from a code with a first move 
+ * has that move made on it right away, so its mines are the same as those 
+ * of the board the code came from. Placing the mines takes time proportional 
+ * to the number of mines.</p>
+ * @author Alonso del Arte
+ */
+public final class GameCode {
+    
+    private static final int SEED_RADIX = 36;
+    
+    private final Position maxCorner;
+    
+    private final int mineCount;
+    
+    private final long seed;
+    
+    private final Position firstMove;
+    
+    private final boolean firstMoveFlagged;
+    
+    /**
+     * Gives the bottom right corner of the board.
+     * @return The corner. For example, (15, 29).
+     */
+    public Position getMaxCorner() {
+        return this.maxCorner;
+    }
+    
+    /**
+     * Gives the number of mines on the board.
+     * @return The number of mines. For example, 99.
+     */
+    public int getMineCount() {
+        return this.mineCount;
+    }
+    
+    /**
+     * Gives the seed the mines are placed from.
+     * @return The seed. For example, 1729.
+     */
+    public long getSeed() {
+        return this.seed;
+    }
+    
+    /**
+     * Gives the first move, if the mines have been placed.
+     * @return The position of the first move, or an empty 
+     * <code>Optional</code> if the code was taken before the first move. For 
+     * example, (8, 15).
+     */
+    public Optional<Position> getFirstMove() {
+        return Optional.ofNullable(this.firstMove);
+    }
+    
+    /**
+     * Tells whether the first move was a flag rather than a reveal.
+     * @return True if the first move flagged a position, false if it revealed 
+     * one or if there hasn't been a first move.
+     */
+    public boolean isFirstMoveFlagged() {
+        return this.firstMoveFlagged;
+    }
+    
+    /**
+     * Gives this code with a first move added.
+     * @param position The position of the first move. For example, (8, 15).
+     * @param flagged Whether the first move flagged <code>position</code> 
+     * rather than revealing it.
+     * @return A new code, with the same board and seed as this one.
+     */
+    GameCode withFirstMove(Position position, boolean flagged) {
+        return new GameCode(this, position, flagged);
+    }
+    
+    /**
+     * Makes a new board from this code.
+     * @return A new board. If this code has a first move, the move has been 
+     * made on the board. Otherwise the mines are placed at the first move.
+     */
+    public Board makeBoard() {
+        return new Board(this);
+    }
+    
+    /**
+     * Gives the code as text.
+     * @return The code. For example, "16-30-99-1C1".
+     */
+    @Override
+    public String toString() {
+        String code = (this.maxCorner.getX() + 1) + "-" 
+                + (this.maxCorner.getY() + 1) + "-" + this.mineCount + "-" 
+                + Long.toUnsignedString(this.seed, SEED_RADIX).toUpperCase();
+        if (this.firstMove != null) {
+            code = code + "-" + this.firstMove.getX() + "-" 
+                    + this.firstMove.getY();
+            if (this.firstMoveFlagged) {
+                code = code + "-F";
+            }
+        }
+        return code;
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null) {
+            return false;
+        }
+        if (!this.getClass().equals(obj.getClass())) {
+            return false;
+        }
+        final GameCode other = (GameCode) obj;
+        if (this.seed != other.seed || this.mineCount != other.mineCount 
+                || this.firstMoveFlagged != other.firstMoveFlagged 
+                || !this.maxCorner.equals(other.maxCorner)) {
+            return false;
+        }
+        if (this.firstMove == null) {
+            return other.firstMove == null;
+        }
+        return this.firstMove.equals(other.firstMove);
+    }
+    
+    @Override
+    public int hashCode() {
+        int hash = 31 * this.maxCorner.hashCode() + this.mineCount;
+        hash = 31 * hash + Long.hashCode(this.seed);
+        if (this.firstMove != null) {
+            hash = 31 * hash + this.firstMove.hashCode();
+        }
+        return 31 * hash + (this.firstMoveFlagged ? 1 : 0);
+    }
+    
+    /**
+     * Reads a code from text.
+     * @param code The text, as given by {@link #toString()}. Letters may be 
+     * in either case, and spaces around the text are ignored. For example, 
+     * "16-30-99-1c1-8-15".
+     * @return The code. For example, the code for a board of 16 rows and 30 
+     * columns with 99 mines placed from the seed 1729 when (8, 15) was 
+     * revealed.
+     * @throws IllegalArgumentException If the text is not a valid code.
+     */
+    public static GameCode parse(String code) {
+        String[] parts = code.trim().split("-", -1);
+        if (parts.length != 4 && parts.length != 6 && parts.length != 7) {
+            String excMsg = "Game code \"" + code 
+                    + "\" should have four, six or seven parts separated by " 
+                    + "hyphens";
+            throw new IllegalArgumentException(excMsg);
+        }
+        if (parts.length == 7 && !parts[6].equalsIgnoreCase("F")) {
+            String excMsg = "Game code \"" + code 
+                    + "\" should end in \"F\" if it has seven parts";
+            throw new IllegalArgumentException(excMsg);
+        }
+        try {
+            int rows = Integer.parseInt(parts[0]);
+            int columns = Integer.parseInt(parts[1]);
+            int mines = Integer.parseInt(parts[2]);
+            long seed = Long.parseUnsignedLong(parts[3], SEED_RADIX);
+            if (rows < 1 || columns < 1) {
+                String excMsg = "Game code \"" + code 
+                        + "\" should have at least one row and one column";
+                throw new IllegalArgumentException(excMsg);
+            }
+            GameCode gameCode = new GameCode(new Position(rows - 1, 
+                    columns - 1), mines, seed);
+            if (parts.length == 4) {
+                return gameCode;
+            }
+            Position position = new Position(Integer.parseInt(parts[4]), 
+                    Integer.parseInt(parts[5]));
+            if (position.getX() < 0 || position.getY() < 0 
+                    || !position.isWithinBounds(gameCode.maxCorner)) {
+                String excMsg = "Game code \"" + code 
+                        + "\" has first move off the board";
+                throw new IllegalArgumentException(excMsg);
+            }
+            return gameCode.withFirstMove(position, parts.length == 7);
+        } catch (NumberFormatException nfe) {
+            String excMsg = "Game code \"" + code + "\" is not valid";
+            throw new IllegalArgumentException(excMsg, nfe);
+        }
+    }
+    
+    /**
+     * Constructor.
+     * @param corner The bottom right corner of the board. For example, (15, 
+     * 29).
+     * @param mines How many mines the board has. For example, 99.
+     * @param seed The seed to place the mines from. For example, 1729.
+     * @throws IllegalArgumentException If <code>mines</code> is negative or 
+     * more than the board can hold.
+     */
+    public GameCode(Position corner, int mines, long seed) {
+        long capacity = ((long) corner.getX() + 1) * ((long) corner.getY() + 1);
+        if (mines < 0 || mines > capacity) {
+            String excMsg = "Number of mines " + mines 
+                    + " is not valid, should be at least 0 and at most " 
+                    + capacity;
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.maxCorner = corner;
+        this.mineCount = mines;
+        this.seed = seed;
+        this.firstMove = null;
+        this.firstMoveFlagged = false;
+    }
+    
+    /**
+     * Constructor for a code with a first move.
+     * @param code The code taken before the first move.
+     * @param position The position of the first move.
+     * @param flagged Whether the first move was a flag.
+     */
+    private GameCode(GameCode code, Position position, boolean flagged) {
+        this.maxCorner = code.maxCorner;
+        this.mineCount = code.mineCount;
+        this.seed = code.seed;
+        this.firstMove = position;
+        this.firstMoveFlagged = flagged;
+    }
+    
+}
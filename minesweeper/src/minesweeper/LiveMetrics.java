@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper;
+
+/**
+ * Keeps track of how efficiently a game is being played. The 3BV solved so 
+ * far counts each opening once some position in it has been uncovered, and 
+ * each isolated number once it has been uncovered (see {@link BoardMetrics} 
+ * for what those are). From that, the number of clicks and the time since 
+ * the first click, this gives the 3BV per second and the click efficiency. 
+ * For example, a game of 3BV 130 won in 54 seconds with 150 clicks comes to 
+ * about 2.41 3BV per second at an efficiency of about 87%.
+ * <p>The board tells this of every change in status, but clicks that don't 
+ * change anything, like revealing a number whose neighbors are all clear, 
+ * still count, so the user interface should call {@link #recordClick()} 
+ * after every click the board accepts, flags included. A move the board 
+ * turns down should not be recorded.</p>
+ * @author Alonso del Arte
+ */
+public final class LiveMetrics implements StatusChangeListener {
+    
+    private final Board board;
+    
+    private OpeningIndex openingIndex = null;
+    
+    private boolean[] openingSolved;
+    
+    private volatile int solvedThreeBV = 0;
+    
+    private volatile int clickCount = 0;
+    
+    private volatile long startNanos = 0L;
+    
+    private volatile long endNanos = 0L;
+    
+    @Override
+    public void statusChanged(Position position, PositionStatus previous, 
+            PositionStatus current) {
+        if (previous != PositionStatus.COVERED 
+                || current.ordinal() 
+                        > PositionStatus.REVEALED_EMPTY_NEAR_8.ordinal()) {
+            return;
+        }
+        if (this.openingIndex == null) {
+            this.openingIndex = this.board.getOpeningIndex();
+            this.openingSolved 
+                    = new boolean[this.openingIndex.getOpeningCount()];
+        }
+        if (current == PositionStatus.REVEALED_EMPTY) {
+            int opening = this.openingIndex.openingOf(position);
+            if (!this.openingSolved[opening]) {
+                this.openingSolved[opening] = true;
+                this.solvedThreeBV++;
+            }
+        } else if (this.openingIndex.isIsolatedNumber(position)) {
+            this.solvedThreeBV++;
+        }
+    }
+    
+    /**
+     * Records a click. The first click starts the clock, and the first click 
+     * after which the game is over stops it.
+     */
+    public void recordClick() {
+        long now = System.nanoTime();
+        if (this.clickCount == 0) {
+            this.startNanos = now;
+        }
+        this.clickCount++;
+        if (this.endNanos == 0L && !this.board.gameUnderway()) {
+            this.endNanos = now;
+        }
+    }
+    
+    /**
+     * Tells how many clicks have been recorded.
+     * @return The number of clicks. For example, 150.
+     */
+    public int getClickCount() {
+        return this.clickCount;
+    }
+    
+    /**
+     * Gives how much of the board's 3BV has been solved so far.
+     * @return The 3BV solved. For example, 130 once a game of 3BV 130 has 
+     * been won.
+     */
+    public int getSolvedThreeBV() {
+        return this.solvedThreeBV;
+    }
+    
+    /**
+     * Tells how long the game has been going on, or how long it took if it's 
+     * over.
+     * @return The time from the first click in nanoseconds, or 0 if there 
+     * hasn't been a click yet. For example, 54000000000.
+     */
+    public long getElapsedNanos() {
+        if (this.clickCount == 0) {
+            return 0L;
+        }
+        long end = this.endNanos == 0L ? System.nanoTime() : this.endNanos;
+        return end - this.startNanos;
+    }
+    
+    /**
+     * Gives the 3BV solved per second of play.
+     * @return The 3BV per second, or 0.0 if no time has gone by. For example, 
+     * 2.41.
+     */
+    public double getThreeBVPerSecond() {
+        long nanos = this.getElapsedNanos();
+        return nanos == 0L ? 0.0 : this.solvedThreeBV * 1.0E9 / nanos;
+    }
+    
+    /**
+     * Gives the click efficiency, the 3BV solved per click. Flags and clicks 
+     * on numbers next to openings bring it down from 1.0.
+     * @return The efficiency, or 0.0 if there hasn't been a click yet. For 
+     * example, 0.87.
+     */
+    public double getEfficiency() {
+        int clicks = this.clickCount;
+        return clicks == 0 ? 0.0 : (double) this.solvedThreeBV / clicks;
+    }
+    
+    /**
+     * Constructor. This starts listening to the board right away, so it 
+     * should be made before the first move.
+     * @param gameBoard The board of the game to keep track of. For example, a 
+     * board just made with {@link Board#makeBoard(int, Position)}.
+     */
+    public LiveMetrics(Board gameBoard) {
+        this.board = gameBoard;
+        gameBoard.addStatusChangeListener(this);
+    }
+    
+}
@@ -16,10 +16,13 @@
  */
 package minesweeper;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
- * WORK IN PROGRESS: This will at first route the player to play the game on the 
- * command line. Once the graphical version is ready, the command line version 
- * will still be accessible with a command line option.
+ * WORK IN PROGRESS: Routes the player to play the game on the command line by 
+ * default, or in a Swing window with the "-graphical" command line option. The 
+ * command line version can also be asked for explicitly with "-text".
  * @author Alonso del Arte
  */
 public class MineSweeper {
@@ -42,6 +45,8 @@ public class MineSweeper {
     
     private static String difficultyLevel = "-medium";
     
+    private static String gameCode = null;
+    
     private static void processCommandLineArgs(String[] args) {
         boolean nextNumberIsWidth = true;
         for (String arg : args) {
@@ -59,6 +64,11 @@ public class MineSweeper {
                 case "-hard":
                     difficultyLevel = "-hard";
                     break;
+                case "-g":
+                case "-graphical":
+                case "-gui":
+                    textGameFlag = false;
+                    break;
                 case "-h":
                 case "-height":
                     nextNumberIsWidth = false;
@@ -78,6 +88,11 @@ public class MineSweeper {
                     nextNumberIsWidth = true;
                     break;
                 default:
+                    if (arg.toLowerCase().startsWith("code=")) {
+                        gameCode = arg;
+                        textGameFlag = false;
+                        break;
+                    }
                     try {
                         int number = Integer.parseInt(arg);
                         if (nextNumberIsWidth) {
@@ -94,26 +109,82 @@ public class MineSweeper {
         }
     }
 
+    private static boolean simulationRequested(String[] args) {
+        for (String arg : args) {
+            switch (arg.toLowerCase()) {
+                case "-sim":
+                case "-simulate":
+                case "-simulation":
+                    return true;
+                default:
+                    break;
+            }
+        }
+        return false;
+    }
+
+    private static boolean exportRequested(String[] args) {
+        for (String arg : args) {
+            if (arg.equalsIgnoreCase("-export")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
-     * Entry point for the program.
-     * @param args The command line arguments
+     * Turns the command line arguments into the arguments for the text or 
+     * graphical game. An argument like "code=16-30-99-1C1" is passed on as 
+     * is, and since only the graphical game can replay a game from its code, 
+     * it selects the graphical game unless "-text" comes after it. A width 
+     * or height that isn't given is left out, so that each game falls back 
+     * on its own default: 10 &times; 26 for the text game, {@link 
+     * #DEFAULT_BOARD_HEIGHT} &times; {@link #DEFAULT_BOARD_WIDTH} for the 
+     * graphical game.
+     * @param args The command line arguments. For example, "-w", "16", "-h", 
+     * "30", "-hard".
+     * @return The arguments for the game. For example, "width = 16", "height 
+     * = 30", "-hard".
      */
-    public static void main(String[] args) {
+    static String[] makeGameArgs(String[] args) {
         processCommandLineArgs(args);
-        if (specifiedBoardWidth < 1) {
-            specifiedBoardWidth = DEFAULT_BOARD_WIDTH;
+        List<String> parsedArgs = new ArrayList<>();
+        if (specifiedBoardWidth > 0) {
+            parsedArgs.add("width = " + specifiedBoardWidth);
         }
-        if (specifiedBoardHeight < 1) {
-            specifiedBoardHeight = DEFAULT_BOARD_HEIGHT;
+        if (specifiedBoardHeight > 0) {
+            parsedArgs.add("height = " + specifiedBoardHeight);
         }
-        String[] parsedArgs = new String[3];
-        parsedArgs[0] = "width = " + specifiedBoardWidth;
-        parsedArgs[1] = "height = " + specifiedBoardHeight;
-        parsedArgs[2] = difficultyLevel;
+        parsedArgs.add(difficultyLevel);
         if (textGameFlag) {
             if (useANSIColors) {
-                parsedArgs[0] = "-colors";
+                parsedArgs.add("-colors");
             }
+        } else if (gameCode != null) {
+            parsedArgs.add(gameCode);
+        }
+        return parsedArgs.toArray(new String[0]);
+    }
+
+    /**
+     * Entry point for the program. With the "-simulate" option, plays games 
+     * without a user interface instead, see {@link 
+     * minesweeper.simulation.Simulator#main(String[])}. With the "-export" 
+     * option, writes features of many boards to a file, see {@link 
+     * minesweeper.simulation.DatasetExporter#main(String[])}.
+     * @param args The command line arguments
+     */
+    public static void main(String[] args) {
+        if (simulationRequested(args)) {
+            minesweeper.simulation.Simulator.main(args);
+            return;
+        }
+        if (exportRequested(args)) {
+            minesweeper.simulation.DatasetExporter.main(args);
+            return;
+        }
+        String[] parsedArgs = makeGameArgs(args);
+        if (textGameFlag) {
             ui.text.Game.main(parsedArgs);
         } else {
             ui.graphical.Game.main(parsedArgs);
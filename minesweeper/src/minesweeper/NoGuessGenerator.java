@@ -0,0 +1,659 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generates boards that can be solved from a given first click without ever 
+ * having to guess. Each attempt places the mines pseudorandomly, keeping the 
+ * first click and, room permitting, its neighbors free of mines, and then 
+ * plays the board out with a fast deterministic solver. The solver only 
+ * reveals positions it has proven safe, using each number by itself, then 
+ * overlapping pairs of numbers, then the count of mines left. An attempt is 
+ * accepted if the solver uncovers every position without a mine.
+ * <p>Attempts are numbered, and attempt <i>n</i> places its mines with a 
+ * generator seeded from the board seed and <i>n</i>. Several workers take 
+ * attempt numbers from a shared counter and check their candidates 
+ * speculatively at the same time. As soon as one of them succeeds, the others 
+ * give up on any attempt with a higher number, even in the middle of solving 
+ * it. The board given is the one from the lowest numbered successful attempt, 
+ * so the same seed gives the same board no matter how many threads the pool 
+ * has.</p>
+ * @author Alonso del Arte
+ */
+public final class NoGuessGenerator {
+    
+    /**
+     * How many attempts {@link #generate(int, Position, Position, long)} makes 
+     * by default before giving up.
+     */
+    public static final int DEFAULT_ATTEMPT_LIMIT = 1 << 18;
+    
+    private static final byte UNKNOWN = 0;
+    
+    private static final byte REVEALED = 1;
+    
+    private static final byte MINED = 2;
+    
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    
+    private final ForkJoinPool pool;
+    
+    private final int attemptLimit;
+    
+    private final LongAdder attemptCount = new LongAdder();
+    
+    private final LongAdder boardCount = new LongAdder();
+    
+    private static long mix(long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    static long attemptSeed(long seed, long attempt) {
+        return mix(seed + (attempt + 1) * GOLDEN_GAMMA);
+    }
+    
+    /**
+     * The layout of a board, with the neighbors of every position worked out 
+     * ahead of time. Positions are numbered row by row.
+     */
+    private static final class Layout {
+        
+        final int rows;
+        
+        final int columns;
+        
+        final int size;
+        
+        final int mineCount;
+        
+        final int[][] neighbors;
+        
+        final int[] allowed;
+        
+        Layout(Position corner, int mines, Position firstClick) {
+            this.rows = corner.getX() + 1;
+            this.columns = corner.getY() + 1;
+            this.size = this.rows * this.columns;
+            this.mineCount = mines;
+            this.neighbors = new int[this.size][];
+            int[] scratch = new int[8];
+            for (int cell = 0; cell < this.size; cell++) {
+                int x = cell / this.columns;
+                int y = cell % this.columns;
+                int count = 0;
+                for (int i = Math.max(0, x - 1); 
+                        i <= Math.min(this.rows - 1, x + 1); i++) {
+                    for (int j = Math.max(0, y - 1); 
+                            j <= Math.min(this.columns - 1, y + 1); j++) {
+                        if (i != x || j != y) {
+                            scratch[count++] = i * this.columns + j;
+                        }
+                    }
+                }
+                this.neighbors[cell] = Arrays.copyOf(scratch, count);
+            }
+            int click = this.indexOf(firstClick);
+            boolean[] excluded = new boolean[this.size];
+            excluded[click] = true;
+            if (mines <= this.size - 1 - this.neighbors[click].length) {
+                for (int neighbor : this.neighbors[click]) {
+                    excluded[neighbor] = true;
+                }
+            }
+            int count = 0;
+            int[] cells = new int[this.size];
+            for (int cell = 0; cell < this.size; cell++) {
+                if (!excluded[cell]) {
+                    cells[count++] = cell;
+                }
+            }
+            this.allowed = Arrays.copyOf(cells, count);
+        }
+        
+        int indexOf(Position position) {
+            return position.getX() * this.columns + position.getY();
+        }
+        
+        boolean adjacent(int a, int b) {
+            int dx = a / this.columns - b / this.columns;
+            int dy = a % this.columns - b % this.columns;
+            return dx >= -1 && dx <= 1 && dy >= -1 && dy <= 1;
+        }
+        
+    }
+    
+    /**
+     * One worker's reusable state for placing mines and solving the result.
+     */
+    private static final class Candidate {
+        
+        private final Layout layout;
+        
+        private final int firstClick;
+        
+        private final int[] pool;
+        
+        final boolean[] mined;
+        
+        private final byte[] numbers;
+        
+        private final byte[] states;
+        
+        private final boolean[] queued;
+        
+        private final int[] queue;
+        
+        private final int[] stack;
+        
+        private final BoardMetrics.Counter counter = new BoardMetrics.Counter();
+        
+        private int queueSize;
+        
+        private int revealedCount;
+        
+        private int flaggedCount;
+        
+        /**
+         * Places the mines for a given attempt.
+         */
+        void place(long seed) {
+            SplittableRandom random = new SplittableRandom(seed);
+            System.arraycopy(this.layout.allowed, 0, this.pool, 0, 
+                    this.pool.length);
+            Arrays.fill(this.mined, false);
+            Arrays.fill(this.numbers, (byte) 0);
+            for (int i = 0; i < this.layout.mineCount; i++) {
+                int j = i + random.nextInt(this.pool.length - i);
+                int cell = this.pool[j];
+                this.pool[j] = this.pool[i];
+                this.pool[i] = cell;
+                this.mined[cell] = true;
+                for (int neighbor : this.layout.neighbors[cell]) {
+                    this.numbers[neighbor]++;
+                }
+            }
+        }
+        
+        /**
+         * Tells whether the 3BV of the mines just placed is in a given range, 
+         * giving up on counting as soon as it's sure to be too high.
+         */
+        boolean threeBVWithin(int min, int max) {
+            int threeBV = this.counter.count(this.layout.rows, 
+                    this.layout.columns, this.mined, this.numbers, max);
+            return threeBV >= min && threeBV <= max;
+        }
+        
+        private void enqueue(int cell) {
+            if (this.states[cell] == REVEALED && this.numbers[cell] > 0 
+                    && !this.queued[cell]) {
+                this.queued[cell] = true;
+                this.queue[this.queueSize++] = cell;
+            }
+        }
+        
+        private void changed(int cell) {
+            this.enqueue(cell);
+            for (int neighbor : this.layout.neighbors[cell]) {
+                this.enqueue(neighbor);
+            }
+        }
+        
+        private void reveal(int cell) {
+            if (this.states[cell] != UNKNOWN) {
+                return;
+            }
+            int top = 0;
+            this.stack[top++] = cell;
+            this.states[cell] = REVEALED;
+            while (top > 0) {
+                int curr = this.stack[--top];
+                this.revealedCount++;
+                this.changed(curr);
+                if (this.numbers[curr] == 0) {
+                    for (int neighbor : this.layout.neighbors[curr]) {
+                        if (this.states[neighbor] == UNKNOWN) {
+                            this.states[neighbor] = REVEALED;
+                            this.stack[top++] = neighbor;
+                        }
+                    }
+                }
+            }
+        }
+        
+        private void flag(int cell) {
+            if (this.states[cell] == UNKNOWN) {
+                this.states[cell] = MINED;
+                this.flaggedCount++;
+                this.changed(cell);
+            }
+        }
+        
+        private void applySinglePoints() {
+            while (this.queueSize > 0) {
+                int cell = this.queue[--this.queueSize];
+                this.queued[cell] = false;
+                int unknown = 0;
+                int remaining = this.numbers[cell];
+                for (int neighbor : this.layout.neighbors[cell]) {
+                    if (this.states[neighbor] == UNKNOWN) {
+                        unknown++;
+                    } else if (this.states[neighbor] == MINED) {
+                        remaining--;
+                    }
+                }
+                if (unknown > 0 && (remaining == 0 || remaining == unknown)) {
+                    for (int neighbor : this.layout.neighbors[cell]) {
+                        if (remaining == 0) {
+                            this.reveal(neighbor);
+                        } else {
+                            this.flag(neighbor);
+                        }
+                    }
+                }
+            }
+        }
+        
+        private int remaining(int cell) {
+            int count = this.numbers[cell];
+            for (int neighbor : this.layout.neighbors[cell]) {
+                if (this.states[neighbor] == MINED) {
+                    count--;
+                }
+            }
+            return count;
+        }
+        
+        private boolean isActive(int cell) {
+            if (this.states[cell] != REVEALED || this.numbers[cell] == 0) {
+                return false;
+            }
+            for (int neighbor : this.layout.neighbors[cell]) {
+                if (this.states[neighbor] == UNKNOWN) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        
+        /**
+         * Compares the unknown neighbors of two active numbers. If the second 
+         * number needs more mines than the first can share with it, and the 
+         * difference is exactly the second number's unknown positions not 
+         * next to the first, those are all mines and the first number's 
+         * unknown positions not next to the second are all safe.
+         */
+        private boolean applyPair(int a, int b) {
+            int onlyA = 0;
+            int onlyB = 0;
+            for (int neighbor : this.layout.neighbors[a]) {
+                if (this.states[neighbor] == UNKNOWN 
+                        && !this.layout.adjacent(neighbor, b)) {
+                    onlyA++;
+                }
+            }
+            for (int neighbor : this.layout.neighbors[b]) {
+                if (this.states[neighbor] == UNKNOWN 
+                        && !this.layout.adjacent(neighbor, a)) {
+                    onlyB++;
+                }
+            }
+            if (onlyA + onlyB == 0 
+                    || this.remaining(b) - this.remaining(a) != onlyB) {
+                return false;
+            }
+            for (int neighbor : this.layout.neighbors[b]) {
+                if (this.states[neighbor] == UNKNOWN 
+                        && !this.layout.adjacent(neighbor, a)) {
+                    this.flag(neighbor);
+                }
+            }
+            for (int neighbor : this.layout.neighbors[a]) {
+                if (this.states[neighbor] == UNKNOWN 
+                        && !this.layout.adjacent(neighbor, b)) {
+                    this.reveal(neighbor);
+                }
+            }
+            return true;
+        }
+        
+        private boolean applyPairs() {
+            int columns = this.layout.columns;
+            for (int a = 0; a < this.layout.size; a++) {
+                if (!this.isActive(a)) {
+                    continue;
+                }
+                int x = a / columns;
+                int y = a % columns;
+                for (int i = Math.max(0, x - 2); 
+                        i <= Math.min(this.layout.rows - 1, x + 2); i++) {
+                    for (int j = Math.max(0, y - 2); 
+                            j <= Math.min(columns - 1, y + 2); j++) {
+                        int b = i * columns + j;
+                        if (b != a && this.isActive(b) 
+                                && this.applyPair(a, b)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+        
+        private boolean applyMineCount() {
+            int minesLeft = this.layout.mineCount - this.flaggedCount;
+            int unknown = this.layout.size - this.revealedCount 
+                    - this.flaggedCount;
+            if (unknown == 0 || (minesLeft > 0 && minesLeft < unknown)) {
+                return false;
+            }
+            for (int cell = 0; cell < this.layout.size; cell++) {
+                if (minesLeft == 0) {
+                    this.reveal(cell);
+                } else {
+                    this.flag(cell);
+                }
+            }
+            return true;
+        }
+        
+        /**
+         * Plays the placed mines out from the first click. Gives up as soon 
+         * as an attempt numbered lower than this one has succeeded.
+         */
+        boolean solve(long attempt, AtomicLong best) {
+            Arrays.fill(this.states, UNKNOWN);
+            Arrays.fill(this.queued, false);
+            this.queueSize = 0;
+            this.revealedCount = 0;
+            this.flaggedCount = 0;
+            int goal = this.layout.size - this.layout.mineCount;
+            this.reveal(this.firstClick);
+            while (attempt < best.get()) {
+                this.applySinglePoints();
+                if (this.revealedCount == goal) {
+                    return true;
+                }
+                if (!this.applyPairs() && !this.applyMineCount()) {
+                    return false;
+                }
+            }
+            return false;
+        }
+        
+        Candidate(Layout layout, int click) {
+            this.layout = layout;
+            this.firstClick = click;
+            this.pool = new int[layout.allowed.length];
+            this.mined = new boolean[layout.size];
+            this.numbers = new byte[layout.size];
+            this.states = new byte[layout.size];
+            this.queued = new boolean[layout.size];
+            this.queue = new int[layout.size];
+            this.stack = new int[layout.size];
+        }
+        
+    }
+    
+    /**
+     * Takes attempt numbers until one succeeds, the limit is reached or a 
+     * lower numbered attempt has already succeeded.
+     */
+    private final class Worker implements Callable<Void> {
+        
+        private final Candidate candidate;
+        
+        private final long seed;
+        
+        private final AtomicLong nextAttempt;
+        
+        private final AtomicLong best;
+        
+        private final int minThreeBV;
+        
+        private final int maxThreeBV;
+        
+        @Override
+        public Void call() {
+            boolean filtered = this.minThreeBV > 0 
+                    || this.maxThreeBV < Integer.MAX_VALUE;
+            long attempt;
+            while ((attempt = this.nextAttempt.getAndIncrement()) 
+                    < NoGuessGenerator.this.attemptLimit 
+                    && attempt < this.best.get()) {
+                NoGuessGenerator.this.attemptCount.increment();
+                this.candidate.place(attemptSeed(this.seed, attempt));
+                if (filtered && !this.candidate.threeBVWithin(this.minThreeBV, 
+                        this.maxThreeBV)) {
+                    continue;
+                }
+                if (this.candidate.solve(attempt, this.best)) {
+                    this.best.accumulateAndGet(attempt, Math::min);
+                }
+            }
+            return null;
+        }
+        
+        Worker(Candidate candidate, long seed, AtomicLong next, 
+                AtomicLong best, int min, int max) {
+            this.candidate = candidate;
+            this.seed = seed;
+            this.nextAttempt = next;
+            this.best = best;
+            this.minThreeBV = min;
+            this.maxThreeBV = max;
+        }
+        
+    }
+    
+    /**
+     * Chooses where to put the mines on a board that can be solved from a 
+     * given first click without guessing.
+     * @param numberOfMines How many mines the board should have. For example, 
+     * 99.
+     * @param maxPosition The bottom right corner position. For example, (15, 
+     * 29).
+     * @param firstClick The position the player will reveal first, which is 
+     * sure not to have a mine. Its neighbors won't have mines either, unless 
+     * there are too many mines to leave them all clear. For example, (7, 14).
+     * @param seed The seed for placing the mines. For example, 1729.
+     * @return The mine locations. The same arguments always give the same 
+     * locations.
+     * @throws IllegalArgumentException If <code>firstClick</code> is not on 
+     * the board, or if there are too many mines to leave it clear or fewer 
+     * than 0.
+     * @throws IllegalStateException If no board that can be solved without 
+     * guessing turned up within the attempt limit. This is very likely with 
+     * mines on more than about a fifth of the positions.
+     */
+    public HashSet<Position> generateMineLocations(int numberOfMines, 
+            Position maxPosition, Position firstClick, long seed) {
+        return this.generateMineLocations(numberOfMines, maxPosition, 
+                firstClick, seed, 0, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * Chooses where to put the mines on a board that can be solved from a 
+     * given first click without guessing and whose 3BV is in a given range 
+     * (see {@link BoardMetrics} for what the 3BV is). Candidates with the 
+     * wrong 3BV are thrown out before trying to solve them, and counting the 
+     * 3BV stops as soon as it's sure to be too high.
+     * @param numberOfMines How many mines the board should have. For example, 
+     * 99.
+     * @param maxPosition The bottom right corner position. For example, (15, 
+     * 29).
+     * @param firstClick The position the player will reveal first, which is 
+     * sure not to have a mine. For example, (7, 14).
+     * @param seed The seed for placing the mines. For example, 1729.
+     * @param minThreeBV The least 3BV the board may have. For example, 100.
+     * @param maxThreeBV The most 3BV the board may have. For example, 150.
+     * @return The mine locations. The same arguments always give the same 
+     * locations.
+     * @throws IllegalArgumentException If <code>firstClick</code> is not on 
+     * the board, if there are too many mines to leave it clear or fewer than 
+     * 0, or if the 3BV range is empty or starts below 0.
+     * @throws IllegalStateException If no board that can be solved without 
+     * guessing and that has a 3BV in range turned up within the attempt 
+     * limit.
+     */
+    public HashSet<Position> generateMineLocations(int numberOfMines, 
+            Position maxPosition, Position firstClick, long seed, 
+            int minThreeBV, int maxThreeBV) {
+        if (minThreeBV < 0 || maxThreeBV < minThreeBV) {
+            String excMsg = "3BV range from " + minThreeBV + " to " 
+                    + maxThreeBV + " is not valid";
+            throw new IllegalArgumentException(excMsg);
+        }
+        if (!firstClick.isWithinBounds(maxPosition)) {
+            String excMsg = "First click " + firstClick.toString() 
+                    + " is beyond maximum corner " + maxPosition.toString();
+            throw new IllegalArgumentException(excMsg);
+        }
+        long capacity = ((long) maxPosition.getX() + 1) 
+                * ((long) maxPosition.getY() + 1) - 1;
+        if (numberOfMines < 0 || numberOfMines > capacity) {
+            String excMsg = "Number of mines " + numberOfMines 
+                    + " is not valid, should be at least 0 and at most " 
+                    + capacity + " to keep first click " 
+                    + firstClick.toString() + " clear";
+            throw new IllegalArgumentException(excMsg);
+        }
+        Layout layout = new Layout(maxPosition, numberOfMines, firstClick);
+        int click = layout.indexOf(firstClick);
+        AtomicLong next = new AtomicLong();
+        AtomicLong best = new AtomicLong(Long.MAX_VALUE);
+        int workerCount = this.pool.getParallelism();
+        List<Callable<Void>> workers = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(new Worker(new Candidate(layout, click), seed, next, 
+                    best, minThreeBV, maxThreeBV));
+        }
+        try {
+            for (Future<Void> future : this.pool.invokeAll(workers)) {
+                future.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            String excMsg = "Board generation was interrupted or failed";
+            throw new IllegalStateException(excMsg, e);
+        }
+        long attempt = best.get();
+        if (attempt == Long.MAX_VALUE) {
+            String excMsg = "No board with " + numberOfMines 
+                    + " mines up to " + maxPosition.toString() 
+                    + " that can be solved without guessing" 
+                    + (minThreeBV > 0 || maxThreeBV < Integer.MAX_VALUE 
+                            ? " with 3BV from " + minThreeBV + " to " 
+                                    + maxThreeBV : "") 
+                    + " turned up in " + this.attemptLimit + " attempts";
+            throw new IllegalStateException(excMsg);
+        }
+        Candidate candidate = new Candidate(layout, click);
+        candidate.place(attemptSeed(seed, attempt));
+        HashSet<Position> mineLocations = new HashSet<>();
+        for (int cell = 0; cell < layout.size; cell++) {
+            if (candidate.mined[cell]) {
+                mineLocations.add(new Position(cell / layout.columns, 
+                        cell % layout.columns));
+            }
+        }
+        this.boardCount.increment();
+        return mineLocations;
+    }
+    
+    /**
+     * Generates a board that can be solved from a given first click without 
+     * guessing.
+     * @param numberOfMines How many mines the board should have. For example, 
+     * 99.
+     * @param maxPosition The bottom right corner position. For example, (15, 
+     * 29).
+     * @param firstClick The position the player will reveal first. For 
+     * example, (7, 14).
+     * @param seed The seed for placing the mines. For example, 1729.
+     * @return A new board, with none of its positions revealed yet. The same 
+     * arguments always give a board with the same mines.
+     * @throws IllegalArgumentException If <code>firstClick</code> is not on 
+     * the board, or if there are too many mines to leave it clear or fewer 
+     * than 0.
+     * @throws IllegalStateException If no board that can be solved without 
+     * guessing turned up within the attempt limit.
+     */
+    public Board generate(int numberOfMines, Position maxPosition, 
+            Position firstClick, long seed) {
+        return new Board(maxPosition, this.generateMineLocations(numberOfMines, 
+                maxPosition, firstClick, seed));
+    }
+    
+    /**
+     * Tells how many candidate boards this generator has checked so far, 
+     * including those abandoned partway.
+     * @return The number of attempts. For example, 1500.
+     */
+    public long getAttemptCount() {
+        return this.attemptCount.sum();
+    }
+    
+    /**
+     * Tells how many boards this generator has given so far.
+     * @return The number of boards. For example, 10.
+     */
+    public long getBoardCount() {
+        return this.boardCount.sum();
+    }
+    
+    /**
+     * Constructor with the common fork/join pool and the default attempt 
+     * limit.
+     */
+    public NoGuessGenerator() {
+        this(ForkJoinPool.commonPool(), DEFAULT_ATTEMPT_LIMIT);
+    }
+    
+    /**
+     * Constructor.
+     * @param forkJoinPool The pool to check candidates on. It gets one worker 
+     * for each unit of its parallelism.
+     * @param limit How many attempts to make for each board before giving up. 
+     * For example, 100000.
+     * @throws IllegalArgumentException If <code>limit</code> is less than 1.
+     */
+    public NoGuessGenerator(ForkJoinPool forkJoinPool, int limit) {
+        if (limit < 1) {
+            String excMsg = "Attempt limit " + limit 
+                    + " is not valid, should be at least 1";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.pool = forkJoinPool;
+        this.attemptLimit = limit;
+    }
+    
+}
@@ -0,0 +1,292 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lists ahead of time the positions each opening of a board uncovers. An 
+ * opening is a region of positions with no neighboring mines, connected 
+ * horizontally, vertically or diagonally, together with the numbered 
+ * positions bordering it. Revealing any position with no neighboring mines 
+ * uncovers the whole opening it belongs to, so with the openings listed, a 
+ * reveal just walks a list instead of searching the board.
+ * <p>The openings are found with one union-find pass over the positions with 
+ * no neighboring mines. The positions of each opening are then laid out in 
+ * one array, each opening taking a contiguous range, with the numbered 
+ * positions on the border of two openings listed in both. Positions are 
+ * numbered row by row.</p>
+ * @author Alonso del Arte
+ */
+final class OpeningIndex {
+    
+    private final int rows;
+    
+    private final int columns;
+    
+    private final byte[] numbers;
+    
+    private final int[] openingOf;
+    
+    private final int[] starts;
+    
+    private final int[] cells;
+    
+    private int isolatedCount = 0;
+    
+    private static int find(int[] parents, int cell) {
+        int root = cell;
+        while (parents[root] != root) {
+            root = parents[root];
+        }
+        int curr = cell;
+        while (parents[curr] != root) {
+            int next = parents[curr];
+            parents[curr] = root;
+            curr = next;
+        }
+        return root;
+    }
+    
+    private static void union(int[] parents, int a, int b) {
+        int rootA = find(parents, a);
+        int rootB = find(parents, b);
+        if (rootA != rootB) {
+            if (rootA < rootB) {
+                parents[rootB] = rootA;
+            } else {
+                parents[rootA] = rootB;
+            }
+        }
+    }
+    
+    /**
+     * Lists the openings a cell without a mine belongs to. A cell with no 
+     * neighboring mines belongs to just its own opening, while a numbered 
+     * cell belongs to every opening it borders, which could be none.
+     * @param cell The cell number. For example, 57.
+     * @param seen The array to write the opening numbers to. It must have 
+     * room for at least eight.
+     * @return How many openings were written to <code>seen</code>.
+     */
+    private int openingsAt(int cell, int[] seen) {
+        if (this.numbers[cell] == 0) {
+            seen[0] = this.openingOf[cell];
+            return 1;
+        }
+        int x = cell / this.columns;
+        int y = cell % this.columns;
+        int seenCount = 0;
+        for (int i = Math.max(0, x - 1); 
+                i <= Math.min(this.rows - 1, x + 1); i++) {
+            for (int j = Math.max(0, y - 1); 
+                    j <= Math.min(this.columns - 1, y + 1); j++) {
+                int opening = this.openingOf[i * this.columns + j];
+                boolean already = opening < 0;
+                for (int k = 0; k < seenCount && !already; k++) {
+                    already = seen[k] == opening;
+                }
+                if (!already) {
+                    seen[seenCount++] = opening;
+                }
+            }
+        }
+        return seenCount;
+    }
+    
+    /**
+     * Tells which opening a position with no neighboring mines belongs to.
+     * @param position The position. For example, (4, 7).
+     * @return The number of the opening, or &minus;1 if the position has a 
+     * mine or neighboring mines. For example, 2.
+     */
+    int openingOf(Position position) {
+        return this.openingOf[this.cellOf(position)];
+    }
+    
+    /**
+     * Tells whether a position is an isolated number, a position with 
+     * neighboring mines that doesn't border any opening. Such a position can 
+     * only be uncovered by revealing it directly.
+     * @param position The position. For example, (4, 7).
+     * @return True if <code>position</code> has at least one neighboring mine 
+     * but no neighbor without neighboring mines, false otherwise.
+     */
+    boolean isIsolatedNumber(Position position) {
+        int cell = this.cellOf(position);
+        return this.numbers[cell] > 0 
+                && this.openingsAt(cell, new int[8]) == 0;
+    }
+    
+    /**
+     * Tells how many isolated numbers the board has.
+     * @return The number of isolated numbers. For example, 105.
+     */
+    int getIsolatedNumberCount() {
+        return this.isolatedCount;
+    }
+    
+    /**
+     * Gives where an opening's positions start in {@link #getCells()}.
+     * @param opening The number of the opening. For example, 2.
+     * @return The index of the opening's first position.
+     */
+    int start(int opening) {
+        return this.starts[opening];
+    }
+    
+    /**
+     * Gives where an opening's positions end in {@link #getCells()}.
+     * @param opening The number of the opening. For example, 2.
+     * @return The index just after the opening's last position.
+     */
+    int end(int opening) {
+        return this.starts[opening + 1];
+    }
+    
+    /**
+     * Gives the positions of all the openings, numbered row by row.
+     * @return The array itself, which is not to be changed.
+     */
+    int[] getCells() {
+        return this.cells;
+    }
+    
+    /**
+     * Tells how many openings the board has.
+     * @return The number of openings. For example, 12.
+     */
+    int getOpeningCount() {
+        return this.starts.length - 1;
+    }
+    
+    /**
+     * Gives the cell number of a position.
+     * @param position The position. For example, (2, 5).
+     * @return The cell number. For example, 57 on a board of 26 columns.
+     */
+    int cellOf(Position position) {
+        return position.getX() * this.columns + position.getY();
+    }
+    
+    /**
+     * Gives the position a cell number stands for.
+     * @param cell The cell number. For example, 57.
+     * @return The position. For example, (2, 5) on a board of 26 columns.
+     */
+    Position positionOf(int cell) {
+        return new Position(cell / this.columns, cell % this.columns);
+    }
+    
+    /**
+     * Gives how many mines neighbor a cell without a mine.
+     * @param cell The cell number. For example, 57.
+     * @return The number of neighboring mines, from 0 to 8.
+     */
+    int numberAt(int cell) {
+        return this.numbers[cell];
+    }
+    
+    /**
+     * Constructor.
+     * @param corner The bottom right corner of the board. For example, (9, 
+     * 25).
+     * @param mines The positions of the mines.
+     * @param neighborCounts The numbers of neighboring mines, for every 
+     * position with at least one. Positions left out have none.
+     */
+    OpeningIndex(Position corner, Set<Position> mines, 
+            Map<Position, Integer> neighborCounts) {
+        this.rows = corner.getX() + 1;
+        this.columns = corner.getY() + 1;
+        int size = this.rows * this.columns;
+        this.numbers = new byte[size];
+        boolean[] mined = new boolean[size];
+        for (Map.Entry<Position, Integer> entry : neighborCounts.entrySet()) {
+            Position position = entry.getKey();
+            this.numbers[position.getX() * this.columns + position.getY()] 
+                    = entry.getValue().byteValue();
+        }
+        for (Position position : mines) {
+            mined[position.getX() * this.columns + position.getY()] = true;
+        }
+        int[] parents = new int[size];
+        for (int cell = 0; cell < size; cell++) {
+            parents[cell] = cell;
+        }
+        for (int x = 0; x < this.rows; x++) {
+            for (int y = 0; y < this.columns; y++) {
+                int cell = x * this.columns + y;
+                if (mined[cell] || this.numbers[cell] != 0) {
+                    continue;
+                }
+                if (y + 1 < this.columns && !mined[cell + 1] 
+                        && this.numbers[cell + 1] == 0) {
+                    union(parents, cell, cell + 1);
+                }
+                if (x + 1 < this.rows) {
+                    for (int j = Math.max(0, y - 1); 
+                            j <= Math.min(this.columns - 1, y + 1); j++) {
+                        int below = cell + this.columns - y + j;
+                        if (!mined[below] && this.numbers[below] == 0) {
+                            union(parents, cell, below);
+                        }
+                    }
+                }
+            }
+        }
+        this.openingOf = new int[size];
+        int openingCount = 0;
+        for (int cell = 0; cell < size; cell++) {
+            if (mined[cell] || this.numbers[cell] != 0) {
+                this.openingOf[cell] = -1;
+            } else if (parents[cell] == cell) {
+                this.openingOf[cell] = openingCount++;
+            } else {
+                this.openingOf[cell] = this.openingOf[find(parents, cell)];
+            }
+        }
+        int[] seen = new int[8];
+        this.starts = new int[openingCount + 1];
+        for (int cell = 0; cell < size; cell++) {
+            if (!mined[cell]) {
+                int seenCount = this.openingsAt(cell, seen);
+                if (seenCount == 0) {
+                    this.isolatedCount++;
+                }
+                for (int k = 0; k < seenCount; k++) {
+                    this.starts[seen[k] + 1]++;
+                }
+            }
+        }
+        for (int opening = 0; opening < openingCount; opening++) {
+            this.starts[opening + 1] += this.starts[opening];
+        }
+        this.cells = new int[this.starts[openingCount]];
+        int[] fill = this.starts.clone();
+        for (int cell = 0; cell < size; cell++) {
+            if (!mined[cell]) {
+                int seenCount = this.openingsAt(cell, seen);
+                for (int k = 0; k < seenCount; k++) {
+                    this.cells[fill[seen[k]]++] = cell;
+                }
+            }
+        }
+    }
+    
+}
@@ -0,0 +1,442 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper;
+
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+
+/**
+ * Holds many games on boards of the same size, packed into primitive arrays 
+ * instead of one {@link Board} object per game. Each game's mines, revealed 
+ * positions and flags are bitboards, one bit per position, in three shared 
+ * arrays of <code>long</code>, and each game also has a seed and a byte of 
+ * state. For example, a game on a 9 by 9 board takes two words per bitboard, 
+ * so 48 bytes for the three bitboards plus 8 for the seed and 1 for the 
+ * state, 57 bytes in all. A game on a 16 by 16 board takes four words per 
+ * bitboard, so 105 bytes, which comes to about a gigabyte for ten million 
+ * games.
+ * <p>The games follow the same rules as {@link Board}: the mines are placed 
+ * at the first move, away from the first click, drawn in the same way as 
+ * {@link Board#makeBoard(int, Position, long)} draws them for the same seed; 
+ * revealing a position without neighboring mines uncovers its surroundings; 
+ * and a game is won by correctly flagging every mine without any wrong flags. 
+ * The neighbor counts aren't stored but worked out from the mines as needed. 
+ * The functions of this class take a game number from 0 up to but not 
+ * including the number of games. Different games may be played on different 
+ * threads at once, but one game must not be played on two threads at once.
+ * </p>
+ * @author Alonso del Arte
+ */
+public final class PackedGames {
+    
+    private static final byte NOT_STARTED = 0;
+    
+    private static final byte UNDERWAY = 1;
+    
+    private static final byte WON = 2;
+    
+    private static final byte LOST = 3;
+    
+    private static final PositionStatus[] STATUS_VALUES 
+            = PositionStatus.values();
+    
+    private final Position maxCorner;
+    
+    private final int rows;
+    
+    private final int columns;
+    
+    private final int cellCount;
+    
+    private final int words;
+    
+    private final int mineCount;
+    
+    private final long[] mines;
+    
+    private final long[] revealed;
+    
+    private final long[] flagged;
+    
+    private final long[] seeds;
+    
+    private final byte[] states;
+    
+    private static boolean bit(long[] bitboards, int base, int cell) {
+        return (bitboards[base + (cell >>> 6)] & (1L << cell)) != 0;
+    }
+    
+    private static void set(long[] bitboards, int base, int cell) {
+        bitboards[base + (cell >>> 6)] |= 1L << cell;
+    }
+    
+    private static void clear(long[] bitboards, int base, int cell) {
+        bitboards[base + (cell >>> 6)] &= ~(1L << cell);
+    }
+    
+    private int checkGame(int game) {
+        if (game < 0 || game >= this.states.length) {
+            String excMsg = "Game " + game + " is not valid, should be from 0 " 
+                    + "to " + (this.states.length - 1);
+            throw new IndexOutOfBoundsException(excMsg);
+        }
+        return game * this.words;
+    }
+    
+    private int cellOf(Position position) {
+        if (!position.isWithinBounds(this.maxCorner)) {
+            String excMsg = "Position " + position.toString() 
+                    + " is beyond maximum corner " + this.maxCorner.toString();
+            throw new NoSuchElementException(excMsg);
+        }
+        return position.getX() * this.columns + position.getY();
+    }
+    
+    private int neighborCount(int base, int cell) {
+        int x = cell / this.columns;
+        int y = cell % this.columns;
+        int count = 0;
+        for (int i = Math.max(0, x - 1); i <= Math.min(this.rows - 1, x + 1); 
+                i++) {
+            for (int j = Math.max(0, y - 1); 
+                    j <= Math.min(this.columns - 1, y + 1); j++) {
+                if (bit(this.mines, base, i * this.columns + j)) {
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Places a game's mines the way {@link Board} places them on a board made 
+     * from a seed, keeping the first click and, room permitting, its 
+     * neighbors clear.
+     * @param firstClick The cell about to be revealed, or &minus;1 if a cell 
+     * is being flagged first.
+     */
+    private void placeMines(int game, int base, int firstClick) {
+        boolean[] excluded = new boolean[this.cellCount];
+        if (firstClick >= 0) {
+            int x = firstClick / this.columns;
+            int y = firstClick % this.columns;
+            int neighborTotal = 0;
+            for (int i = Math.max(0, x - 1); 
+                    i <= Math.min(this.rows - 1, x + 1); i++) {
+                for (int j = Math.max(0, y - 1); 
+                        j <= Math.min(this.columns - 1, y + 1); j++) {
+                    neighborTotal++;
+                }
+            }
+            neighborTotal--;
+            if (this.mineCount <= this.cellCount - 1 - neighborTotal) {
+                for (int i = Math.max(0, x - 1); 
+                        i <= Math.min(this.rows - 1, x + 1); i++) {
+                    for (int j = Math.max(0, y - 1); 
+                            j <= Math.min(this.columns - 1, y + 1); j++) {
+                        excluded[i * this.columns + j] = true;
+                    }
+                }
+            }
+            excluded[firstClick] = this.mineCount <= this.cellCount - 1 
+                    || excluded[firstClick];
+        }
+        SplittableRandom random = new SplittableRandom(this.seeds[game]);
+        int placed = 0;
+        while (placed < this.mineCount) {
+            int x = random.nextInt(this.rows);
+            int y = random.nextInt(this.columns);
+            int cell = x * this.columns + y;
+            if (!excluded[cell] && !bit(this.mines, base, cell)) {
+                set(this.mines, base, cell);
+                placed++;
+            }
+        }
+        this.states[game] = UNDERWAY;
+    }
+    
+    private void checkIfWon(int game, int base) {
+        int good = 0;
+        int wrong = 0;
+        for (int w = base; w < base + this.words; w++) {
+            good += Long.bitCount(this.flagged[w] & this.mines[w]);
+            wrong += Long.bitCount(this.flagged[w] & ~this.mines[w]);
+        }
+        if (good == this.mineCount && wrong == 0) {
+            this.states[game] = WON;
+        }
+    }
+    
+    private void checkUnderway(int game, String move) {
+        if (this.states[game] == WON || this.states[game] == LOST) {
+            String excMsg = "Game over; can't " + move + " any positions";
+            throw new IllegalStateException(excMsg);
+        }
+    }
+    
+    /**
+     * Starts a game over, with nothing revealed or flagged. Its mines will be 
+     * placed at its first move.
+     * @param game The number of the game. For example, 1729.
+     * @param seed The seed for placing the mines. For example, 
+     * &minus;4132498736238455341.
+     * @throws IndexOutOfBoundsException If <code>game</code> is negative or 
+     * not less than the number of games.
+     */
+    public void newGame(int game, long seed) {
+        int base = this.checkGame(game);
+        for (int w = base; w < base + this.words; w++) {
+            this.mines[w] = 0L;
+            this.revealed[w] = 0L;
+            this.flagged[w] = 0L;
+        }
+        this.seeds[game] = seed;
+        this.states[game] = NOT_STARTED;
+    }
+    
+    /**
+     * Tells the status of a position in a game, just as {@link 
+     * Board#query(Position)} would.
+     * @param game The number of the game. For example, 1729.
+     * @param position The position to query. For example, (4, 7).
+     * @return The status. For example, {@link 
+     * PositionStatus#REVEALED_EMPTY_NEAR_2}.
+     * @throws IndexOutOfBoundsException If <code>game</code> is not valid.
+     * @throws NoSuchElementException If <code>position</code> is out of 
+     * bounds.
+     */
+    public PositionStatus query(int game, Position position) {
+        int base = this.checkGame(game);
+        int cell = this.cellOf(position);
+        boolean mined = bit(this.mines, base, cell);
+        boolean lost = this.states[game] == LOST;
+        if (bit(this.flagged, base, cell)) {
+            return lost && !mined ? PositionStatus.WRONGLY_FLAGGED 
+                    : PositionStatus.FLAGGED;
+        }
+        if (bit(this.revealed, base, cell)) {
+            return mined ? PositionStatus.DETONATED 
+                    : STATUS_VALUES[this.neighborCount(base, cell)];
+        }
+        return lost && mined ? PositionStatus.REVEALED_MINED 
+                : PositionStatus.COVERED;
+    }
+    
+    /**
+     * Uncovers a position in a game, following the same rules as {@link 
+     * Board#reveal(Position)}.
+     * @param game The number of the game. For example, 1729.
+     * @param position The position to uncover. For example, (4, 7).
+     * @return True if the position had a mine, which ends the game in a loss, 
+     * false otherwise.
+     * @throws IndexOutOfBoundsException If <code>game</code> is not valid.
+     * @throws IllegalStateException If the game is over or 
+     * <code>position</code> is not covered.
+     * @throws NoSuchElementException If <code>position</code> is out of 
+     * bounds.
+     */
+    public boolean reveal(int game, Position position) {
+        int base = this.checkGame(game);
+        this.checkUnderway(game, "reveal");
+        int cell = this.cellOf(position);
+        if (bit(this.revealed, base, cell) || bit(this.flagged, base, cell)) {
+            String excMsg = "Can't reveal " + position.toString() 
+                    + " because its status is " 
+                    + this.query(game, position).toString();
+            throw new IllegalStateException(excMsg);
+        }
+        if (this.states[game] == NOT_STARTED) {
+            this.placeMines(game, base, cell);
+        }
+        set(this.revealed, base, cell);
+        if (bit(this.mines, base, cell)) {
+            this.states[game] = LOST;
+            return true;
+        }
+        if (this.neighborCount(base, cell) == 0) {
+            int[] pending = new int[this.cellCount];
+            int pendingCount = 0;
+            pending[pendingCount++] = cell;
+            while (pendingCount > 0) {
+                int curr = pending[--pendingCount];
+                int x = curr / this.columns;
+                int y = curr % this.columns;
+                for (int i = Math.max(0, x - 1); 
+                        i <= Math.min(this.rows - 1, x + 1); i++) {
+                    for (int j = Math.max(0, y - 1); 
+                            j <= Math.min(this.columns - 1, y + 1); j++) {
+                        int neighbor = i * this.columns + j;
+                        if (!bit(this.revealed, base, neighbor) 
+                                && !bit(this.flagged, base, neighbor) 
+                                && !bit(this.mines, base, neighbor)) {
+                            set(this.revealed, base, neighbor);
+                            if (this.neighborCount(base, neighbor) == 0) {
+                                pending[pendingCount++] = neighbor;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Flags a position in a game, following the same rules as {@link 
+     * Board#flag(Position)}.
+     * @param game The number of the game. For example, 1729.
+     * @param position The position to flag. For example, (4, 7).
+     * @throws IndexOutOfBoundsException If <code>game</code> is not valid.
+     * @throws IllegalStateException If the game is over or 
+     * <code>position</code> is already flagged.
+     * @throws NoSuchElementException If <code>position</code> is out of 
+     * bounds.
+     */
+    public void flag(int game, Position position) {
+        int base = this.checkGame(game);
+        this.checkUnderway(game, "flag");
+        int cell = this.cellOf(position);
+        if (bit(this.flagged, base, cell)) {
+            String excMsg = "Position " + position.toString() 
+                    + " is already flagged";
+            throw new IllegalStateException(excMsg);
+        }
+        if (this.states[game] == NOT_STARTED) {
+            this.placeMines(game, base, -1);
+        }
+        clear(this.revealed, base, cell);
+        set(this.flagged, base, cell);
+        this.checkIfWon(game, base);
+    }
+    
+    /**
+     * Takes the flag off a position in a game, following the same rules as 
+     * {@link Board#unflag(Position)}.
+     * @param game The number of the game. For example, 1729.
+     * @param position The position to unflag. For example, (4, 7).
+     * @throws IndexOutOfBoundsException If <code>game</code> is not valid.
+     * @throws IllegalStateException If the game is over or 
+     * <code>position</code> is not flagged.
+     * @throws NoSuchElementException If <code>position</code> is out of 
+     * bounds.
+     */
+    public void unflag(int game, Position position) {
+        int base = this.checkGame(game);
+        this.checkUnderway(game, "unflag");
+        int cell = this.cellOf(position);
+        if (!bit(this.flagged, base, cell)) {
+            String excMsg = "Position " + position.toString() 
+                    + " can't be unflagged, it's not currently flagged";
+            throw new IllegalStateException(excMsg);
+        }
+        clear(this.flagged, base, cell);
+        this.checkIfWon(game, base);
+    }
+    
+    /**
+     * Tells whether a game is still going on.
+     * @param game The number of the game. For example, 1729.
+     * @return True if the game has been neither won nor lost, false 
+     * otherwise.
+     * @throws IndexOutOfBoundsException If <code>game</code> is not valid.
+     */
+    public boolean gameUnderway(int game) {
+        this.checkGame(game);
+        return this.states[game] == NOT_STARTED 
+                || this.states[game] == UNDERWAY;
+    }
+    
+    /**
+     * Tells whether a game has been won.
+     * @param game The number of the game. For example, 1729.
+     * @return True if every mine has been correctly flagged with no wrong 
+     * flags, false otherwise.
+     * @throws IndexOutOfBoundsException If <code>game</code> is not valid.
+     */
+    public boolean gameWon(int game) {
+        this.checkGame(game);
+        return this.states[game] == WON;
+    }
+    
+    /**
+     * Tells how many games this holds.
+     * @return The number of games. For example, 10000000.
+     */
+    public int getGameCount() {
+        return this.states.length;
+    }
+    
+    /**
+     * Gives the bottom right corner of every game's board.
+     * @return The corner. For example, (8, 8).
+     */
+    public Position getMaxCorner() {
+        return this.maxCorner;
+    }
+    
+    /**
+     * Tells how many mines every game's board has.
+     * @return The number of mines. For example, 10.
+     */
+    public int getMineCount() {
+        return this.mineCount;
+    }
+    
+    /**
+     * Constructor. Every game starts with the seed 0, so {@link 
+     * #newGame(int, long)} should be called for each game before it's played.
+     * @param games How many games to hold. For example, 10000000.
+     * @param corner The bottom right corner of every game's board. For 
+     * example, (8, 8).
+     * @param numberOfMines How many mines every game's board has. For 
+     * example, 10.
+     * @throws IllegalArgumentException If <code>games</code> is less than 1, 
+     * if <code>numberOfMines</code> is negative or more than the board can 
+     * hold, or if there are too many games for one array.
+     */
+    public PackedGames(int games, Position corner, int numberOfMines) {
+        long cells = ((long) corner.getX() + 1) * ((long) corner.getY() + 1);
+        if (games < 1) {
+            String excMsg = "Game count " + games 
+                    + " is not valid, should be at least 1";
+            throw new IllegalArgumentException(excMsg);
+        }
+        if (numberOfMines < 0 || numberOfMines > cells) {
+            String excMsg = "Number of mines " + numberOfMines 
+                    + " is not valid for " + cells + " positions";
+            throw new IllegalArgumentException(excMsg);
+        }
+        long wordsPerGame = (cells + 63) / 64;
+        if (wordsPerGame * games > Integer.MAX_VALUE - 8) {
+            String excMsg = games + " games of " + cells 
+                    + " positions each are too many to hold";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.maxCorner = corner;
+        this.rows = corner.getX() + 1;
+        this.columns = corner.getY() + 1;
+        this.cellCount = (int) cells;
+        this.words = (int) wordsPerGame;
+        this.mineCount = numberOfMines;
+        this.mines = new long[this.words * games];
+        this.revealed = new long[this.words * games];
+        this.flagged = new long[this.words * games];
+        this.seeds = new long[games];
+        this.states = new byte[games];
+    }
+    
+}
@@ -18,6 +18,7 @@ package minesweeper;
 
 import java.util.HashSet;
 import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * Represents a position on the board. An instance of this class only indicates 
@@ -255,8 +256,51 @@ public class Position {
      * does not worry me in the slightest.
      */
     public static Position random(Position boundingCorner) {
-        int x = RANDOM.nextInt(boundingCorner.coordX + 1);
-        int y = RANDOM.nextInt(boundingCorner.coordY + 1);
+        return random(boundingCorner, RANDOM);
+    }
+    
+    /**
+     * Chooses a position pseudorandomly with a given pseudorandom number 
+     * generator. Unlike {@link #random(Position)}, which shares one generator 
+     * among all callers, this lets each thread use its own generator, and 
+     * lets a sequence of positions be reproduced from a seed.
+     * @param boundingCorner A <code>Position</code> with the maximum allowable 
+     * <i>x</i> and <i>y</i> for the randomly chosen <code>Position</code>. 
+     * This bounding parameter is inclusive.
+     * @param random The pseudorandom number generator. For example, a 
+     * <code>java.util.Random</code> seeded with 1729.
+     * @return A <code>Position</code> with <i>x</i> at least 0 and at most 
+     * <code>boundingCorner</code>'s <i>x</i>, and <i>y</i> at least 0 and at 
+     * most <code>boundingCorner</code>'s <i>y</i>.
+     * @throws IllegalArgumentException If either <code>boundingCorner</code>'s 
+     * <i>x</i> or <i>y</i> coordinate is <code>Integer.MAX_VALUE</code>.
+     */
+    public static Position random(Position boundingCorner, Random random) {
+        int x = random.nextInt(boundingCorner.coordX + 1);
+        int y = random.nextInt(boundingCorner.coordY + 1);
+        return new Position(x, y);
+    }
+    
+    /**
+     * Chooses a position pseudorandomly with a given splittable pseudorandom 
+     * number generator. Like {@link #random(Position, Random)}, but for a 
+     * generator that may have been split off another one, so that parallel 
+     * tasks can each draw from an independent stream without contention.
+     * @param boundingCorner A <code>Position</code> with the maximum allowable 
+     * <i>x</i> and <i>y</i> for the randomly chosen <code>Position</code>. 
+     * This bounding parameter is inclusive.
+     * @param random The pseudorandom number generator. For example, a 
+     * <code>java.util.SplittableRandom</code> seeded with 1729.
+     * @return A <code>Position</code> with <i>x</i> at least 0 and at most 
+     * <code>boundingCorner</code>'s <i>x</i>, and <i>y</i> at least 0 and at 
+     * most <code>boundingCorner</code>'s <i>y</i>.
+     * @throws IllegalArgumentException If either <code>boundingCorner</code>'s 
+     * <i>x</i> or <i>y</i> coordinate is <code>Integer.MAX_VALUE</code>.
+     */
+    public static Position random(Position boundingCorner, 
+            SplittableRandom random) {
+        int x = random.nextInt(boundingCorner.coordX + 1);
+        int y = random.nextInt(boundingCorner.coordY + 1);
         return new Position(x, y);
     }
     
@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper;
+
+/**
+ * Receives notice of changes of status on a board. Listeners are called on 
+ * whichever thread makes the move, so a listener that updates a user interface 
+ * should hand the work over to the appropriate thread.
+ * @author Alonso del Arte
+ */
+public interface StatusChangeListener {
+    
+    /**
+     * Called when a position changes status. This is called once for each 
+     * position affected by a move, so revealing a position with no neighboring 
+     * mines may result in many calls.
+     * @param position The position that changed. For example, (4, 7).
+     * @param previous The status the position had before. For example, {@link 
+     * PositionStatus#COVERED}.
+     * @param current The status the position has now. For example, {@link 
+     * PositionStatus#REVEALED_EMPTY_NEAR_2}.
+     */
+    void statusChanged(Position position, PositionStatus previous, 
+            PositionStatus current);
+    
+}
@@ -0,0 +1,588 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.simulation;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import minesweeper.Board;
+import minesweeper.BoardMetrics;
+import minesweeper.BoardPool;
+import minesweeper.Difficulty;
+import minesweeper.MineSweeper;
+import minesweeper.Position;
+
+/**
+ * Generates boards and writes out a row of features for each one, for 
+ * analysis elsewhere. This is what the "-export" command line option of 
+ * {@link MineSweeper#main(String[])} runs. Each board is played out with a 
+ * strategy to count how many guesses it took, and then measured with {@link 
+ * BoardMetrics}. Boards are numbered and seeded the same way as in {@link 
+ * Simulator}, so the same seed gives the same rows, though not necessarily in 
+ * the same order.
+ * <p>Several threads generate boards and write their rows into batch 
+ * buffers, which the calling thread writes out through a single channel. 
+ * There is a fixed number of batch buffers, handed back and forth through 
+ * bounded queues, so if the channel can't keep up, the generating threads 
+ * wait for buffers to come back instead of piling up rows in memory. Memory 
+ * use is thus the same for a hundred rows as for a hundred million.</p>
+ * @author Alonso del Arte
+ */
+public class DatasetExporter {
+    
+    /**
+     * How many boards are exported per difficulty level if the command line 
+     * doesn't say.
+     */
+    public static final long DEFAULT_BOARD_COUNT = 1000000L;
+    
+    /**
+     * How many bytes each row takes in the {@link Format#BINARY} format.
+     */
+    public static final int RECORD_BYTES = 49;
+    
+    private static final int BATCH_SIZE = 64;
+    
+    private static final int BATCH_BYTES = 1 << 16;
+    
+    private static final int MAX_ROW_BYTES = 256;
+    
+    private static final ByteBuffer DONE = ByteBuffer.allocate(0);
+    
+    private final Strategy strategy;
+    
+    private final Position corner;
+    
+    private final int mineCount;
+    
+    private final int threadCount;
+    
+    private final long seed;
+    
+    private final BoardPool boardPool = new BoardPool();
+    
+    private final Format format;
+    
+    /**
+     * The features of one board. Each thread reuses one of these from one 
+     * board to the next.
+     */
+    private static final class Row {
+        
+        long game;
+        
+        long boardSeed;
+        
+        int rows;
+        
+        int columns;
+        
+        int mines;
+        
+        int openings;
+        
+        int isolatedNumbers;
+        
+        int threeBV;
+        
+        int largestOpening;
+        
+        int guesses;
+        
+        boolean won;
+        
+    }
+    
+    /**
+     * How the rows are written out.
+     */
+    public enum Format {
+        
+        /**
+         * Comma-separated values, one line per board after a header line 
+         * naming the columns: game, seed, rows, columns, mines, density, 
+         * openings, isolated_numbers, three_bv, largest_opening, guesses and 
+         * won. For example, 
+         * "1729,-4132498736238455341,16,30,99,0.206250,14,112,126,41,2,1".
+         */
+        CSV {
+            
+            @Override
+            ByteBuffer header() {
+                String header = "game,seed,rows,columns,mines,density," 
+                        + "openings,isolated_numbers,three_bv," 
+                        + "largest_opening,guesses,won\n";
+                return ByteBuffer.wrap(header
+                        .getBytes(StandardCharsets.US_ASCII));
+            }
+            
+            @Override
+            void encode(Row row, ByteBuffer buffer) {
+                putDecimal(buffer, row.game);
+                buffer.put((byte) ',');
+                putDecimal(buffer, row.boardSeed);
+                buffer.put((byte) ',');
+                putDecimal(buffer, row.rows);
+                buffer.put((byte) ',');
+                putDecimal(buffer, row.columns);
+                buffer.put((byte) ',');
+                putDecimal(buffer, row.mines);
+                buffer.put((byte) ',');
+                long millionths = Math.round(row.mines * 1.0E6 
+                        / ((long) row.rows * row.columns));
+                putDecimal(buffer, millionths / 1000000);
+                buffer.put((byte) '.');
+                for (long place = 100000; place > 0; place /= 10) {
+                    buffer.put((byte) ('0' + millionths / place % 10));
+                }
+                buffer.put((byte) ',');
+                putDecimal(buffer, row.openings);
+                buffer.put((byte) ',');
+                putDecimal(buffer, row.isolatedNumbers);
+                buffer.put((byte) ',');
+                putDecimal(buffer, row.threeBV);
+                buffer.put((byte) ',');
+                putDecimal(buffer, row.largestOpening);
+                buffer.put((byte) ',');
+                putDecimal(buffer, row.guesses);
+                buffer.put((byte) ',');
+                buffer.put((byte) (row.won ? '1' : '0'));
+                buffer.put((byte) '\n');
+            }
+            
+        },
+        
+        /**
+         * Fixed-size little-endian records of {@link #RECORD_BYTES} bytes 
+         * each, after a header of the ASCII characters "MSDS" followed by the 
+         * 32-bit integers 1 for the version and {@link #RECORD_BYTES}. Each 
+         * record has the game number and seed as 64-bit integers, then rows, 
+         * columns, mines, openings, isolated numbers, 3BV, largest opening 
+         * and guesses as 32-bit integers, and finally a byte that's 1 if the 
+         * game was won and 0 if it wasn't. The density is left out, since 
+         * it's just mines divided by rows times columns.
+         */
+        BINARY {
+            
+            @Override
+            ByteBuffer header() {
+                ByteBuffer buffer = ByteBuffer.allocate(12)
+                        .order(ByteOrder.LITTLE_ENDIAN);
+                buffer.put("MSDS".getBytes(StandardCharsets.US_ASCII));
+                buffer.putInt(1);
+                buffer.putInt(RECORD_BYTES);
+                buffer.flip();
+                return buffer;
+            }
+            
+            @Override
+            void encode(Row row, ByteBuffer buffer) {
+                buffer.putLong(row.game);
+                buffer.putLong(row.boardSeed);
+                buffer.putInt(row.rows);
+                buffer.putInt(row.columns);
+                buffer.putInt(row.mines);
+                buffer.putInt(row.openings);
+                buffer.putInt(row.isolatedNumbers);
+                buffer.putInt(row.threeBV);
+                buffer.putInt(row.largestOpening);
+                buffer.putInt(row.guesses);
+                buffer.put((byte) (row.won ? 1 : 0));
+            }
+            
+        };
+        
+        abstract ByteBuffer header();
+        
+        abstract void encode(Row row, ByteBuffer buffer);
+        
+        /**
+         * Writes the header that goes at the start of a file in this format.
+         * @param channel The channel to write to.
+         * @throws IOException If the channel can't be written to.
+         */
+        public void writeHeader(WritableByteChannel channel) 
+                throws IOException {
+            ByteBuffer buffer = this.header();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        
+    }
+    
+    /**
+     * Writes a number in decimal ASCII digits, without making a string.
+     */
+    private static void putDecimal(ByteBuffer buffer, long value) {
+        if (value == Long.MIN_VALUE) {
+            buffer.put(Long.toString(value)
+                    .getBytes(StandardCharsets.US_ASCII));
+            return;
+        }
+        long remaining = value;
+        if (remaining < 0) {
+            buffer.put((byte) '-');
+            remaining = -remaining;
+        }
+        long divisor = 1L;
+        while (remaining / divisor >= 10) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            buffer.put((byte) ('0' + remaining / divisor % 10));
+            divisor /= 10;
+        }
+    }
+    
+    /**
+     * Plays out and measures one board on the calling thread's generator, 
+     * counter and row.
+     */
+    private void measure(long game, Random random, MoveCounter counter, 
+            Row row) {
+        long boardSeed = Simulator.gameSeed(this.seed, game);
+        random.setSeed(boardSeed);
+        Board board = this.boardPool.acquire(this.mineCount, this.corner, 
+                boardSeed);
+        counter.reset();
+        this.strategy.play(board, random, counter);
+        BoardMetrics metrics = BoardMetrics.of(board);
+        this.boardPool.release(board);
+        row.game = game;
+        row.boardSeed = boardSeed;
+        row.rows = this.corner.getX() + 1;
+        row.columns = this.corner.getY() + 1;
+        row.mines = this.mineCount;
+        row.openings = metrics.getOpeningCount();
+        row.isolatedNumbers = metrics.getIsolatedNumberCount();
+        row.threeBV = metrics.getThreeBV();
+        row.largestOpening = metrics.getLargestOpeningSize();
+        row.guesses = (int) counter.getGuessCount();
+        row.won = board.gameWon();
+    }
+    
+    /**
+     * Exports rows for a number of boards to a channel. This doesn't write 
+     * the format's header, so that rows from several exports can go in one 
+     * file; see {@link Format#writeHeader(WritableByteChannel)}.
+     * @param boards How many boards to export. For example, 100000000.
+     * @param channel Where to write the rows. Only the calling thread writes 
+     * to it.
+     * @return How many bytes were written. For example, 4900000000.
+     * @throws IOException If the channel can't be written to. The generating 
+     * threads are stopped before this is thrown.
+     * @throws IllegalArgumentException If <code>boards</code> is negative.
+     * @throws IllegalStateException If the export is interrupted or a 
+     * generating thread fails.
+     */
+    public long export(long boards, WritableByteChannel channel) 
+            throws IOException {
+        if (boards < 0) {
+            String excMsg = "Board count " + boards 
+                    + " is not valid, should not be negative";
+            throw new IllegalArgumentException(excMsg);
+        }
+        int bufferCount = 4 * this.threadCount;
+        BlockingQueue<ByteBuffer> free 
+                = new ArrayBlockingQueue<>(bufferCount);
+        BlockingQueue<ByteBuffer> filled 
+                = new ArrayBlockingQueue<>(bufferCount + this.threadCount);
+        for (int i = 0; i < bufferCount; i++) {
+            free.add(ByteBuffer.allocateDirect(BATCH_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN));
+        }
+        AtomicLong nextGame = new AtomicLong();
+        AtomicBoolean stopped = new AtomicBoolean();
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int t = 0; t < this.threadCount; t++) {
+            workers.add(() -> {
+                try {
+                    Random random = new Random();
+                    MoveCounter counter = new MoveCounter();
+                    Row row = new Row();
+                    ByteBuffer batch = free.take();
+                    long first = nextGame.getAndAdd(BATCH_SIZE);
+                    while (first < boards && !stopped.get()) {
+                        long end = Math.min(first + BATCH_SIZE, boards);
+                        for (long game = first; game < end; game++) {
+                            this.measure(game, random, counter, row);
+                            if (batch.remaining() < MAX_ROW_BYTES) {
+                                filled.put(batch);
+                                batch = free.take();
+                            }
+                            this.format.encode(row, batch);
+                        }
+                        first = nextGame.getAndAdd(BATCH_SIZE);
+                    }
+                    filled.put(batch);
+                } finally {
+                    filled.offer(DONE);
+                }
+                return null;
+            });
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(this.threadCount);
+        List<Future<Void>> futures = new ArrayList<>();
+        for (Callable<Void> worker : workers) {
+            futures.add(pool.submit(worker));
+        }
+        long written = 0L;
+        IOException failure = null;
+        try {
+            int doneCount = 0;
+            while (doneCount < this.threadCount) {
+                ByteBuffer batch = filled.take();
+                if (batch == DONE) {
+                    doneCount++;
+                    continue;
+                }
+                batch.flip();
+                if (failure == null) {
+                    try {
+                        while (batch.hasRemaining()) {
+                            written += channel.write(batch);
+                        }
+                    } catch (IOException ioe) {
+                        failure = ioe;
+                        stopped.set(true);
+                    }
+                }
+                batch.clear();
+                free.put(batch);
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            pool.shutdownNow();
+            String excMsg = "Export was interrupted or failed";
+            throw new IllegalStateException(excMsg, e);
+        } finally {
+            pool.shutdown();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return written;
+    }
+    
+    /**
+     * Exports rows for a number of boards to a file, header first. The file 
+     * is replaced if it already exists.
+     * @param boards How many boards to export. For example, 100000000.
+     * @param path The file to write. For example, "boards.csv".
+     * @return How many bytes were written, counting the header.
+     * @throws IOException If the file can't be written.
+     * @throws IllegalArgumentException If <code>boards</code> is negative.
+     * @throws IllegalStateException If the export is interrupted or a 
+     * generating thread fails.
+     */
+    public long export(long boards, Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, 
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, 
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            this.format.writeHeader(channel);
+            this.export(boards, channel);
+            return channel.size();
+        }
+    }
+    
+    /**
+     * Entry point for exports. Recognizes the options "-easy", "-medium" and 
+     * "-hard", any number of which may be given, and if none is, all three 
+     * are exported to the same file; "-random", "-deduction" and 
+     * "-probability" for the strategy that counts guesses, {@link 
+     * StandardStrategy#DEDUCTION} by default; "-csv" and "-binary" for the 
+     * format, CSV by default; "-w" or "-width", "-h" or "-height", "-boards", 
+     * "-threads" and "-seed", each followed by a number; and "-out" followed 
+     * by the file name, "boards.csv" or "boards.bin" by default. Other 
+     * options, like "-export", are ignored.
+     * @param args The command line arguments. For example, "-export", 
+     * "-hard", "-binary", "-boards", "100000000", "-out", "expert.bin".
+     */
+    public static void main(String[] args) {
+        int width = MineSweeper.DEFAULT_BOARD_WIDTH;
+        int height = MineSweeper.DEFAULT_BOARD_HEIGHT;
+        long boards = DEFAULT_BOARD_COUNT;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 0L;
+        StandardStrategy strategy = StandardStrategy.DEDUCTION;
+        Format format = Format.CSV;
+        String fileName = null;
+        EnumSet<Difficulty> levels = EnumSet.noneOf(Difficulty.class);
+        String pending = "";
+        for (String arg : args) {
+            String lowered = arg.toLowerCase();
+            if (pending.equals("-out")) {
+                fileName = arg;
+                pending = "";
+                continue;
+            }
+            switch (lowered) {
+                case "-easy":
+                case "-medium":
+                case "-hard":
+                    levels.add(Difficulty.fromOption(lowered));
+                    break;
+                case "-random":
+                case "-deduction":
+                case "-probability":
+                    strategy = StandardStrategy.fromOption(lowered);
+                    break;
+                case "-csv":
+                    format = Format.CSV;
+                    break;
+                case "-binary":
+                    format = Format.BINARY;
+                    break;
+                case "-w":
+                case "-width":
+                case "-h":
+                case "-height":
+                case "-boards":
+                case "-threads":
+                case "-seed":
+                case "-out":
+                    pending = lowered.length() == 2 
+                            ? (lowered.equals("-w") ? "-width" : "-height") 
+                            : lowered;
+                    break;
+                default:
+                    try {
+                        long number = Long.parseLong(arg);
+                        switch (pending) {
+                            case "-width":
+                                width = (int) number;
+                                break;
+                            case "-height":
+                                height = (int) number;
+                                break;
+                            case "-boards":
+                                boards = number;
+                                break;
+                            case "-threads":
+                                threads = (int) number;
+                                break;
+                            case "-seed":
+                                seed = number;
+                                break;
+                            default:
+                                System.out.println("Number " + arg 
+                                        + " doesn't follow an option");
+                        }
+                    } catch (NumberFormatException nfe) {
+                        if (!lowered.startsWith("-export")) {
+                            System.out.println("\"" + arg 
+                                    + "\" not recognized as a number nor " 
+                                    + "option");
+                        }
+                    }
+            }
+        }
+        if (levels.isEmpty()) {
+            levels = EnumSet.allOf(Difficulty.class);
+        }
+        if (fileName == null) {
+            fileName = format == Format.CSV ? "boards.csv" : "boards.bin";
+        }
+        Position corner = new Position(height - 1, width - 1);
+        System.out.println("Exporting " + boards + " boards per level of " 
+                + width + " by " + height + " to " + fileName + " on " 
+                + threads + " threads");
+        Path path = Paths.get(fileName);
+        try (FileChannel channel = FileChannel.open(path, 
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, 
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            format.writeHeader(channel);
+            for (Difficulty level : levels) {
+                DatasetExporter exporter = new DatasetExporter(strategy, 
+                        corner, level.mineCount(corner), threads, seed, 
+                        format);
+                long start = System.nanoTime();
+                long bytes = exporter.export(boards, channel);
+                double seconds = (System.nanoTime() - start) / 1.0E9;
+                System.out.println(level.getOption() + ": " + bytes 
+                        + " bytes in " + String.format("%.1f", seconds) 
+                        + " seconds, " + String.format("%.0f", 
+                                boards / seconds) + " boards per second");
+            }
+        } catch (IOException ioe) {
+            System.out.println("Couldn't write " + fileName + ": " 
+                    + ioe.getMessage());
+        }
+    }
+    
+    /**
+     * Sole constructor.
+     * @param gameStrategy The strategy to play each board out with, to count 
+     * the guesses it takes. For example, {@link StandardStrategy#DEDUCTION}. 
+     * It will be called from several threads at once.
+     * @param boardCorner The bottom right corner of the boards. For example, 
+     * (15, 29).
+     * @param mines How many mines each board has. For example, 99.
+     * @param threads How many threads to generate boards on. For example, 8.
+     * @param exportSeed The seed for the boards and the strategy's choices. 
+     * For example, 1729.
+     * @param rowFormat How to write the rows. For example, {@link 
+     * Format#BINARY}.
+     * @throws IllegalArgumentException If <code>threads</code> is less than 1, 
+     * or <code>mines</code> is negative or more than the board can hold.
+     */
+    public DatasetExporter(Strategy gameStrategy, Position boardCorner, 
+            int mines, int threads, long exportSeed, Format rowFormat) {
+        if (threads < 1) {
+            String excMsg = "Thread count " + threads 
+                    + " is not valid, should be at least 1";
+            throw new IllegalArgumentException(excMsg);
+        }
+        long capacity = ((long) boardCorner.getX() + 1) 
+                * ((long) boardCorner.getY() + 1);
+        if (mines < 0 || mines > capacity) {
+            String excMsg = "Mine count " + mines + " is not valid for " 
+                    + capacity + " positions";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.strategy = gameStrategy;
+        this.corner = boardCorner;
+        this.mineCount = mines;
+        this.threadCount = threads;
+        this.seed = exportSeed;
+        this.format = rowFormat;
+    }
+    
+}
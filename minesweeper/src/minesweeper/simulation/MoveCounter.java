@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.simulation;
+
+/**
+ * Counts the moves and guesses a strategy makes. Each simulation thread has 
+ * its own counter, so this class is not thread safe.
+ * @author Alonso del Arte
+ */
+public final class MoveCounter {
+    
+    private long moves = 0L;
+    
+    private long guesses = 0L;
+    
+    /**
+     * Counts a move, that is, a reveal, a flag or an unflag.
+     */
+    public void countMove() {
+        this.moves++;
+    }
+    
+    /**
+     * Counts a guess, that is, a reveal of a position not known to be safe. 
+     * The reveal should also be counted as a move.
+     */
+    public void countGuess() {
+        this.guesses++;
+    }
+    
+    /**
+     * Tells how many moves have been counted.
+     * @return The number of moves. For example, 120.
+     */
+    public long getMoveCount() {
+        return this.moves;
+    }
+    
+    /**
+     * Tells how many guesses have been counted.
+     * @return The number of guesses. For example, 3.
+     */
+    public long getGuessCount() {
+        return this.guesses;
+    }
+    
+    /**
+     * Sets both counts back to 0.
+     */
+    public void reset() {
+        this.moves = 0L;
+        this.guesses = 0L;
+    }
+    
+}
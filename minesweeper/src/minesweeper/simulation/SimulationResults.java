@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.simulation;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tallies the games of a simulation. Every simulation thread adds to the same 
+ * tallies once per game, so they are kept in <code>LongAdder</code> objects, 
+ * which don't make the threads wait on each other.
+ * @author Alonso del Arte
+ */
+public final class SimulationResults {
+    
+    private final LongAdder games = new LongAdder();
+    
+    private final LongAdder wins = new LongAdder();
+    
+    private final LongAdder moves = new LongAdder();
+    
+    private final LongAdder guesses = new LongAdder();
+    
+    private final LongAdder elapsedNanos = new LongAdder();
+    
+    /**
+     * Records one game.
+     * @param won Whether the game was won.
+     * @param moveCount How many moves were made in the game. For example, 
+     * 150.
+     * @param guessCount How many of those moves were guesses. For example, 2.
+     */
+    public void record(boolean won, long moveCount, long guessCount) {
+        this.games.increment();
+        if (won) {
+            this.wins.increment();
+        }
+        this.moves.add(moveCount);
+        this.guesses.add(guessCount);
+    }
+    
+    /**
+     * Adds to the time the simulation has taken, as measured on a clock on the 
+     * wall, not per thread.
+     * @param nanos The time in nanoseconds. For example, 1500000000.
+     */
+    public void addElapsedTime(long nanos) {
+        this.elapsedNanos.add(nanos);
+    }
+    
+    /**
+     * Tells how many games have been recorded.
+     * @return The number of games. For example, 1000000.
+     */
+    public long getGameCount() {
+        return this.games.sum();
+    }
+    
+    /**
+     * Tells how many of the games recorded were won.
+     * @return The number of wins. For example, 380000.
+     */
+    public long getWinCount() {
+        return this.wins.sum();
+    }
+    
+    /**
+     * Gives the fraction of games won.
+     * @return The wins divided by the games, or 0.0 if there are no games. 
+     * For example, 0.38.
+     */
+    public double getWinRate() {
+        long count = this.getGameCount();
+        return count == 0 ? 0.0 : (double) this.getWinCount() / count;
+    }
+    
+    /**
+     * Gives the average number of guesses per game.
+     * @return The guesses divided by the games, or 0.0 if there are no games. 
+     * For example, 1.7.
+     */
+    public double getGuessesPerGame() {
+        long count = this.getGameCount();
+        return count == 0 ? 0.0 : (double) this.guesses.sum() / count;
+    }
+    
+    /**
+     * Tells how many moves were made in all the games recorded.
+     * @return The number of moves. For example, 150000000.
+     */
+    public long getMoveCount() {
+        return this.moves.sum();
+    }
+    
+    /**
+     * Gives the number of moves per second of elapsed time, counting the moves 
+     * on all threads.
+     * @return The rate, or 0.0 if no time has elapsed. For example, 
+     * 25000000.0.
+     */
+    public double getMovesPerSecond() {
+        long nanos = this.elapsedNanos.sum();
+        return nanos == 0 ? 0.0 : this.getMoveCount() * 1.0E9 / nanos;
+    }
+    
+    /**
+     * Summarizes the results in one line.
+     * @return A summary. For example, "1000000 games, 38.00% won, 1.70 
+     * guesses per game, 25000000 moves per second".
+     */
+    @Override
+    public String toString() {
+        return String.format("%d games, %.2f%% won, %.2f guesses per game, " 
+                + "%.0f moves per second", this.getGameCount(), 
+                100.0 * this.getWinRate(), this.getGuessesPerGame(), 
+                this.getMovesPerSecond());
+    }
+    
+}
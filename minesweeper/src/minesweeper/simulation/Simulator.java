@@ -0,0 +1,272 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.simulation;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import minesweeper.Board;
+import minesweeper.BoardPool;
+import minesweeper.Difficulty;
+import minesweeper.MineSweeper;
+import minesweeper.Position;
+
+/**
+ * Plays many games without any user interface, on several threads, to 
+ * measure how well a strategy does. This is what the "-simulate" command line 
+ * option of {@link MineSweeper#main(String[])} runs.
+ * <p>The games are numbered, and each game's board is made from a seed worked 
+ * out from the simulation's seed and the game's number, so that the results 
+ * don't depend on how many threads there are or which thread plays which 
+ * game, and any game can be made again from its {@link minesweeper.GameCode}. 
+ * Each thread has its own pseudorandom number generator for the strategy, 
+ * which it seeds again for each game, and its own move counter, and plays its 
+ * games on boards from a {@link minesweeper.BoardPool}, reset in place rather 
+ * than made anew. Threads take games in batches from a shared atomic counter, 
+ * and add their results to a {@link SimulationResults} once per game.</p>
+ * @author Alonso del Arte
+ */
+public class Simulator {
+    
+    /**
+     * How many games are played per difficulty level if the command line 
+     * doesn't say.
+     */
+    public static final long DEFAULT_GAME_COUNT = 1000000L;
+    
+    private static final int BATCH_SIZE = 64;
+    
+    private final Strategy strategy;
+    
+    private final Position corner;
+    
+    private final int mineCount;
+    
+    private final int threadCount;
+    
+    private final long seed;
+    
+    private final BoardPool boardPool = new BoardPool();
+    
+    /**
+     * Works out the seed for one game.
+     * @param simulationSeed The seed of the whole simulation. For example, 0.
+     * @param game The number of the game. For example, 1729.
+     * @return The seed for the game's pseudorandom number generator.
+     */
+    static long gameSeed(long simulationSeed, long game) {
+        long z = simulationSeed + (game + 1) * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    /**
+     * Plays a game on the calling thread's generator and counter.
+     */
+    private void playGame(long game, Random random, MoveCounter counter, 
+            SimulationResults results) {
+        long boardSeed = gameSeed(this.seed, game);
+        random.setSeed(boardSeed);
+        Board board = this.boardPool.acquire(this.mineCount, this.corner, 
+                boardSeed);
+        counter.reset();
+        this.strategy.play(board, random, counter);
+        results.record(board.gameWon(), counter.getMoveCount(), 
+                counter.getGuessCount());
+        this.boardPool.release(board);
+    }
+    
+    /**
+     * Plays games.
+     * @param games How many games to play. For example, 1000000.
+     * @return The results.
+     * @throws IllegalArgumentException If <code>games</code> is negative.
+     */
+    public SimulationResults run(long games) {
+        if (games < 0) {
+            String excMsg = "Game count " + games 
+                    + " is not valid, should not be negative";
+            throw new IllegalArgumentException(excMsg);
+        }
+        SimulationResults results = new SimulationResults();
+        AtomicLong nextGame = new AtomicLong();
+        List<Callable<Void>> workers = new ArrayList<>();
+        for (int t = 0; t < this.threadCount; t++) {
+            workers.add(() -> {
+                Random random = new Random();
+                MoveCounter counter = new MoveCounter();
+                long first = nextGame.getAndAdd(BATCH_SIZE);
+                while (first < games) {
+                    long end = Math.min(first + BATCH_SIZE, games);
+                    for (long game = first; game < end; game++) {
+                        this.playGame(game, random, counter, results);
+                    }
+                    first = nextGame.getAndAdd(BATCH_SIZE);
+                }
+                return null;
+            });
+        }
+        ForkJoinPool pool = new ForkJoinPool(this.threadCount);
+        long start = System.nanoTime();
+        try {
+            for (Future<Void> future : pool.invokeAll(workers)) {
+                future.get();
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            String excMsg = "Simulation was interrupted or failed";
+            throw new IllegalStateException(excMsg, e);
+        } finally {
+            pool.shutdown();
+        }
+        results.addElapsedTime(System.nanoTime() - start);
+        return results;
+    }
+    
+    /**
+     * Entry point for simulations. Recognizes the options "-easy", "-medium" 
+     * and "-hard", any number of which may be given, and if none is, all three 
+     * are simulated; "-random", "-deduction" and "-probability" for the 
+     * strategy, {@link StandardStrategy#DEDUCTION} by default; and "-w" or 
+     * "-width", "-h" or "-height", "-games", "-threads" and "-seed", each 
+     * followed by a number. Other options, like "-simulate", are ignored.
+     * @param args The command line arguments. For example, "-simulate", 
+     * "-easy", "-games", "1000".
+     */
+    public static void main(String[] args) {
+        int width = MineSweeper.DEFAULT_BOARD_WIDTH;
+        int height = MineSweeper.DEFAULT_BOARD_HEIGHT;
+        long games = DEFAULT_GAME_COUNT;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long seed = 0L;
+        StandardStrategy strategy = StandardStrategy.DEDUCTION;
+        EnumSet<Difficulty> levels = EnumSet.noneOf(Difficulty.class);
+        String pending = "";
+        for (String arg : args) {
+            String lowered = arg.toLowerCase();
+            switch (lowered) {
+                case "-easy":
+                case "-medium":
+                case "-hard":
+                    levels.add(Difficulty.fromOption(lowered));
+                    break;
+                case "-random":
+                case "-deduction":
+                case "-probability":
+                    strategy = StandardStrategy.fromOption(lowered);
+                    break;
+                case "-w":
+                case "-width":
+                case "-h":
+                case "-height":
+                case "-games":
+                case "-threads":
+                case "-seed":
+                    pending = lowered.length() == 2 
+                            ? (lowered.equals("-w") ? "-width" : "-height") 
+                            : lowered;
+                    break;
+                default:
+                    try {
+                        long number = Long.parseLong(arg);
+                        switch (pending) {
+                            case "-width":
+                                width = (int) number;
+                                break;
+                            case "-height":
+                                height = (int) number;
+                                break;
+                            case "-games":
+                                games = number;
+                                break;
+                            case "-threads":
+                                threads = (int) number;
+                                break;
+                            case "-seed":
+                                seed = number;
+                                break;
+                            default:
+                                System.out.println("Number " + arg 
+                                        + " doesn't follow an option");
+                        }
+                    } catch (NumberFormatException nfe) {
+                        if (!lowered.startsWith("-sim")) {
+                            System.out.println("\"" + arg 
+                                    + "\" not recognized as a number nor " 
+                                    + "option");
+                        }
+                    }
+            }
+        }
+        if (levels.isEmpty()) {
+            levels = EnumSet.allOf(Difficulty.class);
+        }
+        Position corner = new Position(height - 1, width - 1);
+        System.out.println("Simulating " + games + " games per level on " 
+                + width + " by " + height + " boards with strategy " 
+                + strategy.getOption() + " on " + threads + " threads");
+        for (Difficulty level : levels) {
+            Simulator simulator = new Simulator(strategy, corner, 
+                    level.mineCount(corner), threads, seed);
+            System.out.println(level.getOption() + ": " 
+                    + simulator.run(games));
+        }
+    }
+    
+    /**
+     * Sole constructor.
+     * @param gameStrategy The strategy to play with. For example, {@link 
+     * StandardStrategy#DEDUCTION}. It will be called from several threads at 
+     * once.
+     * @param boardCorner The bottom right corner of the boards. For example, 
+     * (31, 47).
+     * @param mines How many mines each board has. For example, 153.
+     * @param threads How many threads to play on. For example, 8.
+     * @param simulationSeed The seed for the boards and the strategy's 
+     * choices. For example, 1729.
+     * @throws IllegalArgumentException If <code>threads</code> is less than 1, 
+     * or <code>mines</code> is negative or more than the board can hold.
+     */
+    public Simulator(Strategy gameStrategy, Position boardCorner, int mines, 
+            int threads, long simulationSeed) {
+        if (threads < 1) {
+            String excMsg = "Thread count " + threads 
+                    + " is not valid, should be at least 1";
+            throw new IllegalArgumentException(excMsg);
+        }
+        long capacity = ((long) boardCorner.getX() + 1) 
+                * ((long) boardCorner.getY() + 1);
+        if (mines < 0 || mines > capacity) {
+            String excMsg = "Mine count " + mines + " is not valid for " 
+                    + capacity + " positions";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.strategy = gameStrategy;
+        this.corner = boardCorner;
+        this.mineCount = mines;
+        this.threadCount = threads;
+        this.seed = simulationSeed;
+    }
+    
+}
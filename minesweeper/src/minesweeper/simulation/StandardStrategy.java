@@ -0,0 +1,234 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.simulation;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Random;
+
+import minesweeper.Board;
+import minesweeper.Position;
+import minesweeper.PositionStatus;
+import minesweeper.solver.MineProbabilities;
+import minesweeper.solver.ProbabilitySolver;
+
+/**
+ * The strategies that come with the simulator, corresponding to the 
+ * "-random", "-deduction" and "-probability" command line options of {@link 
+ * Simulator#main(String[])}. All of them flag the covered positions once 
+ * only mines are left, since that's how a game is won.
+ * @author Alonso del Arte
+ */
+public enum StandardStrategy implements Strategy {
+    
+    /**
+     * Reveals covered positions at random. Every move is a guess. This is a 
+     * baseline, and the fastest.
+     */
+    RANDOM ("-random") {
+        
+        @Override
+        public void play(Board board, Random random, MoveCounter counter) {
+            while (board.gameUnderway() && !flagIfOnlyMinesLeft(board, 
+                    counter)) {
+                guess(board, randomCovered(board, random), counter);
+            }
+        }
+        
+    },
+    
+    /**
+     * Reveals around numbers whose mines are all flagged and flags around 
+     * numbers with as many covered neighbors as unflagged mines, one number 
+     * at a time, and guesses at random when that's not enough.
+     */
+    DEDUCTION ("-deduction") {
+        
+        @Override
+        public void play(Board board, Random random, MoveCounter counter) {
+            Position corner = board.getMaxCorner();
+            ArrayList<Position> numbers = new ArrayList<>();
+            while (board.gameUnderway() && !flagIfOnlyMinesLeft(board, 
+                    counter)) {
+                numbers.clear();
+                board.activeNumberIterator().forEachRemaining(numbers::add);
+                boolean progress = false;
+                for (Position number : numbers) {
+                    int covered = board.coveredNeighborCount(number);
+                    if (!board.gameUnderway() || covered == 0) {
+                        continue;
+                    }
+                    int remaining = board.remainingMineCount(number);
+                    if (remaining == 0 || remaining == covered) {
+                        for (Position neighbor : number.getNeighbors(corner)) {
+                            if (board.gameUnderway() && board.query(neighbor)
+                                    .equals(PositionStatus.COVERED)) {
+                                if (remaining == 0) {
+                                    board.reveal(neighbor);
+                                } else {
+                                    board.flag(neighbor);
+                                }
+                                counter.countMove();
+                                progress = true;
+                            }
+                        }
+                    }
+                }
+                if (!progress && board.gameUnderway()) {
+                    guess(board, randomCovered(board, random), counter);
+                }
+            }
+        }
+        
+    },
+    
+    /**
+     * Works out the exact probability of a mine at every covered position, 
+     * flags the certain mines, reveals the certainly safe positions, and 
+     * otherwise guesses the position least likely to be mined. This is much 
+     * slower than the others.
+     */
+    PROBABILITY ("-probability") {
+        
+        @Override
+        public void play(Board board, Random random, MoveCounter counter) {
+            ProbabilitySolver solver = new ProbabilitySolver();
+            while (board.gameUnderway() && !flagIfOnlyMinesLeft(board, 
+                    counter)) {
+                MineProbabilities probabilities 
+                        = solver.computeProbabilities(board);
+                boolean progress = false;
+                for (Position position : probabilities.getMinePositions()) {
+                    if (board.gameUnderway()) {
+                        board.flag(position);
+                        counter.countMove();
+                        progress = true;
+                    }
+                }
+                for (Position position : probabilities.getSafePositions()) {
+                    if (board.gameUnderway() && board.query(position)
+                            .equals(PositionStatus.COVERED)) {
+                        board.reveal(position);
+                        counter.countMove();
+                        progress = true;
+                    }
+                }
+                if (progress || !board.gameUnderway()) {
+                    continue;
+                }
+                Position best = null;
+                Map<Position, Double> frontier 
+                        = probabilities.getFrontierProbabilities();
+                double lowest = board.getCoveredCount() > frontier.size() 
+                        ? probabilities.getOtherProbability() 
+                        : Double.POSITIVE_INFINITY;
+                for (Map.Entry<Position, Double> entry : frontier.entrySet()) {
+                    if (entry.getValue() < lowest) {
+                        best = entry.getKey();
+                        lowest = entry.getValue();
+                    }
+                }
+                if (best == null) {
+                    best = randomCovered(board, random);
+                    while (frontier.containsKey(best)) {
+                        best = randomCovered(board, random);
+                    }
+                }
+                if (lowest == 0.0) {
+                    board.reveal(best);
+                    counter.countMove();
+                } else {
+                    guess(board, best, counter);
+                }
+            }
+        }
+        
+    };
+    
+    private final String option;
+    
+    /**
+     * Picks a covered position at random, by trying random positions until 
+     * one is covered.
+     */
+    private static Position randomCovered(Board board, Random random) {
+        Position corner = board.getMaxCorner();
+        Position position = Position.random(corner, random);
+        while (!board.query(position).equals(PositionStatus.COVERED)) {
+            position = Position.random(corner, random);
+        }
+        return position;
+    }
+    
+    private static void guess(Board board, Position position, 
+            MoveCounter counter) {
+        board.reveal(position);
+        counter.countMove();
+        counter.countGuess();
+    }
+    
+    /**
+     * Flags every covered position if there are as many covered positions as 
+     * unflagged mines, which wins the game if the flags so far are right.
+     * @return True if the positions were flagged, false otherwise.
+     */
+    private static boolean flagIfOnlyMinesLeft(Board board, 
+            MoveCounter counter) {
+        if (board.getCoveredCount() 
+                != board.getMineCount() - board.getFlagCount()) {
+            return false;
+        }
+        Position corner = board.getMaxCorner();
+        for (Position curr = new Position(0, 0); 
+                curr.isWithinBounds(corner) && board.gameUnderway(); 
+                curr = curr.nextColumnWithReset(corner)) {
+            if (board.query(curr).equals(PositionStatus.COVERED)) {
+                board.flag(curr);
+                counter.countMove();
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Gives the command line option for this strategy.
+     * @return The option. For example, "-random" for {@link #RANDOM}.
+     */
+    public String getOption() {
+        return this.option;
+    }
+    
+    /**
+     * Determines the strategy for a command line option.
+     * @param option The option, case insensitive. For example, "-Deduction".
+     * @return The corresponding strategy, or {@link #DEDUCTION} if the option 
+     * is not recognized. For example, {@link #PROBABILITY}.
+     */
+    public static StandardStrategy fromOption(String option) {
+        for (StandardStrategy strategy : values()) {
+            if (strategy.option.equalsIgnoreCase(option)) {
+                return strategy;
+            }
+        }
+        return DEDUCTION;
+    }
+    
+    private StandardStrategy(String opt) {
+        this.option = opt;
+    }
+    
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.simulation;
+
+import java.util.Random;
+
+import minesweeper.Board;
+
+/**
+ * A way of playing Minesweeper, for simulations. Implementations should only 
+ * use what a player could see: the board's public functions other than 
+ * {@link Board#gameWon()} before the game is over.
+ * @author Alonso del Arte
+ */
+@FunctionalInterface
+public interface Strategy {
+    
+    /**
+     * Plays a game to the end.
+     * @param board The board, with nothing revealed yet.
+     * @param random The pseudorandom number generator to use for any choices. 
+     * It belongs to the calling thread.
+     * @param counter The counter to tell of each move and each guess.
+     */
+    void play(Board board, Random random, MoveCounter counter);
+    
+}
@@ -0,0 +1,509 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.simulation;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+import minesweeper.Board;
+import minesweeper.Position;
+import minesweeper.PositionStatus;
+import minesweeper.StatusChangeListener;
+
+/**
+ * Runs many games side by side for reinforcement learning, one move per game 
+ * per step. The caller gives an action for every game, and the environment 
+ * writes back what each game looks like now, the reward for each move and 
+ * whether each game ended. A game that ends starts over right away with new 
+ * mines on the same board, so every game always has a move to make.
+ * <p>An action is a number from 0 to twice the number of positions on a 
+ * board, less 1. Positions are numbered row by row, so that on a 9 by 9 
+ * board, for example, action 40 reveals (4, 4) and action 121 flags or 
+ * unflags it. Revealing a position that isn't covered, flagging a position 
+ * that's neither covered nor flagged, or an action out of range counts as an 
+ * invalid move. A game ends when a mine is detonated, when every position 
+ * without a mine has been revealed, when every mine has been correctly 
+ * flagged, or after a set number of moves.</p>
+ * <p>The observations are kept in one direct byte buffer, with a byte for 
+ * each position of each game holding the ordinal of the position's {@link 
+ * PositionStatus}. Game <i>g</i> takes up the bytes from <i>g</i> times the 
+ * number of positions on. The buffer, the reward array and the done array are 
+ * the same objects from one step to the next, and each game's bytes are 
+ * updated from the board's changes of status as they happen, so a step 
+ * doesn't copy whole boards. When a game ends, its bytes show the new board, 
+ * not the board that just ended.</p>
+ * <p>With more than one thread, the games are split into contiguous slices, 
+ * one per thread. The calling thread plays one slice, and the other threads, 
+ * which are started once and kept until {@link #close()}, play the rest. 
+ * Each board is made from a seed worked out from the environment's seed, the 
+ * game's index and how many times it has started over, so the same actions 
+ * give the same results no matter how many threads there are.</p>
+ * @author Alonso del Arte
+ */
+public final class VectorEnv implements AutoCloseable {
+    
+    /**
+     * The reward for winning a game.
+     */
+    public static final float WIN_REWARD = 1.0F;
+    
+    /**
+     * The reward for detonating a mine.
+     */
+    public static final float LOSS_REWARD = -1.0F;
+    
+    /**
+     * The reward for revealing a position without a mine, unless that wins 
+     * the game.
+     */
+    public static final float PROGRESS_REWARD = 0.1F;
+    
+    /**
+     * The reward for an invalid move.
+     */
+    public static final float INVALID_MOVE_REWARD = -0.1F;
+    
+    private static final byte COVERED_ORDINAL 
+            = (byte) PositionStatus.COVERED.ordinal();
+    
+    private final Position corner;
+    
+    private final int mineCount;
+    
+    private final int gameCount;
+    
+    private final int cellCount;
+    
+    private final int stepLimit;
+    
+    private final long seed;
+    
+    private final Position[] positions;
+    
+    private final Board[] boards;
+    
+    private final ObservationWriter[] writers;
+    
+    private final int[] stepCounts;
+    
+    private final long[] episodes;
+    
+    private final long[] finished;
+    
+    private final long[] wins;
+    
+    private final ByteBuffer observations;
+    
+    private final float[] rewards;
+    
+    private final boolean[] dones;
+    
+    private final int[] sliceStarts;
+    
+    private final CyclicBarrier startBarrier;
+    
+    private final CyclicBarrier finishBarrier;
+    
+    private int[] currentActions;
+    
+    private volatile RuntimeException failure = null;
+    
+    private boolean closed = false;
+    
+    /**
+     * Writes one game's changes of status into its part of the observation 
+     * buffer. Each game keeps its writer from one board to the next.
+     */
+    private final class ObservationWriter implements StatusChangeListener {
+        
+        private final int offset;
+        
+        @Override
+        public void statusChanged(Position position, PositionStatus previous, 
+                PositionStatus current) {
+            VectorEnv.this.observations.put(this.offset 
+                    + position.getX() * (VectorEnv.this.corner.getY() + 1) 
+                    + position.getY(), (byte) current.ordinal());
+        }
+        
+        ObservationWriter(int game) {
+            this.offset = game * VectorEnv.this.cellCount;
+        }
+        
+    }
+    
+    /**
+     * Plays the slice of games from <code>sliceStarts[slice]</code> up to 
+     * <code>sliceStarts[slice + 1]</code> on one of the threads kept for the 
+     * purpose, each time the start barrier is tripped, until the environment 
+     * is closed.
+     */
+    private final class Worker implements Runnable {
+        
+        private final int slice;
+        
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    VectorEnv.this.startBarrier.await();
+                    if (VectorEnv.this.closed) {
+                        return;
+                    }
+                    VectorEnv.this.playSlice(this.slice);
+                    VectorEnv.this.finishBarrier.await();
+                }
+            } catch (InterruptedException | BrokenBarrierException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        
+        Worker(int index) {
+            this.slice = index;
+        }
+        
+    }
+    
+    /**
+     * Starts a game over on its board, reset in place, and clears its 
+     * observations.
+     */
+    private void resetGame(int game) {
+        long episode = this.episodes[game]++;
+        long boardSeed = Simulator.gameSeed(this.seed, 
+                episode * this.gameCount + game);
+        if (this.boards[game] == null) {
+            Board board = Board.makeBoard(this.mineCount, this.corner, 
+                    boardSeed);
+            board.addStatusChangeListener(this.writers[game]);
+            this.boards[game] = board;
+        } else {
+            this.boards[game].reset(boardSeed);
+        }
+        this.stepCounts[game] = 0;
+        int offset = game * this.cellCount;
+        for (int cell = 0; cell < this.cellCount; cell++) {
+            this.observations.put(offset + cell, COVERED_ORDINAL);
+        }
+    }
+    
+    /**
+     * Makes one game's move and fills in its reward and done flag.
+     */
+    private void stepGame(int game, int action) {
+        Board board = this.boards[game];
+        float reward = INVALID_MOVE_REWARD;
+        boolean done = false;
+        if (action >= 0 && action < this.cellCount) {
+            Position position = this.positions[action];
+            if (board.query(position) == PositionStatus.COVERED) {
+                board.reveal(position);
+                if (!board.gameUnderway()) {
+                    reward = board.gameWon() ? WIN_REWARD : LOSS_REWARD;
+                    done = true;
+                } else if (board.getCoveredCount() + board.getFlagCount() 
+                        == board.getMineCount()) {
+                    reward = WIN_REWARD;
+                    done = true;
+                } else {
+                    reward = PROGRESS_REWARD;
+                }
+            }
+        } else if (action >= this.cellCount && action < 2 * this.cellCount) {
+            Position position = this.positions[action - this.cellCount];
+            PositionStatus status = board.query(position);
+            if (status == PositionStatus.COVERED) {
+                board.flag(position);
+                reward = 0.0F;
+            } else if (status == PositionStatus.FLAGGED) {
+                board.unflag(position);
+                reward = 0.0F;
+            }
+            if (board.gameWon()) {
+                reward = WIN_REWARD;
+                done = true;
+            }
+        }
+        if (reward == WIN_REWARD) {
+            this.wins[game]++;
+        }
+        this.stepCounts[game]++;
+        if (this.stepCounts[game] >= this.stepLimit) {
+            done = true;
+        }
+        this.rewards[game] = reward;
+        this.dones[game] = done;
+        if (done) {
+            this.finished[game]++;
+            this.resetGame(game);
+        }
+    }
+    
+    private void playSlice(int slice) {
+        try {
+            int[] actions = this.currentActions;
+            for (int game = this.sliceStarts[slice]; 
+                    game < this.sliceStarts[slice + 1]; game++) {
+                this.stepGame(game, actions[game]);
+            }
+        } catch (RuntimeException re) {
+            this.failure = re;
+        }
+    }
+    
+    private void checkOpen() {
+        if (this.closed) {
+            String excMsg = "Environment has been closed";
+            throw new IllegalStateException(excMsg);
+        }
+    }
+    
+    /**
+     * Tells how many games are played side by side.
+     * @return The number of games. For example, 1024.
+     */
+    public int getGameCount() {
+        return this.gameCount;
+    }
+    
+    /**
+     * Tells how many positions each board has, which is also how many bytes 
+     * each game takes up in the observations.
+     * @return The number of positions. For example, 81.
+     */
+    public int getCellCount() {
+        return this.cellCount;
+    }
+    
+    /**
+     * Gives the observations. This is the same buffer for the life of the 
+     * environment, and its position and limit are never changed, so it 
+     * should be read with absolute gets, or through a duplicate.
+     * @return A direct buffer of the status ordinals of every position of 
+     * every game.
+     */
+    public ByteBuffer getObservations() {
+        return this.observations;
+    }
+    
+    /**
+     * Gives the rewards from the latest step. This is the same array for the 
+     * life of the environment.
+     * @return The reward for each game's latest move. For example, {@link 
+     * #PROGRESS_REWARD} for a game whose latest move revealed a position 
+     * without a mine.
+     */
+    public float[] getRewards() {
+        return this.rewards;
+    }
+    
+    /**
+     * Tells which games ended on the latest step. This is the same array for 
+     * the life of the environment. The games that ended have already started 
+     * over.
+     * @return True for each game that ended on the latest step, false for 
+     * each that didn't.
+     */
+    public boolean[] getDones() {
+        return this.dones;
+    }
+    
+    /**
+     * Tells how many games have been played to the end, counting those that 
+     * ran out of moves but not those cut short by {@link #reset()}.
+     * @return The number of games finished. For example, 50000.
+     */
+    public long getEpisodeCount() {
+        long total = 0L;
+        for (int game = 0; game < this.gameCount; game++) {
+            total += this.finished[game];
+        }
+        return total;
+    }
+    
+    /**
+     * Tells how many games have been won.
+     * @return The number of games won. For example, 20000.
+     */
+    public long getWinCount() {
+        long total = 0L;
+        for (int game = 0; game < this.gameCount; game++) {
+            total += this.wins[game];
+        }
+        return total;
+    }
+    
+    /**
+     * Starts every game over with a new board. Rewards are set to 0 and done 
+     * flags to false.
+     * @throws IllegalStateException If the environment has been closed.
+     */
+    public void reset() {
+        this.checkOpen();
+        for (int game = 0; game < this.gameCount; game++) {
+            this.resetGame(game);
+            this.rewards[game] = 0.0F;
+            this.dones[game] = false;
+        }
+    }
+    
+    /**
+     * Makes one move in every game.
+     * @param actions One action for each game. For example, 40 for each game 
+     * to reveal (4, 4) on a 9 by 9 board. The array is only read during the 
+     * step, so it can be refilled and passed again for the next step.
+     * @throws IllegalArgumentException If there isn't exactly one action per 
+     * game.
+     * @throws IllegalStateException If the environment has been closed or a 
+     * thread fails or is interrupted during the step.
+     */
+    public void step(int[] actions) {
+        this.checkOpen();
+        if (actions.length != this.gameCount) {
+            String excMsg = "Need " + this.gameCount + " actions, got " 
+                    + actions.length;
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.currentActions = actions;
+        if (this.startBarrier == null) {
+            this.playSlice(0);
+        } else {
+            try {
+                this.startBarrier.await();
+                this.playSlice(0);
+                this.finishBarrier.await();
+            } catch (InterruptedException | BrokenBarrierException e) {
+                String excMsg = "Step was interrupted";
+                throw new IllegalStateException(excMsg, e);
+            }
+        }
+        this.currentActions = null;
+        RuntimeException exc = this.failure;
+        if (exc != null) {
+            this.failure = null;
+            String excMsg = "Step failed";
+            throw new IllegalStateException(excMsg, exc);
+        }
+    }
+    
+    /**
+     * Stops the threads kept for stepping. Closing an environment that has 
+     * already been closed has no effect.
+     */
+    @Override
+    public void close() {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        if (this.startBarrier != null) {
+            try {
+                this.startBarrier.await();
+            } catch (InterruptedException | BrokenBarrierException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    /**
+     * Sole constructor. The games start out ready for the first step, as if 
+     * {@link #reset()} had just been called.
+     * @param games How many games to play side by side. For example, 1024.
+     * @param boardCorner The bottom right corner of the boards. For example, 
+     * (8, 8).
+     * @param mines How many mines each board has. For example, 10.
+     * @param threads How many threads to step on, counting the calling 
+     * thread. For example, 8. If this is more than <code>games</code>, only 
+     * as many threads as games are used.
+     * @param maxSteps How many moves a game may take before it's ended 
+     * without a win or a loss. For example, 500.
+     * @param envSeed The seed for the boards. For example, 1729.
+     * @throws IllegalArgumentException If <code>games</code>, 
+     * <code>threads</code> or <code>maxSteps</code> is less than 1, if 
+     * <code>mines</code> is negative or more than the board can hold, or if 
+     * the observations wouldn't fit in one buffer.
+     */
+    public VectorEnv(int games, Position boardCorner, int mines, int threads, 
+            int maxSteps, long envSeed) {
+        if (games < 1 || threads < 1 || maxSteps < 1) {
+            String excMsg = "Game count " + games + ", thread count " 
+                    + threads + " and step limit " + maxSteps 
+                    + " should all be at least 1";
+            throw new IllegalArgumentException(excMsg);
+        }
+        long cells = ((long) boardCorner.getX() + 1) 
+                * ((long) boardCorner.getY() + 1);
+        if (mines < 0 || mines > cells) {
+            String excMsg = "Mine count " + mines + " is not valid for " 
+                    + cells + " positions";
+            throw new IllegalArgumentException(excMsg);
+        }
+        if (2 * cells * games > Integer.MAX_VALUE) {
+            String excMsg = games + " games of " + cells 
+                    + " positions each are too many to observe at once";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.corner = boardCorner;
+        this.mineCount = mines;
+        this.gameCount = games;
+        this.cellCount = (int) cells;
+        this.stepLimit = maxSteps;
+        this.seed = envSeed;
+        this.positions = new Position[this.cellCount];
+        int columns = boardCorner.getY() + 1;
+        for (int cell = 0; cell < this.cellCount; cell++) {
+            this.positions[cell] = new Position(cell / columns, 
+                    cell % columns);
+        }
+        this.boards = new Board[games];
+        this.writers = new ObservationWriter[games];
+        for (int game = 0; game < games; game++) {
+            this.writers[game] = new ObservationWriter(game);
+        }
+        this.stepCounts = new int[games];
+        this.episodes = new long[games];
+        this.finished = new long[games];
+        this.wins = new long[games];
+        this.observations = ByteBuffer.allocateDirect(games * this.cellCount);
+        this.rewards = new float[games];
+        this.dones = new boolean[games];
+        for (int game = 0; game < games; game++) {
+            this.resetGame(game);
+        }
+        int sliceCount = Math.min(threads, games);
+        this.sliceStarts = new int[sliceCount + 1];
+        for (int slice = 0; slice <= sliceCount; slice++) {
+            this.sliceStarts[slice] 
+                    = (int) ((long) games * slice / sliceCount);
+        }
+        if (sliceCount == 1) {
+            this.startBarrier = null;
+            this.finishBarrier = null;
+        } else {
+            this.startBarrier = new CyclicBarrier(sliceCount);
+            this.finishBarrier = new CyclicBarrier(sliceCount);
+            for (int slice = 1; slice < sliceCount; slice++) {
+                Thread thread = new Thread(new Worker(slice), 
+                        "VectorEnv-" + slice);
+                thread.setDaemon(true);
+                thread.start();
+            }
+        }
+    }
+    
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.util.Optional;
+
+import minesweeper.Position;
+
+/**
+ * The results of analyzing a board state: the mine probabilities, what can be 
+ * deduced from them and a hint for the next move. This class is immutable, so 
+ * one analysis can be handed out to any number of callers asking about the 
+ * same state.
+ * @author Alonso del Arte
+ */
+public final class Analysis {
+    
+    private final MineProbabilities probabilities;
+    
+    private final Deductions deductions;
+    
+    private final Optional<Position> hint;
+    
+    /**
+     * Gives the mine probabilities.
+     * @return The probabilities.
+     */
+    public MineProbabilities getProbabilities() {
+        return this.probabilities;
+    }
+    
+    /**
+     * Gives the safe and mined positions.
+     * @return The positions with probability 0 or 1.
+     */
+    public Deductions getDeductions() {
+        return this.deductions;
+    }
+    
+    /**
+     * Gives a suggested next move: a safe position if there is one, otherwise 
+     * the covered position least likely to have a mine.
+     * @return The position to reveal, or an empty <code>Optional</code> if 
+     * there is nothing left to reveal.
+     */
+    public Optional<Position> getHint() {
+        return this.hint;
+    }
+    
+    /**
+     * Sole constructor.
+     * @param mineProbabilities The probabilities.
+     * @param safeAndMined The deductions.
+     * @param nextMove The hint, if any.
+     */
+    Analysis(MineProbabilities mineProbabilities, Deductions safeAndMined, 
+            Optional<Position> nextMove) {
+        this.probabilities = mineProbabilities;
+        this.deductions = safeAndMined;
+        this.hint = nextMove;
+    }
+    
+}
@@ -0,0 +1,126 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import minesweeper.Board;
+import minesweeper.Position;
+import minesweeper.PositionStatus;
+
+/**
+ * What a player can see of a board, with a few conveniences for solvers. Only 
+ * the public API of {@link Board} is used, so nothing is known about mines that 
+ * have not been revealed.
+ * @author Alonso del Arte
+ */
+final class BoardView {
+    
+    private static final int NOT_A_NUMBER = -1;
+    
+    private final Board board;
+    
+    private final Position corner;
+    
+    /**
+     * Gives the board this view is of.
+     * @return The board.
+     */
+    Board getBoard() {
+        return this.board;
+    }
+    
+    /**
+     * Gives the bottom right corner of the board.
+     * @return The corner. For example, (9, 25).
+     */
+    Position getCorner() {
+        return this.corner;
+    }
+    
+    /**
+     * Gives the number shown on a position.
+     * @param status The status of the position. For example, {@link 
+     * PositionStatus#REVEALED_EMPTY_NEAR_3}.
+     * @return The number of neighboring mines if the position has been 
+     * revealed to be empty, from 0 to 8, or &minus;1 if the position is 
+     * covered, flagged or mined. For example, 3.
+     */
+    static int numberOf(PositionStatus status) {
+        int ordinal = status.ordinal();
+        if (ordinal <= PositionStatus.REVEALED_EMPTY_NEAR_8.ordinal()) {
+            return ordinal;
+        }
+        return NOT_A_NUMBER;
+    }
+    
+    /**
+     * Gives the status of a position.
+     * @param position The position. For example, (4, 7).
+     * @return The status. For example, {@link PositionStatus#COVERED}.
+     */
+    PositionStatus query(Position position) {
+        return this.board.query(position);
+    }
+    
+    /**
+     * Gives the number shown on a position.
+     * @param position The position. For example, (4, 7).
+     * @return The number of neighboring mines, or &minus;1 if the position is 
+     * not a revealed empty position.
+     */
+    int numberAt(Position position) {
+        return numberOf(this.board.query(position));
+    }
+    
+    /**
+     * Gives the immediate neighbors of a position that are on the board. 
+     * Unlike {@link Position#getNeighbors(Position)}, this doesn't build a 
+     * hash set, and the neighbors always come in the same order, which keeps 
+     * solvers deterministic.
+     * @param position The position. For example, (0, 5).
+     * @return An array of three to eight positions. For example, (0, 4), (0, 
+     * 6), (1, 4), (1, 5), (1, 6).
+     */
+    Position[] neighbors(Position position) {
+        int x = position.getX();
+        int y = position.getY();
+        int minX = Math.max(0, x - 1);
+        int maxX = Math.min(this.corner.getX(), x + 1);
+        int minY = Math.max(0, y - 1);
+        int maxY = Math.min(this.corner.getY(), y + 1);
+        Position[] result 
+                = new Position[(maxX - minX + 1) * (maxY - minY + 1) - 1];
+        int index = 0;
+        for (int i = minX; i <= maxX; i++) {
+            for (int j = minY; j <= maxY; j++) {
+                if (i != x || j != y) {
+                    result[index++] = new Position(i, j);
+                }
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Sole constructor.
+     * @param gameBoard The board to view.
+     */
+    BoardView(Board gameBoard) {
+        this.board = gameBoard;
+        this.corner = gameBoard.getMaxCorner();
+    }
+    
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.util.Map;
+import java.util.Optional;
+
+import minesweeper.Board;
+import minesweeper.Position;
+import minesweeper.PositionStatus;
+
+/**
+ * Analyzes boards, remembering the analyses by state hash. Asking about the 
+ * same state again, whether on the same board or on another board with the 
+ * same dimensions and number of mines, gives back the same analysis without 
+ * solving anything. A player pressing the hint key over and over, or a search 
+ * that reaches the same state by different orders of moves, then costs one 
+ * solve per state.
+ * @author Alonso del Arte
+ */
+public class CachingAnalyzer {
+    
+    private final ProbabilitySolver solver;
+    
+    private final TranspositionCache<Analysis> cache;
+    
+    private static boolean precedes(Position a, Position b) {
+        return a.getX() < b.getX() 
+                || (a.getX() == b.getX() && a.getY() < b.getY());
+    }
+    
+    private static Optional<Position> chooseHint(Board board, 
+            MineProbabilities probabilities) {
+        if (!board.gameUnderway()) {
+            return Optional.empty();
+        }
+        Position best = null;
+        double bestProbability = 2.0;
+        for (Map.Entry<Position, Double> entry 
+                : probabilities.getFrontierProbabilities().entrySet()) {
+            double probability = entry.getValue();
+            if (probability < bestProbability || (probability 
+                    == bestProbability && precedes(entry.getKey(), best))) {
+                best = entry.getKey();
+                bestProbability = probability;
+            }
+        }
+        int others = board.getCoveredCount() 
+                - probabilities.getFrontierProbabilities().size();
+        if (others > 0 
+                && probabilities.getOtherProbability() < bestProbability) {
+            Position corner = board.getMaxCorner();
+            for (Position curr = new Position(0, 0); 
+                    curr.isWithinBounds(corner); 
+                    curr = curr.nextColumnWithReset(corner)) {
+                if (board.query(curr).equals(PositionStatus.COVERED) 
+                        && !probabilities.getFrontierProbabilities()
+                                .containsKey(curr)) {
+                    return Optional.of(curr);
+                }
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+    
+    /**
+     * Analyzes a board, or gives back the analysis of an earlier board in the 
+     * same state.
+     * @param board The board. It should not change during the analysis.
+     * @return The analysis.
+     * @throws IllegalStateException If no arrangement of mines agrees with 
+     * what the player can see. Such states are not cached.
+     */
+    public Analysis analyze(Board board) {
+        long hash = board.getStateHash();
+        Analysis analysis = this.cache.get(hash);
+        if (analysis == null) {
+            MineProbabilities probabilities 
+                    = this.solver.computeProbabilities(board);
+            Deductions deductions 
+                    = new Deductions(probabilities.getSafePositions(), 
+                            probabilities.getMinePositions());
+            analysis = new Analysis(probabilities, deductions, 
+                    chooseHint(board, probabilities));
+            this.cache.put(hash, analysis);
+        }
+        return analysis;
+    }
+    
+    /**
+     * Gives the cache, for example to check how often it hits.
+     * @return The cache.
+     */
+    public TranspositionCache<Analysis> getCache() {
+        return this.cache;
+    }
+    
+    /**
+     * Constructor with a probability solver on the common fork/join pool.
+     * @param capacity How many analyses to keep. For example, 1024.
+     * @throws IllegalArgumentException If <code>capacity</code> is less than 
+     * 1.
+     */
+    public CachingAnalyzer(int capacity) {
+        this(capacity, new ProbabilitySolver());
+    }
+    
+    /**
+     * Constructor with a specific probability solver.
+     * @param capacity How many analyses to keep. For example, 1024.
+     * @param probabilitySolver The solver to analyze states the cache 
+     * doesn't have.
+     * @throws IllegalArgumentException If <code>capacity</code> is less than 
+     * 1.
+     */
+    public CachingAnalyzer(int capacity, ProbabilitySolver probabilitySolver) {
+        this.cache = new TranspositionCache<>(capacity);
+        this.solver = probabilitySolver;
+    }
+    
+}
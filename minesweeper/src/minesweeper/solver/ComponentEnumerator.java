@@ -0,0 +1,254 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.util.ArrayList;
+
+/**
+ * Enumerates the mine assignments of one component of a frontier that satisfy 
+ * all of the component's constraints, by backtracking. Rather than keep the 
+ * assignments, it tallies them by number of mines: how many assignments have 
+ * <i>m</i> mines, and for each variable, how many of those have a mine on that 
+ * variable. That is all that's needed to weigh the component against the rest 
+ * of the board.
+ * @author Alonso del Arte
+ */
+final class ComponentEnumerator {
+    
+    private final int variableCount;
+    
+    private final int[][] constraintMembers;
+    
+    private final int[] constraintTargets;
+    
+    private final int[][] variableConstraints;
+    
+    private final int[] assignedMines;
+    
+    private final int[] unassigned;
+    
+    private final boolean[] assignment;
+    
+    /**
+     * How many satisfying assignments have <i>m</i> mines, indexed by 
+     * <i>m</i>.
+     */
+    final double[] solutionCounts;
+    
+    /**
+     * For each variable, in component order, how many satisfying assignments 
+     * with <i>m</i> mines put a mine on it, indexed by <i>m</i>.
+     */
+    final double[][] mineCounts;
+    
+    /**
+     * The satisfying assignments, each as the local indices of its mined 
+     * variables, if they're being kept.
+     */
+    final ArrayList<int[]> solutions = new ArrayList<>();
+    
+    private int solutionLimit = -1;
+    
+    private boolean abandoned = false;
+    
+    private int targetMines = -1;
+    
+    private int[] found = null;
+    
+    private boolean feasible(int variable, boolean mine) {
+        for (int c : this.variableConstraints[variable]) {
+            int mines = this.assignedMines[c] + (mine ? 1 : 0);
+            int open = this.unassigned[c] - 1;
+            int target = this.constraintTargets[c];
+            if (mines > target || mines + open < target) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private void set(int variable, boolean mine, int delta) {
+        for (int c : this.variableConstraints[variable]) {
+            this.unassigned[c] -= delta;
+            if (mine) {
+                this.assignedMines[c] += delta;
+            }
+        }
+    }
+    
+    private int[] minedVariables(int mines) {
+        int[] mined = new int[mines];
+        int index = 0;
+        for (int v = 0; v < this.variableCount; v++) {
+            if (this.assignment[v]) {
+                mined[index++] = v;
+            }
+        }
+        return mined;
+    }
+    
+    private void record(int mines) {
+        if (this.targetMines >= 0) {
+            this.found = this.minedVariables(mines);
+            this.abandoned = true;
+            return;
+        }
+        if (this.solutionLimit >= 0) {
+            if (this.solutions.size() == this.solutionLimit) {
+                this.abandoned = true;
+                return;
+            }
+            this.solutions.add(this.minedVariables(mines));
+        }
+        this.solutionCounts[mines]++;
+        for (int v = 0; v < this.variableCount; v++) {
+            if (this.assignment[v]) {
+                this.mineCounts[v][mines]++;
+            }
+        }
+    }
+    
+    private void enumerate(int variable, int mines) {
+        if (this.abandoned) {
+            return;
+        }
+        if (this.targetMines >= 0 && (mines > this.targetMines 
+                || mines + this.variableCount - variable < this.targetMines)) {
+            return;
+        }
+        if (variable == this.variableCount) {
+            this.record(mines);
+            return;
+        }
+        if (this.feasible(variable, false)) {
+            this.set(variable, false, 1);
+            this.assignment[variable] = false;
+            this.enumerate(variable + 1, mines);
+            this.set(variable, false, -1);
+        }
+        if (this.feasible(variable, true)) {
+            this.set(variable, true, 1);
+            this.assignment[variable] = true;
+            this.enumerate(variable + 1, mines + 1);
+            this.set(variable, true, -1);
+            this.assignment[variable] = false;
+        }
+    }
+    
+    /**
+     * Tells how many variables the component has.
+     * @return The number of variables. For example, 24.
+     */
+    int getVariableCount() {
+        return this.variableCount;
+    }
+    
+    /**
+     * Runs the enumeration. This may take a while for large components with 
+     * loose constraints.
+     * @return This enumerator, for convenience.
+     */
+    ComponentEnumerator run() {
+        this.enumerate(0, 0);
+        return this;
+    }
+    
+    /**
+     * Runs the enumeration, keeping each satisfying assignment in {@link 
+     * #solutions}, unless there are too many of them to keep.
+     * @param limit The most assignments to keep. For example, 10000.
+     * @return True if all the satisfying assignments were kept, false if the 
+     * enumeration was given up on finding one more than <code>limit</code>, 
+     * in which case the tallies are incomplete.
+     */
+    boolean collect(int limit) {
+        this.solutionLimit = limit;
+        this.enumerate(0, 0);
+        return !this.abandoned;
+    }
+    
+    /**
+     * Looks for one satisfying assignment with a given number of mines, 
+     * stopping at the first one found. Branches that can't end up with that 
+     * many mines are cut off. Neither the tallies nor {@link #solutions} are 
+     * touched, so this may be called any number of times, before or after 
+     * the enumeration.
+     * @param mines The number of mines. For example, 7.
+     * @return The local indices of the mined variables of the assignment 
+     * found, or null if no satisfying assignment has that many mines.
+     */
+    int[] findWithMines(int mines) {
+        boolean wasAbandoned = this.abandoned;
+        this.targetMines = mines;
+        this.found = null;
+        this.abandoned = false;
+        this.enumerate(0, 0);
+        this.targetMines = -1;
+        this.abandoned = wasAbandoned;
+        return this.found;
+    }
+    
+    /**
+     * Sets up an enumeration. Nothing is enumerated until {@link #run()} or 
+     * {@link #collect(int)} is called.
+     * @param frontier The frontier.
+     * @param component One of the frontier's components.
+     */
+    ComponentEnumerator(Frontier frontier, Frontier.Component component) {
+        this.variableCount = component.variables.length;
+        int[] localIndex = new int[frontier.variables.length];
+        for (int i = 0; i < this.variableCount; i++) {
+            localIndex[component.variables[i]] = i;
+        }
+        int constraintCount = component.constraints.length;
+        this.constraintMembers = new int[constraintCount][];
+        this.constraintTargets = new int[constraintCount];
+        ArrayList<ArrayList<Integer>> byVariable = new ArrayList<>();
+        for (int i = 0; i < this.variableCount; i++) {
+            byVariable.add(new ArrayList<>());
+        }
+        for (int c = 0; c < constraintCount; c++) {
+            int global = component.constraints[c];
+            int[] members = frontier.constraintVariables[global];
+            this.constraintMembers[c] = new int[members.length];
+            for (int k = 0; k < members.length; k++) {
+                int local = localIndex[members[k]];
+                this.constraintMembers[c][k] = local;
+                byVariable.get(local).add(c);
+            }
+            this.constraintTargets[c] = frontier.constraintCounts[global];
+        }
+        this.variableConstraints = new int[this.variableCount][];
+        for (int i = 0; i < this.variableCount; i++) {
+            ArrayList<Integer> list = byVariable.get(i);
+            this.variableConstraints[i] = new int[list.size()];
+            for (int k = 0; k < list.size(); k++) {
+                this.variableConstraints[i][k] = list.get(k);
+            }
+        }
+        this.assignedMines = new int[constraintCount];
+        this.unassigned = new int[constraintCount];
+        for (int c = 0; c < constraintCount; c++) {
+            this.unassigned[c] = this.constraintMembers[c].length;
+        }
+        this.assignment = new boolean[this.variableCount];
+        this.solutionCounts = new double[this.variableCount + 1];
+        this.mineCounts = new double[this.variableCount][this.variableCount 
+                + 1];
+    }
+    
+}
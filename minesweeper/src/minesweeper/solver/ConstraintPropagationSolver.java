@@ -0,0 +1,180 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+
+import minesweeper.Board;
+import minesweeper.Position;
+import minesweeper.PositionStatus;
+import minesweeper.StatusChangeListener;
+
+/**
+ * Plays a board using the two basic rules of Minesweeper, one revealed number 
+ * at a time. If a number already has as many flagged neighbors as it says, its 
+ * other covered neighbors are safe and get revealed. If a number has exactly as 
+ * many flagged and covered neighbors as it says, its covered neighbors are 
+ * mines and get flagged. The solver assumes that flags are correct, which they 
+ * are if the solver is the only one placing them.
+ * <p>Rather than rescanning the board after every move, the solver keeps a 
+ * worklist of the numbers that could have something new to say. It listens to 
+ * the board, and whenever a position changes, the position itself (if it's a 
+ * number) and the numbers around it go on the worklist. Each number is then 
+ * looked at only when one of its neighbors changes, so the total work is 
+ * proportional to the number of positions that change, not the number of 
+ * moves times the size of the board. When the solver is constructed, it picks 
+ * up the numbers already showing from the board's frontier index, without 
+ * scanning the board.</p>
+ * <p>The solver is deterministic: given the same board in the same state, it 
+ * makes the same moves in the same order.</p>
+ * @author Alonso del Arte
+ */
+public class ConstraintPropagationSolver implements StatusChangeListener {
+    
+    private final BoardView view;
+    
+    private final ArrayDeque<Position> worklist = new ArrayDeque<>();
+    
+    private final HashSet<Position> queued = new HashSet<>();
+    
+    private int movesMade = 0;
+    
+    private void enqueue(Position position) {
+        if (this.queued.add(position)) {
+            this.worklist.add(position);
+        }
+    }
+    
+    @Override
+    public void statusChanged(Position position, PositionStatus previous, 
+            PositionStatus current) {
+        if (BoardView.numberOf(current) > 0) {
+            this.enqueue(position);
+        }
+        for (Position neighbor : this.view.neighbors(position)) {
+            if (this.view.numberAt(neighbor) > 0) {
+                this.enqueue(neighbor);
+            }
+        }
+    }
+    
+    /**
+     * Tells how many moves this solver has made so far.
+     * @return The number of positions revealed or flagged by this solver. For 
+     * example, 0 right after construction.
+     */
+    public int getMovesMade() {
+        return this.movesMade;
+    }
+    
+    /**
+     * Tells whether the solver has numbers left to look at. When this is 
+     * false, the solver is stuck until someone else makes a move, most likely 
+     * a guess.
+     * @return True if there are numbers on the worklist, false if not.
+     */
+    public boolean hasWork() {
+        return !this.worklist.isEmpty();
+    }
+    
+    private void process(Position position) {
+        int number = this.view.numberAt(position);
+        if (number < 1) {
+            return;
+        }
+        Board board = this.view.getBoard();
+        int flagged = 0;
+        ArrayList<Position> covered = new ArrayList<>(8);
+        for (Position neighbor : this.view.neighbors(position)) {
+            PositionStatus status = board.query(neighbor);
+            if (status.equals(PositionStatus.FLAGGED)) {
+                flagged++;
+            } else if (status.equals(PositionStatus.COVERED)) {
+                covered.add(neighbor);
+            }
+        }
+        if (covered.isEmpty()) {
+            return;
+        }
+        if (flagged == number) {
+            for (Position safe : covered) {
+                if (!board.gameUnderway()) {
+                    return;
+                }
+                if (board.query(safe).equals(PositionStatus.COVERED)) {
+                    board.reveal(safe);
+                    this.movesMade++;
+                }
+            }
+        } else if (flagged + covered.size() == number) {
+            for (Position mine : covered) {
+                if (!board.gameUnderway()) {
+                    return;
+                }
+                if (board.query(mine).equals(PositionStatus.COVERED)) {
+                    board.flag(mine);
+                    this.movesMade++;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Makes every move the two basic rules allow, until there are no numbers 
+     * left on the worklist or the game is over.
+     * @return How many moves were made by this call. For example, 0 if the 
+     * solver is stuck.
+     */
+    public int solve() {
+        int before = this.movesMade;
+        Board board = this.view.getBoard();
+        while (!this.worklist.isEmpty() && board.gameUnderway()) {
+            Position position = this.worklist.remove();
+            this.queued.remove(position);
+            this.process(position);
+        }
+        return this.movesMade - before;
+    }
+    
+    /**
+     * Stops listening to the board. The solver should not be used after this.
+     */
+    public void detach() {
+        this.view.getBoard().removeStatusChangeListener(this);
+        this.worklist.clear();
+        this.queued.clear();
+    }
+    
+    /**
+     * Sole constructor. Picks up the numbers already showing that still have 
+     * covered neighbors, and starts listening to the board for changes.
+     * @param board The board to play. Moves may be made on it by others 
+     * between calls to {@link #solve()}, for example a first guess.
+     */
+    public ConstraintPropagationSolver(Board board) {
+        this.view = new BoardView(board);
+        Iterator<Position> numbers = board.activeNumberIterator();
+        while (numbers.hasNext()) {
+            this.enqueue(numbers.next());
+        }
+        board.addStatusChangeListener(this);
+    }
+    
+}
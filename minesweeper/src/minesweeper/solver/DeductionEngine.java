@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import minesweeper.Board;
+
+/**
+ * Finds covered positions that are certainly safe or certainly mined. Engines 
+ * differ in how much they can find and how long they take, but none of them 
+ * make moves, and none of them look at anything other than what the player can 
+ * see.
+ * @author Alonso del Arte
+ */
+public interface DeductionEngine {
+    
+    /**
+     * Finds what can be deduced about a board's covered positions.
+     * @param board The board. It should not change during the deduction.
+     * @return The positions found to be safe or mined. Engines that are not 
+     * complete may miss some.
+     */
+    Deductions deduce(Board board);
+    
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import minesweeper.Position;
+
+/**
+ * Covered positions that can be proven safe or proven mined from what the 
+ * player can see. This class is immutable.
+ * @author Alonso del Arte
+ */
+public final class Deductions {
+    
+    /**
+     * Deductions with no positions at all.
+     */
+    public static final Deductions NONE = new Deductions(new HashSet<>(), 
+            new HashSet<>());
+    
+    private final Set<Position> safePositions;
+    
+    private final Set<Position> minePositions;
+    
+    /**
+     * Gives the positions proven not to have mines.
+     * @return An unmodifiable set, which may be empty.
+     */
+    public Set<Position> getSafePositions() {
+        return this.safePositions;
+    }
+    
+    /**
+     * Gives the positions proven to have mines.
+     * @return An unmodifiable set, which may be empty.
+     */
+    public Set<Position> getMinePositions() {
+        return this.minePositions;
+    }
+    
+    /**
+     * Tells whether anything was deduced.
+     * @return True if there are neither safe positions nor mined positions, 
+     * false otherwise.
+     */
+    public boolean isEmpty() {
+        return this.safePositions.isEmpty() && this.minePositions.isEmpty();
+    }
+    
+    @Override
+    public String toString() {
+        return "Deductions: safe " + this.safePositions.toString() + ", mined " 
+                + this.minePositions.toString();
+    }
+    
+    /**
+     * Sole constructor. The collections are copied.
+     * @param safe The positions proven safe.
+     * @param mined The positions proven to have mines.
+     */
+    public Deductions(Collection<Position> safe, Collection<Position> mined) {
+        this.safePositions = Collections.unmodifiableSet(new HashSet<>(safe));
+        this.minePositions = Collections.unmodifiableSet(new HashSet<>(mined));
+    }
+    
+}
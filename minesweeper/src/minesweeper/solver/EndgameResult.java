@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import minesweeper.Position;
+
+/**
+ * The outcome of an endgame search: for each covered position that might be 
+ * safe, the probability of winning the game by revealing it next and then 
+ * playing perfectly. This class is immutable.
+ * @author Alonso del Arte
+ */
+public final class EndgameResult {
+    
+    private final Map<Position, Double> winProbabilities;
+    
+    private final Position bestMove;
+    
+    private final int layoutCount;
+    
+    /**
+     * Gives the win probability of each candidate move.
+     * @return An unmodifiable map from position to probability. Positions 
+     * that are certainly mined are left out.
+     */
+    public Map<Position, Double> getWinProbabilities() {
+        return this.winProbabilities;
+    }
+    
+    /**
+     * Gives the move with the highest win probability. Ties go to the 
+     * position that comes first reading row by row.
+     * @return The best move. For example, (15, 28). Empty if every covered 
+     * position is certainly mined, in which case flagging them wins.
+     */
+    public Optional<Position> getBestMove() {
+        return Optional.ofNullable(this.bestMove);
+    }
+    
+    /**
+     * Gives the probability of winning with perfect play from here on.
+     * @return The win probability of the best move. For example, 0.5 for a 
+     * true coin flip. If every covered position is certainly mined, 1.0.
+     */
+    public double getWinProbability() {
+        if (this.bestMove == null) {
+            return 1.0;
+        }
+        return this.winProbabilities.get(this.bestMove);
+    }
+    
+    /**
+     * Tells how many arrangements of the remaining mines agree with what the 
+     * player can see. Each one was taken to be equally likely.
+     * @return The number of layouts. For example, 2.
+     */
+    public int getLayoutCount() {
+        return this.layoutCount;
+    }
+    
+    /**
+     * Sole constructor.
+     * @param probabilities The win probability of each candidate move. May be 
+     * empty.
+     * @param layouts The number of layouts searched.
+     */
+    EndgameResult(Map<Position, Double> probabilities, int layouts) {
+        this.winProbabilities 
+                = Collections.unmodifiableMap(new HashMap<>(probabilities));
+        Position best = null;
+        double bestProbability = -1.0;
+        for (Map.Entry<Position, Double> entry : probabilities.entrySet()) {
+            Position position = entry.getKey();
+            double probability = entry.getValue();
+            if (probability > bestProbability 
+                    || (probability == bestProbability 
+                    && (position.getX() < best.getX() 
+                    || (position.getX() == best.getX() 
+                    && position.getY() < best.getY())))) {
+                best = position;
+                bestProbability = probability;
+            }
+        }
+        this.bestMove = best;
+        this.layoutCount = layouts;
+    }
+    
+}
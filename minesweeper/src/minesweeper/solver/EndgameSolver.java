@@ -0,0 +1,500 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import minesweeper.Board;
+import minesweeper.Position;
+import minesweeper.PositionStatus;
+
+/**
+ * Computes the exact probability of winning with each possible next move, 
+ * when few covered positions remain. Every arrangement of the remaining mines 
+ * that agrees with what the player can see is listed, as a bit mask over the 
+ * covered positions, and the game tree is searched over those layouts: 
+ * revealing a position loses in the layouts that have a mine there and splits 
+ * the others by the number that would show. The probability of winning from a 
+ * set of layouts is that of the best move, and a set of one layout is a sure 
+ * win, since every safe position is then known.
+ * <p>The win probability from a set of layouts doesn't depend on how the set 
+ * was reached, so it is memoized on a hash of the set, made by combining a 
+ * hash of each layout with exclusive or. Different orders of moves that rule 
+ * out the same layouts then share the work. Within the tree, moves are tried 
+ * in order of their chance of being safe, which bounds their win probability, 
+ * so that once a move is found that wins at least that often, the rest are 
+ * skipped; a move is also abandoned as soon as the outcomes left to look at 
+ * can't lift it past the best move so far. Positions that are safe in every 
+ * layout are revealed first, since doing so costs nothing, and of positions 
+ * that would show the same thing in every layout only one is tried. At the 
+ * root, each move is searched exactly, in parallel on a fork/join pool.</p>
+ * <p>Flags are assumed to be correct. The number of covered positions is 
+ * limited to {@value #MAX_UNKNOWNS}, and the number of layouts to the limit 
+ * given to the constructor, past which the search would take too long 
+ * anyway.</p>
+ * @author Alonso del Arte
+ */
+public class EndgameSolver {
+    
+    /**
+     * The most covered positions, not counting flagged ones, this solver can 
+     * deal with.
+     */
+    public static final int MAX_UNKNOWNS = 63;
+    
+    /**
+     * The default limit on the number of layouts.
+     */
+    public static final int DEFAULT_MAX_LAYOUTS = 1 << 16;
+    
+    private static final int MAX_NUMBER = 8;
+    
+    private static final long OUTCOME_MULTIPLIER = 0x9E3779B97F4A7C15L;
+    
+    private final ForkJoinPool pool;
+    
+    private final int maxLayouts;
+    
+    /**
+     * One search: the covered positions, which of them neighbor each other, 
+     * and the memo.
+     */
+    private static final class Search {
+        
+        private final long[] neighborMasks;
+        
+        private final ConcurrentHashMap<Long, Double> memo 
+                = new ConcurrentHashMap<>();
+        
+        private static long mix(long value) {
+            long z = value * 0x9E3779B97F4A7C15L;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+        
+        /**
+         * Hashes what revealing a position would show in each of the given 
+         * layouts, a mine or a number. Two positions with the same outcomes 
+         * are the same move as far as the search is concerned, so only one of 
+         * them needs to be tried.
+         */
+        private long outcomeHash(long[] layouts, int cell) {
+            long bit = 1L << cell;
+            long around = this.neighborMasks[cell];
+            long hash = 0L;
+            for (long layout : layouts) {
+                int shown = (layout & bit) != 0 ? MAX_NUMBER + 1 
+                        : Long.bitCount(layout & around);
+                hash = hash * OUTCOME_MULTIPLIER + shown;
+            }
+            return hash;
+        }
+        
+        /**
+         * Works out the probability of winning by revealing a position, as a 
+         * fraction of the given layouts, or gives up once it's clear the 
+         * probability won't exceed a bound.
+         * @return The win probability, or a number no greater than 
+         * <code>bound</code> if the search was cut short.
+         */
+        private double evaluate(long[] layouts, int cell, double bound) {
+            int size = layouts.length;
+            long bit = 1L << cell;
+            long around = this.neighborMasks[cell];
+            int[] groupSizes = new int[MAX_NUMBER + 1];
+            int safeCount = 0;
+            for (long layout : layouts) {
+                if ((layout & bit) == 0) {
+                    groupSizes[Long.bitCount(layout & around)]++;
+                    safeCount++;
+                }
+            }
+            if ((double) safeCount / size <= bound) {
+                return (double) safeCount / size;
+            }
+            long[][] groups = new long[MAX_NUMBER + 1][];
+            for (int k = 0; k <= MAX_NUMBER; k++) {
+                groups[k] = new long[groupSizes[k]];
+                groupSizes[k] = 0;
+            }
+            for (long layout : layouts) {
+                if ((layout & bit) == 0) {
+                    int k = Long.bitCount(layout & around);
+                    groups[k][groupSizes[k]++] = layout;
+                }
+            }
+            double total = 0.0;
+            double unexplored = (double) safeCount / size;
+            for (long[] group : groups) {
+                if (group.length == 0) {
+                    continue;
+                }
+                double share = (double) group.length / size;
+                unexplored -= share;
+                total += share * this.value(group);
+                if (total + unexplored <= bound) {
+                    return total + unexplored;
+                }
+            }
+            return total;
+        }
+        
+        /**
+         * Works out the probability of winning with perfect play from a set 
+         * of layouts.
+         */
+        private double value(long[] layouts) {
+            int size = layouts.length;
+            if (size == 1) {
+                return 1.0;
+            }
+            long hash = 0L;
+            long union = 0L;
+            long intersection = -1L;
+            for (long layout : layouts) {
+                hash ^= mix(layout);
+                union |= layout;
+                intersection &= layout;
+            }
+            Double memoized = this.memo.get(hash);
+            if (memoized != null) {
+                return memoized;
+            }
+            double best = 0.0;
+            boolean freeMove = false;
+            for (int cell = 0; cell < this.neighborMasks.length && !freeMove; 
+                    cell++) {
+                long around = this.neighborMasks[cell];
+                if ((union & (1L << cell)) == 0 
+                        && (union & around) != (intersection & around)) {
+                    int first = Long.bitCount(layouts[0] & around);
+                    for (int i = 1; i < size && !freeMove; i++) {
+                        freeMove = Long.bitCount(layouts[i] & around) != first;
+                    }
+                    if (freeMove) {
+                        best = this.evaluate(layouts, cell, -1.0);
+                    }
+                }
+            }
+            if (!freeMove) {
+                long uncertain = union & ~intersection;
+                long[] keys = new long[Long.bitCount(uncertain)];
+                HashSet<Long> outcomes = new HashSet<>();
+                int count = 0;
+                for (long rest = uncertain; rest != 0; rest &= rest - 1) {
+                    int cell = Long.numberOfTrailingZeros(rest);
+                    if (outcomes.add(this.outcomeHash(layouts, cell))) {
+                        int mined = 0;
+                        for (long layout : layouts) {
+                            mined += (int) ((layout >>> cell) & 1L);
+                        }
+                        keys[count++] = ((long) mined << 8) | cell;
+                    }
+                }
+                Arrays.sort(keys, 0, count);
+                for (int i = 0; i < count; i++) {
+                    int cell = (int) (keys[i] & 0xFF);
+                    int mined = (int) (keys[i] >>> 8);
+                    if ((double) (size - mined) / size <= best) {
+                        break;
+                    }
+                    best = Math.max(best, this.evaluate(layouts, cell, best));
+                    if (best == 1.0) {
+                        break;
+                    }
+                }
+            }
+            this.memo.put(hash, best);
+            return best;
+        }
+        
+        Search(long[] masks) {
+            this.neighborMasks = masks;
+        }
+        
+    }
+    
+    /**
+     * Searches one root move exactly.
+     */
+    private static class RootTask extends RecursiveAction {
+        
+        private static final long serialVersionUID = 4559875501928377013L;
+        
+        private final Search search;
+        
+        private final long[] layouts;
+        
+        private final int[] cells;
+        
+        private final double[] results;
+        
+        private final int from, to;
+        
+        @Override
+        protected void compute() {
+            if (this.to - this.from == 1) {
+                this.results[this.from] = this.search.evaluate(this.layouts, 
+                        this.cells[this.from], -1.0);
+            } else {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new RootTask(this.search, this.layouts, this.cells, 
+                        this.results, this.from, middle), 
+                        new RootTask(this.search, this.layouts, this.cells, 
+                                this.results, middle, this.to));
+            }
+        }
+        
+        RootTask(Search s, long[] l, int[] c, double[] r, int start, int end) {
+            this.search = s;
+            this.layouts = l;
+            this.cells = c;
+            this.results = r;
+            this.from = start;
+            this.to = end;
+        }
+        
+    }
+    
+    /**
+     * Lists the layouts by backtracking over the covered positions, cutting 
+     * off a branch as soon as some number has too many or too few mines left 
+     * to place.
+     */
+    private static final class LayoutLister {
+        
+        private final int[][] constraintsByCell;
+        
+        private final int[] needed;
+        
+        private final int[] open;
+        
+        private final int limit;
+        
+        private final ArrayList<Long> layouts = new ArrayList<>();
+        
+        private boolean feasible(int cell) {
+            for (int c : this.constraintsByCell[cell]) {
+                if (this.needed[c] < 0 || this.needed[c] > this.open[c]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        private void list(int cell, long layout) {
+            if (cell == this.constraintsByCell.length) {
+                if (this.layouts.size() == this.limit) {
+                    String excMsg = "More than " + this.limit 
+                            + " layouts agree with the board";
+                    throw new IllegalStateException(excMsg);
+                }
+                this.layouts.add(layout);
+                return;
+            }
+            int[] constraints = this.constraintsByCell[cell];
+            for (int c : constraints) {
+                this.open[c]--;
+            }
+            if (this.feasible(cell)) {
+                this.list(cell + 1, layout);
+            }
+            for (int c : constraints) {
+                this.needed[c]--;
+            }
+            if (this.feasible(cell)) {
+                this.list(cell + 1, layout | (1L << cell));
+            }
+            for (int c : constraints) {
+                this.needed[c]++;
+                this.open[c]++;
+            }
+        }
+        
+        LayoutLister(int[][] byCell, int[] counts, int[] sizes, int max) {
+            this.constraintsByCell = byCell;
+            this.needed = counts;
+            this.open = sizes;
+            this.limit = max;
+        }
+        
+    }
+    
+    /**
+     * Searches the endgame of a board.
+     * @param board The board. It should not change during the search.
+     * @return The win probability of each move.
+     * @throws IllegalArgumentException If the board has more than {@value 
+     * #MAX_UNKNOWNS} covered positions or no covered positions at all.
+     * @throws IllegalStateException If more layouts than the limit agree with 
+     * the board, or none do, which can happen if a position was wrongly 
+     * flagged.
+     */
+    public EndgameResult solve(Board board) {
+        int n = board.getCoveredCount();
+        if (n > MAX_UNKNOWNS || n == 0) {
+            String excMsg = "Can't search endgame with " + n 
+                    + " covered positions, should be 1 to " + MAX_UNKNOWNS;
+            throw new IllegalArgumentException(excMsg);
+        }
+        BoardView view = new BoardView(board);
+        Position corner = view.getCorner();
+        Position[] cells = new Position[n];
+        HashMap<Position, Integer> indices = new HashMap<>();
+        int count = 0;
+        for (Position curr = new Position(0, 0); count < n; 
+                curr = curr.nextColumnWithReset(corner)) {
+            if (view.query(curr).equals(PositionStatus.COVERED)) {
+                indices.put(curr, count);
+                cells[count++] = curr;
+            }
+        }
+        long[] neighborMasks = new long[n];
+        for (int i = 0; i < n; i++) {
+            for (Position neighbor : view.neighbors(cells[i])) {
+                Integer index = indices.get(neighbor);
+                if (index != null) {
+                    neighborMasks[i] |= 1L << index;
+                }
+            }
+        }
+        ArrayList<Integer> counts = new ArrayList<>();
+        ArrayList<Long> masks = new ArrayList<>();
+        Iterator<Position> numbers = board.activeNumberIterator();
+        while (numbers.hasNext()) {
+            Position number = numbers.next();
+            long mask = 0L;
+            for (Position neighbor : view.neighbors(number)) {
+                Integer index = indices.get(neighbor);
+                if (index != null) {
+                    mask |= 1L << index;
+                }
+            }
+            masks.add(mask);
+            counts.add(board.remainingMineCount(number));
+        }
+        masks.add((1L << n) - 1);
+        counts.add(board.getMineCount() - board.getFlagCount());
+        int constraintCount = masks.size();
+        int[] needed = new int[constraintCount];
+        int[] open = new int[constraintCount];
+        ArrayList<ArrayList<Integer>> byCell = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            byCell.add(new ArrayList<>());
+        }
+        for (int c = 0; c < constraintCount; c++) {
+            needed[c] = counts.get(c);
+            open[c] = Long.bitCount(masks.get(c));
+            for (long rest = masks.get(c); rest != 0; rest &= rest - 1) {
+                byCell.get(Long.numberOfTrailingZeros(rest)).add(c);
+            }
+        }
+        int[][] constraintsByCell = new int[n][];
+        for (int i = 0; i < n; i++) {
+            constraintsByCell[i] = byCell.get(i).stream()
+                    .mapToInt(Integer::intValue).toArray();
+        }
+        LayoutLister lister = new LayoutLister(constraintsByCell, needed, open, 
+                this.maxLayouts);
+        boolean possible = true;
+        for (int c = 0; c < constraintCount; c++) {
+            possible &= needed[c] >= 0 && needed[c] <= open[c];
+        }
+        if (possible) {
+            lister.list(0, 0L);
+        }
+        int layoutCount = lister.layouts.size();
+        if (layoutCount == 0) {
+            String excMsg = "No arrangement of the remaining mines agrees " 
+                    + "with the revealed numbers";
+            throw new IllegalStateException(excMsg);
+        }
+        long[] layouts = new long[layoutCount];
+        long intersection = -1L;
+        for (int i = 0; i < layoutCount; i++) {
+            layouts[i] = lister.layouts.get(i);
+            intersection &= layouts[i];
+        }
+        int[] candidates = new int[n];
+        int candidateCount = 0;
+        for (int i = 0; i < n; i++) {
+            if ((intersection & (1L << i)) == 0) {
+                candidates[candidateCount++] = i;
+            }
+        }
+        Search search = new Search(neighborMasks);
+        HashMap<Long, Integer> distinctOutcomes = new HashMap<>();
+        int[] sameAs = new int[candidateCount];
+        int[] distinct = new int[candidateCount];
+        int distinctCount = 0;
+        for (int i = 0; i < candidateCount; i++) {
+            Integer index = distinctOutcomes.putIfAbsent(search
+                    .outcomeHash(layouts, candidates[i]), distinctCount);
+            if (index == null) {
+                distinct[distinctCount] = candidates[i];
+                sameAs[i] = distinctCount++;
+            } else {
+                sameAs[i] = index;
+            }
+        }
+        double[] results = new double[distinctCount];
+        if (distinctCount > 0) {
+            this.pool.invoke(new RootTask(search, layouts, 
+                    Arrays.copyOf(distinct, distinctCount), results, 0, 
+                    distinctCount));
+        }
+        HashMap<Position, Double> probabilities = new HashMap<>();
+        for (int i = 0; i < candidateCount; i++) {
+            probabilities.put(cells[candidates[i]], results[sameAs[i]]);
+        }
+        return new EndgameResult(probabilities, layoutCount);
+    }
+    
+    /**
+     * Constructor using the common fork/join pool and the default limit on 
+     * layouts.
+     */
+    public EndgameSolver() {
+        this(ForkJoinPool.commonPool(), DEFAULT_MAX_LAYOUTS);
+    }
+    
+    /**
+     * Constructor with a specific fork/join pool and limit on layouts.
+     * @param forkJoinPool The pool to search root moves on.
+     * @param layoutLimit The most layouts to search. For example, 65536.
+     * @throws IllegalArgumentException If <code>layoutLimit</code> is less 
+     * than 1.
+     */
+    public EndgameSolver(ForkJoinPool forkJoinPool, int layoutLimit) {
+        if (layoutLimit < 1) {
+            String excMsg = "Layout limit " + layoutLimit 
+                    + " is not valid, should be at least 1";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.pool = forkJoinPool;
+        this.maxLayouts = layoutLimit;
+    }
+    
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import minesweeper.Board;
+import minesweeper.Position;
+import minesweeper.PositionStatus;
+
+/**
+ * The linear constraints a player can read off a board. Each revealed number 
+ * with covered neighbors says how many of those covered neighbors are mines, 
+ * once the flagged neighbors are taken off. The covered positions that appear 
+ * in at least one constraint are the frontier; those are the variables. The 
+ * remaining covered positions are only constrained by the total number of 
+ * mines. Flags are assumed to be correct.
+ * <p>The variables are split into independent components: two variables are in 
+ * the same component if they are linked by a chain of constraints. Components 
+ * can then be worked on separately, which is what makes it feasible to deal 
+ * with frontiers of dozens of positions.</p>
+ * @author Alonso del Arte
+ */
+final class Frontier {
+    
+    /**
+     * The covered positions that appear in at least one constraint.
+     */
+    final Position[] variables;
+    
+    /**
+     * For each constraint, the indices into {@link #variables} of its 
+     * positions.
+     */
+    final int[][] constraintVariables;
+    
+    /**
+     * For each constraint, how many of its positions are mines.
+     */
+    final int[] constraintCounts;
+    
+    /**
+     * The number of covered positions that are not in the frontier.
+     */
+    final int otherCoveredCount;
+    
+    /**
+     * The number of mines not yet flagged.
+     */
+    final int remainingMines;
+    
+    /**
+     * The independent components. For each component, the indices of its 
+     * variables, in an order that lets constraints be closed off early during 
+     * enumeration, and the indices of its constraints.
+     */
+    final Component[] components;
+    
+    private final HashMap<Position, Integer> variableIndices;
+    
+    /**
+     * A group of variables linked by constraints, with the constraints that 
+     * link them.
+     */
+    static final class Component {
+        
+        final int[] variables;
+        
+        final int[] constraints;
+        
+        Component(int[] vars, int[] cons) {
+            this.variables = vars;
+            this.constraints = cons;
+        }
+        
+    }
+    
+    /**
+     * Gives the index of a variable.
+     * @param position The position. For example, (4, 7).
+     * @return The index into {@link #variables}, or &minus;1 if the position 
+     * is not in the frontier.
+     */
+    int indexOf(Position position) {
+        Integer index = this.variableIndices.get(position);
+        return index == null ? -1 : index;
+    }
+    
+    private Component[] findComponents() {
+        int n = this.variables.length;
+        ArrayList<ArrayList<Integer>> constraintsByVariable = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            constraintsByVariable.add(new ArrayList<>());
+        }
+        for (int c = 0; c < this.constraintVariables.length; c++) {
+            for (int v : this.constraintVariables[c]) {
+                constraintsByVariable.get(v).add(c);
+            }
+        }
+        ArrayList<ArrayList<Integer>> componentVariables = new ArrayList<>();
+        ArrayList<ArrayList<Integer>> componentConstraints = new ArrayList<>();
+        boolean[] placed = new boolean[n];
+        boolean[] constraintPlaced = new boolean[this.constraintVariables.length];
+        for (int start = 0; start < n; start++) {
+            if (placed[start]) {
+                continue;
+            }
+            ArrayList<Integer> vars = new ArrayList<>();
+            ArrayList<Integer> cons = new ArrayList<>();
+            vars.add(start);
+            placed[start] = true;
+            for (int head = 0; head < vars.size(); head++) {
+                for (int c : constraintsByVariable.get(vars.get(head))) {
+                    if (!constraintPlaced[c]) {
+                        constraintPlaced[c] = true;
+                        cons.add(c);
+                        for (int v : this.constraintVariables[c]) {
+                            if (!placed[v]) {
+                                placed[v] = true;
+                                vars.add(v);
+                            }
+                        }
+                    }
+                }
+            }
+            componentVariables.add(vars);
+            componentConstraints.add(cons);
+        }
+        Component[] result = new Component[componentVariables.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = new Component(toArray(componentVariables.get(i)), 
+                    toArray(componentConstraints.get(i)));
+        }
+        return result;
+    }
+    
+    private static int[] toArray(ArrayList<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+    
+    /**
+     * Reads the constraints off a board. The board keeps track of its active 
+     * numbers, so this takes time proportional to the size of the frontier, 
+     * not the size of the board.
+     * @param view The view of the board.
+     * @return The frontier and its constraints.
+     */
+    static Frontier of(BoardView view) {
+        Board board = view.getBoard();
+        return new Frontier(view, board::activeNumberIterator, 
+                board.getCoveredCount(), 
+                board.getMineCount() - board.getFlagCount());
+    }
+    
+    /**
+     * Builds the constraints for a given collection of numbers.
+     * @param view The view of the board.
+     * @param numbers The revealed numbers to take constraints from. Numbers 
+     * without covered neighbors are skipped.
+     * @param coveredCount How many covered positions there are on the whole 
+     * board, frontier or not.
+     * @param mines How many mines have not been flagged.
+     */
+    Frontier(BoardView view, Iterable<Position> numbers, int coveredCount, 
+            int mines) {
+        this.variableIndices = new HashMap<>();
+        ArrayList<Position> vars = new ArrayList<>();
+        ArrayList<int[]> consVars = new ArrayList<>();
+        ArrayList<Integer> consCounts = new ArrayList<>();
+        Board board = view.getBoard();
+        int[] scratch = new int[8];
+        for (Position number : numbers) {
+            int count = view.numberAt(number);
+            int size = 0;
+            for (Position neighbor : view.neighbors(number)) {
+                PositionStatus status = board.query(neighbor);
+                if (status.equals(PositionStatus.FLAGGED)) {
+                    count--;
+                } else if (status.equals(PositionStatus.COVERED)) {
+                    Integer index = this.variableIndices.get(neighbor);
+                    if (index == null) {
+                        index = vars.size();
+                        vars.add(neighbor);
+                        this.variableIndices.put(neighbor, index);
+                    }
+                    scratch[size++] = index;
+                }
+            }
+            if (size > 0) {
+                int[] members = new int[size];
+                System.arraycopy(scratch, 0, members, 0, size);
+                consVars.add(members);
+                consCounts.add(count);
+            }
+        }
+        this.variables = vars.toArray(new Position[vars.size()]);
+        this.constraintVariables = consVars.toArray(new int[consVars.size()][]);
+        this.constraintCounts = toArray(consCounts);
+        this.otherCoveredCount = coveredCount - this.variables.length;
+        this.remainingMines = mines;
+        this.components = this.findComponents();
+    }
+    
+}
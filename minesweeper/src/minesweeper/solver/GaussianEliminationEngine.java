@@ -0,0 +1,321 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import minesweeper.Board;
+import minesweeper.Position;
+
+/**
+ * Deduces safe and mined positions by Gaussian elimination on the frontier 
+ * constraints, followed by bounds reasoning. Each constraint is a row, with a 
+ * coefficient for each frontier position. Subtracting one row from another 
+ * gives a new constraint; for example, a 1 seeing positions <i>a</i> and 
+ * <i>b</i> next to a 1 seeing <i>a</i>, <i>b</i> and <i>c</i> gives <i>c</i> = 
+ * 0, which is the reasoning behind the familiar 1-1 and 1-2-1 patterns.
+ * <p>A row whose right-hand side equals the sum of its positive coefficients 
+ * forces every positively weighted position to be a mine and every negatively 
+ * weighted one to be safe, and vice versa when it equals the sum of its 
+ * negative coefficients. Whatever is forced is substituted into every row and 
+ * the elimination is repeated, until nothing more turns up.</p>
+ * <p>Rows are kept as pairs of bitsets, one for the coefficients of 1 and one 
+ * for the coefficients of &minus;1, so that a row operation is a handful of 
+ * bitwise operations per 64 positions. A row operation that would make a 
+ * coefficient of 2 or &minus;2 is skipped, so every row stays in that form. 
+ * This means the engine can miss deductions that enumeration would find, but 
+ * it never claims anything that isn't so, provided the flags are correct. 
+ * Each independent component of the frontier is eliminated on its own, except 
+ * when every covered position is on the frontier, in which case the total 
+ * number of mines is added as one more row over the whole frontier.</p>
+ * @author Alonso del Arte
+ */
+public class GaussianEliminationEngine implements DeductionEngine {
+    
+    private static final int UNKNOWN = -1;
+    
+    /**
+     * A constraint with coefficients of 1, 0 or &minus;1.
+     */
+    private static final class Row {
+        
+        private final long[] positives;
+        
+        private final long[] negatives;
+        
+        private int total;
+        
+        private boolean has(int index) {
+            long bit = 1L << index;
+            int word = index >>> 6;
+            return ((this.positives[word] | this.negatives[word]) & bit) != 0;
+        }
+        
+        private boolean isPositive(int index) {
+            return (this.positives[index >>> 6] & (1L << index)) != 0;
+        }
+        
+        private int support() {
+            int count = 0;
+            for (int w = 0; w < this.positives.length; w++) {
+                count += Long.bitCount(this.positives[w] | this.negatives[w]);
+            }
+            return count;
+        }
+        
+        private void negate() {
+            for (int w = 0; w < this.positives.length; w++) {
+                long swap = this.positives[w];
+                this.positives[w] = this.negatives[w];
+                this.negatives[w] = swap;
+            }
+            this.total = -this.total;
+        }
+        
+        /**
+         * Subtracts a multiple of another row from this one, unless that would 
+         * make a coefficient of 2 or &minus;2.
+         * @param pivot The row to subtract.
+         * @param plus True to subtract the row itself, false to subtract its 
+         * negation, that is, to add it.
+         * @return True if the row was changed, false if the operation was 
+         * skipped.
+         */
+        private boolean subtract(Row pivot, boolean plus) {
+            long[] subtrahendPositives = plus ? pivot.positives 
+                    : pivot.negatives;
+            long[] subtrahendNegatives = plus ? pivot.negatives 
+                    : pivot.positives;
+            for (int w = 0; w < this.positives.length; w++) {
+                if ((this.positives[w] & subtrahendNegatives[w]) != 0 
+                        || (this.negatives[w] & subtrahendPositives[w]) != 0) {
+                    return false;
+                }
+            }
+            for (int w = 0; w < this.positives.length; w++) {
+                long p = this.positives[w];
+                long n = this.negatives[w];
+                long sp = subtrahendPositives[w];
+                long sn = subtrahendNegatives[w];
+                this.positives[w] = (p & ~sp) | (sn & ~n);
+                this.negatives[w] = (n & ~sn) | (sp & ~p);
+            }
+            this.total -= plus ? pivot.total : -pivot.total;
+            return true;
+        }
+        
+        /**
+         * Takes known values out of the row.
+         * @param known Which positions are known.
+         * @param mined Which of the known positions are mines.
+         */
+        private void substitute(long[] known, long[] mined) {
+            for (int w = 0; w < this.positives.length; w++) {
+                this.total -= Long.bitCount(this.positives[w] & mined[w]) 
+                        - Long.bitCount(this.negatives[w] & mined[w]);
+                this.positives[w] &= ~known[w];
+                this.negatives[w] &= ~known[w];
+            }
+        }
+        
+        Row(int words) {
+            this.positives = new long[words];
+            this.negatives = new long[words];
+        }
+        
+    }
+    
+    /**
+     * Brings the rows as close to reduced row echelon form as the restriction 
+     * on coefficients allows. Pivots are chosen among the rows with the fewest 
+     * positions, which tends to keep the rows sparse.
+     */
+    private static void eliminate(Row[] rows, int size) {
+        int rank = 0;
+        for (int j = 0; j < size && rank < rows.length; j++) {
+            int best = -1;
+            int bestSupport = Integer.MAX_VALUE;
+            for (int r = rank; r < rows.length; r++) {
+                if (rows[r].has(j)) {
+                    int support = rows[r].support();
+                    if (support < bestSupport) {
+                        best = r;
+                        bestSupport = support;
+                    }
+                }
+            }
+            if (best < 0) {
+                continue;
+            }
+            Row pivot = rows[best];
+            rows[best] = rows[rank];
+            rows[rank] = pivot;
+            if (!pivot.isPositive(j)) {
+                pivot.negate();
+            }
+            for (int r = 0; r < rows.length; r++) {
+                if (r != rank && rows[r].has(j)) {
+                    rows[r].subtract(pivot, rows[r].isPositive(j));
+                }
+            }
+            rank++;
+        }
+    }
+    
+    private static int assign(long[] bits, int value, int[] values, 
+            long[] known, long[] mined) {
+        int count = 0;
+        for (int w = 0; w < bits.length; w++) {
+            long remaining = bits[w];
+            while (remaining != 0) {
+                int index = (w << 6) + Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                if (values[index] == UNKNOWN) {
+                    values[index] = value;
+                    known[w] |= 1L << index;
+                    if (value == 1) {
+                        mined[w] |= 1L << index;
+                    }
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Solves one group of variables as far as elimination and bounds allow.
+     * @param frontier The frontier.
+     * @param variables Indices into the frontier's variables.
+     * @param constraints Indices into the frontier's constraints, which should 
+     * only involve the given variables.
+     * @param withTotal Whether to add a row saying the given variables hold all 
+     * the remaining mines.
+     * @param safe Where to put the positions found to be safe.
+     * @param mined Where to put the positions found to have mines.
+     */
+    private static void solve(Frontier frontier, int[] variables, 
+            int[] constraints, boolean withTotal, ArrayList<Position> safe, 
+            ArrayList<Position> mined) {
+        int size = variables.length;
+        int words = (size + 63) >>> 6;
+        int[] local = new int[frontier.variables.length];
+        for (int i = 0; i < size; i++) {
+            local[variables[i]] = i;
+        }
+        Row[] rows = new Row[constraints.length + (withTotal ? 1 : 0)];
+        for (int r = 0; r < constraints.length; r++) {
+            Row row = new Row(words);
+            for (int v : frontier.constraintVariables[constraints[r]]) {
+                int index = local[v];
+                row.positives[index >>> 6] |= 1L << index;
+            }
+            row.total = frontier.constraintCounts[constraints[r]];
+            rows[r] = row;
+        }
+        if (withTotal) {
+            Row row = new Row(words);
+            for (int i = 0; i < size; i++) {
+                row.positives[i >>> 6] |= 1L << i;
+            }
+            row.total = frontier.remainingMines;
+            rows[constraints.length] = row;
+        }
+        int[] values = new int[size];
+        Arrays.fill(values, UNKNOWN);
+        int found;
+        do {
+            eliminate(rows, size);
+            long[] known = new long[words];
+            long[] mines = new long[words];
+            found = 0;
+            for (Row row : rows) {
+                int high = 0;
+                int low = 0;
+                for (int w = 0; w < words; w++) {
+                    high += Long.bitCount(row.positives[w]);
+                    low -= Long.bitCount(row.negatives[w]);
+                }
+                if (high == low) {
+                    continue;
+                }
+                if (row.total == high) {
+                    found += assign(row.positives, 1, values, known, mines);
+                    found += assign(row.negatives, 0, values, known, mines);
+                } else if (row.total == low) {
+                    found += assign(row.positives, 0, values, known, mines);
+                    found += assign(row.negatives, 1, values, known, mines);
+                }
+            }
+            if (found > 0) {
+                for (Row row : rows) {
+                    row.substitute(known, mines);
+                }
+            }
+        } while (found > 0);
+        for (int i = 0; i < size; i++) {
+            if (values[i] == 0) {
+                safe.add(frontier.variables[variables[i]]);
+            } else if (values[i] == 1) {
+                mined.add(frontier.variables[variables[i]]);
+            }
+        }
+    }
+    
+    /**
+     * Deduces what can be deduced from a frontier that has already been built.
+     * @param frontier The frontier.
+     * @return The safe and mined positions found.
+     */
+    Deductions deduce(Frontier frontier) {
+        ArrayList<Position> safe = new ArrayList<>();
+        ArrayList<Position> mined = new ArrayList<>();
+        if (frontier.otherCoveredCount == 0 && frontier.variables.length > 0) {
+            int[] variables = new int[frontier.variables.length];
+            for (int i = 0; i < variables.length; i++) {
+                variables[i] = i;
+            }
+            int[] constraints = new int[frontier.constraintCounts.length];
+            for (int i = 0; i < constraints.length; i++) {
+                constraints[i] = i;
+            }
+            solve(frontier, variables, constraints, true, safe, mined);
+        } else {
+            for (Frontier.Component component : frontier.components) {
+                solve(frontier, component.variables, component.constraints, 
+                        false, safe, mined);
+            }
+        }
+        return new Deductions(safe, mined);
+    }
+    
+    /**
+     * Deduces safe and mined positions. This reads the whole board once to 
+     * find the frontier, then only works on the frontier.
+     * @param board The board. For example, a board on which the player has 
+     * revealed a few positions in the middle.
+     * @return The safe and mined positions found. This may be empty even if 
+     * enumeration would have found something, but what it contains is certain, 
+     * provided the flags on the board are correct.
+     */
+    @Override
+    public Deductions deduce(Board board) {
+        return this.deduce(Frontier.of(new BoardView(board)));
+    }
+    
+}
@@ -0,0 +1,757 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import minesweeper.Board;
+import minesweeper.Position;
+import minesweeper.PositionStatus;
+
+/**
+ * Draws arrangements of the remaining mines at random, uniformly from among 
+ * those that agree with what the player can see: the revealed numbers, the 
+ * flags, which are assumed to be correct, and the total number of mines. 
+ * Layouts are written as bit sets over the covered positions, in the order 
+ * given by {@link #getCoveredPositions()}: the frontier first, then the 
+ * covered positions away from it.
+ * <p>Each component of the frontier is enumerated once, when the sampler is 
+ * made, and its satisfying assignments are kept, grouped by number of mines. 
+ * Drawing a layout is then a matter of choosing how many mines go in each 
+ * component, one component after another, weighted by how many ways the 
+ * components after it and the positions off the frontier can take the rest, 
+ * which is worked out ahead of time as in {@link ProbabilitySolver}; then 
+ * choosing one of that component's assignments with that many mines; and 
+ * finally scattering the leftover mines off the frontier. For example, on an 
+ * expert board with a few dozen frontier positions, a draw takes well under a 
+ * microsecond.</p>
+ * <p>Components with more satisfying assignments than the enumeration limit 
+ * are instead sampled by a Markov chain: each step picks a block of a few 
+ * linked positions and redraws them from among the assignments that agree 
+ * with everything else, weighted by how many ways the rest of the board can 
+ * take the remaining mines. Each draw advances the chain by about one sweep 
+ * over those positions, so consecutive draws are not independent, though in 
+ * the long run the layouts are drawn uniformly.</p>
+ * <p>The sampler is based on the board as it was when the sampler was made. A 
+ * sampler is not safe for use by more than one thread at a time, but {@link 
+ * #copy()} gives another one cheaply.</p>
+ * @author Alonso del Arte
+ */
+public final class LayoutSampler {
+    
+    /**
+     * The default limit on the number of satisfying assignments kept for one 
+     * component.
+     */
+    public static final int DEFAULT_ENUMERATION_LIMIT = 1 << 14;
+    
+    private static final int BLOCK_SIZE = 12;
+    
+    private static final int BURN_IN_SWEEPS = 20;
+    
+    private final Position[] coveredPositions;
+    
+    private final List<Position> coveredView;
+    
+    private final int frontierSize;
+    
+    private final int otherCount;
+    
+    private final int remainingMines;
+    
+    /**
+     * For each enumerated component and number of mines, the satisfying 
+     * assignments, each as the indices of its mined positions.
+     */
+    private final int[][][][] solutions;
+    
+    private final double[][] solutionCounts;
+    
+    private final int[] minMines;
+    
+    private final int[] maxMines;
+    
+    /**
+     * For each stage <i>i</i>, how many ways, relatively, the enumerated 
+     * components from <i>i</i> on and the positions off the frontier can take 
+     * <i>t</i> mines, indexed by <i>t</i> minus the stage's window start.
+     */
+    private final double[][] suffixWeights;
+    
+    private final int[] windowStarts;
+    
+    private final int[] chainVariables;
+    
+    private final int[][] constraintVariables;
+    
+    private final int[] constraintCounts;
+    
+    private final int[][] variableConstraints;
+    
+    private final int sweepLength;
+    
+    private final boolean[] chainMines;
+    
+    private final int[] chainConstraintMines;
+    
+    private int chainMineCount;
+    
+    private final int[] block = new int[BLOCK_SIZE];
+    
+    private final int[] blockStamps;
+    
+    private int stamp = 0;
+    
+    private final int[] openInBlock;
+    
+    private final int[] blockMasks = new int[1 << BLOCK_SIZE];
+    
+    private final int[] blockMineCounts = new int[1 << BLOCK_SIZE];
+    
+    private int blockResultCount;
+    
+    /**
+     * Chooses starting assignments for the components sampled by the Markov 
+     * chain, such that the chain's total number of mines leaves a number of 
+     * mines that the rest of the board can take. The components are taken one 
+     * after another. Each tries the number of mines of its first satisfying 
+     * assignment, then numbers further and further from it, and the search 
+     * backs up to the component before when none of them works out.
+     */
+    private static final class ChainStart {
+        
+        private final ComponentEnumerator[] enumerators;
+        
+        private final int[] preferredMines;
+        
+        private final int[] restSizes;
+        
+        /**
+         * For each chain total <i>t</i>, how many totals less than <i>t</i> 
+         * leave a number of mines the rest of the board can take.
+         */
+        private final int[] feasibleBelow;
+        
+        /**
+         * For each component and number of mines, an assignment with that 
+         * many mines, or null if there is none or it hasn't been looked for.
+         */
+        private final int[][][] found;
+        
+        private final boolean[][] tried;
+        
+        /**
+         * The assignments chosen, one per component, each as the local 
+         * indices of its mined variables.
+         */
+        final int[][] chosen;
+        
+        private boolean anyFeasible(int low, int high) {
+            int top = Math.min(high, this.feasibleBelow.length - 2);
+            return low <= top 
+                    && this.feasibleBelow[top + 1] > this.feasibleBelow[low];
+        }
+        
+        private boolean choose(int index, int mines) {
+            if (index == this.enumerators.length) {
+                return this.anyFeasible(mines, mines);
+            }
+            int size = this.tried[index].length - 1;
+            int preferred = this.preferredMines[index];
+            for (int d = 0; d <= size; d++) {
+                for (int sign = 1; sign >= -1; sign -= 2) {
+                    int m = preferred + sign * d;
+                    if (m < 0 || m > size || (d == 0 && sign < 0) 
+                            || !this.anyFeasible(mines + m, 
+                                    mines + m + this.restSizes[index])) {
+                        continue;
+                    }
+                    if (!this.tried[index][m]) {
+                        this.tried[index][m] = true;
+                        this.found[index][m] 
+                                = this.enumerators[index].findWithMines(m);
+                    }
+                    if (this.found[index][m] != null) {
+                        this.chosen[index] = this.found[index][m];
+                        if (this.choose(index + 1, mines + m)) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+        
+        /**
+         * Runs the search.
+         * @return True if assignments were found, false if no combination of 
+         * satisfying assignments has a feasible total number of mines.
+         */
+        boolean run() {
+            return this.choose(0, 0);
+        }
+        
+        /**
+         * Sets up the search, starting each component off with its first 
+         * satisfying assignment, if any.
+         * @param chainEnumerators The enumerators of the components.
+         * @param feasible For each chain total, whether it leaves a number of 
+         * mines the rest of the board can take.
+         */
+        ChainStart(ComponentEnumerator[] chainEnumerators, 
+                boolean[] feasible) {
+            int count = chainEnumerators.length;
+            this.enumerators = chainEnumerators;
+            this.preferredMines = new int[count];
+            this.restSizes = new int[count];
+            this.found = new int[count][][];
+            this.tried = new boolean[count][];
+            this.chosen = new int[count][];
+            int rest = 0;
+            for (int i = count - 1; i >= 0; i--) {
+                this.restSizes[i] = rest;
+                int size = chainEnumerators[i].getVariableCount();
+                rest += size;
+                this.found[i] = new int[size + 1][];
+                this.tried[i] = new boolean[size + 1];
+                chainEnumerators[i].collect(1);
+                if (!chainEnumerators[i].solutions.isEmpty()) {
+                    int[] first = chainEnumerators[i].solutions.get(0);
+                    this.preferredMines[i] = first.length;
+                    this.found[i][first.length] = first;
+                    this.tried[i][first.length] = true;
+                }
+            }
+            this.feasibleBelow = new int[feasible.length + 1];
+            for (int t = 0; t < feasible.length; t++) {
+                this.feasibleBelow[t + 1] = this.feasibleBelow[t] 
+                        + (feasible[t] ? 1 : 0);
+            }
+        }
+        
+    }
+    
+    private double weight(int stage, int mines) {
+        int index = mines - this.windowStarts[stage];
+        double[] weights = this.suffixWeights[stage];
+        if (index < 0 || index >= weights.length) {
+            return 0.0;
+        }
+        return weights[index];
+    }
+    
+    private static double[] normalize(double[] weights) {
+        double max = 0.0;
+        for (double weight : weights) {
+            max = Math.max(max, weight);
+        }
+        if (max > 0.0) {
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] /= max;
+            }
+        }
+        return weights;
+    }
+    
+    private boolean feasible(int variable) {
+        for (int c : this.variableConstraints[variable]) {
+            int mines = this.chainConstraintMines[c];
+            int target = this.constraintCounts[c];
+            if (mines > target || mines + this.openInBlock[c] < target) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private void enumerateBlock(int size, int index, int mask, int mines) {
+        if (index == size) {
+            this.blockMasks[this.blockResultCount] = mask;
+            this.blockMineCounts[this.blockResultCount] = mines;
+            this.blockResultCount++;
+            return;
+        }
+        int variable = this.block[index];
+        int[] constraints = this.variableConstraints[variable];
+        for (int c : constraints) {
+            this.openInBlock[c]--;
+        }
+        if (this.feasible(variable)) {
+            this.enumerateBlock(size, index + 1, mask, mines);
+        }
+        for (int c : constraints) {
+            this.chainConstraintMines[c]++;
+        }
+        if (this.feasible(variable)) {
+            this.enumerateBlock(size, index + 1, mask | (1 << index), 
+                    mines + 1);
+        }
+        for (int c : constraints) {
+            this.chainConstraintMines[c]--;
+            this.openInBlock[c]++;
+        }
+    }
+    
+    /**
+     * Redraws a block of linked positions in the Markov chain, given the 
+     * rest of the chain's positions.
+     */
+    private void updateBlock(Random random) {
+        this.stamp++;
+        int size = 0;
+        int seed = this.chainVariables[random.nextInt(this.chainVariables
+                .length)];
+        this.block[size++] = seed;
+        this.blockStamps[seed] = this.stamp;
+        for (int head = 0; head < size && size < BLOCK_SIZE; head++) {
+            for (int c : this.variableConstraints[this.block[head]]) {
+                for (int v : this.constraintVariables[c]) {
+                    if (this.blockStamps[v] != this.stamp 
+                            && size < BLOCK_SIZE) {
+                        this.blockStamps[v] = this.stamp;
+                        this.block[size++] = v;
+                    }
+                }
+            }
+        }
+        int outside = this.chainMineCount;
+        for (int i = 0; i < size; i++) {
+            int v = this.block[i];
+            for (int c : this.variableConstraints[v]) {
+                this.openInBlock[c]++;
+                if (this.chainMines[v]) {
+                    this.chainConstraintMines[c]--;
+                }
+            }
+            if (this.chainMines[v]) {
+                outside--;
+            }
+        }
+        this.blockResultCount = 0;
+        this.enumerateBlock(size, 0, 0, 0);
+        double total = 0.0;
+        for (int r = 0; r < this.blockResultCount; r++) {
+            total += this.weight(0, this.remainingMines - outside 
+                    - this.blockMineCounts[r]);
+        }
+        double target = random.nextDouble() * total;
+        int chosen = this.blockResultCount - 1;
+        for (int r = 0; r < this.blockResultCount - 1; r++) {
+            target -= this.weight(0, this.remainingMines - outside 
+                    - this.blockMineCounts[r]);
+            if (target < 0.0) {
+                chosen = r;
+                break;
+            }
+        }
+        int mask = this.blockMasks[chosen];
+        for (int i = 0; i < size; i++) {
+            int v = this.block[i];
+            boolean mined = (mask & (1 << i)) != 0;
+            this.chainMines[v] = mined;
+            for (int c : this.variableConstraints[v]) {
+                this.openInBlock[c]--;
+                if (mined) {
+                    this.chainConstraintMines[c]++;
+                }
+            }
+        }
+        this.chainMineCount = outside + this.blockMineCounts[chosen];
+    }
+    
+    private static void setRange(long[] layout, int from, int to) {
+        for (int i = from; i < to; i++) {
+            layout[i >>> 6] |= 1L << i;
+        }
+    }
+    
+    /**
+     * Draws the mines on the frontier. This is faster than {@link 
+     * #sample(Random, long[])} when there are many covered positions off the 
+     * frontier, since those are left alone.
+     * @param random The source of randomness. For example, a {@link 
+     * java.util.concurrent.ThreadLocalRandom}.
+     * @param layout An array of at least {@link #getWordCount()} elements. 
+     * Bit <i>i</i> is set if covered position <i>i</i> is mined, for <i>i</i> 
+     * less than {@link #getFrontierSize()}; the other bits of the words 
+     * holding frontier positions are cleared, and later words are left 
+     * alone.
+     * @return How many of the remaining mines are off the frontier.
+     */
+    public int sampleFrontier(Random random, long[] layout) {
+        Arrays.fill(layout, 0, (this.frontierSize + 63) >>> 6, 0L);
+        int mines = this.remainingMines;
+        if (this.chainVariables.length > 0) {
+            for (int s = 0; s < this.sweepLength; s++) {
+                this.updateBlock(random);
+            }
+            for (int v : this.chainVariables) {
+                if (this.chainMines[v]) {
+                    layout[v >>> 6] |= 1L << v;
+                }
+            }
+            mines -= this.chainMineCount;
+        }
+        for (int i = 0; i < this.solutions.length; i++) {
+            int chosen = this.minMines[i];
+            if (this.maxMines[i] > chosen) {
+                double[] counts = this.solutionCounts[i];
+                double total = 0.0;
+                for (int m = chosen; m <= this.maxMines[i]; m++) {
+                    total += counts[m] * this.weight(i + 1, mines - m);
+                }
+                double target = random.nextDouble() * total;
+                for (int m = this.minMines[i]; m < this.maxMines[i]; m++) {
+                    target -= counts[m] * this.weight(i + 1, mines - m);
+                    if (target < 0.0) {
+                        break;
+                    }
+                    chosen = m + 1;
+                }
+            }
+            int[][] group = this.solutions[i][chosen];
+            int[] mined = group.length == 1 ? group[0] 
+                    : group[random.nextInt(group.length)];
+            for (int v : mined) {
+                layout[v >>> 6] |= 1L << v;
+            }
+            mines -= chosen;
+        }
+        return mines;
+    }
+    
+    /**
+     * Draws a layout of the remaining mines.
+     * @param random The source of randomness. For example, a {@link 
+     * java.util.concurrent.ThreadLocalRandom}.
+     * @param layout An array of at least {@link #getWordCount()} elements. 
+     * Bit <i>i</i> is set if covered position <i>i</i> is mined, and the 
+     * other bits are cleared.
+     */
+    public void sample(Random random, long[] layout) {
+        Arrays.fill(layout, 0, this.getWordCount(), 0L);
+        int mines = this.sampleFrontier(random, layout);
+        int start = this.frontierSize;
+        int count = this.otherCount;
+        if (mines > count / 2) {
+            setRange(layout, start, start + count);
+            for (int cleared = 0; cleared < count - mines;) {
+                int i = start + random.nextInt(count);
+                if ((layout[i >>> 6] & (1L << i)) != 0) {
+                    layout[i >>> 6] &= ~(1L << i);
+                    cleared++;
+                }
+            }
+        } else {
+            for (int placed = 0; placed < mines;) {
+                int i = start + random.nextInt(count);
+                if ((layout[i >>> 6] & (1L << i)) == 0) {
+                    layout[i >>> 6] |= 1L << i;
+                    placed++;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Draws a layout of the remaining mines. This is convenient but much 
+     * slower than {@link #sample(Random, long[])}.
+     * @param random The source of randomness. For example, a {@link 
+     * java.util.Random} with a fixed seed.
+     * @return The positions of the mines that haven't been flagged.
+     */
+    public HashSet<Position> sample(Random random) {
+        long[] layout = new long[this.getWordCount()];
+        this.sample(random, layout);
+        HashSet<Position> mines = new HashSet<>();
+        for (int i = 0; i < this.coveredPositions.length; i++) {
+            if ((layout[i >>> 6] & (1L << i)) != 0) {
+                mines.add(this.coveredPositions[i]);
+            }
+        }
+        return mines;
+    }
+    
+    /**
+     * Gives the covered positions in the order used for layouts.
+     * @return An unmodifiable list of the covered positions that aren't 
+     * flagged, the frontier first.
+     */
+    public List<Position> getCoveredPositions() {
+        return this.coveredView;
+    }
+    
+    /**
+     * Tells how many covered positions are on the frontier.
+     * @return The number of covered positions next to a revealed number. For 
+     * example, 12.
+     */
+    public int getFrontierSize() {
+        return this.frontierSize;
+    }
+    
+    /**
+     * Tells how many words a layout takes.
+     * @return The number of covered positions divided by 64, rounded up. For 
+     * example, 4 for 200 covered positions.
+     */
+    public int getWordCount() {
+        return (this.coveredPositions.length + 63) >>> 6;
+    }
+    
+    /**
+     * Tells whether every draw is independent of the ones before it, that 
+     * is, whether no component needed the Markov chain.
+     * @return True if every component of the frontier was enumerated.
+     */
+    public boolean isExact() {
+        return this.chainVariables.length == 0;
+    }
+    
+    /**
+     * Gives another sampler for the same board, for use on another thread. 
+     * The tables worked out from the board are shared, only the state of the 
+     * Markov chain, if any, is copied.
+     * @return A new sampler.
+     */
+    public LayoutSampler copy() {
+        return new LayoutSampler(this);
+    }
+    
+    private LayoutSampler(LayoutSampler other) {
+        this.coveredPositions = other.coveredPositions;
+        this.coveredView = other.coveredView;
+        this.frontierSize = other.frontierSize;
+        this.otherCount = other.otherCount;
+        this.remainingMines = other.remainingMines;
+        this.solutions = other.solutions;
+        this.solutionCounts = other.solutionCounts;
+        this.minMines = other.minMines;
+        this.maxMines = other.maxMines;
+        this.suffixWeights = other.suffixWeights;
+        this.windowStarts = other.windowStarts;
+        this.chainVariables = other.chainVariables;
+        this.constraintVariables = other.constraintVariables;
+        this.constraintCounts = other.constraintCounts;
+        this.variableConstraints = other.variableConstraints;
+        this.sweepLength = other.sweepLength;
+        this.chainMines = other.chainMines.clone();
+        this.chainConstraintMines = other.chainConstraintMines.clone();
+        this.chainMineCount = other.chainMineCount;
+        this.blockStamps = new int[other.blockStamps.length];
+        this.openInBlock = new int[other.openInBlock.length];
+    }
+    
+    /**
+     * Constructor with the default enumeration limit.
+     * @param board The board. It should not change while the sampler is made, 
+     * but may change afterwards.
+     * @throws IllegalStateException If no arrangement of mines agrees with 
+     * what the player can see, which can happen if a position was wrongly 
+     * flagged.
+     */
+    public LayoutSampler(Board board) {
+        this(board, DEFAULT_ENUMERATION_LIMIT);
+    }
+    
+    /**
+     * Constructor with a specific enumeration limit.
+     * @param board The board. It should not change while the sampler is made, 
+     * but may change afterwards.
+     * @param enumerationLimit The most satisfying assignments to keep for one 
+     * component. Components with more are sampled by the Markov chain. For 
+     * example, 16384.
+     * @throws IllegalArgumentException If <code>enumerationLimit</code> is 
+     * negative.
+     * @throws IllegalStateException If no arrangement of mines agrees with 
+     * what the player can see, which can happen if a position was wrongly 
+     * flagged.
+     */
+    public LayoutSampler(Board board, int enumerationLimit) {
+        if (enumerationLimit < 0) {
+            String excMsg = "Enumeration limit " + enumerationLimit 
+                    + " is not valid, should not be negative";
+            throw new IllegalArgumentException(excMsg);
+        }
+        BoardView view = new BoardView(board);
+        Frontier frontier = Frontier.of(view);
+        this.frontierSize = frontier.variables.length;
+        this.otherCount = frontier.otherCoveredCount;
+        this.remainingMines = frontier.remainingMines;
+        this.coveredPositions = Arrays.copyOf(frontier.variables, 
+                this.frontierSize + this.otherCount);
+        Position corner = view.getCorner();
+        int index = this.frontierSize;
+        for (Position curr = new Position(0, 0); 
+                index < this.coveredPositions.length; 
+                curr = curr.nextColumnWithReset(corner)) {
+            if (view.query(curr).equals(PositionStatus.COVERED) 
+                    && frontier.indexOf(curr) < 0) {
+                this.coveredPositions[index++] = curr;
+            }
+        }
+        this.coveredView = Collections.unmodifiableList(Arrays
+                .asList(this.coveredPositions));
+        this.constraintVariables = frontier.constraintVariables;
+        this.constraintCounts = frontier.constraintCounts;
+        int[] constraintTally = new int[this.frontierSize];
+        for (int[] members : this.constraintVariables) {
+            for (int v : members) {
+                constraintTally[v]++;
+            }
+        }
+        this.variableConstraints = new int[this.frontierSize][];
+        for (int v = 0; v < this.frontierSize; v++) {
+            this.variableConstraints[v] = new int[constraintTally[v]];
+            constraintTally[v] = 0;
+        }
+        for (int c = 0; c < this.constraintVariables.length; c++) {
+            for (int v : this.constraintVariables[c]) {
+                this.variableConstraints[v][constraintTally[v]++] = c;
+            }
+        }
+        this.chainMines = new boolean[this.frontierSize];
+        this.chainConstraintMines = new int[this.constraintVariables.length];
+        this.blockStamps = new int[this.frontierSize];
+        this.openInBlock = new int[this.constraintVariables.length];
+        int componentCount = frontier.components.length;
+        int[][][][] enumerated = new int[componentCount][][][];
+        double[][] counts = new double[componentCount][];
+        int exactCount = 0;
+        int chainSize = 0;
+        int chainMaxMines = 0;
+        int[] chain = new int[this.frontierSize];
+        ComponentEnumerator[] chainEnumerators 
+                = new ComponentEnumerator[componentCount];
+        int[][] chainComponents = new int[componentCount][];
+        int chainComponentCount = 0;
+        for (Frontier.Component component : frontier.components) {
+            ComponentEnumerator enumerator 
+                    = new ComponentEnumerator(frontier, component);
+            int[] variables = component.variables;
+            if (enumerator.collect(enumerationLimit)) {
+                int[] tally = new int[variables.length + 1];
+                for (int[] solution : enumerator.solutions) {
+                    tally[solution.length]++;
+                }
+                int[][][] grouped = new int[variables.length + 1][][];
+                for (int m = 0; m <= variables.length; m++) {
+                    grouped[m] = new int[tally[m]][];
+                    tally[m] = 0;
+                }
+                for (int[] solution : enumerator.solutions) {
+                    int[] mined = new int[solution.length];
+                    for (int k = 0; k < mined.length; k++) {
+                        mined[k] = variables[solution[k]];
+                    }
+                    grouped[mined.length][tally[mined.length]++] = mined;
+                }
+                if (enumerator.solutions.isEmpty()) {
+                    String excMsg = "No arrangement of mines agrees with " 
+                            + "the numbers around " + frontier
+                                    .variables[variables[0]];
+                    throw new IllegalStateException(excMsg);
+                }
+                enumerated[exactCount] = grouped;
+                counts[exactCount] = enumerator.solutionCounts;
+                exactCount++;
+            } else {
+                chainEnumerators[chainComponentCount] 
+                        = new ComponentEnumerator(frontier, component);
+                chainComponents[chainComponentCount++] = variables;
+                for (int v : variables) {
+                    chain[chainSize++] = v;
+                }
+                chainMaxMines += variables.length;
+            }
+        }
+        this.chainVariables = Arrays.copyOf(chain, chainSize);
+        this.sweepLength = chainSize / BLOCK_SIZE + 1;
+        this.solutions = Arrays.copyOf(enumerated, exactCount);
+        this.solutionCounts = Arrays.copyOf(counts, exactCount);
+        this.minMines = new int[exactCount];
+        this.maxMines = new int[exactCount];
+        for (int i = 0; i < exactCount; i++) {
+            int m = 0;
+            while (this.solutions[i][m].length == 0) {
+                m++;
+            }
+            this.minMines[i] = m;
+            m = this.solutions[i].length - 1;
+            while (this.solutions[i][m].length == 0) {
+                m--;
+            }
+            this.maxMines[i] = m;
+        }
+        this.suffixWeights = new double[exactCount + 1][];
+        this.windowStarts = new int[exactCount + 1];
+        int low = this.remainingMines - chainMaxMines;
+        int high = this.remainingMines;
+        for (int i = 0; i < exactCount; i++) {
+            this.windowStarts[i] = low;
+            this.suffixWeights[i] = new double[high - low + 1];
+            low -= this.maxMines[i];
+            high -= this.minMines[i];
+        }
+        this.windowStarts[exactCount] = low;
+        this.suffixWeights[exactCount] = ProbabilitySolver
+                .scaledBinomials(this.otherCount, low, high);
+        for (int i = exactCount - 1; i >= 0; i--) {
+            double[] weights = this.suffixWeights[i];
+            for (int j = 0; j < weights.length; j++) {
+                int t = this.windowStarts[i] + j;
+                for (int m = this.minMines[i]; m <= this.maxMines[i]; m++) {
+                    weights[j] += this.solutionCounts[i][m] 
+                            * this.weight(i + 1, t - m);
+                }
+            }
+            normalize(weights);
+        }
+        boolean[] feasible = new boolean[chainMaxMines + 1];
+        for (int t = 0; t <= chainMaxMines; t++) {
+            feasible[t] = this.weight(0, this.remainingMines - t) > 0.0;
+        }
+        ChainStart start = new ChainStart(Arrays.copyOf(chainEnumerators, 
+                chainComponentCount), feasible);
+        if (!start.run()) {
+            String excMsg = "No arrangement of " + this.remainingMines 
+                    + " mines agrees with the revealed numbers";
+            throw new IllegalStateException(excMsg);
+        }
+        for (int i = 0; i < chainComponentCount; i++) {
+            for (int k : start.chosen[i]) {
+                int v = chainComponents[i][k];
+                this.chainMines[v] = true;
+                this.chainMineCount++;
+                for (int c : this.variableConstraints[v]) {
+                    this.chainConstraintMines[c]++;
+                }
+            }
+        }
+        if (chainSize > 0) {
+            Random random = new Random(board.getStateHash());
+            for (int s = 0; s < BURN_IN_SWEEPS * this.sweepLength; s++) {
+                this.updateBlock(random);
+            }
+        }
+    }
+    
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import minesweeper.Position;
+
+/**
+ * The probability that each covered position has a mine, given what the 
+ * player can see. Positions in the frontier each have their own probability. 
+ * Every other covered position has the same probability, since nothing 
+ * distinguishes one from another. This class is immutable.
+ * @author Alonso del Arte
+ */
+public final class MineProbabilities {
+    
+    private final Map<Position, Double> frontierProbabilities;
+    
+    private final double otherProbability;
+    
+    /**
+     * Gives the probability that a covered position has a mine.
+     * @param position The position. It should be covered; the result for 
+     * revealed or flagged positions is meaningless. For example, (4, 7).
+     * @return A number from 0.0 to 1.0. For example, 0.25.
+     */
+    public double getProbability(Position position) {
+        Double probability = this.frontierProbabilities.get(position);
+        return probability == null ? this.otherProbability : probability;
+    }
+    
+    /**
+     * Gives the probabilities for the covered positions next to revealed 
+     * numbers.
+     * @return An unmodifiable map from positions to probabilities.
+     */
+    public Map<Position, Double> getFrontierProbabilities() {
+        return this.frontierProbabilities;
+    }
+    
+    /**
+     * Gives the probability for covered positions that are not next to any 
+     * revealed number.
+     * @return A number from 0.0 to 1.0, or 0.0 if there are no such 
+     * positions. For example, 0.18.
+     */
+    public double getOtherProbability() {
+        return this.otherProbability;
+    }
+    
+    /**
+     * Gives the frontier positions that certainly don't have mines.
+     * @return A new set of positions, which may be empty.
+     */
+    public Set<Position> getSafePositions() {
+        HashSet<Position> safe = new HashSet<>();
+        this.frontierProbabilities.forEach((position, probability) -> {
+            if (probability == 0.0) {
+                safe.add(position);
+            }
+        });
+        return safe;
+    }
+    
+    /**
+     * Gives the frontier positions that certainly have mines.
+     * @return A new set of positions, which may be empty.
+     */
+    public Set<Position> getMinePositions() {
+        HashSet<Position> mines = new HashSet<>();
+        this.frontierProbabilities.forEach((position, probability) -> {
+            if (probability == 1.0) {
+                mines.add(position);
+            }
+        });
+        return mines;
+    }
+    
+    /**
+     * Sole constructor.
+     * @param frontier The probabilities for the frontier positions. The map is 
+     * copied.
+     * @param other The probability for every other covered position.
+     */
+    MineProbabilities(Map<Position, Double> frontier, double other) {
+        this.frontierProbabilities 
+                = Collections.unmodifiableMap(new HashMap<>(frontier));
+        this.otherProbability = other;
+    }
+    
+}
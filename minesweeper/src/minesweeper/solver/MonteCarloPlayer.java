@@ -0,0 +1,866 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+import minesweeper.Board;
+import minesweeper.Position;
+import minesweeper.PositionStatus;
+
+/**
+ * Plays Minesweeper on a board through its public interface, guessing by 
+ * Monte Carlo tree search when nothing can be deduced. Safe positions and 
+ * mines are found with a {@link ProbabilitySolver}; mines are flagged and safe 
+ * positions revealed. When there are none, the candidate guesses are the few 
+ * covered positions least likely to be mined, and the search tells which of 
+ * them leads to a win most often.
+ * <p>Each iteration of the search draws a layout of the mines from a {@link 
+ * LayoutSampler}, so that the hidden information is fixed, and plays it out 
+ * on a lightweight copy of the board made of arrays. The tree branches on 
+ * moves and on what the moves reveal, so that a node stands for what the 
+ * player has seen, which is the same whichever layout was drawn. Moves are 
+ * picked with the UCB1 rule among a few candidates; positions that simple 
+ * deductions from a single number show to be safe or mined are dealt with 
+ * along the way without branching. Once the iteration leaves the tree, it 
+ * adds one node and finishes the game with a quick rollout policy: deduce what 
+ * single numbers allow, otherwise reveal the position that looks least 
+ * risky from the numbers around it. The reward is 1 for a win, 0 for a 
+ * loss.</p>
+ * <p>The search is parallelized at the root: each of several trees is grown 
+ * on its own thread, with its own sampler and pseudorandom number generator, 
+ * until the time budget for the move runs out, and then the visit counts of 
+ * the candidate moves are added up. The move visited most is played.</p>
+ * <p>The player keeps count of games, wins, guesses and rollouts, so that it 
+ * can be compared with other players.</p>
+ * @author Alonso del Arte
+ */
+public class MonteCarloPlayer {
+    
+    /**
+     * The most candidate moves considered at each node of the search tree, not 
+     * counting one position away from the frontier.
+     */
+    public static final int CANDIDATE_LIMIT = 6;
+    
+    private static final double EXPLORATION = 0.7;
+    
+    private static final byte COVERED = 9;
+    
+    private static final byte FLAGGED = 10;
+    
+    private final ForkJoinPool pool;
+    
+    private final long nanosPerMove;
+    
+    private final int treeCount;
+    
+    private final Random seeds;
+    
+    private final ProbabilitySolver solver;
+    
+    private final LongAdder gamesPlayed = new LongAdder();
+    
+    private final LongAdder gamesWon = new LongAdder();
+    
+    private final LongAdder guesses = new LongAdder();
+    
+    private final LongAdder rollouts = new LongAdder();
+    
+    private final LongAdder searchNanos = new LongAdder();
+    
+    private static long mix(long value) {
+        long z = value * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+    
+    /**
+     * A game in progress, as arrays indexed by row times number of columns 
+     * plus column. Each cell holds its number once revealed, or {@link 
+     * #COVERED} or {@link #FLAGGED}. The arrays describing the board as the 
+     * real player sees it are shared between copies; the rest is each copy's 
+     * own.
+     */
+    private static final class Simulation {
+        
+        private final int[][] neighbors;
+        
+        private final byte[] initialState;
+        
+        private final int[] coveredCells;
+        
+        private final int[] flaggedCells;
+        
+        private final int[] activeNumbers;
+        
+        private final int mineTotal;
+        
+        private final byte[] state;
+        
+        private final boolean[] mines;
+        
+        private final int[] pending;
+        
+        private final boolean[] isPending;
+        
+        private int pendingCount;
+        
+        private final int[] cascade;
+        
+        private int coveredSafe;
+        
+        private int flagCount;
+        
+        private boolean lost;
+        
+        /**
+         * What the reveals since this was last cleared have shown, hashed.
+         */
+        private long observation;
+        
+        void reset(long[] layout) {
+            System.arraycopy(this.initialState, 0, this.state, 0, 
+                    this.state.length);
+            Arrays.fill(this.mines, false);
+            for (int cell : this.flaggedCells) {
+                this.mines[cell] = true;
+            }
+            for (int i = 0; i < this.coveredCells.length; i++) {
+                if ((layout[i >>> 6] & (1L << i)) != 0) {
+                    this.mines[this.coveredCells[i]] = true;
+                }
+            }
+            this.coveredSafe = this.coveredCells.length 
+                    - (this.mineTotal - this.flaggedCells.length);
+            this.flagCount = this.flaggedCells.length;
+            this.lost = false;
+            this.observation = 0L;
+            Arrays.fill(this.isPending, false);
+            this.pendingCount = 0;
+            for (int cell : this.activeNumbers) {
+                this.schedule(cell);
+            }
+        }
+        
+        private void schedule(int cell) {
+            if (!this.isPending[cell] && this.state[cell] < COVERED) {
+                this.isPending[cell] = true;
+                this.pending[this.pendingCount++] = cell;
+            }
+        }
+        
+        private void scheduleAround(int cell) {
+            this.schedule(cell);
+            for (int neighbor : this.neighbors[cell]) {
+                this.schedule(neighbor);
+            }
+        }
+        
+        private byte uncover(int cell) {
+            byte count = 0;
+            for (int neighbor : this.neighbors[cell]) {
+                if (this.mines[neighbor]) {
+                    count++;
+                }
+            }
+            this.state[cell] = count;
+            this.coveredSafe--;
+            this.observation ^= mix(((long) cell << 4) | count);
+            this.scheduleAround(cell);
+            return count;
+        }
+        
+        void reveal(int cell) {
+            if (this.mines[cell]) {
+                this.lost = true;
+                return;
+            }
+            int top = 0;
+            if (this.uncover(cell) == 0) {
+                this.cascade[top++] = cell;
+            }
+            while (top > 0) {
+                int current = this.cascade[--top];
+                for (int neighbor : this.neighbors[current]) {
+                    if (this.state[neighbor] == COVERED 
+                            && this.uncover(neighbor) == 0) {
+                        this.cascade[top++] = neighbor;
+                    }
+                }
+            }
+        }
+        
+        private void flag(int cell) {
+            this.state[cell] = FLAGGED;
+            this.flagCount++;
+            this.scheduleAround(cell);
+        }
+        
+        /**
+         * Reveals and flags what single numbers show to be safe or mined, 
+         * until there's nothing more.
+         */
+        void deduce() {
+            while (this.pendingCount > 0 && !this.lost) {
+                int cell = this.pending[--this.pendingCount];
+                this.isPending[cell] = false;
+                int flags = 0;
+                int covered = 0;
+                for (int neighbor : this.neighbors[cell]) {
+                    if (this.state[neighbor] == FLAGGED) {
+                        flags++;
+                    } else if (this.state[neighbor] == COVERED) {
+                        covered++;
+                    }
+                }
+                if (covered == 0) {
+                    continue;
+                }
+                int remaining = this.state[cell] - flags;
+                if (remaining == 0 || remaining == covered) {
+                    for (int neighbor : this.neighbors[cell]) {
+                        if (this.state[neighbor] == COVERED) {
+                            if (remaining == 0) {
+                                this.reveal(neighbor);
+                            } else {
+                                this.flag(neighbor);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        
+        boolean won() {
+            return this.coveredSafe == 0;
+        }
+        
+        /**
+         * Estimates how likely a covered position is to be mined from the 
+         * numbers around it: the highest ratio of unflagged mines to covered 
+         * positions among its revealed neighbors.
+         * @return The estimate, or &minus;1 if no neighbor is a revealed 
+         * number.
+         */
+        private double risk(int cell) {
+            double risk = -1.0;
+            for (int neighbor : this.neighbors[cell]) {
+                if (this.state[neighbor] < COVERED) {
+                    int flags = 0;
+                    int covered = 0;
+                    for (int next : this.neighbors[neighbor]) {
+                        if (this.state[next] == FLAGGED) {
+                            flags++;
+                        } else if (this.state[next] == COVERED) {
+                            covered++;
+                        }
+                    }
+                    risk = Math.max(risk, 
+                            (double) (this.state[neighbor] - flags) / covered);
+                }
+            }
+            return risk;
+        }
+        
+        private double density() {
+            int mines = this.mineTotal - this.flagCount;
+            return (double) mines / (this.coveredSafe + mines);
+        }
+        
+        /**
+         * Picks the covered position that looks least risky, breaking ties at 
+         * random.
+         */
+        int guess(Random random) {
+            double density = this.density();
+            double best = Double.MAX_VALUE;
+            int chosen = -1;
+            int ties = 0;
+            for (int cell = 0; cell < this.state.length; cell++) {
+                if (this.state[cell] == COVERED) {
+                    double risk = this.risk(cell);
+                    if (risk < 0.0) {
+                        risk = density;
+                    }
+                    if (risk < best) {
+                        best = risk;
+                        chosen = cell;
+                        ties = 1;
+                    } else if (risk == best 
+                            && random.nextInt(++ties) == 0) {
+                        chosen = cell;
+                    }
+                }
+            }
+            return chosen;
+        }
+        
+        /**
+         * Lists the candidate moves: the least risky positions next to 
+         * revealed numbers, and the position away from them with the fewest 
+         * neighbors. This depends only on what has been revealed, not on the 
+         * layout.
+         */
+        int[] candidates() {
+            int count = 0;
+            long[] keys = new long[this.state.length];
+            int away = -1;
+            for (int cell = 0; cell < this.state.length; cell++) {
+                if (this.state[cell] == COVERED) {
+                    double risk = this.risk(cell);
+                    if (risk >= 0.0) {
+                        keys[count++] = ((long) (risk * (1 << 20)) << 32) 
+                                | cell;
+                    } else if (away < 0 || this.neighbors[cell].length 
+                            < this.neighbors[away].length) {
+                        away = cell;
+                    }
+                }
+            }
+            Arrays.sort(keys, 0, count);
+            int kept = Math.min(count, CANDIDATE_LIMIT);
+            int[] moves = new int[kept + (away < 0 ? 0 : 1)];
+            for (int i = 0; i < kept; i++) {
+                moves[i] = (int) keys[i];
+            }
+            if (away >= 0) {
+                moves[kept] = away;
+            }
+            return moves;
+        }
+        
+        /**
+         * Finishes the game with the rollout policy.
+         * @return 1 for a win, 0 for a loss.
+         */
+        double playOut(Random random) {
+            this.deduce();
+            while (!this.lost && !this.won()) {
+                this.reveal(this.guess(random));
+                this.deduce();
+            }
+            return this.lost ? 0.0 : 1.0;
+        }
+        
+        Simulation(Simulation other) {
+            this.neighbors = other.neighbors;
+            this.initialState = other.initialState;
+            this.coveredCells = other.coveredCells;
+            this.flaggedCells = other.flaggedCells;
+            this.activeNumbers = other.activeNumbers;
+            this.mineTotal = other.mineTotal;
+            int size = this.initialState.length;
+            this.state = new byte[size];
+            this.mines = new boolean[size];
+            this.pending = new int[size];
+            this.isPending = new boolean[size];
+            this.cascade = new int[size];
+        }
+        
+        Simulation(Board board, List<Position> covered) {
+            Position corner = board.getMaxCorner();
+            int rows = corner.getX() + 1;
+            int columns = corner.getY() + 1;
+            int size = rows * columns;
+            this.neighbors = new int[size][];
+            this.initialState = new byte[size];
+            int[] scratch = new int[8];
+            ArrayList<Integer> flagged = new ArrayList<>();
+            ArrayList<Integer> numbers = new ArrayList<>();
+            for (int x = 0; x < rows; x++) {
+                for (int y = 0; y < columns; y++) {
+                    int cell = x * columns + y;
+                    int count = 0;
+                    for (int dx = -1; dx <= 1; dx++) {
+                        for (int dy = -1; dy <= 1; dy++) {
+                            int nx = x + dx;
+                            int ny = y + dy;
+                            if ((dx != 0 || dy != 0) && nx >= 0 && nx < rows 
+                                    && ny >= 0 && ny < columns) {
+                                scratch[count++] = nx * columns + ny;
+                            }
+                        }
+                    }
+                    this.neighbors[cell] = Arrays.copyOf(scratch, count);
+                    PositionStatus status = board.query(new Position(x, y));
+                    if (status.equals(PositionStatus.FLAGGED)) {
+                        this.initialState[cell] = FLAGGED;
+                        flagged.add(cell);
+                    } else if (status.equals(PositionStatus.COVERED)) {
+                        this.initialState[cell] = COVERED;
+                    } else {
+                        this.initialState[cell] 
+                                = (byte) BoardView.numberOf(status);
+                        numbers.add(cell);
+                    }
+                }
+            }
+            this.coveredCells = new int[covered.size()];
+            for (int i = 0; i < this.coveredCells.length; i++) {
+                Position position = covered.get(i);
+                this.coveredCells[i] = position.getX() * columns 
+                        + position.getY();
+            }
+            this.flaggedCells = flagged.stream().mapToInt(Integer::intValue)
+                    .toArray();
+            this.activeNumbers = numbers.stream().mapToInt(Integer::intValue)
+                    .toArray();
+            this.mineTotal = board.getMineCount();
+            this.state = new byte[size];
+            this.mines = new boolean[size];
+            this.pending = new int[size];
+            this.isPending = new boolean[size];
+            this.cascade = new int[size];
+        }
+        
+    }
+    
+    /**
+     * A node of the search tree: the candidate moves from what the player has 
+     * seen at that point, how each has done, and the nodes they lead to, keyed 
+     * by move and what it revealed.
+     */
+    private static final class Node {
+        
+        private int[] moves;
+        
+        private int[] visits;
+        
+        private double[] wins;
+        
+        private int total = 0;
+        
+        private final HashMap<Long, Node> children = new HashMap<>();
+        
+        void setMoves(int[] candidates) {
+            this.moves = candidates;
+            this.visits = new int[candidates.length];
+            this.wins = new double[candidates.length];
+        }
+        
+        int select() {
+            int best = 0;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            double logTotal = Math.log(this.total);
+            for (int i = 0; i < this.moves.length; i++) {
+                if (this.visits[i] == 0) {
+                    return i;
+                }
+                double score = this.wins[i] / this.visits[i] + EXPLORATION 
+                        * Math.sqrt(logTotal / this.visits[i]);
+                if (score > bestScore) {
+                    bestScore = score;
+                    best = i;
+                }
+            }
+            return best;
+        }
+        
+    }
+    
+    /**
+     * Grows one search tree until the deadline.
+     */
+    private final class TreeSearch implements Callable<int[]> {
+        
+        private final Simulation simulation;
+        
+        private final LayoutSampler sampler;
+        
+        private final Random random;
+        
+        private final Node root = new Node();
+        
+        private final long deadline;
+        
+        private final Node[] pathNodes;
+        
+        private final int[] pathMoves;
+        
+        private double iterate(long[] layout) {
+            Simulation sim = this.simulation;
+            this.sampler.sample(this.random, layout);
+            sim.reset(layout);
+            sim.deduce();
+            Node node = this.root;
+            int depth = 0;
+            double reward;
+            while (true) {
+                if (sim.won()) {
+                    reward = 1.0;
+                    break;
+                }
+                if (node.total == 0 && node != this.root) {
+                    reward = sim.playOut(this.random);
+                    break;
+                }
+                if (node.moves == null) {
+                    node.setMoves(sim.candidates());
+                }
+                int index = node.select();
+                this.pathNodes[depth] = node;
+                this.pathMoves[depth] = index;
+                depth++;
+                int move = node.moves[index];
+                sim.observation = 0L;
+                sim.reveal(move);
+                if (sim.lost) {
+                    reward = 0.0;
+                    break;
+                }
+                sim.deduce();
+                long key = mix(move) ^ sim.observation;
+                Node child = node.children.get(key);
+                if (child == null) {
+                    child = new Node();
+                    node.children.put(key, child);
+                }
+                node = child;
+            }
+            node.total++;
+            for (int i = 0; i < depth; i++) {
+                Node pathNode = this.pathNodes[i];
+                if (pathNode != node) {
+                    pathNode.total++;
+                }
+                pathNode.visits[this.pathMoves[i]]++;
+                pathNode.wins[this.pathMoves[i]] += reward;
+            }
+            return reward;
+        }
+        
+        @Override
+        public int[] call() {
+            long[] layout = new long[this.sampler.getWordCount()];
+            long count = 0;
+            do {
+                this.iterate(layout);
+                count++;
+            } while (System.nanoTime() < this.deadline);
+            MonteCarloPlayer.this.rollouts.add(count);
+            return this.root.visits;
+        }
+        
+        TreeSearch(Simulation sim, LayoutSampler layoutSampler, int[] moves, 
+                long seed, long endTime) {
+            this.simulation = sim;
+            this.sampler = layoutSampler;
+            this.random = new Random(seed);
+            this.root.setMoves(moves);
+            this.deadline = endTime;
+            int depthLimit = sim.initialState.length + 1;
+            this.pathNodes = new Node[depthLimit];
+            this.pathMoves = new int[depthLimit];
+        }
+        
+    }
+    
+    private static boolean precedes(Position a, Position b) {
+        return a.getX() < b.getX() 
+                || (a.getX() == b.getX() && a.getY() < b.getY());
+    }
+    
+    /**
+     * Lists the covered positions that aren't on the frontier.
+     */
+    private static ArrayList<Position> awayFromFrontier(Board board, 
+            MineProbabilities probabilities) {
+        ArrayList<Position> away = new ArrayList<>();
+        Position corner = board.getMaxCorner();
+        Map<Position, Double> frontier 
+                = probabilities.getFrontierProbabilities();
+        for (Position curr = new Position(0, 0); curr.isWithinBounds(corner); 
+                curr = curr.nextColumnWithReset(corner)) {
+            if (board.query(curr).equals(PositionStatus.COVERED) 
+                    && !frontier.containsKey(curr)) {
+                away.add(curr);
+            }
+        }
+        return away;
+    }
+    
+    /**
+     * Picks a guess by searching, for a board on which nothing is known to be 
+     * safe.
+     */
+    private Position search(Board board, MineProbabilities probabilities) {
+        ArrayList<Position> candidates = new ArrayList<>();
+        probabilities.getFrontierProbabilities().forEach((position, p) -> {
+            if (p < 1.0) {
+                candidates.add(position);
+            }
+        });
+        candidates.sort((a, b) -> {
+            int comparison = Double.compare(probabilities.getProbability(a), 
+                    probabilities.getProbability(b));
+            if (comparison == 0) {
+                comparison = precedes(a, b) ? -1 : (a.equals(b) ? 0 : 1);
+            }
+            return comparison;
+        });
+        while (candidates.size() > CANDIDATE_LIMIT) {
+            candidates.remove(candidates.size() - 1);
+        }
+        if (probabilities.getOtherProbability() < 1.0) {
+            Position corner = board.getMaxCorner();
+            Position best = null;
+            int fewest = Integer.MAX_VALUE;
+            for (Position position : awayFromFrontier(board, probabilities)) {
+                int neighborCount = position.getNeighbors(corner).size();
+                if (neighborCount < fewest) {
+                    best = position;
+                    fewest = neighborCount;
+                }
+            }
+            if (best != null) {
+                candidates.add(best);
+            }
+        }
+        if (candidates.isEmpty()) {
+            String excMsg = "No covered position could be safe";
+            throw new IllegalStateException(excMsg);
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+        long start = System.nanoTime();
+        LayoutSampler sampler = new LayoutSampler(board);
+        Simulation template = new Simulation(board, 
+                sampler.getCoveredPositions());
+        int columns = board.getMaxCorner().getY() + 1;
+        int[] moves = new int[candidates.size()];
+        for (int i = 0; i < moves.length; i++) {
+            Position position = candidates.get(i);
+            moves[i] = position.getX() * columns + position.getY();
+        }
+        long deadline = start + this.nanosPerMove;
+        ArrayList<TreeSearch> searches = new ArrayList<>();
+        for (int t = 0; t < this.treeCount; t++) {
+            searches.add(new TreeSearch(new Simulation(template), 
+                    t == 0 ? sampler : sampler.copy(), moves, 
+                    this.seeds.nextLong(), deadline));
+        }
+        int[] visits = new int[moves.length];
+        try {
+            for (Future<int[]> future : this.pool.invokeAll(searches)) {
+                int[] treeVisits = future.get();
+                for (int i = 0; i < visits.length; i++) {
+                    visits[i] += treeVisits[i];
+                }
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            String excMsg = "Search was interrupted or failed";
+            throw new IllegalStateException(excMsg, e);
+        }
+        this.searchNanos.add(System.nanoTime() - start);
+        int chosen = 0;
+        for (int i = 1; i < visits.length; i++) {
+            if (visits[i] > visits[chosen]) {
+                chosen = i;
+            }
+        }
+        return candidates.get(chosen);
+    }
+    
+    /**
+     * Chooses the next position to reveal. If some position is certainly 
+     * safe, that is the choice, without any search.
+     * @param board The board. The game should be underway.
+     * @return The position to reveal. For example, (5, 8).
+     * @throws IllegalStateException If every covered position is certainly 
+     * mined, in which case the player should flag them, or if no arrangement 
+     * of mines agrees with the board.
+     */
+    public Position chooseMove(Board board) {
+        MineProbabilities probabilities 
+                = this.solver.computeProbabilities(board);
+        Position safe = null;
+        for (Position position : probabilities.getSafePositions()) {
+            if (safe == null || precedes(position, safe)) {
+                safe = position;
+            }
+        }
+        if (safe == null && probabilities.getOtherProbability() == 0.0) {
+            ArrayList<Position> away = awayFromFrontier(board, probabilities);
+            if (!away.isEmpty()) {
+                safe = away.get(0);
+            }
+        }
+        if (safe != null) {
+            return safe;
+        }
+        return this.search(board, probabilities);
+    }
+    
+    /**
+     * Plays a game to the end.
+     * @param board The board. The game should be underway. Flags already 
+     * placed are assumed to be correct.
+     * @return True if the game was won, false if it was lost.
+     */
+    public boolean play(Board board) {
+        while (board.gameUnderway()) {
+            MineProbabilities probabilities 
+                    = this.solver.computeProbabilities(board);
+            boolean progress = false;
+            ArrayList<Position> toFlag 
+                    = new ArrayList<>(probabilities.getMinePositions());
+            ArrayList<Position> toReveal 
+                    = new ArrayList<>(probabilities.getSafePositions());
+            double other = probabilities.getOtherProbability();
+            if (other == 0.0) {
+                toReveal.addAll(awayFromFrontier(board, probabilities));
+            } else if (other == 1.0) {
+                toFlag.addAll(awayFromFrontier(board, probabilities));
+            }
+            for (Position position : toFlag) {
+                if (board.gameUnderway()) {
+                    board.flag(position);
+                    progress = true;
+                }
+            }
+            for (Position position : toReveal) {
+                if (board.gameUnderway() && board.query(position)
+                        .equals(PositionStatus.COVERED)) {
+                    board.reveal(position);
+                    progress = true;
+                }
+            }
+            if (!progress && board.gameUnderway()) {
+                this.guesses.increment();
+                board.reveal(this.search(board, probabilities));
+            }
+        }
+        this.gamesPlayed.increment();
+        if (board.gameWon()) {
+            this.gamesWon.increment();
+            return true;
+        }
+        return false;
+    }
+    
+    /**
+     * Tells how many games this player has played to the end.
+     * @return The number of games. For example, 1000.
+     */
+    public long getGamesPlayed() {
+        return this.gamesPlayed.sum();
+    }
+    
+    /**
+     * Tells how many games this player has won.
+     * @return The number of games won. For example, 380.
+     */
+    public long getGamesWon() {
+        return this.gamesWon.sum();
+    }
+    
+    /**
+     * Gives the fraction of games won.
+     * @return The number of games won divided by the number played, or 0.0 
+     * if no games have been played. For example, 0.38.
+     */
+    public double getWinRate() {
+        long played = this.getGamesPlayed();
+        return played == 0 ? 0.0 : (double) this.getGamesWon() / played;
+    }
+    
+    /**
+     * Tells how many times this player had to guess in the games it played.
+     * @return The number of guesses. For example, 2500.
+     */
+    public long getGuessCount() {
+        return this.guesses.sum();
+    }
+    
+    /**
+     * Tells how many rollouts the searches have run, on all threads.
+     * @return The number of rollouts. For example, 1500000.
+     */
+    public long getRolloutCount() {
+        return this.rollouts.sum();
+    }
+    
+    /**
+     * Gives the number of rollouts per second of search time, counting the 
+     * rollouts on all threads.
+     * @return The rate, or 0.0 if there has been no search. For example, 
+     * 40000.0.
+     */
+    public double getRolloutsPerSecond() {
+        long nanos = this.searchNanos.sum();
+        return nanos == 0 ? 0.0 : this.getRolloutCount() * 1.0E9 / nanos;
+    }
+    
+    /**
+     * Constructor with a time budget per move, using the common fork/join pool 
+     * with as many search trees as it has threads.
+     * @param millisPerMove How long to search for each guess, in 
+     * milliseconds. For example, 100.
+     * @param seed The seed for the pseudorandom number generators.
+     * @throws IllegalArgumentException If <code>millisPerMove</code> is 
+     * negative.
+     */
+    public MonteCarloPlayer(long millisPerMove, long seed) {
+        this(millisPerMove, ForkJoinPool.commonPool(), 
+                ForkJoinPool.commonPool().getParallelism(), seed);
+    }
+    
+    /**
+     * Constructor with a specific pool and number of search trees.
+     * @param millisPerMove How long to search for each guess, in 
+     * milliseconds. For example, 100. At least one iteration is run per tree 
+     * even if this is 0.
+     * @param forkJoinPool The pool to grow the trees on.
+     * @param trees How many trees to grow for each guess. Ideally as many as 
+     * the pool has threads. For example, 8.
+     * @param seed The seed for the pseudorandom number generators.
+     * @throws IllegalArgumentException If <code>millisPerMove</code> is 
+     * negative or <code>trees</code> is less than 1.
+     */
+    public MonteCarloPlayer(long millisPerMove, ForkJoinPool forkJoinPool, 
+            int trees, long seed) {
+        if (millisPerMove < 0) {
+            String excMsg = "Time per move " + millisPerMove 
+                    + " ms is not valid, should not be negative";
+            throw new IllegalArgumentException(excMsg);
+        }
+        if (trees < 1) {
+            String excMsg = "Tree count " + trees 
+                    + " is not valid, should be at least 1";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.nanosPerMove = millisPerMove * 1000000L;
+        this.pool = forkJoinPool;
+        this.treeCount = trees;
+        this.seeds = new Random(seed);
+        this.solver = new ProbabilitySolver(forkJoinPool);
+    }
+    
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A precomputed table of what can be deduced from two side by side revealed 
+ * numbers. Together, the two numbers see ten other positions, those of the 
+ * three by four window around them. In the window's own coordinates, with the 
+ * left number at row 0, column 0 and the right number at row 0, column 1, the 
+ * ten positions are numbered as follows:
+ * <pre>
+ *  0  3  5  7
+ *  1  A  B  8
+ *  2  4  6  9
+ * </pre>
+ * The left number sees positions 0 to 6, the right number positions 3 to 9. 
+ * Numbers one above the other are handled by reading the window transposed.
+ * <p>A window is indexed by which of its positions are covered, ten bits, and 
+ * how many mines each number still has to account for once flagged neighbors 
+ * are taken off, 0 to 8 each. The entry for an index has a bit for each 
+ * covered position that is safe in every arrangement agreeing with both 
+ * numbers, and a bit for each that is mined in every arrangement. This covers 
+ * the 1-1, 1-2 and 2-1 patterns and, by way of pairs, patterns like 1-2-1 and 
+ * 1-2-2-1.</p>
+ * <p>The table is generated offline by enumerating every arrangement, with 
+ * {@link #main(String[])}, and shipped as a gzipped resource next to this 
+ * class. If the resource is missing, the table is generated on the spot, which 
+ * takes a few milliseconds.</p>
+ * @author Alonso del Arte
+ */
+final class PairPatternTable {
+    
+    /**
+     * How many positions a window has, not counting the two numbers.
+     */
+    static final int WINDOW_SIZE = 10;
+    
+    /**
+     * The row and column offsets from the left number of each position in the 
+     * window, in the order given in the class description.
+     */
+    static final int[][] OFFSETS = {{-1, -1}, {0, -1}, {1, -1}, {-1, 0}, 
+        {1, 0}, {-1, 1}, {1, 1}, {-1, 2}, {0, 2}, {1, 2}};
+    
+    /**
+     * Which window positions the left number sees.
+     */
+    static final int LEFT_MASK = 0x07F;
+    
+    /**
+     * Which window positions the right number sees.
+     */
+    static final int RIGHT_MASK = 0x3F8;
+    
+    /**
+     * The name of the resource the table is shipped in.
+     */
+    static final String RESOURCE_NAME = "pair-patterns.bin.gz";
+    
+    private static final int MAGIC = 0x50415452;
+    
+    private static final int COUNTS = 9;
+    
+    private static final int ENTRY_COUNT = COUNTS * COUNTS << WINDOW_SIZE;
+    
+    private static final int WINDOW_BITS = (1 << WINDOW_SIZE) - 1;
+    
+    private static PairPatternTable instance = null;
+    
+    private final int[] entries;
+    
+    /**
+     * Looks up what can be deduced in a window.
+     * @param covered A bit for each covered position of the window. For 
+     * example, 0x007 if the three positions to the left of the left number 
+     * are covered and everything else is revealed or off the board.
+     * @param left How many mines the left number has yet to account for. For 
+     * example, 1.
+     * @param right How many mines the right number has yet to account for. 
+     * For example, 0.
+     * @return The entry, to be taken apart with {@link #safeMask(int)} and 
+     * {@link #mineMask(int)}. It's 0 if nothing can be deduced, including when 
+     * the counts are out of range or don't agree with each other.
+     */
+    int lookup(int covered, int left, int right) {
+        if (left < 0 || left >= COUNTS || right < 0 || right >= COUNTS) {
+            return 0;
+        }
+        return this.entries[((left * COUNTS + right) << WINDOW_SIZE) 
+                | covered];
+    }
+    
+    /**
+     * Gives the safe positions of a table entry.
+     * @param entry The entry. For example, 0x1C07.
+     * @return A bit for each window position that is certainly safe. For 
+     * example, 0x007.
+     */
+    static int safeMask(int entry) {
+        return entry & WINDOW_BITS;
+    }
+    
+    /**
+     * Gives the mined positions of a table entry.
+     * @param entry The entry. For example, 0x1C07.
+     * @return A bit for each window position that is certainly mined. For 
+     * example, 0x007.
+     */
+    static int mineMask(int entry) {
+        return entry >>> WINDOW_SIZE;
+    }
+    
+    /**
+     * Generates the table by enumerating, for each set of covered positions, 
+     * every subset that could be the mines. Each subset is visited once, so 
+     * this takes 3<sup>10</sup> steps in all.
+     * @return A new table.
+     */
+    static PairPatternTable generate() {
+        int[] entries = new int[ENTRY_COUNT];
+        int[] unions = new int[COUNTS * COUNTS];
+        int[] intersections = new int[COUNTS * COUNTS];
+        boolean[] possible = new boolean[COUNTS * COUNTS];
+        for (int covered = 0; covered <= WINDOW_BITS; covered++) {
+            Arrays.fill(unions, 0);
+            Arrays.fill(intersections, WINDOW_BITS);
+            Arrays.fill(possible, false);
+            int mines = covered;
+            while (true) {
+                int counts = Integer.bitCount(mines & LEFT_MASK) * COUNTS 
+                        + Integer.bitCount(mines & RIGHT_MASK);
+                unions[counts] |= mines;
+                intersections[counts] &= mines;
+                possible[counts] = true;
+                if (mines == 0) {
+                    break;
+                }
+                mines = (mines - 1) & covered;
+            }
+            for (int counts = 0; counts < COUNTS * COUNTS; counts++) {
+                if (possible[counts]) {
+                    int safe = covered & ~unions[counts];
+                    entries[(counts << WINDOW_SIZE) | covered] = safe 
+                            | (intersections[counts] << WINDOW_SIZE);
+                }
+            }
+        }
+        return new PairPatternTable(entries);
+    }
+    
+    /**
+     * Writes the table in the format of the shipped resource: a gzipped 
+     * stream with a magic number, the number of entries and the entries.
+     * @param out The stream to write to. It gets closed.
+     * @throws IOException If writing fails.
+     */
+    void write(OutputStream out) throws IOException {
+        try (DataOutputStream data 
+                = new DataOutputStream(new GZIPOutputStream(out))) {
+            data.writeInt(MAGIC);
+            data.writeInt(this.entries.length);
+            for (int entry : this.entries) {
+                data.writeInt(entry);
+            }
+        }
+    }
+    
+    /**
+     * Reads a table written by {@link #write(OutputStream)}.
+     * @param in The stream to read from. It gets closed.
+     * @return The table.
+     * @throws IOException If reading fails or the stream is not a table.
+     */
+    static PairPatternTable read(InputStream in) throws IOException {
+        try (DataInputStream data 
+                = new DataInputStream(new GZIPInputStream(in))) {
+            if (data.readInt() != MAGIC || data.readInt() != ENTRY_COUNT) {
+                String excMsg = "Stream does not hold a pair pattern table";
+                throw new IOException(excMsg);
+            }
+            int[] entries = new int[ENTRY_COUNT];
+            for (int i = 0; i < ENTRY_COUNT; i++) {
+                entries[i] = data.readInt();
+            }
+            return new PairPatternTable(entries);
+        }
+    }
+    
+    /**
+     * Gives the table, loading it from the shipped resource the first time. 
+     * If the resource can't be read, the table is generated instead.
+     * @return The table.
+     */
+    static synchronized PairPatternTable getInstance() {
+        if (instance == null) {
+            InputStream in 
+                    = PairPatternTable.class.getResourceAsStream(RESOURCE_NAME);
+            if (in != null) {
+                try {
+                    instance = read(in);
+                } catch (IOException ioe) {
+                    System.err.println("Generating pair pattern table: " 
+                            + ioe.getMessage());
+                }
+            }
+            if (instance == null) {
+                instance = generate();
+            }
+        }
+        return instance;
+    }
+    
+    /**
+     * Generates the table and writes it to a file, which should then be 
+     * copied next to this class's source as {@value #RESOURCE_NAME}.
+     * @param args The path of the file to write. If none is given, the table 
+     * is written to {@value #RESOURCE_NAME} in the current directory.
+     * @throws IOException If the file can't be written.
+     */
+    public static void main(String[] args) throws IOException {
+        String path = args.length > 0 ? args[0] : RESOURCE_NAME;
+        generate().write(new FileOutputStream(path));
+        System.out.println("Wrote " + ENTRY_COUNT + " entries to " + path);
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || !this.getClass().equals(obj.getClass())) {
+            return false;
+        }
+        return Arrays.equals(this.entries, 
+                ((PairPatternTable) obj).entries);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(this.entries);
+    }
+    
+    private PairPatternTable(int[] table) {
+        this.entries = table;
+    }
+    
+}
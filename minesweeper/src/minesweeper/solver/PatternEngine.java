@@ -0,0 +1,200 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.util.HashSet;
+import java.util.Iterator;
+
+import minesweeper.Board;
+import minesweeper.Position;
+import minesweeper.PositionStatus;
+
+/**
+ * Deduces safe and mined positions from local patterns, by table lookup. For 
+ * each revealed number, the window around it and the number to its right is 
+ * looked up in a {@link PairPatternTable}, and so is the window around it and 
+ * the number below it. A number with no revealed number to its right or below 
+ * it is still checked on its own, with the two basic rules.
+ * <p>Looking up a window takes ten status queries to build its index and one 
+ * array load. After a move, {@link #deduceAround(Board, Position)} only looks 
+ * at the windows the move could have changed, which makes this engine suitable 
+ * for a bot that wants a quick answer after every move and only falls back on 
+ * one of the global engines when the patterns run dry. Flags are assumed to be 
+ * correct.</p>
+ * @author Alonso del Arte
+ */
+public class PatternEngine implements DeductionEngine {
+    
+    private final PairPatternTable table;
+    
+    private static Position offset(Position corner, int x, int y) {
+        if (x < 0 || y < 0 || x > corner.getX() || y > corner.getY()) {
+            return null;
+        }
+        return new Position(x, y);
+    }
+    
+    /**
+     * Checks a number on its own: if its flagged neighbors account for it, 
+     * its covered neighbors are safe, and if its covered neighbors are needed 
+     * to account for it, they're mined.
+     */
+    private static void evaluateSingle(BoardView view, Position number, 
+            HashSet<Position> safe, HashSet<Position> mined) {
+        int count = view.numberAt(number);
+        int covered = 0;
+        Position[] neighbors = view.neighbors(number);
+        for (Position neighbor : neighbors) {
+            PositionStatus status = view.query(neighbor);
+            if (status.equals(PositionStatus.FLAGGED)) {
+                count--;
+            } else if (status.equals(PositionStatus.COVERED)) {
+                covered++;
+            }
+        }
+        if (covered == 0 || (count != 0 && count != covered)) {
+            return;
+        }
+        for (Position neighbor : neighbors) {
+            if (view.query(neighbor).equals(PositionStatus.COVERED)) {
+                (count == 0 ? safe : mined).add(neighbor);
+            }
+        }
+    }
+    
+    /**
+     * Looks up the window of a number and its neighbor to the right, or below 
+     * if <code>vertical</code> is true.
+     * @return True if the neighbor is a revealed number and the window was 
+     * looked up, false otherwise.
+     */
+    private boolean evaluatePair(BoardView view, Position number, 
+            boolean vertical, HashSet<Position> safe, 
+            HashSet<Position> mined) {
+        Position corner = view.getCorner();
+        int x = number.getX();
+        int y = number.getY();
+        Position partner = vertical ? offset(corner, x + 1, y) 
+                : offset(corner, x, y + 1);
+        if (partner == null) {
+            return false;
+        }
+        int right = view.numberAt(partner);
+        if (right < 0) {
+            return false;
+        }
+        int left = view.numberAt(number);
+        Position[] window = new Position[PairPatternTable.WINDOW_SIZE];
+        int covered = 0;
+        for (int i = 0; i < PairPatternTable.WINDOW_SIZE; i++) {
+            int[] delta = PairPatternTable.OFFSETS[i];
+            Position position = vertical 
+                    ? offset(corner, x + delta[1], y + delta[0]) 
+                    : offset(corner, x + delta[0], y + delta[1]);
+            if (position == null) {
+                continue;
+            }
+            PositionStatus status = view.query(position);
+            if (status.equals(PositionStatus.COVERED)) {
+                covered |= 1 << i;
+                window[i] = position;
+            } else if (status.equals(PositionStatus.FLAGGED)) {
+                if ((PairPatternTable.LEFT_MASK & (1 << i)) != 0) {
+                    left--;
+                }
+                if ((PairPatternTable.RIGHT_MASK & (1 << i)) != 0) {
+                    right--;
+                }
+            }
+        }
+        int entry = this.table.lookup(covered, left, right);
+        int safeBits = PairPatternTable.safeMask(entry);
+        int mineBits = PairPatternTable.mineMask(entry);
+        for (int i = 0; i < PairPatternTable.WINDOW_SIZE; i++) {
+            if ((safeBits & (1 << i)) != 0) {
+                safe.add(window[i]);
+            } else if ((mineBits & (1 << i)) != 0) {
+                mined.add(window[i]);
+            }
+        }
+        return true;
+    }
+    
+    private void evaluate(BoardView view, Position number, 
+            HashSet<Position> safe, HashSet<Position> mined) {
+        boolean paired = this.evaluatePair(view, number, false, safe, mined);
+        paired |= this.evaluatePair(view, number, true, safe, mined);
+        if (!paired) {
+            evaluateSingle(view, number, safe, mined);
+        }
+    }
+    
+    /**
+     * Deduces what the patterns show anywhere on the board. Only the active 
+     * numbers are looked at, which the board keeps track of.
+     * @param board The board. For example, a board on which the player has 
+     * revealed a few positions in the middle.
+     * @return The safe and mined positions found. This may miss deductions 
+     * that need more than two numbers at a time.
+     */
+    @Override
+    public Deductions deduce(Board board) {
+        BoardView view = new BoardView(board);
+        HashSet<Position> safe = new HashSet<>();
+        HashSet<Position> mined = new HashSet<>();
+        Iterator<Position> numbers = board.activeNumberIterator();
+        while (numbers.hasNext()) {
+            this.evaluate(view, numbers.next(), safe, mined);
+        }
+        return new Deductions(safe, mined);
+    }
+    
+    /**
+     * Deduces what the patterns show near a position that just changed, for 
+     * example, one that was just revealed. Only windows that include the 
+     * position are looked at, which is at most thirty-two.
+     * @param board The board.
+     * @param position The position that changed. For example, (5, 3).
+     * @return The safe and mined positions found near the position.
+     */
+    public Deductions deduceAround(Board board, Position position) {
+        BoardView view = new BoardView(board);
+        Position corner = view.getCorner();
+        HashSet<Position> safe = new HashSet<>();
+        HashSet<Position> mined = new HashSet<>();
+        int x = position.getX();
+        int y = position.getY();
+        for (int i = x - 2; i <= x + 1; i++) {
+            for (int j = y - 2; j <= y + 1; j++) {
+                Position number = offset(corner, i, j);
+                if (number != null && view.numberAt(number) > 0) {
+                    this.evaluate(view, number, safe, mined);
+                }
+            }
+        }
+        return new Deductions(safe, mined);
+    }
+    
+    /**
+     * Constructor. The pattern table is loaded the first time any pattern 
+     * engine is constructed, and shared after that.
+     */
+    public PatternEngine() {
+        this.table = PairPatternTable.getInstance();
+    }
+    
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.util.HashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import minesweeper.Board;
+import minesweeper.Position;
+
+/**
+ * Computes the exact probability that each covered position has a mine. Every 
+ * arrangement of the remaining mines on the covered positions that agrees with 
+ * the revealed numbers is taken to be equally likely.
+ * <p>The frontier is split into independent components, and the satisfying 
+ * assignments of each component are enumerated separately, on a fork/join 
+ * pool, and tallied by number of mines. The tallies are then combined: an 
+ * assignment with <i>m</i> mines in one component can go with any assignments 
+ * of the other components, and the leftover mines can go anywhere among the 
+ * covered positions away from the frontier, which is a binomial coefficient. 
+ * This respects the total number of mines without ever enumerating the whole 
+ * frontier at once, so that the cost is dominated by the largest component 
+ * rather than the product of all of them.</p>
+ * <p>The binomial coefficients for a large board are far too large for a 
+ * <code>double</code>, so they are computed as logarithms relative to the 
+ * largest one needed, and the products of tallies are rescaled as they are 
+ * built. The rescaling cancels out in the probabilities.</p>
+ * @author Alonso del Arte
+ */
+public class ProbabilitySolver implements DeductionEngine {
+    
+    private final ForkJoinPool pool;
+    
+    private static class EnumerationTask extends RecursiveAction {
+        
+        private static final long serialVersionUID = 4557136914384102890L;
+        
+        private final Frontier frontier;
+        
+        private final ComponentEnumerator[] results;
+        
+        private final int from, to;
+        
+        @Override
+        protected void compute() {
+            if (this.to - this.from == 1) {
+                this.results[this.from] = new ComponentEnumerator(this.frontier, 
+                        this.frontier.components[this.from]).run();
+            } else {
+                int middle = (this.from + this.to) >>> 1;
+                invokeAll(new EnumerationTask(this.frontier, this.results, 
+                        this.from, middle), 
+                        new EnumerationTask(this.frontier, this.results, 
+                                middle, this.to));
+            }
+        }
+        
+        EnumerationTask(Frontier f, ComponentEnumerator[] r, int start, 
+                int end) {
+            this.frontier = f;
+            this.results = r;
+            this.from = start;
+            this.to = end;
+        }
+        
+    }
+    
+    private static double[] normalize(double[] polynomial) {
+        double max = 0.0;
+        for (double coefficient : polynomial) {
+            max = Math.max(max, coefficient);
+        }
+        if (max > 0.0) {
+            for (int i = 0; i < polynomial.length; i++) {
+                polynomial[i] /= max;
+            }
+        }
+        return polynomial;
+    }
+    
+    private static double[] multiply(double[] a, double[] b) {
+        double[] product = new double[a.length + b.length - 1];
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] != 0.0) {
+                for (int j = 0; j < b.length; j++) {
+                    product[i + j] += a[i] * b[j];
+                }
+            }
+        }
+        return normalize(product);
+    }
+    
+    /**
+     * Computes binomial coefficients C(<i>n</i>, <i>r</i>) for <i>r</i> from 
+     * <code>low</code> to <code>high</code>, all divided by the largest of 
+     * them.
+     * @return An array indexed by <i>r</i> &minus; <code>low</code>, with 0 for 
+     * values of <i>r</i> that are negative or greater than <i>n</i>.
+     */
+    static double[] scaledBinomials(int n, int low, int high) {
+        double[] logs = new double[high - low + 1];
+        double max = Double.NEGATIVE_INFINITY;
+        double log = 0.0;
+        int start = Math.max(0, low);
+        for (int r = start; r <= high; r++) {
+            if (r > start) {
+                log += Math.log((double) (n - r + 1) / r);
+            }
+            logs[r - low] = r <= n ? log : Double.NEGATIVE_INFINITY;
+            max = Math.max(max, logs[r - low]);
+        }
+        double[] result = new double[logs.length];
+        for (int r = start; r <= high && r <= n; r++) {
+            result[r - low] = Math.exp(logs[r - low] - max);
+        }
+        return result;
+    }
+    
+    /**
+     * Computes the probabilities for a frontier. This is package private so 
+     * that other engines in this package can reuse a frontier they've already 
+     * built.
+     * @param frontier The frontier.
+     * @return The probabilities.
+     * @throws IllegalStateException If no arrangement of mines agrees with the 
+     * frontier, which can happen if a position was wrongly flagged.
+     */
+    MineProbabilities compute(Frontier frontier) {
+        int componentCount = frontier.components.length;
+        ComponentEnumerator[] results = new ComponentEnumerator[componentCount];
+        if (componentCount > 0) {
+            this.pool.invoke(new EnumerationTask(frontier, results, 0, 
+                    componentCount));
+        }
+        double[][] prefixes = new double[componentCount + 1][];
+        double[][] suffixes = new double[componentCount + 1][];
+        prefixes[0] = new double[] {1.0};
+        suffixes[componentCount] = new double[] {1.0};
+        for (int c = 0; c < componentCount; c++) {
+            prefixes[c + 1] = multiply(prefixes[c], results[c].solutionCounts);
+            int back = componentCount - 1 - c;
+            suffixes[back] = multiply(results[back].solutionCounts, 
+                    suffixes[back + 1]);
+        }
+        int remaining = frontier.remainingMines;
+        int others = frontier.otherCoveredCount;
+        int low = remaining - frontier.variables.length;
+        double[] binomials = scaledBinomials(others, low, remaining);
+        HashMap<Position, Double> probabilities = new HashMap<>();
+        for (int c = 0; c < componentCount; c++) {
+            double[] rest = multiply(prefixes[c], suffixes[c + 1]);
+            double[] counts = results[c].solutionCounts;
+            double[] weights = new double[counts.length];
+            double total = 0.0;
+            for (int m = 0; m < counts.length; m++) {
+                for (int k = 0; k < rest.length; k++) {
+                    int r = remaining - m - k;
+                    if (r >= low && r >= 0) {
+                        weights[m] += rest[k] * binomials[r - low];
+                    }
+                }
+                total += counts[m] * weights[m];
+            }
+            if (total == 0.0) {
+                String excMsg = "No arrangement of " + remaining 
+                        + " mines agrees with the revealed numbers";
+                throw new IllegalStateException(excMsg);
+            }
+            int[] variables = frontier.components[c].variables;
+            for (int v = 0; v < variables.length; v++) {
+                double[] mineCounts = results[c].mineCounts[v];
+                double sum = 0.0;
+                for (int m = 0; m < mineCounts.length; m++) {
+                    sum += mineCounts[m] * weights[m];
+                }
+                probabilities.put(frontier.variables[variables[v]], 
+                        sum / total);
+            }
+        }
+        double[] all = prefixes[componentCount];
+        double expected = 0.0;
+        double total = 0.0;
+        for (int j = 0; j < all.length; j++) {
+            int r = remaining - j;
+            if (r >= low && r >= 0) {
+                double weight = all[j] * binomials[r - low];
+                total += weight;
+                expected += weight * r;
+            }
+        }
+        if (total == 0.0) {
+            String excMsg = "No arrangement of " + remaining 
+                    + " mines agrees with the revealed numbers";
+            throw new IllegalStateException(excMsg);
+        }
+        double other = others > 0 ? expected / total / others : 0.0;
+        return new MineProbabilities(probabilities, other);
+    }
+    
+    /**
+     * Computes the probability that each covered position on a board has a 
+     * mine. Only what the player can see is used.
+     * @param board The board. It should not change during the computation.
+     * @return The probabilities.
+     * @throws IllegalStateException If no arrangement of mines agrees with 
+     * what the player can see, which can happen if a position was wrongly 
+     * flagged.
+     */
+    public MineProbabilities computeProbabilities(Board board) {
+        return this.compute(Frontier.of(new BoardView(board)));
+    }
+    
+    /**
+     * Deduces safe and mined positions from the probabilities. This finds 
+     * everything that can be deduced, but takes as long as computing the 
+     * probabilities.
+     * @param board The board. It should not change during the computation.
+     * @return The positions with probability 0 or 1.
+     * @throws IllegalStateException If no arrangement of mines agrees with 
+     * what the player can see.
+     */
+    @Override
+    public Deductions deduce(Board board) {
+        MineProbabilities probabilities = this.computeProbabilities(board);
+        return new Deductions(probabilities.getSafePositions(), 
+                probabilities.getMinePositions());
+    }
+    
+    /**
+     * Constructor using the common fork/join pool.
+     */
+    public ProbabilitySolver() {
+        this(ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Constructor with a specific fork/join pool.
+     * @param forkJoinPool The pool to enumerate components on.
+     */
+    public ProbabilitySolver(ForkJoinPool forkJoinPool) {
+        this.pool = forkJoinPool;
+    }
+    
+}
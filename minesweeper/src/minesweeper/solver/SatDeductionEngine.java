@@ -0,0 +1,260 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.util.ArrayList;
+
+import minesweeper.Board;
+import minesweeper.Position;
+import minesweeper.PositionStatus;
+import minesweeper.StatusChangeListener;
+
+/**
+ * Answers whether covered positions are provably safe or provably mined by 
+ * encoding the frontier as a satisfiability problem. There is one variable per 
+ * frontier position, true for a mine. Each revealed number becomes an "exactly 
+ * <i>k</i>" constraint on its covered neighbors, and the total number of mines 
+ * bounds how many frontier positions can be mines, both encoded with 
+ * sequential counters. A position is provably safe if the formula can't be 
+ * satisfied with it mined, and provably mined if it can't be satisfied with it 
+ * safe.
+ * <p>Unlike enumeration, this doesn't blow up on large components, and unlike 
+ * elimination, it misses nothing on the frontier, provided the bound from the 
+ * total number of mines was small enough to encode. Each query is a call to 
+ * the solver with one assumption, and the solver keeps what it learns from one 
+ * query to the next. The engine listens to its board and only encodes the 
+ * frontier again after the board has changed, so that asking about many 
+ * positions of the same board gets cheaper as it goes.</p>
+ * <p>Positions away from the frontier are only reported safe when there are 
+ * no mines left to place. Flags are assumed to be correct.</p>
+ * @author Alonso del Arte
+ */
+public class SatDeductionEngine implements DeductionEngine, 
+        StatusChangeListener {
+    
+    /**
+     * The most variables to spend on encoding the bound from the total number 
+     * of mines. If the bound would take more, it's left out, and some 
+     * deductions in the endgame might be missed.
+     */
+    static final long TOTAL_ENCODING_LIMIT = 20000L;
+    
+    private final BoardView view;
+    
+    private volatile boolean stale = true;
+    
+    private Frontier frontier;
+    
+    private SatSolver solver;
+    
+    private int encodingCount = 0;
+    
+    @Override
+    public void statusChanged(Position position, PositionStatus previous, 
+            PositionStatus current) {
+        this.stale = true;
+    }
+    
+    /**
+     * Tells how many times the frontier has been encoded. This is package 
+     * private so that tests can check that queries on an unchanged board 
+     * reuse the solver.
+     * @return The number of encodings so far. For example, 1 after several 
+     * queries on a board that hasn't changed.
+     */
+    int getEncodingCount() {
+        return this.encodingCount;
+    }
+    
+    /**
+     * Bounds how many mines the frontier can hold: no more than a component 
+     * has positions, and no more than its numbers add up to.
+     */
+    private int mostFrontierMines() {
+        int bound = 0;
+        for (Frontier.Component component : this.frontier.components) {
+            int sum = 0;
+            for (int c : component.constraints) {
+                sum += this.frontier.constraintCounts[c];
+            }
+            bound += Math.min(sum, component.variables.length);
+        }
+        return bound;
+    }
+    
+    private void encode() {
+        this.frontier = Frontier.of(this.view);
+        this.solver = new SatSolver();
+        int n = this.frontier.variables.length;
+        for (int i = 0; i < n; i++) {
+            this.solver.newVariable();
+        }
+        for (int c = 0; c < this.frontier.constraintCounts.length; c++) {
+            int[] members = this.frontier.constraintVariables[c];
+            int[] literals = new int[members.length];
+            for (int i = 0; i < literals.length; i++) {
+                literals[i] = SatSolver.positive(members[i]);
+            }
+            int count = this.frontier.constraintCounts[c];
+            this.solver.addAtMost(literals, count);
+            this.solver.addAtLeast(literals, count);
+        }
+        int[] all = new int[n];
+        for (int i = 0; i < n; i++) {
+            all[i] = SatSolver.positive(i);
+        }
+        int most = this.frontier.remainingMines;
+        if (most < this.mostFrontierMines() 
+                && (long) n * most <= TOTAL_ENCODING_LIMIT) {
+            this.solver.addAtMost(all, most);
+        }
+        int least = most - this.frontier.otherCoveredCount;
+        if (least > 0 && (long) n * (n - least) <= TOTAL_ENCODING_LIMIT) {
+            this.solver.addAtLeast(all, least);
+        }
+        this.encodingCount++;
+        this.stale = false;
+    }
+    
+    private void refresh() {
+        if (this.stale) {
+            this.encode();
+            if (!this.solver.solve()) {
+                String excMsg = "No arrangement of " 
+                        + this.frontier.remainingMines 
+                        + " mines agrees with the revealed numbers";
+                throw new IllegalStateException(excMsg);
+            }
+        }
+    }
+    
+    /**
+     * Tells whether a position is certainly safe.
+     * @param position The position. For example, (3, 7).
+     * @return True if the position is covered and can't have a mine, false 
+     * if it might have one or if it's not covered.
+     * @throws IllegalStateException If no arrangement of mines agrees with 
+     * what the player can see, which can happen if a position was wrongly 
+     * flagged.
+     */
+    public synchronized boolean isProvablySafe(Position position) {
+        this.refresh();
+        if (!this.view.query(position).equals(PositionStatus.COVERED)) {
+            return false;
+        }
+        int index = this.frontier.indexOf(position);
+        if (index < 0) {
+            return this.frontier.remainingMines == 0;
+        }
+        return !this.solver.solve(SatSolver.positive(index));
+    }
+    
+    /**
+     * Tells whether a position certainly has a mine.
+     * @param position The position. For example, (3, 7).
+     * @return True if the position is covered and has to have a mine, false 
+     * if it might not have one, if it's off the frontier or if it's not 
+     * covered.
+     * @throws IllegalStateException If no arrangement of mines agrees with 
+     * what the player can see.
+     */
+    public synchronized boolean isProvablyMined(Position position) {
+        this.refresh();
+        if (!this.view.query(position).equals(PositionStatus.COVERED)) {
+            return false;
+        }
+        int index = this.frontier.indexOf(position);
+        if (index < 0) {
+            return false;
+        }
+        return !this.solver.solve(SatSolver.negative(index));
+    }
+    
+    /**
+     * Deduces safe and mined positions on the frontier. Each satisfying 
+     * assignment found along the way rules out every position it sets one way 
+     * from being proven the other way, so most positions don't need a query 
+     * of their own.
+     * @param board The board. It has to be the board this engine was 
+     * constructed with.
+     * @return The positions found to be safe or mined.
+     * @throws IllegalArgumentException If <code>board</code> is not this 
+     * engine's board.
+     * @throws IllegalStateException If no arrangement of mines agrees with 
+     * what the player can see.
+     */
+    @Override
+    public synchronized Deductions deduce(Board board) {
+        if (board != this.view.getBoard()) {
+            String excMsg 
+                    = "This engine only works on the board it was made for";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.refresh();
+        int n = this.frontier.variables.length;
+        boolean[] canBeMine = new boolean[n];
+        boolean[] canBeSafe = new boolean[n];
+        this.solver.solve();
+        this.record(canBeMine, canBeSafe);
+        ArrayList<Position> safe = new ArrayList<>();
+        ArrayList<Position> mined = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (!canBeMine[i]) {
+                if (this.solver.solve(SatSolver.positive(i))) {
+                    this.record(canBeMine, canBeSafe);
+                } else {
+                    safe.add(this.frontier.variables[i]);
+                }
+            }
+            if (!canBeSafe[i]) {
+                if (this.solver.solve(SatSolver.negative(i))) {
+                    this.record(canBeMine, canBeSafe);
+                } else {
+                    mined.add(this.frontier.variables[i]);
+                }
+            }
+        }
+        return new Deductions(safe, mined);
+    }
+    
+    private void record(boolean[] canBeMine, boolean[] canBeSafe) {
+        for (int i = 0; i < canBeMine.length; i++) {
+            if (this.solver.modelValue(i)) {
+                canBeMine[i] = true;
+            } else {
+                canBeSafe[i] = true;
+            }
+        }
+    }
+    
+    /**
+     * Stops this engine from listening to its board.
+     */
+    public void detach() {
+        this.view.getBoard().removeStatusChangeListener(this);
+    }
+    
+    /**
+     * Constructor. The frontier is not encoded until the first query.
+     * @param board The board to answer queries about.
+     */
+    public SatDeductionEngine(Board board) {
+        this.view = new BoardView(board);
+        board.addStatusChangeListener(this);
+    }
+    
+}
@@ -0,0 +1,654 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * A small conflict-driven clause learning SAT solver. Variables are numbered 
+ * from 0, and a literal is twice its variable, plus 1 if negated. For example, 
+ * literal 6 is variable 3, literal 7 is its negation.
+ * <p>The solver uses two watched literals per clause for unit propagation, 
+ * learns a first unique implication point clause from each conflict, jumps 
+ * back non-chronologically, picks decision variables by conflict activity, 
+ * kept in a heap, and restarts on the Luby sequence. Learned clauses are kept 
+ * between calls to {@link #solve(int...)}, so that a series of queries about 
+ * the same formula under different assumptions gets faster as it goes. 
+ * Learned clauses are never deleted, which is fine for formulas the size of a 
+ * minesweeper frontier.</p>
+ * <p>This class is not thread safe.</p>
+ * @author Alonso del Arte
+ */
+final class SatSolver {
+    
+    private static final int UNASSIGNED = -1;
+    
+    private static final int NO_REASON = -1;
+    
+    private static final int RESTART_UNIT = 64;
+    
+    /**
+     * The most literals for which a cardinality constraint is encoded with a 
+     * clause for each subset rather than with a counter. This covers the 
+     * neighbors of any position, at no more than 70 clauses per constraint.
+     */
+    static final int DIRECT_ENCODING_LIMIT = 8;
+    
+    private static final double ACTIVITY_DECAY = 0.95;
+    
+    private final ArrayList<int[]> clauses = new ArrayList<>();
+    
+    private int[][] watches = new int[0][];
+    
+    private int[] watchCounts = new int[0];
+    
+    private int variableCount = 0;
+    
+    private int[] assignments = new int[0];
+    
+    private int[] levels = new int[0];
+    
+    private int[] reasons = new int[0];
+    
+    private boolean[] phases = new boolean[0];
+    
+    private boolean[] seen = new boolean[0];
+    
+    private double[] activities = new double[0];
+    
+    private double activityIncrement = 1.0;
+    
+    private int[] heap = new int[0];
+    
+    private int[] heapPositions = new int[0];
+    
+    private int heapSize = 0;
+    
+    private int[] learnedBuffer = new int[0];
+    
+    private int[] trail = new int[0];
+    
+    private int trailSize = 0;
+    
+    private int propagationHead = 0;
+    
+    private int[] levelStarts = new int[0];
+    
+    private int decisionLevel = 0;
+    
+    private boolean inconsistent = false;
+    
+    private boolean[] model = new boolean[0];
+    
+    private long conflictCount = 0;
+    
+    /**
+     * Adds a variable.
+     * @return The number of the new variable. Its positive literal is twice 
+     * that.
+     */
+    int newVariable() {
+        int variable = this.variableCount++;
+        if (variable == this.assignments.length) {
+            int capacity = Math.max(16, 2 * variable);
+            this.assignments = Arrays.copyOf(this.assignments, capacity);
+            this.levels = Arrays.copyOf(this.levels, capacity);
+            this.reasons = Arrays.copyOf(this.reasons, capacity);
+            this.phases = Arrays.copyOf(this.phases, capacity);
+            this.seen = Arrays.copyOf(this.seen, capacity);
+            this.activities = Arrays.copyOf(this.activities, capacity);
+            this.trail = Arrays.copyOf(this.trail, capacity);
+            this.levelStarts = Arrays.copyOf(this.levelStarts, capacity + 1);
+            this.model = Arrays.copyOf(this.model, capacity);
+            this.heap = Arrays.copyOf(this.heap, capacity);
+            this.heapPositions = Arrays.copyOf(this.heapPositions, capacity);
+            this.learnedBuffer = new int[capacity + 1];
+            int oldLiterals = this.watches.length;
+            this.watches = Arrays.copyOf(this.watches, 2 * capacity);
+            this.watchCounts = Arrays.copyOf(this.watchCounts, 2 * capacity);
+            for (int lit = oldLiterals; lit < this.watches.length; lit++) {
+                this.watches[lit] = new int[4];
+            }
+        }
+        this.assignments[variable] = UNASSIGNED;
+        this.reasons[variable] = NO_REASON;
+        this.heapPositions[variable] = UNASSIGNED;
+        this.heapInsert(variable);
+        return variable;
+    }
+    
+    /**
+     * Gives the number of variables, including those added by cardinality 
+     * constraints.
+     * @return The number of variables.
+     */
+    int getVariableCount() {
+        return this.variableCount;
+    }
+    
+    /**
+     * Gives the number of conflicts met so far, over all calls to {@link 
+     * #solve(int...)}.
+     * @return The number of conflicts.
+     */
+    long getConflictCount() {
+        return this.conflictCount;
+    }
+    
+    /**
+     * Makes the positive literal of a variable.
+     * @param variable The variable. For example, 3.
+     * @return The literal. For example, 6.
+     */
+    static int positive(int variable) {
+        return variable << 1;
+    }
+    
+    /**
+     * Makes the negative literal of a variable.
+     * @param variable The variable. For example, 3.
+     * @return The literal. For example, 7.
+     */
+    static int negative(int variable) {
+        return (variable << 1) | 1;
+    }
+    
+    /**
+     * Gives the value of a literal under the current assignment.
+     * @return 1 if true, 0 if false, &minus;1 if unassigned.
+     */
+    private int value(int literal) {
+        int assignment = this.assignments[literal >> 1];
+        return assignment == UNASSIGNED ? UNASSIGNED 
+                : assignment ^ (literal & 1);
+    }
+    
+    private void watch(int literal, int clauseIndex) {
+        int[] list = this.watches[literal];
+        int count = this.watchCounts[literal];
+        if (count == list.length) {
+            list = Arrays.copyOf(list, 2 * count);
+            this.watches[literal] = list;
+        }
+        list[count] = clauseIndex;
+        this.watchCounts[literal] = count + 1;
+    }
+    
+    private void assign(int literal, int reason) {
+        int variable = literal >> 1;
+        this.assignments[variable] = (literal & 1) ^ 1;
+        this.levels[variable] = this.decisionLevel;
+        this.reasons[variable] = reason;
+        this.trail[this.trailSize++] = literal;
+    }
+    
+    private int attach(int[] clause) {
+        int index = this.clauses.size();
+        this.clauses.add(clause);
+        this.watch(clause[0], index);
+        this.watch(clause[1], index);
+        return index;
+    }
+    
+    /**
+     * Adds a clause. This should only be called between calls to {@link 
+     * #solve(int...)}.
+     * @param literals The literals, at least one of which has to be true. For 
+     * example, 6, 9 for "variable 3 or not variable 4." An empty clause makes 
+     * the formula unsatisfiable.
+     */
+    void addClause(int... literals) {
+        if (this.inconsistent) {
+            return;
+        }
+        int[] clause = new int[literals.length];
+        int size = 0;
+        for (int literal : literals) {
+            int value = this.value(literal);
+            if (value == 1) {
+                return;
+            }
+            if (value == UNASSIGNED) {
+                boolean repeated = false;
+                for (int i = 0; i < size; i++) {
+                    if (clause[i] == literal) {
+                        repeated = true;
+                    } else if (clause[i] == (literal ^ 1)) {
+                        return;
+                    }
+                }
+                if (!repeated) {
+                    clause[size++] = literal;
+                }
+            }
+        }
+        if (size == 0) {
+            this.inconsistent = true;
+        } else if (size == 1) {
+            this.assign(clause[0], NO_REASON);
+            this.inconsistent = this.propagate() != NO_REASON;
+        } else {
+            this.attach(Arrays.copyOf(clause, size));
+        }
+    }
+    
+    /**
+     * Adds a clause for each set of <i>k</i> + 1 of the given literals, saying 
+     * not all of them are true.
+     */
+    private void addAtMostDirectly(int[] literals, int k) {
+        int n = literals.length;
+        int[] clause = new int[k + 1];
+        for (int mask = 0; mask < (1 << n); mask++) {
+            if (Integer.bitCount(mask) == k + 1) {
+                int size = 0;
+                for (int i = 0; i < n; i++) {
+                    if ((mask & (1 << i)) != 0) {
+                        clause[size++] = literals[i] ^ 1;
+                    }
+                }
+                this.addClause(clause);
+            }
+        }
+    }
+    
+    /**
+     * Adds clauses saying at most <i>k</i> of the given literals are true. Up 
+     * to {@link #DIRECT_ENCODING_LIMIT} literals, there is a clause for each 
+     * subset of <i>k</i> + 1 literals and no new variables. Beyond that, this 
+     * uses Sinz's sequential counter, which takes <i>nk</i> new variables and 
+     * about 2<i>nk</i> clauses for <i>n</i> literals.
+     * @param literals The literals. For example, the positive literals of the 
+     * covered neighbors of a revealed number.
+     * @param k The most that may be true. For example, 2.
+     */
+    void addAtMost(int[] literals, int k) {
+        int n = literals.length;
+        if (k >= n) {
+            return;
+        }
+        if (k <= 0) {
+            for (int literal : literals) {
+                this.addClause(literal ^ 1);
+            }
+            return;
+        }
+        if (n <= DIRECT_ENCODING_LIMIT) {
+            this.addAtMostDirectly(literals, k);
+            return;
+        }
+        int[] previous = new int[k];
+        for (int j = 0; j < k; j++) {
+            previous[j] = this.newVariable();
+        }
+        this.addClause(literals[0] ^ 1, positive(previous[0]));
+        for (int j = 1; j < k; j++) {
+            this.addClause(negative(previous[j]));
+        }
+        for (int i = 1; i < n - 1; i++) {
+            int[] current = new int[k];
+            for (int j = 0; j < k; j++) {
+                current[j] = this.newVariable();
+            }
+            int notX = literals[i] ^ 1;
+            this.addClause(notX, positive(current[0]));
+            this.addClause(negative(previous[0]), positive(current[0]));
+            for (int j = 1; j < k; j++) {
+                this.addClause(notX, negative(previous[j - 1]), 
+                        positive(current[j]));
+                this.addClause(negative(previous[j]), positive(current[j]));
+            }
+            this.addClause(notX, negative(previous[k - 1]));
+            previous = current;
+        }
+        this.addClause(literals[n - 1] ^ 1, negative(previous[k - 1]));
+    }
+    
+    /**
+     * Adds clauses saying at least <i>k</i> of the given literals are true, as 
+     * at most <i>n</i> &minus; <i>k</i> of their negations being true.
+     * @param literals The literals. For example, the positive literals of the 
+     * covered neighbors of a revealed number.
+     * @param k The least that may be true. For example, 2.
+     */
+    void addAtLeast(int[] literals, int k) {
+        int[] negations = new int[literals.length];
+        for (int i = 0; i < literals.length; i++) {
+            negations[i] = literals[i] ^ 1;
+        }
+        this.addAtMost(negations, literals.length - k);
+    }
+    
+    /**
+     * Propagates the assignments on the trail that haven't been propagated 
+     * yet.
+     * @return The index of a clause with every literal false, or &minus;1 if 
+     * there is no conflict.
+     */
+    private int propagate() {
+        while (this.propagationHead < this.trailSize) {
+            int falseLiteral = this.trail[this.propagationHead++] ^ 1;
+            int[] list = this.watches[falseLiteral];
+            int count = this.watchCounts[falseLiteral];
+            int kept = 0;
+            int conflict = NO_REASON;
+            int i = 0;
+            while (i < count) {
+                int clauseIndex = list[i++];
+                int[] clause = this.clauses.get(clauseIndex);
+                if (clause[0] == falseLiteral) {
+                    clause[0] = clause[1];
+                    clause[1] = falseLiteral;
+                }
+                if (this.value(clause[0]) == 1) {
+                    list[kept++] = clauseIndex;
+                    continue;
+                }
+                boolean moved = false;
+                for (int k = 2; k < clause.length; k++) {
+                    if (this.value(clause[k]) != 0) {
+                        clause[1] = clause[k];
+                        clause[k] = falseLiteral;
+                        this.watch(clause[1], clauseIndex);
+                        moved = true;
+                        break;
+                    }
+                }
+                if (moved) {
+                    continue;
+                }
+                list[kept++] = clauseIndex;
+                if (this.value(clause[0]) == 0) {
+                    conflict = clauseIndex;
+                    while (i < count) {
+                        list[kept++] = list[i++];
+                    }
+                } else {
+                    this.assign(clause[0], clauseIndex);
+                }
+            }
+            this.watchCounts[falseLiteral] = kept;
+            if (conflict != NO_REASON) {
+                return conflict;
+            }
+        }
+        return NO_REASON;
+    }
+    
+    private boolean heapBefore(int a, int b) {
+        return this.activities[a] > this.activities[b];
+    }
+    
+    private void siftUp(int position) {
+        int variable = this.heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >> 1;
+            if (!this.heapBefore(variable, this.heap[parent])) {
+                break;
+            }
+            this.heap[position] = this.heap[parent];
+            this.heapPositions[this.heap[position]] = position;
+            position = parent;
+        }
+        this.heap[position] = variable;
+        this.heapPositions[variable] = position;
+    }
+    
+    private void siftDown(int position) {
+        int variable = this.heap[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= this.heapSize) {
+                break;
+            }
+            if (child + 1 < this.heapSize 
+                    && this.heapBefore(this.heap[child + 1], 
+                            this.heap[child])) {
+                child++;
+            }
+            if (!this.heapBefore(this.heap[child], variable)) {
+                break;
+            }
+            this.heap[position] = this.heap[child];
+            this.heapPositions[this.heap[position]] = position;
+            position = child;
+        }
+        this.heap[position] = variable;
+        this.heapPositions[variable] = position;
+    }
+    
+    private void heapInsert(int variable) {
+        if (this.heapPositions[variable] == UNASSIGNED) {
+            this.heap[this.heapSize] = variable;
+            this.heapPositions[variable] = this.heapSize;
+            this.siftUp(this.heapSize++);
+        }
+    }
+    
+    private int heapRemoveFirst() {
+        int first = this.heap[0];
+        this.heapPositions[first] = UNASSIGNED;
+        this.heapSize--;
+        if (this.heapSize > 0) {
+            this.heap[0] = this.heap[this.heapSize];
+            this.heapPositions[this.heap[0]] = 0;
+            this.siftDown(0);
+        }
+        return first;
+    }
+    
+    private void bump(int variable) {
+        this.activities[variable] += this.activityIncrement;
+        if (this.activities[variable] > 1E100) {
+            for (int v = 0; v < this.variableCount; v++) {
+                this.activities[v] *= 1E-100;
+            }
+            this.activityIncrement *= 1E-100;
+        }
+        if (this.heapPositions[variable] != UNASSIGNED) {
+            this.siftUp(this.heapPositions[variable]);
+        }
+    }
+    
+    /**
+     * Works out a first unique implication point clause from a conflict.
+     * @return The learned clause, with the asserting literal first and a 
+     * literal from the backjump level second.
+     */
+    private int[] analyze(int conflict) {
+        int[] learned = this.learnedBuffer;
+        int size = 1;
+        int pending = 0;
+        int literal = UNASSIGNED;
+        int index = this.trailSize - 1;
+        int clauseIndex = conflict;
+        do {
+            int[] clause = this.clauses.get(clauseIndex);
+            for (int j = literal == UNASSIGNED ? 0 : 1; j < clause.length; 
+                    j++) {
+                int variable = clause[j] >> 1;
+                if (!this.seen[variable] && this.levels[variable] > 0) {
+                    this.seen[variable] = true;
+                    this.bump(variable);
+                    if (this.levels[variable] >= this.decisionLevel) {
+                        pending++;
+                    } else {
+                        learned[size++] = clause[j];
+                    }
+                }
+            }
+            while (!this.seen[this.trail[index] >> 1]) {
+                index--;
+            }
+            literal = this.trail[index--];
+            clauseIndex = this.reasons[literal >> 1];
+            this.seen[literal >> 1] = false;
+            pending--;
+        } while (pending > 0);
+        learned[0] = literal ^ 1;
+        int highest = 1;
+        for (int j = 1; j < size; j++) {
+            this.seen[learned[j] >> 1] = false;
+            if (this.levels[learned[j] >> 1] > this.levels[learned[highest] 
+                    >> 1]) {
+                highest = j;
+            }
+        }
+        if (size > 1) {
+            int swap = learned[1];
+            learned[1] = learned[highest];
+            learned[highest] = swap;
+        }
+        this.activityIncrement /= ACTIVITY_DECAY;
+        return Arrays.copyOf(learned, size);
+    }
+    
+    private void backtrack(int level) {
+        if (this.decisionLevel <= level) {
+            return;
+        }
+        int start = this.levelStarts[level];
+        for (int t = this.trailSize - 1; t >= start; t--) {
+            int variable = this.trail[t] >> 1;
+            this.phases[variable] = this.assignments[variable] == 1;
+            this.assignments[variable] = UNASSIGNED;
+            this.reasons[variable] = NO_REASON;
+            this.heapInsert(variable);
+        }
+        this.trailSize = start;
+        this.propagationHead = start;
+        this.decisionLevel = level;
+    }
+    
+    private void newLevel() {
+        if (this.decisionLevel == this.levelStarts.length) {
+            this.levelStarts = Arrays.copyOf(this.levelStarts, 
+                    2 * this.decisionLevel);
+        }
+        this.levelStarts[this.decisionLevel++] = this.trailSize;
+    }
+    
+    private int pickBranchLiteral() {
+        while (this.heapSize > 0) {
+            int variable = this.heapRemoveFirst();
+            if (this.assignments[variable] == UNASSIGNED) {
+                return this.phases[variable] ? positive(variable) 
+                        : negative(variable);
+            }
+        }
+        return UNASSIGNED;
+    }
+    
+    /**
+     * Gives the Luby sequence, 1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, 
+     * ..., indexed from 0.
+     */
+    static long luby(long index) {
+        long size = 1;
+        int exponent = 0;
+        while (size < index + 1) {
+            exponent++;
+            size = 2 * size + 1;
+        }
+        long i = index;
+        while (size - 1 != i) {
+            size = (size - 1) >> 1;
+            exponent--;
+            i = i % size;
+        }
+        return 1L << exponent;
+    }
+    
+    /**
+     * Decides whether the formula is satisfiable with the given literals true. 
+     * The assumptions hold for this call only, but anything learned along the 
+     * way is kept.
+     * @param assumptions Literals to take as true. For example, 6 to ask 
+     * whether there is a solution with variable 3 true.
+     * @return True if there is a satisfying assignment, which can then be read 
+     * with {@link #modelValue(int)}, false if there is none.
+     */
+    boolean solve(int... assumptions) {
+        if (this.inconsistent) {
+            return false;
+        }
+        long restarts = 0;
+        long budget = RESTART_UNIT * luby(restarts);
+        while (true) {
+            int conflict = this.propagate();
+            if (conflict != NO_REASON) {
+                this.conflictCount++;
+                if (this.decisionLevel == 0) {
+                    this.inconsistent = true;
+                    return false;
+                }
+                int[] learned = this.analyze(conflict);
+                int level = learned.length == 1 ? 0 
+                        : this.levels[learned[1] >> 1];
+                this.backtrack(level);
+                if (learned.length == 1) {
+                    this.assign(learned[0], NO_REASON);
+                } else {
+                    this.assign(learned[0], this.attach(learned));
+                }
+                budget--;
+                continue;
+            }
+            if (budget <= 0) {
+                this.backtrack(0);
+                restarts++;
+                budget = RESTART_UNIT * luby(restarts);
+                continue;
+            }
+            if (this.decisionLevel < assumptions.length) {
+                int assumption = assumptions[this.decisionLevel];
+                int value = this.value(assumption);
+                if (value == 0) {
+                    this.backtrack(0);
+                    return false;
+                }
+                this.newLevel();
+                if (value == UNASSIGNED) {
+                    this.assign(assumption, NO_REASON);
+                }
+                continue;
+            }
+            int next = this.pickBranchLiteral();
+            if (next == UNASSIGNED) {
+                for (int v = 0; v < this.variableCount; v++) {
+                    this.model[v] = this.assignments[v] == 1;
+                }
+                this.backtrack(0);
+                return true;
+            }
+            this.newLevel();
+            this.assign(next, NO_REASON);
+        }
+    }
+    
+    /**
+     * Gives the value of a variable in the satisfying assignment found by the 
+     * last successful call to {@link #solve(int...)}.
+     * @param variable The variable. For example, 3.
+     * @return The value of the variable.
+     */
+    boolean modelValue(int variable) {
+        return this.model[variable];
+    }
+    
+}
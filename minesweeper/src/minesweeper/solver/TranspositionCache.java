@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of analyses keyed by board state hash. When the cache is 
+ * full, the entry that was used least recently is dropped to make room. Hashes 
+ * are 64 bits, so two different states sharing a hash is possible in 
+ * principle but vanishingly unlikely in practice. All functions are 
+ * synchronized, so one cache can be shared by threads analyzing different 
+ * boards.
+ * @param <V> The type of analysis cached. For example, {@link Analysis}.
+ * @author Alonso del Arte
+ */
+public class TranspositionCache<V> {
+    
+    private final int capacity;
+    
+    private final LinkedHashMap<Long, V> entries;
+    
+    private long hitCount = 0;
+    
+    private long missCount = 0;
+    
+    /**
+     * Looks up a state. This counts as a use of the entry, if there is one.
+     * @param stateHash The state hash. For example, the result of {@link 
+     * minesweeper.Board#getStateHash()}.
+     * @return The cached analysis, or null if there is none.
+     */
+    public synchronized V get(long stateHash) {
+        V value = this.entries.get(stateHash);
+        if (value == null) {
+            this.missCount++;
+        } else {
+            this.hitCount++;
+        }
+        return value;
+    }
+    
+    /**
+     * Caches an analysis, possibly dropping the least recently used one.
+     * @param stateHash The state hash. For example, the result of {@link 
+     * minesweeper.Board#getStateHash()}.
+     * @param value The analysis. Should not be null.
+     */
+    public synchronized void put(long stateHash, V value) {
+        this.entries.put(stateHash, value);
+    }
+    
+    /**
+     * Tells how many analyses are cached.
+     * @return The number of entries, no more than the capacity.
+     */
+    public synchronized int size() {
+        return this.entries.size();
+    }
+    
+    /**
+     * Tells how many analyses this cache can hold.
+     * @return The capacity given to the constructor. For example, 1024.
+     */
+    public int getCapacity() {
+        return this.capacity;
+    }
+    
+    /**
+     * Tells how many lookups have found an analysis.
+     * @return The number of hits. For example, 0 right after construction.
+     */
+    public synchronized long getHitCount() {
+        return this.hitCount;
+    }
+    
+    /**
+     * Tells how many lookups have come up empty.
+     * @return The number of misses. For example, 0 right after construction.
+     */
+    public synchronized long getMissCount() {
+        return this.missCount;
+    }
+    
+    /**
+     * Drops every entry. The hit and miss counts are kept.
+     */
+    public synchronized void clear() {
+        this.entries.clear();
+    }
+    
+    /**
+     * Sole constructor.
+     * @param maximumSize How many analyses to keep at most. For example, 
+     * 1024.
+     * @throws IllegalArgumentException If <code>maximumSize</code> is less 
+     * than 1.
+     */
+    public TranspositionCache(int maximumSize) {
+        if (maximumSize < 1) {
+            String excMsg = "Capacity " + maximumSize 
+                    + " is not valid, should be at least 1";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.capacity = maximumSize;
+        this.entries = new LinkedHashMap<Long, V>(16, 0.75f, true) {
+            
+            private static final long serialVersionUID = 4540376284215610036L;
+            
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, V> eldest) {
+                return this.size() > TranspositionCache.this.capacity;
+            }
+            
+        };
+    }
+    
+}
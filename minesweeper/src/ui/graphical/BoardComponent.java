@@ -0,0 +1,365 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package ui.graphical;
+
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+import javax.swing.JComponent;
+import javax.swing.JOptionPane;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+
+import minesweeper.Board;
+import minesweeper.Position;
+import minesweeper.PositionStatus;
+import minesweeper.StatusChangeListener;
+
+/**
+ * Draws a Minesweeper board and lets the player click on it. Only the part of 
+ * the board within the clip rectangle is painted, by copying pre-rendered tiles 
+ * from a {@link TileCache}, so the cost of painting depends on the size of the 
+ * window rather than the size of the board. After each move, only the 
+ * rectangle enclosing the positions that actually changed is repainted.
+ * <p>Moves are made on a background thread, so that a large cascade of empty 
+ * positions doesn't freeze the Event Dispatch Thread. Since the board isn't 
+ * safe to read while a move is being made on it, the component paints from a 
+ * snapshot of the statuses of its own, which only the Event Dispatch Thread 
+ * touches. The changes a move makes are queued up as they happen and applied 
+ * to the snapshot once the move is done. While a move is in progress, further 
+ * clicks are ignored.</p>
+ * @author Alonso del Arte
+ */
+public class BoardComponent extends JComponent implements Scrollable {
+    
+    private static final long serialVersionUID = 4557136914384102887L;
+    
+    private static final PositionStatus[] STATUSES = PositionStatus.values();
+    
+    private final Board board;
+    
+    private final TileCache tiles;
+    
+    private final int tileSize;
+    
+    private final int rows;
+    
+    private final int columns;
+    
+    private final PendingChanges pendingChanges;
+    
+    private final byte[] shown;
+    
+    private boolean moveInProgress = false;
+    
+    private boolean movesEnabled = true;
+    
+    private Consumer<Boolean> moveCallback = succeeded -> {};
+    
+    /**
+     * Queues up the changes of status made by a move. It is filled on the 
+     * thread that makes the move and drained on the Event Dispatch Thread. 
+     * Each change is packed into a <code>long</code>, with the position's 
+     * index in the high bits and the ordinal of the new status in the low 
+     * four bits.
+     */
+    private static class PendingChanges implements StatusChangeListener {
+        
+        private final int columns;
+        
+        private long[] changes = new long[64];
+        
+        private int count = 0;
+        
+        @Override
+        public synchronized void statusChanged(Position position, 
+                PositionStatus previous, PositionStatus current) {
+            if (this.count == this.changes.length) {
+                this.changes = Arrays.copyOf(this.changes, 2 * this.count);
+            }
+            long index = (long) position.getX() * this.columns 
+                    + position.getY();
+            this.changes[this.count++] = (index << 4) | current.ordinal();
+        }
+        
+        /**
+         * Applies the queued changes to a snapshot and empties the queue.
+         * @return The smallest rectangle of positions enclosing the changed 
+         * positions, in pixels, or null if nothing changed.
+         */
+        synchronized Rectangle drainInto(byte[] snapshot, int tileSize) {
+            if (this.count == 0) {
+                return null;
+            }
+            int minRow = Integer.MAX_VALUE;
+            int maxRow = -1;
+            int minColumn = Integer.MAX_VALUE;
+            int maxColumn = -1;
+            for (int i = 0; i < this.count; i++) {
+                int index = (int) (this.changes[i] >>> 4);
+                snapshot[index] = (byte) (this.changes[i] & 15);
+                int x = index / this.columns;
+                int y = index % this.columns;
+                minRow = Math.min(minRow, x);
+                maxRow = Math.max(maxRow, x);
+                minColumn = Math.min(minColumn, y);
+                maxColumn = Math.max(maxColumn, y);
+            }
+            this.count = 0;
+            return new Rectangle(minColumn * tileSize, minRow * tileSize, 
+                    (maxColumn - minColumn + 1) * tileSize, 
+                    (maxRow - minRow + 1) * tileSize);
+        }
+        
+        PendingChanges(int columns) {
+            this.columns = columns;
+        }
+        
+    }
+    
+    /**
+     * Gives the board this component draws.
+     * @return The board. The caller should not make moves on it directly, 
+     * since this component would then not know to repaint.
+     */
+    public Board getBoard() {
+        return this.board;
+    }
+    
+    /**
+     * Tells whether a move is being made on the board right now. This should 
+     * be called on the Event Dispatch Thread.
+     * @return True if a move has been started and isn't done yet, false 
+     * otherwise.
+     */
+    public boolean isMoveInProgress() {
+        return this.moveInProgress;
+    }
+    
+    /**
+     * Lets clicks make moves, or stops them from doing so. This may be used, 
+     * for example, to keep the board from changing while it's being exported. 
+     * This should be called on the Event Dispatch Thread.
+     * @param enabled True to let clicks make moves, false to ignore them.
+     */
+    public void setMovesEnabled(boolean enabled) {
+        this.movesEnabled = enabled;
+    }
+    
+    /**
+     * Sets a procedure to be called on the Event Dispatch Thread after each 
+     * move has finished. This may be used, for example, to update a status 
+     * label, or to count clicks.
+     * @param callback The procedure to call. It's given true if the move was 
+     * made, false if the board turned it down. Should not be null.
+     */
+    public void setMoveCallback(Consumer<Boolean> callback) {
+        this.moveCallback = callback;
+    }
+    
+    /**
+     * Converts a point on this component to a position on the board.
+     * @param pixelX The horizontal coordinate of the point. For example, 100.
+     * @param pixelY The vertical coordinate of the point. For example, 40.
+     * @return The position under the point, or null if the point is outside 
+     * the board. For example, (2, 6) for (100, 40) with 16-pixel tiles.
+     */
+    Position positionAt(int pixelX, int pixelY) {
+        if (pixelX < 0 || pixelY < 0) {
+            return null;
+        }
+        int column = pixelX / this.tileSize;
+        int row = pixelY / this.tileSize;
+        if (row >= this.rows || column >= this.columns) {
+            return null;
+        }
+        return new Position(row, column);
+    }
+    
+    @Override
+    protected void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, this.getWidth(), this.getHeight());
+        }
+        int firstColumn = Math.max(0, clip.x / this.tileSize);
+        int firstRow = Math.max(0, clip.y / this.tileSize);
+        int lastColumn = Math.min(this.columns - 1, 
+                (clip.x + clip.width - 1) / this.tileSize);
+        int lastRow = Math.min(this.rows - 1, 
+                (clip.y + clip.height - 1) / this.tileSize);
+        for (int x = firstRow; x <= lastRow; x++) {
+            int pixelY = x * this.tileSize;
+            for (int y = firstColumn; y <= lastColumn; y++) {
+                PositionStatus status 
+                        = STATUSES[this.shown[x * this.columns + y]];
+                g.drawImage(this.tiles.getTile(status), y * this.tileSize, 
+                        pixelY, null);
+            }
+        }
+    }
+    
+    /**
+     * Applies the changes queued up since the last time to the snapshot 
+     * painted from, and repaints the positions they changed. This is called 
+     * on the Event Dispatch Thread once each move is done.
+     */
+    void applyPendingChanges() {
+        Rectangle dirty = this.pendingChanges.drainInto(this.shown, 
+                this.tileSize);
+        if (dirty != null) {
+            this.repaint(dirty);
+        }
+    }
+    
+    private void makeMove(Position position, boolean flagging) {
+        if (this.moveInProgress || !this.movesEnabled 
+                || !this.board.gameUnderway()) {
+            return;
+        }
+        PositionStatus status = STATUSES[this.shown[position.getX() 
+                * this.columns + position.getY()]];
+        if (flagging) {
+            if (!status.equals(PositionStatus.COVERED) 
+                    && !status.equals(PositionStatus.FLAGGED)) {
+                return;
+            }
+        } else if (!status.equals(PositionStatus.COVERED)) {
+            return;
+        }
+        this.moveInProgress = true;
+        SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
+            
+            @Override
+            protected Void doInBackground() {
+                if (!flagging) {
+                    board.reveal(position);
+                } else if (status.equals(PositionStatus.FLAGGED)) {
+                    board.unflag(position);
+                } else {
+                    board.flag(position);
+                }
+                return null;
+            }
+            
+            @Override
+            protected void done() {
+                moveInProgress = false;
+                applyPendingChanges();
+                boolean succeeded = true;
+                try {
+                    this.get();
+                } catch (InterruptedException | ExecutionException e) {
+                    succeeded = false;
+                    Throwable cause = e.getCause() == null ? e : e.getCause();
+                    JOptionPane.showMessageDialog(BoardComponent.this, 
+                            "Couldn't make move on " + position.toString() 
+                            + ": " + cause.getMessage());
+                }
+                moveCallback.accept(succeeded);
+            }
+            
+        };
+        worker.execute();
+    }
+    
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        int width = Math.min(this.columns, 48) * this.tileSize;
+        int height = Math.min(this.rows, 32) * this.tileSize;
+        return new Dimension(width, height);
+    }
+    
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, 
+            int orientation, int direction) {
+        return this.tileSize;
+    }
+    
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, 
+            int orientation, int direction) {
+        int extent = orientation == SwingConstants.HORIZONTAL 
+                ? visibleRect.width : visibleRect.height;
+        return Math.max(this.tileSize, 
+                extent - extent % this.tileSize - this.tileSize);
+    }
+    
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return false;
+    }
+    
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+    
+    /**
+     * Sole constructor. The component takes its snapshot of the board and 
+     * registers with the board so as to know which positions change with each 
+     * move. No move should be in progress on the board at the time.
+     * @param gameBoard The board to draw. For example, a 2000 &times; 2000 
+     * board.
+     * @param tileCache The pre-rendered tiles. For example, a cache of 
+     * 16-pixel tiles.
+     */
+    public BoardComponent(Board gameBoard, TileCache tileCache) {
+        this.board = gameBoard;
+        this.tiles = tileCache;
+        this.tileSize = tileCache.getTileSize();
+        Position corner = gameBoard.getMaxCorner();
+        this.rows = corner.getX() + 1;
+        this.columns = corner.getY() + 1;
+        this.shown = new byte[this.rows * this.columns];
+        Arrays.fill(this.shown, (byte) PositionStatus.COVERED.ordinal());
+        if (gameBoard.getCoveredCount() < this.shown.length) {
+            for (int x = 0; x < this.rows; x++) {
+                for (int y = 0; y < this.columns; y++) {
+                    this.shown[x * this.columns + y] = (byte) gameBoard
+                            .query(new Position(x, y)).ordinal();
+                }
+            }
+        }
+        this.pendingChanges = new PendingChanges(this.columns);
+        this.board.addStatusChangeListener(this.pendingChanges);
+        this.setOpaque(true);
+        this.setPreferredSize(new Dimension(this.columns * this.tileSize, 
+                this.rows * this.tileSize));
+        this.addMouseListener(new MouseAdapter() {
+            
+            @Override
+            public void mouseReleased(MouseEvent event) {
+                Position position = positionAt(event.getX(), event.getY());
+                if (position != null) {
+                    makeMove(position, SwingUtilities.isRightMouseButton(event) 
+                            || event.isControlDown());
+                }
+            }
+            
+        });
+    }
+    
+}
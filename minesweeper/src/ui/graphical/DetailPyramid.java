@@ -0,0 +1,300 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package ui.graphical;
+
+import java.awt.Color;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import minesweeper.Board;
+import minesweeper.Position;
+import minesweeper.PositionStatus;
+import minesweeper.StatusChangeListener;
+
+/**
+ * A pyramid of counts of covered, revealed and flagged positions in square 
+ * blocks of the board, much like the mipmaps used for textures. Level 
+ * <i>k</i> has one block for every 2<sup><i>k</i></sup> &times; 
+ * 2<sup><i>k</i></sup> positions, up to a top level with a single block for 
+ * the whole board. The pyramid listens to the board and updates the blocks 
+ * containing a position whenever that position changes, which takes time 
+ * proportional to the number of levels. Drawing a zoomed-out view then only 
+ * needs to look at one block per pixel, no matter how many positions each 
+ * pixel stands for.
+ * <p>Updates come from whichever thread makes the moves, while drawing 
+ * usually happens on the Event Dispatch Thread, so both are synchronized on 
+ * the pyramid. For the same reason, the pyramid keeps the category of each 
+ * position for level 0 itself rather than querying the board, which may be 
+ * in the middle of a move.</p>
+ * @author Alonso del Arte
+ */
+public class DetailPyramid implements StatusChangeListener {
+    
+    private static final int COVERED_INDEX = 0;
+    private static final int REVEALED_INDEX = 1;
+    private static final int FLAGGED_INDEX = 2;
+    private static final int CATEGORY_COUNT = 3;
+    
+    private static final Color COVERED_COLOR = new Color(160, 160, 160);
+    private static final Color REVEALED_COLOR = new Color(232, 232, 232);
+    private static final Color FLAGGED_COLOR = new Color(224, 0, 0);
+    
+    private final int rows;
+    
+    private final int columns;
+    
+    /**
+     * The counts for levels 1 and up, three per block: covered, revealed, 
+     * flagged. Level 0 is kept in {@link #categories} instead, so index 0 of 
+     * this array is not used.
+     */
+    private final int[][] counts;
+    
+    /**
+     * The category of each position, row by row: 0 for covered, 1 for 
+     * revealed, 2 for flagged.
+     */
+    private final byte[] categories;
+    
+    private final int[] levelColumns;
+    
+    private static int categoryOf(PositionStatus status) {
+        switch (status) {
+            case COVERED:
+                return COVERED_INDEX;
+            case FLAGGED:
+            case WRONGLY_FLAGGED:
+                return FLAGGED_INDEX;
+            default:
+                return REVEALED_INDEX;
+        }
+    }
+    
+    /**
+     * Gives the number of levels, including level 0 for the board itself.
+     * @return The number of levels. For example, 12 for a 2000 &times; 2000 
+     * board, since 2<sup>11</sup> = 2048.
+     */
+    public int getLevelCount() {
+        return this.counts.length;
+    }
+    
+    private int blockIndex(int level, int x, int y) {
+        return (((x >> level) * this.levelColumns[level]) + (y >> level)) 
+                * CATEGORY_COUNT;
+    }
+    
+    /**
+     * Gives the counts for the block containing a position at a given level.
+     * @param level The level. For example, 3 for 8 &times; 8 blocks.
+     * @param position A position within the block. For example, (20, 13), 
+     * which would be in the block from (16, 8) to (23, 15) at level 3.
+     * @return An array with the number of covered, revealed and flagged 
+     * positions, in that order. For example, {48, 10, 6}.
+     * @throws IllegalArgumentException If <code>level</code> is negative or not 
+     * less than {@link #getLevelCount()}.
+     */
+    public synchronized int[] blockCounts(int level, Position position) {
+        if (level < 0 || level >= this.counts.length) {
+            String excMsg = "Level " + level + " is not valid, should be 0 to " 
+                    + (this.counts.length - 1);
+            throw new IllegalArgumentException(excMsg);
+        }
+        int[] result = new int[CATEGORY_COUNT];
+        if (level == 0) {
+            result[this.categories[position.getX() * this.columns 
+                    + position.getY()]] = 1;
+        } else {
+            int index = this.blockIndex(level, position.getX(), 
+                    position.getY());
+            System.arraycopy(this.counts[level], index, result, 0, 
+                    CATEGORY_COUNT);
+        }
+        return result;
+    }
+    
+    @Override
+    public synchronized void statusChanged(Position position, 
+            PositionStatus previous, PositionStatus current) {
+        int before = categoryOf(previous);
+        int after = categoryOf(current);
+        if (before == after) {
+            return;
+        }
+        int x = position.getX();
+        int y = position.getY();
+        this.categories[x * this.columns + y] = (byte) after;
+        for (int level = 1; level < this.counts.length; level++) {
+            int index = this.blockIndex(level, x, y);
+            this.counts[level][index + before]--;
+            this.counts[level][index + after]++;
+        }
+    }
+    
+    private static int blend(int[] blockCounts, int offset) {
+        int covered = blockCounts[offset + COVERED_INDEX];
+        int revealed = blockCounts[offset + REVEALED_INDEX];
+        int flagged = blockCounts[offset + FLAGGED_INDEX];
+        int total = covered + revealed + flagged;
+        if (total == 0) {
+            return COVERED_COLOR.getRGB();
+        }
+        int red = (covered * COVERED_COLOR.getRed() 
+                + revealed * REVEALED_COLOR.getRed() 
+                + flagged * FLAGGED_COLOR.getRed()) / total;
+        int green = (covered * COVERED_COLOR.getGreen() 
+                + revealed * REVEALED_COLOR.getGreen() 
+                + flagged * FLAGGED_COLOR.getGreen()) / total;
+        int blue = (covered * COVERED_COLOR.getBlue() 
+                + revealed * REVEALED_COLOR.getBlue() 
+                + flagged * FLAGGED_COLOR.getBlue()) / total;
+        return 0xFF000000 | (red << 16) | (green << 8) | blue;
+    }
+    
+    /**
+     * Chooses the level whose blocks are at least as large as the part of the 
+     * board that one pixel stands for.
+     */
+    private int chooseLevel(int width, int height) {
+        double cellsPerPixel = Math.max((double) this.columns / width, 
+                (double) this.rows / height);
+        int level = 0;
+        while (level < this.counts.length - 1 
+                && (1 << level) < cellsPerPixel) {
+            level++;
+        }
+        return level;
+    }
+    
+    /**
+     * Draws the whole board scaled to fit a given image. Each pixel is colored 
+     * according to the proportions of covered, revealed and flagged positions 
+     * in the block of the appropriate level, so this takes time proportional 
+     * to the number of pixels, not the number of positions.
+     * @param image The image to draw on. It may be of any size. For example, 
+     * a 200 &times; 200 image for a minimap of a 2000 &times; 2000 board.
+     */
+    public synchronized void render(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        int level = this.chooseLevel(width, height);
+        int[] rowPixels = new int[width];
+        int[] single = new int[CATEGORY_COUNT];
+        for (int py = 0; py < height; py++) {
+            int x = (int) ((long) py * this.rows / height);
+            for (int px = 0; px < width; px++) {
+                int y = (int) ((long) px * this.columns / width);
+                if (level == 0) {
+                    single[COVERED_INDEX] = 0;
+                    single[REVEALED_INDEX] = 0;
+                    single[FLAGGED_INDEX] = 0;
+                    single[this.categories[x * this.columns + y]] = 1;
+                    rowPixels[px] = blend(single, 0);
+                } else {
+                    rowPixels[px] = blend(this.counts[level], 
+                            this.blockIndex(level, x, y));
+                }
+            }
+            image.setRGB(0, py, width, 1, rowPixels, 0, width);
+        }
+    }
+    
+    /**
+     * Writes an overview of the whole board to a PNG file. This works in a 
+     * headless environment.
+     * @param file The file to write to. For example, "overview.png".
+     * @param maxSide The width or height of the image, whichever is larger. 
+     * The other dimension is chosen to keep the board's proportions. For 
+     * example, 1024.
+     * @throws IOException If the file can't be written.
+     */
+    public void exportPNG(File file, int maxSide) throws IOException {
+        int width, height;
+        if (this.columns >= this.rows) {
+            width = maxSide;
+            height = Math.max(1, (int) ((long) maxSide * this.rows 
+                    / this.columns));
+        } else {
+            height = maxSide;
+            width = Math.max(1, (int) ((long) maxSide * this.columns 
+                    / this.rows));
+        }
+        BufferedImage image = new BufferedImage(width, height, 
+                BufferedImage.TYPE_INT_RGB);
+        this.render(image);
+        ImageIO.write(image, "png", file);
+    }
+    
+    /**
+     * Sole constructor. Builds the pyramid from the board's current statuses, 
+     * which takes time proportional to the number of positions, and registers 
+     * the pyramid with the board to keep it up to date from then on.
+     * @param gameBoard The board. For example, a 2000 &times; 2000 board.
+     */
+    public DetailPyramid(Board gameBoard) {
+        Position corner = gameBoard.getMaxCorner();
+        this.rows = corner.getX() + 1;
+        this.columns = corner.getY() + 1;
+        int levelCount = 1;
+        while ((1L << (levelCount - 1)) < Math.max(this.rows, this.columns)) {
+            levelCount++;
+        }
+        this.categories = new byte[this.rows * this.columns];
+        this.counts = new int[levelCount][];
+        this.levelColumns = new int[levelCount];
+        this.levelColumns[0] = this.columns;
+        for (int level = 1; level < levelCount; level++) {
+            int blockRows = ((this.rows - 1) >> level) + 1;
+            this.levelColumns[level] = ((this.columns - 1) >> level) + 1;
+            this.counts[level] = new int[blockRows * this.levelColumns[level] 
+                    * CATEGORY_COUNT];
+        }
+        synchronized (this) {
+            for (int x = 0; x < this.rows; x++) {
+                for (int y = 0; y < this.columns; y++) {
+                    int category = categoryOf(gameBoard
+                            .query(new Position(x, y)));
+                    this.categories[x * this.columns + y] = (byte) category;
+                    if (levelCount > 1) {
+                        this.counts[1][this.blockIndex(1, x, y) 
+                                + category]++;
+                    }
+                }
+            }
+            for (int level = 2; level < levelCount; level++) {
+                int[] below = this.counts[level - 1];
+                int belowColumns = this.levelColumns[level - 1];
+                int belowRows = below.length / (belowColumns * CATEGORY_COUNT);
+                for (int bx = 0; bx < belowRows; bx++) {
+                    for (int by = 0; by < belowColumns; by++) {
+                        int from = (bx * belowColumns + by) * CATEGORY_COUNT;
+                        int to = ((bx >> 1) * this.levelColumns[level] 
+                                + (by >> 1)) * CATEGORY_COUNT;
+                        for (int c = 0; c < CATEGORY_COUNT; c++) {
+                            this.counts[level][to + c] += below[from + c];
+                        }
+                    }
+                }
+            }
+        }
+        gameBoard.addStatusChangeListener(this);
+    }
+    
+}
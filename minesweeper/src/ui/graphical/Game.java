@@ -16,33 +16,305 @@
  */
 package ui.graphical;
 
-import java.awt.Dimension;
+import java.awt.BorderLayout;
+import java.awt.event.KeyEvent;
+import java.io.File;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 
+import javax.swing.JFileChooser;
 import javax.swing.JFrame;
 import javax.swing.JLabel;
+import javax.swing.JMenu;
+import javax.swing.JMenuBar;
+import javax.swing.JMenuItem;
+import javax.swing.JOptionPane;
 import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JViewport;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+
+import minesweeper.Board;
+import minesweeper.BoardBank;
+import minesweeper.BoardMetrics;
+import minesweeper.BoardSpec;
+import minesweeper.Difficulty;
+import minesweeper.GameCode;
+import minesweeper.LiveMetrics;
+import minesweeper.MineSweeper;
+import minesweeper.Position;
 
 /**
- *
+ * Play the Minesweeper game as a Java Swing program. Left click to reveal a 
+ * position, right click (or Control-click) to flag or unflag it. The board can 
+ * be much larger than the window, in which case it scrolls, and a minimap of 
+ * the whole board is shown alongside. The status line shows the game's code, 
+ * and starting with the argument "code=" followed by a code plays that game 
+ * again. When a game is over, the status line also shows the board's 3BV, 
+ * the 3BV per second and the click efficiency.
  * @author Alonso del Arte
  */
 public class Game {
     
-    // TODO: Implement the Minesweeper game as a Java Swing program.
+    private static final int TILE_SIZE = 16;
     
-    public static void main(String[] args) {
-        JFrame frame = new JFrame("Minesweeper PLACEHOLDER");
-        JPanel panel = new JPanel();
-        String text = "Sorry, graphical UI is not ready yet";
-        panel.add(new JLabel(text));
-        panel.add(new JLabel(text));
-        panel.add(new JLabel(text));
-        Dimension dimension = new Dimension(360, 240);
-        frame.setPreferredSize(dimension);
-        frame.add(panel);
+    private static final int OVERVIEW_SIDE = 1024;
+    
+    private static final BoardBank BOARD_BANK = new BoardBank();
+    
+    private static int boardWidth = MineSweeper.DEFAULT_BOARD_WIDTH;
+    
+    private static int boardHeight = MineSweeper.DEFAULT_BOARD_HEIGHT;
+    
+    private static Difficulty difficulty = Difficulty.MEDIUM;
+    
+    private static JFrame frame;
+    
+    private static JScrollPane scrollPane;
+    
+    private static JLabel statusLabel;
+    
+    private static JPanel minimapPanel;
+    
+    private static Minimap minimap = null;
+    
+    private static DetailPyramid detailPyramid;
+    
+    private static BoardComponent boardComponent;
+    
+    private static JMenuItem exportOverviewItem;
+    
+    private static JMenuItem exportFullItem;
+    
+    private static GameCode requestedCode = null;
+    
+    private static int parseDimension(String arg, int defaultValue) {
+        int index = arg.indexOf('=');
+        try {
+            int dimension = Integer.parseInt(arg.substring(index + 1).trim());
+            return dimension > 0 ? dimension : defaultValue;
+        } catch (NumberFormatException nfe) {
+            return defaultValue;
+        }
+    }
+    
+    private static void processArgs(String[] args) {
+        for (String arg : args) {
+            String lowered = arg.toLowerCase();
+            if (lowered.startsWith("width")) {
+                boardWidth = parseDimension(lowered, boardWidth);
+            } else if (lowered.startsWith("height")) {
+                boardHeight = parseDimension(lowered, boardHeight);
+            } else if (lowered.startsWith("code")) {
+                try {
+                    requestedCode = GameCode.parse(lowered
+                            .substring(lowered.indexOf('=') + 1));
+                } catch (IllegalArgumentException iae) {
+                    System.err.println(iae.getMessage());
+                }
+            } else if (lowered.startsWith("-")) {
+                difficulty = Difficulty.fromOption(lowered);
+            }
+        }
+    }
+    
+    private static BoardSpec currentSpec() {
+        Position corner = new Position(boardHeight - 1, boardWidth - 1);
+        return new BoardSpec(corner, difficulty.mineCount(corner));
+    }
+    
+    private static String describePlay(Board board, LiveMetrics metrics) {
+        return String.format(" 3BV %d, solved %d at %.2f 3BV/s, %.0f%% " 
+                + "efficiency.", BoardMetrics.of(board).getThreeBV(), 
+                metrics.getSolvedThreeBV(), metrics.getThreeBVPerSecond(), 
+                metrics.getEfficiency() * 100.0);
+    }
+    
+    private static void updateStatus(Board board, LiveMetrics metrics) {
+        String text;
+        if (board.gameWon()) {
+            text = "Congratulations, YOU WON!" + describePlay(board, metrics);
+        } else if (!board.gameUnderway()) {
+            text = "Oops, sorry, you detonated a mine. Better luck next time." 
+                    + describePlay(board, metrics);
+        } else {
+            Position corner = board.getMaxCorner();
+            text = board.getMineCount() + " mines on " + (corner.getX() + 1) 
+                    + " by " + (corner.getY() + 1) + " board";
+        }
+        if (board.getGameCode().isPresent()) {
+            text = text + " (game " + board.getGameCode().get().toString() 
+                    + ")";
+        }
+        statusLabel.setText(text);
+    }
+    
+    private static void newGame() {
+        Board board;
+        if (requestedCode == null) {
+            board = BOARD_BANK.take(currentSpec());
+        } else {
+            board = requestedCode.makeBoard();
+            requestedCode = null;
+        }
+        BoardComponent component = new BoardComponent(board, 
+                new TileCache(TILE_SIZE));
+        boardComponent = component;
+        LiveMetrics metrics = new LiveMetrics(board);
+        detailPyramid = new DetailPyramid(board);
+        if (minimap == null) {
+            minimap = new Minimap(detailPyramid, scrollPane.getViewport());
+            minimapPanel.add(minimap);
+        } else {
+            minimap.setPyramid(detailPyramid);
+        }
+        component.setMoveCallback(succeeded -> {
+            if (succeeded) {
+                metrics.recordClick();
+            }
+            updateStatus(board, metrics);
+            minimap.repaint();
+        });
+        scrollPane.setViewportView(component);
+        updateStatus(board, metrics);
+    }
+    
+    /**
+     * Asks the player where to export the current board to. Exporting has to 
+     * wait for any move underway to finish.
+     * @param defaultName The file name to suggest. For example, 
+     * "minesweeper.png".
+     * @return The file chosen, or null if there's a move underway or the 
+     * player cancelled.
+     */
+    private static File chooseExportFile(String defaultName) {
+        if (boardComponent.isMoveInProgress()) {
+            JOptionPane.showMessageDialog(frame, 
+                    "Please wait for the move to finish before exporting.");
+            return null;
+        }
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File(defaultName));
+        if (chooser.showSaveDialog(frame) != JFileChooser.APPROVE_OPTION) {
+            return null;
+        }
+        return chooser.getSelectedFile();
+    }
+    
+    /**
+     * Runs an export on a background thread. Moves on the board and further 
+     * exports are disabled until the export is done, since the board must not 
+     * change while it's being exported.
+     * @param file The file being exported to, for the status line.
+     * @param export The export to run.
+     */
+    private static void exportInBackground(File file, Callable<Void> export) {
+        BoardComponent component = boardComponent;
+        component.setMovesEnabled(false);
+        exportOverviewItem.setEnabled(false);
+        exportFullItem.setEnabled(false);
+        statusLabel.setText("Exporting to " + file.getName() + "...");
+        SwingWorker<Void, Void> worker = new SwingWorker<Void, Void>() {
+            
+            @Override
+            protected Void doInBackground() throws Exception {
+                return export.call();
+            }
+            
+            @Override
+            protected void done() {
+                component.setMovesEnabled(true);
+                exportOverviewItem.setEnabled(true);
+                exportFullItem.setEnabled(true);
+                String text = "Exported to " + file.getName() + ".";
+                try {
+                    this.get();
+                } catch (InterruptedException | ExecutionException e) {
+                    Throwable cause = e.getCause() == null ? e : e.getCause();
+                    text = "Couldn't export: " + cause.getMessage();
+                    JOptionPane.showMessageDialog(frame, text);
+                }
+                if (component == boardComponent) {
+                    statusLabel.setText(text);
+                }
+            }
+            
+        };
+        worker.execute();
+    }
+    
+    private static void exportOverview() {
+        File file = chooseExportFile("minesweeper.png");
+        if (file != null) {
+            DetailPyramid pyramid = detailPyramid;
+            exportInBackground(file, () -> {
+                pyramid.exportPNG(file, OVERVIEW_SIDE);
+                return null;
+            });
+        }
+    }
+    
+    private static void exportFullBoard() {
+        File file = chooseExportFile("minesweeper-full.png");
+        if (file != null) {
+            Board board = boardComponent.getBoard();
+            exportInBackground(file, () -> {
+                new TiledExporter(board, new TileCache(TILE_SIZE)).export(file);
+                return null;
+            });
+        }
+    }
+    
+    private static JMenuBar makeMenuBar() {
+        JMenuBar menuBar = new JMenuBar();
+        JMenu gameMenu = new JMenu("Game");
+        gameMenu.setMnemonic(KeyEvent.VK_G);
+        JMenuItem newItem = new JMenuItem("New", KeyEvent.VK_N);
+        newItem.addActionListener(event -> newGame());
+        gameMenu.add(newItem);
+        exportOverviewItem = new JMenuItem("Export Overview...", 
+                KeyEvent.VK_E);
+        exportOverviewItem.addActionListener(event -> exportOverview());
+        gameMenu.add(exportOverviewItem);
+        exportFullItem = new JMenuItem("Export Full Board...", KeyEvent.VK_F);
+        exportFullItem.addActionListener(event -> exportFullBoard());
+        gameMenu.add(exportFullItem);
+        JMenuItem exitItem = new JMenuItem("Exit", KeyEvent.VK_X);
+        exitItem.addActionListener(event -> frame.dispose());
+        gameMenu.add(exitItem);
+        menuBar.add(gameMenu);
+        JMenu helpMenu = new JMenu("Help");
+        helpMenu.setMnemonic(KeyEvent.VK_H);
+        JMenuItem aboutItem = new JMenuItem("About...", KeyEvent.VK_A);
+        aboutItem.addActionListener(event 
+                -> JOptionPane.showMessageDialog(frame, 
+                        MineSweeper.VERSION_TEXT));
+        helpMenu.add(aboutItem);
+        menuBar.add(helpMenu);
+        return menuBar;
+    }
+    
+    private static void createAndShowGUI() {
+        frame = new JFrame("Minesweeper");
+        scrollPane = new JScrollPane();
+        scrollPane.getViewport().setScrollMode(JViewport.BLIT_SCROLL_MODE);
+        statusLabel = new JLabel();
+        frame.setJMenuBar(makeMenuBar());
+        frame.add(scrollPane, BorderLayout.CENTER);
+        frame.add(statusLabel, BorderLayout.SOUTH);
+        minimapPanel = new JPanel(new BorderLayout());
+        frame.add(minimapPanel, BorderLayout.EAST);
+        newGame();
         frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
         frame.pack();
         frame.setVisible(true);
     }
     
+    public static void main(String[] args) {
+        processArgs(args);
+        BOARD_BANK.prepare(currentSpec());
+        SwingUtilities.invokeLater(Game::createAndShowGUI);
+    }
+    
 }
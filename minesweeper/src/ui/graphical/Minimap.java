@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package ui.graphical;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+
+import javax.swing.JComponent;
+import javax.swing.JViewport;
+
+/**
+ * A zoomed-out view of the whole board, drawn from a {@link DetailPyramid}. 
+ * The part of the board currently visible in the main view is outlined, and 
+ * clicking or dragging on the minimap moves the main view there. Since each 
+ * pixel is drawn from one block of the pyramid, redrawing the minimap takes 
+ * time proportional to its size, not the size of the board.
+ * <p>A new game should be shown by giving the same minimap the new game's 
+ * pyramid, see {@link #setPyramid(DetailPyramid)}, rather than by making a 
+ * new minimap, since the minimap listens to the main view for as long as the 
+ * main view is around.</p>
+ * @author Alonso del Arte
+ */
+public class Minimap extends JComponent {
+    
+    private static final long serialVersionUID = 4557136914384102888L;
+    
+    private static final Color OUTLINE_COLOR = Color.BLUE;
+    
+    private DetailPyramid pyramid;
+    
+    private final JViewport viewport;
+    
+    private BufferedImage image = null;
+    
+    @Override
+    protected void paintComponent(Graphics g) {
+        int width = this.getWidth();
+        int height = this.getHeight();
+        if (width < 1 || height < 1) {
+            return;
+        }
+        if (this.image == null || this.image.getWidth() != width 
+                || this.image.getHeight() != height) {
+            this.image = new BufferedImage(width, height, 
+                    BufferedImage.TYPE_INT_RGB);
+        }
+        this.pyramid.render(this.image);
+        g.drawImage(this.image, 0, 0, null);
+        Dimension full = this.viewport.getViewSize();
+        if (full.width > 0 && full.height > 0) {
+            Rectangle visible = this.viewport.getViewRect();
+            int x = (int) ((long) visible.x * width / full.width);
+            int y = (int) ((long) visible.y * height / full.height);
+            int w = Math.max(2, (int) ((long) visible.width * width 
+                    / full.width));
+            int h = Math.max(2, (int) ((long) visible.height * height 
+                    / full.height));
+            g.setColor(OUTLINE_COLOR);
+            g.drawRect(x, y, w - 1, h - 1);
+        }
+    }
+    
+    /**
+     * Gives the pyramid this minimap draws from.
+     * @return The pyramid.
+     */
+    public DetailPyramid getPyramid() {
+        return this.pyramid;
+    }
+    
+    /**
+     * Switches this minimap over to another pyramid, for example the one for 
+     * a new game, and repaints it.
+     * @param detailPyramid The pyramid to draw from now on.
+     */
+    public void setPyramid(DetailPyramid detailPyramid) {
+        this.pyramid = detailPyramid;
+        this.repaint();
+    }
+    
+    private void centerViewOn(int pixelX, int pixelY) {
+        Dimension full = this.viewport.getViewSize();
+        Dimension extent = this.viewport.getExtentSize();
+        int width = Math.max(1, this.getWidth());
+        int height = Math.max(1, this.getHeight());
+        int x = (int) ((long) pixelX * full.width / width) - extent.width / 2;
+        int y = (int) ((long) pixelY * full.height / height) 
+                - extent.height / 2;
+        x = Math.max(0, Math.min(x, full.width - extent.width));
+        y = Math.max(0, Math.min(y, full.height - extent.height));
+        this.viewport.setViewPosition(new Point(x, y));
+    }
+    
+    /**
+     * Sole constructor. The minimap repaints itself whenever the main view 
+     * scrolls, but it needs to be told to repaint after moves.
+     * @param detailPyramid The pyramid to draw from.
+     * @param mainView The viewport of the scroll pane with the main view of 
+     * the board.
+     */
+    public Minimap(DetailPyramid detailPyramid, JViewport mainView) {
+        this.pyramid = detailPyramid;
+        this.viewport = mainView;
+        this.setPreferredSize(new Dimension(200, 200));
+        this.viewport.addChangeListener(event -> this.repaint());
+        MouseAdapter adapter = new MouseAdapter() {
+            
+            @Override
+            public void mousePressed(MouseEvent event) {
+                centerViewOn(event.getX(), event.getY());
+            }
+            
+            @Override
+            public void mouseDragged(MouseEvent event) {
+                centerViewOn(event.getX(), event.getY());
+            }
+            
+        };
+        this.addMouseListener(adapter);
+        this.addMouseMotionListener(adapter);
+    }
+    
+}
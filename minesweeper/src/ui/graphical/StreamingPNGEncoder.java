@@ -0,0 +1,177 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package ui.graphical;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes an RGB PNG image a few rows at a time, so that images far too large 
+ * to hold in memory can be written. The rows must be given in order, from top 
+ * to bottom. Unlike <code>ImageIO</code>, this only handles 8-bit RGB without 
+ * transparency, which is all that's needed for pictures of boards.
+ * @author Alonso del Arte
+ */
+class StreamingPNGEncoder implements AutoCloseable {
+    
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', 
+        '\n', 0x1A, '\n'};
+    
+    private static final int CHUNK_SIZE = 1 << 16;
+    
+    private static final byte FILTER_NONE = 0;
+    
+    private final DataOutputStream output;
+    
+    private final int width;
+    
+    private final int height;
+    
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+    
+    private final byte[] scanline;
+    
+    private final byte[] chunkBuffer = new byte[CHUNK_SIZE];
+    
+    private int rowsWritten = 0;
+    
+    private boolean closed = false;
+    
+    private void writeChunk(String type, byte[] data, int length) 
+            throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+        this.output.writeInt(length);
+        this.output.write(typeBytes);
+        this.output.write(data, 0, length);
+        this.output.writeInt((int) crc.getValue());
+    }
+    
+    private void drainDeflater(boolean finishing) throws IOException {
+        while (finishing ? !this.deflater.finished() 
+                : !this.deflater.needsInput()) {
+            int length = this.deflater.deflate(this.chunkBuffer);
+            if (length > 0) {
+                this.writeChunk("IDAT", this.chunkBuffer, length);
+            }
+        }
+    }
+    
+    /**
+     * Writes rows of pixels.
+     * @param pixels The pixels, as packed RGB integers, row by row. Any alpha 
+     * bits are ignored.
+     * @param offset Where in <code>pixels</code> the first row starts.
+     * @param rowCount How many rows to write. For example, 256.
+     * @throws IOException If the underlying stream can't be written to.
+     * @throws IllegalStateException If this would write more rows than the 
+     * height given to the constructor.
+     */
+    void writeRows(int[] pixels, int offset, int rowCount) throws IOException {
+        if (this.rowsWritten + rowCount > this.height) {
+            String excMsg = "Can't write " + rowCount + " more rows after " 
+                    + this.rowsWritten + " of " + this.height;
+            throw new IllegalStateException(excMsg);
+        }
+        for (int row = 0; row < rowCount; row++) {
+            int index = offset + row * this.width;
+            int b = 1;
+            for (int col = 0; col < this.width; col++) {
+                int rgb = pixels[index + col];
+                this.scanline[b++] = (byte) (rgb >> 16);
+                this.scanline[b++] = (byte) (rgb >> 8);
+                this.scanline[b++] = (byte) rgb;
+            }
+            this.deflater.setInput(this.scanline);
+            this.drainDeflater(false);
+        }
+        this.rowsWritten += rowCount;
+    }
+    
+    /**
+     * Finishes the image. The underlying stream is flushed but not closed.
+     * @throws IOException If the underlying stream can't be written to.
+     * @throws IllegalStateException If fewer rows were written than the 
+     * height given to the constructor.
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.closed) {
+            return;
+        }
+        this.closed = true;
+        try {
+            if (this.rowsWritten < this.height) {
+                String excMsg = "Only " + this.rowsWritten + " rows of " 
+                        + this.height + " were written";
+                throw new IllegalStateException(excMsg);
+            }
+            this.deflater.finish();
+            this.drainDeflater(true);
+            this.writeChunk("IEND", new byte[0], 0);
+            this.output.flush();
+        } finally {
+            this.deflater.end();
+        }
+    }
+    
+    /**
+     * Sole constructor. Writes the PNG signature and header right away.
+     * @param out The stream to write to. For example, a buffered file output 
+     * stream.
+     * @param imageWidth The width of the image in pixels. For example, 32000.
+     * @param imageHeight The height of the image in pixels. For example, 
+     * 32000.
+     * @throws IOException If the stream can't be written to.
+     * @throws IllegalArgumentException If either dimension is less than 1, or 
+     * if a row would be too long to buffer.
+     */
+    StreamingPNGEncoder(OutputStream out, int imageWidth, int imageHeight) 
+            throws IOException {
+        if (imageWidth < 1 || imageHeight < 1 
+                || imageWidth > (Integer.MAX_VALUE - 1) / 3) {
+            String excMsg = "Image dimensions " + imageWidth + " by " 
+                    + imageHeight + " are not valid";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.output = new DataOutputStream(out);
+        this.width = imageWidth;
+        this.height = imageHeight;
+        this.scanline = new byte[3 * imageWidth + 1];
+        this.scanline[0] = FILTER_NONE;
+        this.output.write(SIGNATURE);
+        byte[] header = new byte[13];
+        header[0] = (byte) (imageWidth >>> 24);
+        header[1] = (byte) (imageWidth >>> 16);
+        header[2] = (byte) (imageWidth >>> 8);
+        header[3] = (byte) imageWidth;
+        header[4] = (byte) (imageHeight >>> 24);
+        header[5] = (byte) (imageHeight >>> 16);
+        header[6] = (byte) (imageHeight >>> 8);
+        header[7] = (byte) imageHeight;
+        header[8] = 8;
+        header[9] = 2;
+        this.writeChunk("IHDR", header, header.length);
+    }
+    
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package ui.graphical;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+import minesweeper.PositionStatus;
+
+/**
+ * Holds one pre-rendered image for each possible position status at a given 
+ * tile size. Drawing the board is then just a matter of copying these images, 
+ * rather than drawing shapes and text for every position over and over again. 
+ * The images are rendered once, when the cache is constructed, and they don't 
+ * change afterwards, so a cache may be shared between threads.
+ * @author Alonso del Arte
+ */
+public class TileCache {
+    
+    private static final PositionStatus[] STATUS_VALUES 
+            = PositionStatus.values();
+    
+    private static final Color COVERED_COLOR = new Color(192, 192, 192);
+    private static final Color HIGHLIGHT_COLOR = Color.WHITE;
+    private static final Color SHADOW_COLOR = new Color(128, 128, 128);
+    private static final Color REVEALED_COLOR = new Color(224, 224, 224);
+    private static final Color GRID_COLOR = new Color(160, 160, 160);
+    private static final Color DETONATED_COLOR = Color.RED;
+    
+    private static final Color[] NUMBER_COLORS = {null, 
+        new Color(0, 0, 255), new Color(0, 128, 0), new Color(255, 0, 0), 
+        new Color(0, 0, 128), new Color(128, 0, 0), new Color(0, 128, 128), 
+        Color.BLACK, new Color(128, 128, 128)};
+    
+    private final int tileSize;
+    
+    private final BufferedImage[] tiles;
+    
+    /**
+     * Gives the size of the tiles.
+     * @return The width and height of each tile, in pixels. For example, 16.
+     */
+    public int getTileSize() {
+        return this.tileSize;
+    }
+    
+    /**
+     * Retrieves the image for a position status.
+     * @param status The status. For example, {@link PositionStatus#FLAGGED}.
+     * @return The pre-rendered image. The caller should not draw on it, as it 
+     * is shared.
+     */
+    public BufferedImage getTile(PositionStatus status) {
+        return this.tiles[status.ordinal()];
+    }
+    
+    private void drawRaised(Graphics2D g) {
+        int last = this.tileSize - 1;
+        int bevel = Math.max(1, this.tileSize / 8);
+        g.setColor(COVERED_COLOR);
+        g.fillRect(0, 0, this.tileSize, this.tileSize);
+        for (int i = 0; i < bevel; i++) {
+            g.setColor(HIGHLIGHT_COLOR);
+            g.drawLine(0, i, last - i, i);
+            g.drawLine(i, 0, i, last - i);
+            g.setColor(SHADOW_COLOR);
+            g.drawLine(i + 1, last - i, last, last - i);
+            g.drawLine(last - i, i + 1, last - i, last);
+        }
+    }
+    
+    private void drawFlat(Graphics2D g, Color background) {
+        g.setColor(background);
+        g.fillRect(0, 0, this.tileSize, this.tileSize);
+        g.setColor(GRID_COLOR);
+        g.drawLine(0, 0, this.tileSize - 1, 0);
+        g.drawLine(0, 0, 0, this.tileSize - 1);
+    }
+    
+    private void drawNumber(Graphics2D g, int number) {
+        g.setColor(NUMBER_COLORS[number]);
+        Font font = new Font(Font.SANS_SERIF, Font.BOLD, 
+                Math.max(6, this.tileSize * 3 / 4));
+        g.setFont(font);
+        FontMetrics metrics = g.getFontMetrics();
+        String digit = Integer.toString(number);
+        int x = (this.tileSize - metrics.stringWidth(digit)) / 2;
+        int y = (this.tileSize - metrics.getHeight()) / 2 + metrics.getAscent();
+        g.drawString(digit, x, y);
+    }
+    
+    private void drawMine(Graphics2D g) {
+        int margin = this.tileSize / 4;
+        int diameter = this.tileSize - 2 * margin;
+        int center = this.tileSize / 2;
+        g.setColor(Color.BLACK);
+        g.drawLine(margin - 1, center, this.tileSize - margin, center);
+        g.drawLine(center, margin - 1, center, this.tileSize - margin);
+        g.fillOval(margin, margin, diameter, diameter);
+    }
+    
+    private void drawFlag(Graphics2D g) {
+        int pole = this.tileSize / 2;
+        int top = this.tileSize / 5;
+        int bottom = this.tileSize - this.tileSize / 5;
+        int[] xs = {pole, pole, this.tileSize / 5};
+        int[] ys = {top, top + this.tileSize / 3, top + this.tileSize / 6};
+        g.setColor(Color.RED);
+        g.fillPolygon(xs, ys, 3);
+        g.setColor(Color.BLACK);
+        g.drawLine(pole, top, pole, bottom);
+        g.drawLine(pole - this.tileSize / 5, bottom, pole + this.tileSize / 5, 
+                bottom);
+    }
+    
+    private void drawCross(Graphics2D g) {
+        int margin = this.tileSize / 6;
+        int far = this.tileSize - margin - 1;
+        g.setColor(Color.RED);
+        g.setStroke(new BasicStroke(Math.max(1.0F, this.tileSize / 10.0F)));
+        g.drawLine(margin, margin, far, far);
+        g.drawLine(margin, far, far, margin);
+    }
+    
+    private BufferedImage render(PositionStatus status) {
+        BufferedImage image = new BufferedImage(this.tileSize, this.tileSize, 
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, 
+                RenderingHints.VALUE_ANTIALIAS_ON);
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, 
+                RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        switch (status) {
+            case COVERED:
+                this.drawRaised(g);
+                break;
+            case FLAGGED:
+                this.drawRaised(g);
+                this.drawFlag(g);
+                break;
+            case WRONGLY_FLAGGED:
+                this.drawFlat(g, REVEALED_COLOR);
+                this.drawMine(g);
+                this.drawCross(g);
+                break;
+            case REVEALED_MINED:
+                this.drawFlat(g, REVEALED_COLOR);
+                this.drawMine(g);
+                break;
+            case DETONATED:
+                this.drawFlat(g, DETONATED_COLOR);
+                this.drawMine(g);
+                break;
+            default:
+                this.drawFlat(g, REVEALED_COLOR);
+                int number = status.ordinal();
+                if (number > 0) {
+                    this.drawNumber(g, number);
+                }
+        }
+        g.dispose();
+        return image;
+    }
+    
+    /**
+     * Renders the tiles for all the position statuses. This works even in a 
+     * headless environment, since the tiles are drawn on off-screen images.
+     * @param size The width and height of each tile, in pixels. For example, 
+     * 16.
+     * @throws IllegalArgumentException If <code>size</code> is less than 4.
+     */
+    public TileCache(int size) {
+        if (size < 4) {
+            String excMsg = "Tile size " + size 
+                    + " is not valid, should be at least 4";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.tileSize = size;
+        this.tiles = new BufferedImage[STATUS_VALUES.length];
+        for (PositionStatus status : STATUS_VALUES) {
+            this.tiles[status.ordinal()] = this.render(status);
+        }
+    }
+    
+}
@@ -0,0 +1,246 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package ui.graphical;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import minesweeper.Board;
+import minesweeper.Position;
+import minesweeper.PositionStatus;
+
+/**
+ * Renders a whole board to a PNG image at full detail, without needing a 
+ * display. The board is split into horizontal strips, and each strip into 
+ * tiles of positions, which are rendered in parallel on a fork/join pool into 
+ * a <code>BufferedImage</code> for the strip. Strips are handed to the PNG 
+ * encoder in order as soon as they're done, while the next few strips are 
+ * being rendered, so only a handful of strips are ever in memory at once. That 
+ * makes it possible to export boards whose full image would not fit in memory.
+ * <p>The board must not change while it is being exported.</p>
+ * @author Alonso del Arte
+ */
+public class TiledExporter {
+    
+    /**
+     * How many rows of positions go in each strip.
+     */
+    private static final int STRIP_ROWS = 32;
+    
+    /**
+     * How many columns of positions go in each tile. A tile narrower than 
+     * this is not split further.
+     */
+    private static final int TILE_COLUMNS = 64;
+    
+    private final Board board;
+    
+    private final int cellSize;
+    
+    private final int rows;
+    
+    private final int columns;
+    
+    private final int imageWidth;
+    
+    private final int[][] tilePixels;
+    
+    private final ForkJoinPool pool;
+    
+    /**
+     * Renders a range of columns of positions in a strip, splitting the range 
+     * in half until it's no wider than a tile.
+     */
+    private class TileTask extends RecursiveAction {
+        
+        private static final long serialVersionUID = 4557136914384102889L;
+        
+        private final int[] pixels;
+        
+        private final int firstRow, rowCount, firstColumn, columnCount;
+        
+        @Override
+        protected void compute() {
+            if (this.columnCount > TILE_COLUMNS) {
+                int half = this.columnCount / 2;
+                invokeAll(new TileTask(this.pixels, this.firstRow, 
+                        this.rowCount, this.firstColumn, half), 
+                        new TileTask(this.pixels, this.firstRow, 
+                                this.rowCount, this.firstColumn + half, 
+                                this.columnCount - half));
+            } else {
+                renderTile(this.pixels, this.firstRow, this.rowCount, 
+                        this.firstColumn, this.columnCount);
+            }
+        }
+        
+        TileTask(int[] strip, int row, int rowSpan, int column, 
+                int columnSpan) {
+            this.pixels = strip;
+            this.firstRow = row;
+            this.rowCount = rowSpan;
+            this.firstColumn = column;
+            this.columnCount = columnSpan;
+        }
+        
+    }
+    
+    /**
+     * Gives the width of the image that will be exported.
+     * @return The width in pixels. For example, 32000 for a board with 2000 
+     * columns and 16-pixel cells.
+     */
+    public int getImageWidth() {
+        return this.imageWidth;
+    }
+    
+    /**
+     * Gives the height of the image that will be exported.
+     * @return The height in pixels. For example, 32000 for a board with 2000 
+     * rows and 16-pixel cells.
+     */
+    public int getImageHeight() {
+        return this.rows * this.cellSize;
+    }
+    
+    private void renderTile(int[] strip, int firstRow, int rowCount, 
+            int firstColumn, int columnCount) {
+        for (int r = 0; r < rowCount; r++) {
+            int x = firstRow + r;
+            int rowOffset = r * this.cellSize * this.imageWidth;
+            for (int c = 0; c < columnCount; c++) {
+                int y = firstColumn + c;
+                PositionStatus status = this.board.query(new Position(x, y));
+                int[] tile = this.tilePixels[status.ordinal()];
+                int offset = rowOffset + y * this.cellSize;
+                for (int line = 0; line < this.cellSize; line++) {
+                    System.arraycopy(tile, line * this.cellSize, strip, 
+                            offset + line * this.imageWidth, this.cellSize);
+                }
+            }
+        }
+    }
+    
+    private ForkJoinTask<BufferedImage> submitStrip(int firstRow) {
+        int rowCount = Math.min(STRIP_ROWS, this.rows - firstRow);
+        return this.pool.submit(() -> {
+            BufferedImage strip = new BufferedImage(this.imageWidth, 
+                    rowCount * this.cellSize, BufferedImage.TYPE_INT_RGB);
+            int[] pixels = ((DataBufferInt) strip.getRaster().getDataBuffer())
+                    .getData();
+            new TileTask(pixels, firstRow, rowCount, 0, this.columns)
+                    .invoke();
+            return strip;
+        });
+    }
+    
+    /**
+     * Writes the PNG image to a stream. The stream is flushed but not closed.
+     * @param out The stream to write to.
+     * @throws IOException If the stream can't be written to.
+     */
+    public void export(OutputStream out) throws IOException {
+        int lookahead = Math.max(2, this.pool.getParallelism());
+        ArrayDeque<ForkJoinTask<BufferedImage>> pending = new ArrayDeque<>();
+        int nextRow = 0;
+        try (StreamingPNGEncoder encoder = new StreamingPNGEncoder(out, 
+                this.imageWidth, this.getImageHeight())) {
+            while (nextRow < this.rows || !pending.isEmpty()) {
+                while (nextRow < this.rows && pending.size() < lookahead) {
+                    pending.add(this.submitStrip(nextRow));
+                    nextRow += STRIP_ROWS;
+                }
+                BufferedImage strip = pending.remove().join();
+                int[] pixels = ((DataBufferInt) strip.getRaster()
+                        .getDataBuffer()).getData();
+                encoder.writeRows(pixels, 0, strip.getHeight());
+            }
+        } finally {
+            pending.forEach(task -> task.cancel(true));
+        }
+    }
+    
+    /**
+     * Writes the PNG image to a file.
+     * @param file The file to write to. For example, "postmortem.png".
+     * @throws IOException If the file can't be written.
+     */
+    public void export(File file) throws IOException {
+        try (OutputStream out = new BufferedOutputStream(
+                new FileOutputStream(file), 1 << 16)) {
+            this.export(out);
+        }
+    }
+    
+    /**
+     * Constructor using the common fork/join pool.
+     * @param gameBoard The board to export. For example, a finished 2000 
+     * &times; 2000 game.
+     * @param tileCache The tiles to draw each position with. Their size 
+     * determines the size of the image. For example, 16-pixel tiles.
+     * @throws IllegalArgumentException If the image would be too wide.
+     */
+    public TiledExporter(Board gameBoard, TileCache tileCache) {
+        this(gameBoard, tileCache, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Primary constructor.
+     * @param gameBoard The board to export. For example, a finished 2000 
+     * &times; 2000 game.
+     * @param tileCache The tiles to draw each position with. Their size 
+     * determines the size of the image. For example, 16-pixel tiles.
+     * @param forkJoinPool The pool to render on.
+     * @throws IllegalArgumentException If the image would be too wide or too 
+     * tall.
+     */
+    public TiledExporter(Board gameBoard, TileCache tileCache, 
+            ForkJoinPool forkJoinPool) {
+        this.board = gameBoard;
+        this.cellSize = tileCache.getTileSize();
+        Position corner = gameBoard.getMaxCorner();
+        this.rows = corner.getX() + 1;
+        this.columns = corner.getY() + 1;
+        long width = (long) this.columns * this.cellSize;
+        long height = (long) this.rows * this.cellSize;
+        if (width > Integer.MAX_VALUE / 3 || height > Integer.MAX_VALUE 
+                || width * STRIP_ROWS * this.cellSize > Integer.MAX_VALUE) {
+            String excMsg = "Image of " + width + " by " + height 
+                    + " pixels is too large, try smaller tiles";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.imageWidth = (int) width;
+        this.pool = forkJoinPool;
+        PositionStatus[] statuses = PositionStatus.values();
+        this.tilePixels = new int[statuses.length][];
+        for (PositionStatus status : statuses) {
+            BufferedImage tile = tileCache.getTile(status);
+            this.tilePixels[status.ordinal()] = tile.getRGB(0, 0, 
+                    this.cellSize, this.cellSize, null, 0, this.cellSize);
+        }
+    }
+    
+}
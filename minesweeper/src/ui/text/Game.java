@@ -17,6 +17,7 @@
 package ui.text;
 
 import minesweeper.Board;
+import minesweeper.Difficulty;
 import minesweeper.Mine;
 import minesweeper.Position;
 import minesweeper.PositionStatus;
@@ -25,7 +26,9 @@ import java.util.Optional;
 import java.util.Scanner;
 
 /**
- * Play the Minesweeper game on the command line. The board is 10 &times; 26.
+ * Play the Minesweeper game on the command line. The board is 10 &times; 26 
+ * unless a different width and height are specified. Boards too big to fit on 
+ * the terminal are shown through a viewport that scrolls to follow the cursor.
  * @author Alonso del Arte
  */
 public class Game {
@@ -34,37 +37,98 @@ public class Game {
     
     private static Position currPos = new Position(0, 0);
     
-    private static final Position MAXIMUM_POSITION = new Position(9, 25);
+    private static final Position DEFAULT_MAXIMUM_POSITION 
+            = new Position(9, 25);
+    
+    private static Position maximumPosition = DEFAULT_MAXIMUM_POSITION;
+    
+    /**
+     * What {@link #parsePosition(java.lang.String)} gives for a 
+     * <code>String</code> it can't make sense of. This is out of bounds for 
+     * any board.
+     */
+    static final Position UNPARSEABLE_POSITION 
+            = new Position(Integer.MAX_VALUE, Integer.MAX_VALUE);
+    
+    private static final int DEFAULT_TERMINAL_LINES = 24;
+    private static final int DEFAULT_TERMINAL_COLUMNS = 80;
+    
+    /**
+     * Lines taken up by the column labels, the prompt and the messages, which 
+     * are not available for the board rows.
+     */
+    private static final int RESERVED_LINES = 8;
+    
+    private static Viewport viewport;
     
     private static int numberOfMines;
     
     private static Mine detonatedMine = null;
     
-    private static final String ALPHABET
-            = "  A B C D E F G H I J K L M N O P Q R S T U V W X Y Z";
-    
     private static boolean useANSIColors = false;
     
     private static final String ANSI_RESET = "\u001B\u005B0m";
     private static final String ANSI_RED = "\u001B\u005B31m";
     private static final String ANSI_GREEN = "\u001B\u005B32m";
     private static final String ANSI_YELLOW = "\u001B\u005B33m";
-
-    private static void writeBoardNoColors() {
-        Position curr;
-        PositionStatus status;
-        for (int x = 0; x < 10; x++) {
-            System.out.print(x + " ");
-            for (int y = 0; y < 26; y++) {
-                curr = new Position(x, y);
-                status = gameBoard.query(curr);
-                System.out.print(status.getChar() + " ");
-            }
-            System.out.println(x);
-            System.out.println();
+    
+    /**
+     * Gives the letters for a column. The columns are labeled A to Z, then AA 
+     * to AZ, then BA to BZ, and so on, like the columns of a spreadsheet. This 
+     * function is package private, rather than fully class private, to enable 
+     * unit testing.
+     * @param column The column number. For example, 27.
+     * @return The letters for the column. For example, "AB".
+     * @throws IllegalArgumentException If <code>column</code> is negative.
+     */
+    static String columnLabel(int column) {
+        if (column < 0) {
+            String excMsg = "Column " + column + " is not valid";
+            throw new IllegalArgumentException(excMsg);
         }
+        StringBuilder label = new StringBuilder();
+        int remaining = column + 1;
+        while (remaining > 0) {
+            remaining--;
+            label.append((char) ('A' + remaining % 26));
+            remaining /= 26;
+        }
+        return label.reverse().toString();
     }
-
+    
+    private static int cellWidth() {
+        return columnLabel(maximumPosition.getY()).length() + 1;
+    }
+    
+    private static int rowLabelWidth() {
+        return Integer.toString(maximumPosition.getX()).length();
+    }
+    
+    private static void pad(StringBuilder line, String s, int width) {
+        line.append(s);
+        for (int i = s.length(); i < width; i++) {
+            line.append(' ');
+        }
+    }
+    
+    private static void padLeft(StringBuilder line, String s, int width) {
+        for (int i = s.length(); i < width; i++) {
+            line.append(' ');
+        }
+        line.append(s);
+    }
+    
+    private static String makeColumnLabels() {
+        int width = cellWidth();
+        StringBuilder line = new StringBuilder();
+        padLeft(line, "", rowLabelWidth() + 1);
+        for (int y = viewport.getFirstColumn(); y <= viewport.getLastColumn(); 
+                y++) {
+            pad(line, columnLabel(y), width);
+        }
+        return line.toString();
+    }
+    
     /**
      * Chooses ANSI codes to display some game elements in colors. Note that 
      * this does not work on the Windows command prompt.
@@ -109,68 +173,128 @@ public class Game {
         return symbol;
     }
     
-    private static void writeBoardWithColors() {
-        Position curr;
+    private static void writeRows() {
+        int width = cellWidth();
+        int labelWidth = rowLabelWidth();
         PositionStatus status;
-        for (int x = 0; x < 10; x++) {
-            System.out.print(x + " ");
-            for (int y = 0; y < 26; y++) {
-                curr = new Position(x, y);
-                status = gameBoard.query(curr);
-                System.out.print(chooseColor(status) + " ");
+        StringBuilder line = new StringBuilder();
+        for (int x = viewport.getFirstRow(); x <= viewport.getLastRow(); x++) {
+            line.setLength(0);
+            String rowLabel = Integer.toString(x);
+            padLeft(line, rowLabel, labelWidth);
+            line.append(' ');
+            for (int y = viewport.getFirstColumn(); 
+                    y <= viewport.getLastColumn(); y++) {
+                status = gameBoard.query(new Position(x, y));
+                if (useANSIColors) {
+                    line.append(chooseColor(status));
+                    pad(line, "", width - 1);
+                } else {
+                    pad(line, String.valueOf(status.getChar()), width);
+                }
             }
-            System.out.println(x);
+            line.append(rowLabel);
+            System.out.println(line);
             System.out.println();
         }
     }
     
     private static void writeBoard() {
-        System.out.println(ALPHABET);
+        String columnLabels = makeColumnLabels();
+        System.out.println(columnLabels);
         System.out.println();
-        if (useANSIColors) {
-            writeBoardWithColors();
-        } else {
-            writeBoardNoColors();
-        }
-        System.out.println(ALPHABET);
+        writeRows();
+        System.out.println(columnLabels);
         System.out.println();
+        if (viewport.getRowCount() <= maximumPosition.getX() 
+                || viewport.getColumnCount() <= maximumPosition.getY()) {
+            System.out.println("Showing rows " + viewport.getFirstRow() + " to " 
+                    + viewport.getLastRow() + " and columns " 
+                    + columnLabel(viewport.getFirstColumn()) + " to " 
+                    + columnLabel(viewport.getLastColumn()) + " of " 
+                    + (maximumPosition.getX() + 1) + " by " 
+                    + (maximumPosition.getY() + 1));
+            System.out.println();
+        }
     }
     
     private static void writeHelp() {
-        System.out.println("Use position's letter and number, e.g., A0");
+        System.out.println("Use position's letters and number, e.g., A0 or "
+                + "AB123");
         System.out.println("Type \"flag\" and then position to flag");
         System.out.println("Type \"unflag\" and then position to unflag");
         System.out.println("Type position by itself to reveal");
+        System.out.println("Type \"up\", \"down\", \"left\" or \"right\" to "
+                + "scroll");
         System.out.println();
     }
     
     /**
      * Parses a <code>String</code> to determine a <code>Position</code> on the 
-     * 10 &times; 26 board. This function is package private, rather than fully 
-     * class private, to enable unit testing.
-     * @param s The <code>String</code> to parse. For example, "A7".
-     * @return The corresponding <code>Position</code>. For example, (7, 0).
-     * @throws IllegalArgumentException If parsing leads to an attempt to 
-     * construct a <code>Position</code> object with negative coordinates.
+     * board. The column is given by one or more letters and the row by one or 
+     * more digits, in either order. This function is package private, rather 
+     * than fully class private, to enable unit testing.
+     * @param s The <code>String</code> to parse. For example, "A7" or "AB123".
+     * @return The corresponding <code>Position</code>. For example, (7, 0) for 
+     * "A7" or (123, 27) for "AB123". If <code>s</code> is not a combination of 
+     * letters and digits, {@link #UNPARSEABLE_POSITION}, which is out of bounds 
+     * for any board.
      */
     static Position parsePosition(String s) {
-        char letter = s.charAt(0);
-        char digit = s.charAt(1);
-        if (Character.isAlphabetic(digit)) {
-            char swap = letter;
-            letter = digit;
-            digit = swap;
+        s = s.toUpperCase();
+        int length = s.length();
+        int split = 0;
+        boolean lettersFirst = length > 0 && Character.isLetter(s.charAt(0));
+        while (split < length 
+                && Character.isLetter(s.charAt(split)) == lettersFirst) {
+            split++;
+        }
+        String letters = lettersFirst ? s.substring(0, split) 
+                : s.substring(split);
+        String digits = lettersFirst ? s.substring(split) 
+                : s.substring(0, split);
+        if (letters.isEmpty() || digits.isEmpty()) {
+            return UNPARSEABLE_POSITION;
         }
-        int x = digit - 48;
-        int y = letter - 65;
-        if (x < 0) x = -x + 10;
-        if (y < 0) y = -y + 26;
-        return new Position(x, y);
+        long y = 0;
+        for (int i = 0; i < letters.length(); i++) {
+            char letter = letters.charAt(i);
+            if (letter < 'A' || letter > 'Z' || y > Integer.MAX_VALUE) {
+                return UNPARSEABLE_POSITION;
+            }
+            y = 26 * y + (letter - 'A' + 1);
+        }
+        y--;
+        long x = 0;
+        for (int i = 0; i < digits.length(); i++) {
+            char digit = digits.charAt(i);
+            if (digit < '0' || digit > '9' || x > Integer.MAX_VALUE) {
+                return UNPARSEABLE_POSITION;
+            }
+            x = 10 * x + (digit - '0');
+        }
+        if (x > Integer.MAX_VALUE || y > Integer.MAX_VALUE) {
+            return UNPARSEABLE_POSITION;
+        }
+        return new Position((int) x, (int) y);
+    }
+    
+    private static boolean looksLikePosition(String s) {
+        return s.matches("[A-Z]+[0-9]+|[0-9]+[A-Z]+");
     }
     
     private static String parseCommand(String command) {
         command = command.replace(" ", "").toUpperCase();
         String posStr = "";
+        switch (command) {
+            case "UP":
+            case "DOWN":
+            case "LEFT":
+            case "RIGHT":
+                return command;
+            default:
+                break;
+        }
         if (command.contains("UNFLAG")) {
             posStr = command.replace("UNFLAG", "");
             command = "unflag";
@@ -183,19 +307,44 @@ public class Game {
             posStr = command.replace("REVEAL", "");
             command = "REVEAL";
         }
-        if (command.length() == 2) {
+        if (looksLikePosition(command)) {
             posStr = command;
             command = "REVEAL";
         }
-        if (posStr.length() == 2) {
+        if (!posStr.isEmpty()) {
             currPos = parsePosition(posStr);
         }
         return command;
     }
     
+    private static boolean processScroll(String command) {
+        int rows = viewport.getRowCount();
+        int columns = viewport.getColumnCount();
+        switch (command) {
+            case "UP":
+                viewport.scroll(-rows, 0);
+                return true;
+            case "DOWN":
+                viewport.scroll(rows, 0);
+                return true;
+            case "LEFT":
+                viewport.scroll(0, -columns);
+                return true;
+            case "RIGHT":
+                viewport.scroll(0, columns);
+                return true;
+            default:
+                return false;
+        }
+    }
+    
     private static void processCommand(String command) {
         command = parseCommand(command);
-        if (currPos.isWithinBounds(MAXIMUM_POSITION)) {
+        if (processScroll(command)) {
+            return;
+        }
+        if (currPos.isWithinBounds(maximumPosition)) {
+            viewport.follow(currPos);
             PositionStatus status = gameBoard.query(currPos);
             switch (command) {
                 case "REVEAL":
@@ -237,27 +386,81 @@ public class Game {
                     + " is out of bounds");}
     }
     
+    /**
+     * Determines how many mines to put on the board for a given difficulty 
+     * level. The proportions are such that a 10 &times; 26 board gets 10 mines 
+     * on easy, 26 on medium and 52 on hard. This function is package private, 
+     * rather than fully class private, to enable unit testing.
+     * @param level The difficulty level. Should be "-easy", "-medium" or 
+     * "-hard". Anything else is treated as "-medium".
+     * @param corner The bottom right corner of the board. For example, (9, 
+     * 25).
+     * @return The number of mines. For example, 26 for "-medium" on a 10 
+     * &times; 26 board.
+     */
+    static int chooseNumberOfMines(String level, Position corner) {
+        return Difficulty.fromOption(level).mineCount(corner);
+    }
+    
+    /**
+     * Reads a dimension from an argument of the form "width = 48" or "height 
+     * = 32", as prepared by {@link minesweeper.MineSweeper#main}.
+     */
+    private static int parseDimension(String arg, int defaultValue) {
+        int index = arg.indexOf('=');
+        try {
+            int dimension = Integer.parseInt(arg.substring(index + 1).trim());
+            return dimension > 0 ? dimension : defaultValue;
+        } catch (NumberFormatException nfe) {
+            return defaultValue;
+        }
+    }
+    
+    private static int readTerminalSize(String variable, int defaultValue) {
+        String value = System.getenv(variable);
+        if (value != null) {
+            try {
+                return Integer.parseInt(value.trim());
+            } catch (NumberFormatException nfe) {
+                return defaultValue;
+            }
+        }
+        return defaultValue;
+    }
+    
+    private static void processArgs(String[] args) {
+        int width = DEFAULT_MAXIMUM_POSITION.getY() + 1;
+        int height = DEFAULT_MAXIMUM_POSITION.getX() + 1;
+        String level = "-medium";
+        for (String arg : args) {
+            String lowered = arg.toLowerCase();
+            if (lowered.startsWith("width")) {
+                width = parseDimension(lowered, width);
+            } else if (lowered.startsWith("height")) {
+                height = parseDimension(lowered, height);
+            } else if (lowered.startsWith("-c")) {
+                useANSIColors = true;
+            } else if (lowered.equals("-easy") || lowered.equals("-medium") 
+                    || lowered.equals("-hard")) {
+                level = lowered;
+            }
+        }
+        maximumPosition = new Position(height - 1, width - 1);
+        numberOfMines = chooseNumberOfMines(level, maximumPosition);
+        int lines = readTerminalSize("LINES", DEFAULT_TERMINAL_LINES);
+        int columns = readTerminalSize("COLUMNS", DEFAULT_TERMINAL_COLUMNS);
+        int rowCapacity = Math.max(1, (lines - RESERVED_LINES) / 2);
+        int columnCapacity = Math.max(1, 
+                (columns - 2 * (rowLabelWidth() + 1)) / cellWidth());
+        viewport = new Viewport(maximumPosition, rowCapacity, columnCapacity);
+    }
+    
     public static void main(String[] args) {
         System.out.println();
         System.out.println("MINESWEEPER");
         System.out.println();
-        if (args.length > 2) {
-            switch (args[2].toLowerCase()) {
-                case "-easy":
-                    numberOfMines = 10;
-                    break;
-                case "-hard":
-                    numberOfMines = 52;
-                    break;
-                case "-medium":
-                default:
-                    numberOfMines = 26;
-            }
-        }
-        gameBoard = Board.makeBoard(numberOfMines, MAXIMUM_POSITION);
-        if (args.length > 0) {
-            useANSIColors = args[0].startsWith("-c");
-        }
+        processArgs(args);
+        gameBoard = Board.makeBoard(numberOfMines, maximumPosition);
         writeBoard();
         writeHelp();
         String cmd;
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package ui.text;
+
+import minesweeper.Position;
+
+/**
+ * Keeps track of which part of the board fits on the terminal. Only the rows 
+ * and columns within the viewport get written out, so the cost of drawing the 
+ * board depends on the size of the terminal rather than the size of the board.
+ * @author Alonso del Arte
+ */
+final class Viewport {
+    
+    private final Position boardCorner;
+    
+    private final int rowCapacity;
+    
+    private final int columnCapacity;
+    
+    private int firstRow = 0;
+    
+    private int firstColumn = 0;
+    
+    /**
+     * Gives the first row in the viewport.
+     * @return The first row. For example, 0 if the viewport hasn't been 
+     * scrolled down.
+     */
+    int getFirstRow() {
+        return this.firstRow;
+    }
+    
+    /**
+     * Gives the last row in the viewport. It is inclusive.
+     * @return The last row. For example, 9 for a viewport with room for ten 
+     * rows that hasn't been scrolled down.
+     */
+    int getLastRow() {
+        return this.firstRow + this.getRowCount() - 1;
+    }
+    
+    /**
+     * Gives the first column in the viewport.
+     * @return The first column. For example, 0 if the viewport hasn't been 
+     * scrolled right.
+     */
+    int getFirstColumn() {
+        return this.firstColumn;
+    }
+    
+    /**
+     * Gives the last column in the viewport. It is inclusive.
+     * @return The last column. For example, 25 for a viewport with room for 
+     * twenty-six columns that hasn't been scrolled right.
+     */
+    int getLastColumn() {
+        return this.firstColumn + this.getColumnCount() - 1;
+    }
+    
+    /**
+     * Tells how many rows are actually shown. This may be less than the 
+     * capacity if the board has fewer rows than will fit on the terminal.
+     * @return The number of rows shown. For example, 10.
+     */
+    int getRowCount() {
+        return Math.min(this.rowCapacity, this.boardCorner.getX() + 1);
+    }
+    
+    /**
+     * Tells how many columns are actually shown. This may be less than the 
+     * capacity if the board has fewer columns than will fit on the terminal.
+     * @return The number of columns shown. For example, 26.
+     */
+    int getColumnCount() {
+        return Math.min(this.columnCapacity, this.boardCorner.getY() + 1);
+    }
+    
+    /**
+     * Tells whether a position is currently visible.
+     * @param position The position to check. For example, (4, 7).
+     * @return True if the position is within the viewport, false otherwise.
+     */
+    boolean contains(Position position) {
+        int x = position.getX();
+        int y = position.getY();
+        return x >= this.firstRow && x <= this.getLastRow() 
+                && y >= this.firstColumn && y <= this.getLastColumn();
+    }
+    
+    private void clamp() {
+        int maxFirstRow = this.boardCorner.getX() + 1 - this.getRowCount();
+        int maxFirstColumn = this.boardCorner.getY() + 1 
+                - this.getColumnCount();
+        this.firstRow = Math.max(0, Math.min(this.firstRow, maxFirstRow));
+        this.firstColumn = Math.max(0, Math.min(this.firstColumn, 
+                maxFirstColumn));
+    }
+    
+    /**
+     * Scrolls the viewport by a given number of rows and columns. The viewport 
+     * stops at the edges of the board.
+     * @param rows How many rows to scroll. Negative to scroll up, positive to 
+     * scroll down. For example, &minus;10.
+     * @param columns How many columns to scroll. Negative to scroll left, 
+     * positive to scroll right. For example, 26.
+     */
+    void scroll(int rows, int columns) {
+        this.firstRow = (int) Math.max(Integer.MIN_VALUE, 
+                Math.min(Integer.MAX_VALUE, (long) this.firstRow + rows));
+        this.firstColumn = (int) Math.max(Integer.MIN_VALUE, 
+                Math.min(Integer.MAX_VALUE, (long) this.firstColumn + columns));
+        this.clamp();
+    }
+    
+    /**
+     * Scrolls the viewport just enough to make a position visible. If the 
+     * position is already visible, the viewport doesn't move.
+     * @param cursor The position to make visible. For example, (40, 30).
+     */
+    void follow(Position cursor) {
+        int x = cursor.getX();
+        int y = cursor.getY();
+        if (x < this.firstRow) {
+            this.firstRow = x;
+        } else if (x > this.getLastRow()) {
+            this.firstRow = x - this.getRowCount() + 1;
+        }
+        if (y < this.firstColumn) {
+            this.firstColumn = y;
+        } else if (y > this.getLastColumn()) {
+            this.firstColumn = y - this.getColumnCount() + 1;
+        }
+        this.clamp();
+    }
+    
+    /**
+     * Sole constructor. The viewport starts out at the top left corner of the 
+     * board.
+     * @param corner The bottom right corner of the board. For example, (31, 
+     * 47).
+     * @param rows How many rows fit on the terminal. For example, 10.
+     * @param columns How many columns fit on the terminal. For example, 26.
+     * @throws IllegalArgumentException If <code>rows</code> or 
+     * <code>columns</code> is less than 1.
+     */
+    Viewport(Position corner, int rows, int columns) {
+        if (rows < 1 || columns < 1) {
+            String excMsg = "Viewport of " + rows + " rows and " + columns 
+                    + " columns is not valid, should be at least 1 by 1";
+            throw new IllegalArgumentException(excMsg);
+        }
+        this.boardCorner = corner;
+        this.rowCapacity = rows;
+        this.columnCapacity = columns;
+    }
+    
+}
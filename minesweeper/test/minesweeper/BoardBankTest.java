@@ -0,0 +1,238 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the BoardBank class.
+ * @author Alonso del Arte
+ */
+public class BoardBankTest {
+    
+    private static final BoardSpec SPEC 
+            = new BoardSpec(new Position(8, 8), 10);
+    
+    private static final long WAIT_LIMIT_MILLIS = 10000L;
+    
+    /**
+     * Waits until the bank has at least a given number of boards ready for a 
+     * specification, or fails the test if that takes too long.
+     */
+    private static void awaitQueueSize(BoardBank bank, BoardSpec spec, 
+            int size) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + WAIT_LIMIT_MILLIS;
+        while (bank.getQueueSize(spec) < size) {
+            String msg = "Queue for " + spec.toString() + " should have had " 
+                    + size + " boards by now, has " + bank.getQueueSize(spec);
+            assert System.currentTimeMillis() < deadline : msg;
+            Thread.sleep(5L);
+        }
+    }
+    
+    /**
+     * Test of take function, of class BoardBank. The first board taken with 
+     * nothing prepared is a miss, and the queue should then fill up in the 
+     * background, making the next boards hits.
+     */
+    @Test
+    public void testTake() throws InterruptedException {
+        System.out.println("take");
+        try (BoardBank bank = new BoardBank(2, 5, 1)) {
+            Board board = bank.take(SPEC);
+            assertEquals(SPEC.getMaxCorner(), board.getMaxCorner());
+            assertEquals(SPEC.getMineCount(), board.getMineCount());
+            assertEquals(0L, bank.getHitCount(SPEC));
+            assertEquals(1L, bank.getMissCount(SPEC));
+            awaitQueueSize(bank, SPEC, 5);
+            for (int i = 0; i < 3; i++) {
+                board = bank.take(SPEC);
+                assertEquals(81, board.getCoveredCount());
+            }
+            assertEquals(3L, bank.getHitCount(SPEC));
+            assertEquals(0.75, bank.getHitRate(SPEC), 0.0000001);
+        }
+    }
+    
+    /**
+     * Another test of take function, of class BoardBank. Boards taken should 
+     * be distinct objects, not handed out twice.
+     */
+    @Test
+    public void testTakeGivesDistinctBoards() throws InterruptedException {
+        try (BoardBank bank = new BoardBank(4, 8, 2)) {
+            bank.prepare(SPEC);
+            awaitQueueSize(bank, SPEC, 8);
+            Board previous = bank.take(SPEC);
+            for (int i = 0; i < 20; i++) {
+                Board board = bank.take(SPEC);
+                assertNotSame(previous, board);
+                previous = board;
+            }
+            assertEquals(21L, bank.getHitCount(SPEC) 
+                    + bank.getMissCount(SPEC));
+        }
+    }
+    
+    /**
+     * Test of prepare procedure, of class BoardBank. The queue should fill up 
+     * to the high watermark and go no further.
+     */
+    @Test
+    public void testPrepare() throws InterruptedException {
+        System.out.println("prepare");
+        try (BoardBank bank = new BoardBank(1, 6, 1)) {
+            assertEquals(0, bank.getQueueSize(SPEC));
+            bank.prepare(SPEC);
+            awaitQueueSize(bank, SPEC, 6);
+            Thread.sleep(50L);
+            assertEquals(6, bank.getQueueSize(SPEC));
+            assertEquals(6L, bank.getRefillCount(SPEC));
+            assert bank.getMeanRefillLatency(SPEC) > 0.0 
+                    : "Mean refill latency should be positive";
+            Board board = bank.take(SPEC);
+            assertEquals(1L, bank.getHitCount(SPEC));
+            assertEquals(1.0, bank.getHitRate(SPEC), 0.0);
+            assertEquals(5, bank.getQueueSize(SPEC));
+        }
+    }
+    
+    /**
+     * Another test of prepare procedure, of class BoardBank. Queues for 
+     * different specifications should be kept apart.
+     */
+    @Test
+    public void testPrepareSeveralSpecs() throws InterruptedException {
+        BoardSpec other = new BoardSpec(new Position(15, 15), 40);
+        try (BoardBank bank = new BoardBank(1, 3, 2)) {
+            bank.prepare(SPEC);
+            bank.prepare(other);
+            awaitQueueSize(bank, SPEC, 3);
+            awaitQueueSize(bank, other, 3);
+            Board board = bank.take(other);
+            assertEquals(other.getMaxCorner(), board.getMaxCorner());
+            assertEquals(40, board.getMineCount());
+            assertEquals(0L, bank.getHitCount(SPEC));
+            assertEquals(1L, bank.getHitCount(other));
+        }
+    }
+    
+    /**
+     * Test of getRefillFailureCount function, of class BoardBank. A 
+     * specification no board can be made to should count failures in the 
+     * background and throw an exception when taken.
+     */
+    @Test
+    public void testGetRefillFailureCount() throws InterruptedException {
+        System.out.println("getRefillFailureCount");
+        BoardSpec impossible = new BoardSpec(new Position(8, 8), 79, 
+                new Position(4, 4));
+        try (BoardBank bank = new BoardBank(1, 2, 1)) {
+            bank.prepare(impossible);
+            long deadline = System.currentTimeMillis() + WAIT_LIMIT_MILLIS 
+                    * 6;
+            while (bank.getRefillFailureCount(impossible) == 0L) {
+                assert System.currentTimeMillis() < deadline 
+                        : "Refill should have failed by now";
+                Thread.sleep(20L);
+            }
+            assertEquals(0, bank.getQueueSize(impossible));
+        }
+    }
+    
+    /**
+     * Test of getHitRate function, of class BoardBank. A specification never 
+     * asked for should have no hits, misses or queue.
+     */
+    @Test
+    public void testGetHitRate() {
+        System.out.println("getHitRate");
+        try (BoardBank bank = new BoardBank()) {
+            assertEquals(0.0, bank.getHitRate(SPEC), 0.0);
+            assertEquals(0L, bank.getHitCount(SPEC));
+            assertEquals(0L, bank.getMissCount(SPEC));
+            assertEquals(0L, bank.getRefillCount(SPEC));
+            assertEquals(0.0, bank.getMeanRefillLatency(SPEC), 0.0);
+        }
+    }
+    
+    /**
+     * Test of close procedure, of class BoardBank. Boards already made can 
+     * still be taken, but the queue is not refilled afterwards.
+     */
+    @Test
+    public void testClose() throws InterruptedException {
+        System.out.println("close");
+        BoardBank bank = new BoardBank(2, 4, 1);
+        bank.prepare(SPEC);
+        awaitQueueSize(bank, SPEC, 4);
+        bank.close();
+        for (int i = 0; i < 4; i++) {
+            bank.take(SPEC);
+        }
+        assertEquals(4L, bank.getHitCount(SPEC));
+        Thread.sleep(50L);
+        assertEquals(0, bank.getQueueSize(SPEC));
+        Board board = bank.take(SPEC);
+        assertEquals(1L, bank.getMissCount(SPEC));
+        assertEquals(10, board.getMineCount());
+    }
+    
+    /**
+     * Test of constructor, of class BoardBank. A low watermark above the high 
+     * watermark should be rejected.
+     */
+    @Test
+    public void testConstructorRejectsCrossedWatermarks() {
+        try (BoardBank bank = new BoardBank(5, 4, 1)) {
+            String msg = "Low watermark 5 over high watermark 4 should have " 
+                    + "caused an exception, not given " + bank.toString();
+            fail(msg);
+        } catch (IllegalArgumentException iae) {
+            System.out.println("Low watermark 5 over high watermark 4 " 
+                    + "correctly caused IllegalArgumentException");
+            System.out.println("\"" + iae.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for crossed watermarks";
+            fail(msg);
+        }
+    }
+    
+    /**
+     * Another test of constructor, of class BoardBank. A thread count less 
+     * than 1 should be rejected.
+     */
+    @Test
+    public void testConstructorRejectsNoThreads() {
+        try (BoardBank bank = new BoardBank(1, 4, 0)) {
+            String msg = "Thread count 0 should have caused an exception, " 
+                    + "not given " + bank.toString();
+            fail(msg);
+        } catch (IllegalArgumentException iae) {
+            System.out.println("Thread count 0 correctly caused " 
+                    + "IllegalArgumentException");
+            System.out.println("\"" + iae.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for thread count 0";
+            fail(msg);
+        }
+    }
+    
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the BoardMetrics class.
+ * @author Alonso del Arte
+ */
+public class BoardMetricsTest {
+    
+    /**
+     * Test of getThreeBV function, of class BoardMetrics.
+     */
+    @Test
+    public void testGetThreeBV() {
+        System.out.println("getThreeBV");
+        assertEquals(2, BoardMetrics.of(TestBoards.twoOpenings()).getThreeBV());
+        assertEquals(3, 
+                BoardMetrics.of(TestBoards.isolatedNumbers()).getThreeBV());
+        Board board = new Board(new Position(9, 9), new HashSet<>());
+        assertEquals(1, BoardMetrics.of(board).getThreeBV());
+    }
+    
+    /**
+     * Test of getOpeningCount function, of class BoardMetrics.
+     */
+    @Test
+    public void testGetOpeningCount() {
+        System.out.println("getOpeningCount");
+        assertEquals(2, 
+                BoardMetrics.of(TestBoards.twoOpenings()).getOpeningCount());
+        assertEquals(0, BoardMetrics.of(TestBoards.isolatedNumbers())
+                .getOpeningCount());
+    }
+    
+    /**
+     * Test of getIsolatedNumberCount function, of class BoardMetrics.
+     */
+    @Test
+    public void testGetIsolatedNumberCount() {
+        System.out.println("getIsolatedNumberCount");
+        assertEquals(0, BoardMetrics.of(TestBoards.twoOpenings())
+                .getIsolatedNumberCount());
+        assertEquals(3, BoardMetrics.of(TestBoards.isolatedNumbers())
+                .getIsolatedNumberCount());
+    }
+    
+    /**
+     * Test of getLargestOpeningSize function, of class BoardMetrics.
+     */
+    @Test
+    public void testGetLargestOpeningSize() {
+        System.out.println("getLargestOpeningSize");
+        assertEquals(4, BoardMetrics.of(TestBoards.twoOpenings())
+                .getLargestOpeningSize());
+        assertEquals(0, BoardMetrics.of(TestBoards.isolatedNumbers())
+                .getLargestOpeningSize());
+    }
+    
+    /**
+     * Test of getMineCount function, of class BoardMetrics.
+     */
+    @Test
+    public void testGetMineCount() {
+        System.out.println("getMineCount");
+        assertEquals(2, 
+                BoardMetrics.of(TestBoards.twoOpenings()).getMineCount());
+    }
+    
+    /**
+     * Test of getDensity function, of class BoardMetrics.
+     */
+    @Test
+    public void testGetDensity() {
+        System.out.println("getDensity");
+        assertEquals(2.0 / 9.0, 
+                BoardMetrics.of(TestBoards.twoOpenings()).getDensity(), 
+                1.0E-12);
+        assertEquals(0.4, 
+                BoardMetrics.of(TestBoards.isolatedNumbers()).getDensity(), 
+                1.0E-12);
+    }
+    
+    /**
+     * Test of toString function, of class BoardMetrics.
+     */
+    @Test
+    public void testToString() {
+        System.out.println("toString");
+        String expected = "3BV 2 (2 openings, 0 isolated numbers), 2 mines";
+        String actual = BoardMetrics.of(TestBoards.twoOpenings()).toString();
+        assertEquals(expected, actual);
+    }
+    
+    /**
+     * Test of of function, of class BoardMetrics. A board made without its 
+     * mines can't be measured until the first move places them.
+     */
+    @Test
+    public void testOf() {
+        System.out.println("of");
+        Board board = Board.makeBoard(10, new Position(8, 8), new Random(42L));
+        try {
+            BoardMetrics metrics = BoardMetrics.of(board);
+            String msg = "Should not have been able to measure board before " 
+                    + "mines placed, got " + metrics.toString();
+            fail(msg);
+        } catch (IllegalStateException ise) {
+            System.out.println("Trying to measure board before mines placed " 
+                    + "correctly caused IllegalStateException");
+            System.out.println("\"" + ise.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for measuring board " 
+                    + "before mines placed";
+            fail(msg);
+        }
+        board.reveal(new Position(4, 4));
+        BoardMetrics metrics = BoardMetrics.of(board);
+        assertEquals(10, metrics.getMineCount());
+        assert metrics.getOpeningCount() >= 1 
+                : "First click should be in an opening";
+    }
+    
+    /**
+     * Test of Counter.count, of class BoardMetrics. The count should agree 
+     * with the measurements from the opening index, and should stop short 
+     * with a number above the limit when the 3BV is higher than the limit.
+     */
+    @Test
+    public void testCounterCount() {
+        System.out.println("Counter.count");
+        Random random = new Random(496L);
+        Position corner = new Position(15, 29);
+        int rows = corner.getX() + 1;
+        int columns = corner.getY() + 1;
+        BoardMetrics.Counter counter = new BoardMetrics.Counter();
+        for (int trial = 0; trial < 25; trial++) {
+            HashSet<Position> mineLocs = new HashSet<>();
+            int mineTotal = 20 + trial * 3;
+            while (mineLocs.size() < mineTotal) {
+                mineLocs.add(Position.random(corner, random));
+            }
+            boolean[] mined = new boolean[rows * columns];
+            byte[] numbers = new byte[rows * columns];
+            for (Position mineLoc : mineLocs) {
+                mined[mineLoc.getX() * columns + mineLoc.getY()] = true;
+                for (Position neighbor : mineLoc.getNeighbors(corner)) {
+                    numbers[neighbor.getX() * columns + neighbor.getY()]++;
+                }
+            }
+            int expected = BoardMetrics.of(new Board(corner, mineLocs))
+                    .getThreeBV();
+            String msg = "3BV of layout with " + mineTotal + " mines";
+            assertEquals(msg, expected, counter.count(rows, columns, mined, 
+                    numbers, Integer.MAX_VALUE));
+            assertEquals(msg, expected, 
+                    counter.count(rows, columns, mined, numbers, expected));
+            int stopped = counter.count(rows, columns, mined, numbers, 
+                    expected - 1);
+            assert stopped > expected - 1 : msg 
+                    + " should be reported above limit, got " + stopped;
+        }
+    }
+    
+}
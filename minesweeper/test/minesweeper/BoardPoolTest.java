@@ -0,0 +1,163 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper;
+
+import java.util.ArrayList;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the BoardPool class.
+ * @author Alonso del Arte
+ */
+public class BoardPoolTest {
+    
+    private static final Position CORNER = new Position(8, 8);
+    
+    private static final Position CENTER = new Position(4, 4);
+    
+    /**
+     * Test of acquire function, of class BoardPool. A board given back 
+     * should be taken again, started over with the new seed.
+     */
+    @Test
+    public void testAcquire() {
+        System.out.println("acquire");
+        BoardPool pool = new BoardPool();
+        Board board = pool.acquire(10, CORNER, 1729L);
+        board.reveal(CENTER);
+        pool.release(board);
+        Board again = pool.acquire(12, CORNER, 6174L);
+        assert board == again : "Pool should have given back the same board";
+        Board expected = Board.makeBoard(12, CORNER, 6174L);
+        assertEquals(expected.getGameCode(), again.getGameCode());
+        assertEquals(PositionStatus.COVERED, again.query(CENTER));
+        assertEquals(expected.reveal(CENTER), again.reveal(CENTER));
+        for (Position curr = new Position(0, 0); curr.isWithinBounds(CORNER); 
+                curr = curr.nextColumnWithReset(CORNER)) {
+            assertEquals(expected.query(curr), again.query(curr));
+        }
+    }
+    
+    /**
+     * Another test of acquire function, of class BoardPool. With no idle 
+     * board of the right size, a new one should be made.
+     */
+    @Test
+    public void testAcquireMakesBoardOfRightSize() {
+        BoardPool pool = new BoardPool();
+        pool.release(Board.makeBoard(40, new Position(15, 15), 1729L));
+        Board board = pool.acquire(10, CORNER, 1729L);
+        assertEquals(CORNER, board.getMaxCorner());
+        assertEquals(10, board.getMineCount());
+        assertEquals(1, pool.getIdleCount(new Position(15, 15)));
+    }
+    
+    /**
+     * Test of release procedure, of class BoardPool. A board given back 
+     * should lose its listeners.
+     */
+    @Test
+    public void testRelease() {
+        System.out.println("release");
+        BoardPool pool = new BoardPool();
+        Board board = pool.acquire(10, CORNER, 1729L);
+        ArrayList<Position> changed = new ArrayList<>();
+        board.addStatusChangeListener((position, previous, current) 
+                -> changed.add(position));
+        board.flag(CENTER);
+        pool.release(board);
+        Board again = pool.acquire(10, CORNER, 6174L);
+        again.reveal(CENTER);
+        assertEquals(1, changed.size());
+    }
+    
+    /**
+     * Another test of release procedure, of class BoardPool. The pool should 
+     * keep no more idle boards than its capacity, and should not keep the 
+     * same board twice.
+     */
+    @Test
+    public void testReleaseUpToCapacity() {
+        BoardPool pool = new BoardPool(2);
+        Board board = pool.acquire(10, CORNER, 1729L);
+        pool.release(board);
+        pool.release(board);
+        assertEquals(1, pool.getIdleCount(CORNER));
+        for (int i = 0; i < 3; i++) {
+            pool.release(Board.makeBoard(10, CORNER, i));
+        }
+        assertEquals(2, pool.getIdleCount(CORNER));
+    }
+    
+    /**
+     * Test of getIdleCount function, of class BoardPool. Each thread should 
+     * have a pool of its own.
+     */
+    @Test
+    public void testGetIdleCount() throws InterruptedException {
+        System.out.println("getIdleCount");
+        BoardPool pool = new BoardPool();
+        assertEquals(0, pool.getIdleCount(CORNER));
+        pool.release(Board.makeBoard(10, CORNER, 1729L));
+        assertEquals(1, pool.getIdleCount(CORNER));
+        int[] otherCount = {-1};
+        Thread other = new Thread(() -> {
+            otherCount[0] = pool.getIdleCount(CORNER);
+        });
+        other.start();
+        other.join();
+        assertEquals(0, otherCount[0]);
+        pool.acquire(10, CORNER, 1729L);
+        assertEquals(0, pool.getIdleCount(CORNER));
+    }
+    
+    /**
+     * Test of getCapacity function, of class BoardPool.
+     */
+    @Test
+    public void testGetCapacity() {
+        System.out.println("getCapacity");
+        assertEquals(BoardPool.DEFAULT_CAPACITY, 
+                new BoardPool().getCapacity());
+        assertEquals(16, new BoardPool(16).getCapacity());
+    }
+    
+    /**
+     * Test of constructor, of class BoardPool. A capacity less than 1 should 
+     * be rejected.
+     */
+    @Test
+    public void testConstructorRejectsZeroCapacity() {
+        try {
+            BoardPool pool = new BoardPool(0);
+            String msg = "Capacity 0 should have caused an exception, not " 
+                    + "given " + pool.toString();
+            fail(msg);
+        } catch (IllegalArgumentException iae) {
+            System.out.println("Capacity 0 correctly caused " 
+                    + "IllegalArgumentException");
+            System.out.println("\"" + iae.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for capacity 0";
+            fail(msg);
+        }
+    }
+    
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper;
+
+import java.util.Optional;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the BoardSpec class.
+ * @author Alonso del Arte
+ */
+public class BoardSpecTest {
+    
+    private static final Position CORNER = new Position(8, 8);
+    
+    /**
+     * Test of getMaxCorner, getMineCount and getNoGuessFirstClick functions, 
+     * of class BoardSpec.
+     */
+    @Test
+    public void testGetters() {
+        System.out.println("getMaxCorner, getMineCount, getNoGuessFirstClick");
+        BoardSpec spec = new BoardSpec(CORNER, 10);
+        assertEquals(CORNER, spec.getMaxCorner());
+        assertEquals(10, spec.getMineCount());
+        assertEquals(Optional.empty(), spec.getNoGuessFirstClick());
+        Position firstClick = new Position(4, 4);
+        spec = new BoardSpec(CORNER, 10, firstClick);
+        assertEquals(Optional.of(firstClick), spec.getNoGuessFirstClick());
+    }
+    
+    /**
+     * Test of makeBoard function, of class BoardSpec.
+     */
+    @Test
+    public void testMakeBoard() {
+        System.out.println("makeBoard");
+        BoardSpec spec = new BoardSpec(CORNER, 10);
+        Board board = spec.makeBoard(new Random(1729L));
+        assertEquals(CORNER, board.getMaxCorner());
+        assertEquals(10, board.getMineCount());
+        assertEquals(81, board.getCoveredCount());
+    }
+    
+    /**
+     * Another test of makeBoard function, of class BoardSpec. A board that 
+     * has to be solvable without guessing should at least have its first 
+     * click clear.
+     */
+    @Test
+    public void testMakeBoardNoGuess() {
+        Position firstClick = new Position(0, 8);
+        BoardSpec spec = new BoardSpec(CORNER, 10, firstClick);
+        for (int i = 0; i < 10; i++) {
+            Board board = spec.makeBoard(new Random(i));
+            String msg = "First click " + firstClick.toString() 
+                    + " should be clear";
+            assertFalse(msg, board.reveal(firstClick).isPresent());
+            assertEquals(PositionStatus.REVEALED_EMPTY, 
+                    board.query(firstClick));
+        }
+    }
+    
+    /**
+     * Test of toString function, of class BoardSpec.
+     */
+    @Test
+    public void testToString() {
+        System.out.println("toString");
+        assertEquals("9 by 9 with 10 mines", 
+                new BoardSpec(CORNER, 10).toString());
+        Position firstClick = new Position(4, 4);
+        String expected = "9 by 9 with 10 mines, no guessing from " 
+                + firstClick.toString();
+        assertEquals(expected, 
+                new BoardSpec(CORNER, 10, firstClick).toString());
+    }
+    
+    /**
+     * Test of equals function, of class BoardSpec.
+     */
+    @Test
+    public void testEquals() {
+        System.out.println("equals");
+        BoardSpec spec = new BoardSpec(CORNER, 10);
+        BoardSpec same = new BoardSpec(new Position(8, 8), 10);
+        assertEquals(spec, same);
+        assertNotEquals(spec, new BoardSpec(CORNER, 11));
+        assertNotEquals(spec, new BoardSpec(new Position(8, 9), 10));
+        assertNotEquals(spec, new BoardSpec(CORNER, 10, new Position(4, 4)));
+        assertNotEquals(spec, null);
+        assertNotEquals(spec, CORNER);
+    }
+    
+    /**
+     * Test of hashCode function, of class BoardSpec.
+     */
+    @Test
+    public void testHashCode() {
+        System.out.println("hashCode");
+        BoardSpec spec = new BoardSpec(CORNER, 10);
+        BoardSpec same = new BoardSpec(new Position(8, 8), 10);
+        assertEquals(spec.hashCode(), same.hashCode());
+        BoardSpec different = new BoardSpec(CORNER, 10, new Position(4, 4));
+        assertNotEquals(spec.hashCode(), different.hashCode());
+    }
+    
+    /**
+     * Test of constructor, of class BoardSpec. Too many mines should be 
+     * rejected.
+     */
+    @Test
+    public void testConstructorRejectsTooManyMines() {
+        try {
+            BoardSpec spec = new BoardSpec(CORNER, 82);
+            String msg = "82 mines on 81 positions should have caused an " 
+                    + "exception, not given " + spec.toString();
+            fail(msg);
+        } catch (IllegalArgumentException iae) {
+            System.out.println("82 mines on 81 positions correctly caused " 
+                    + "IllegalArgumentException");
+            System.out.println("\"" + iae.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for 82 mines on 81 " 
+                    + "positions";
+            fail(msg);
+        }
+    }
+    
+    /**
+     * Another test of constructor, of class BoardSpec. A first click off the 
+     * board should be rejected.
+     */
+    @Test
+    public void testConstructorRejectsClickOffBoard() {
+        Position firstClick = new Position(9, 4);
+        try {
+            BoardSpec spec = new BoardSpec(CORNER, 10, firstClick);
+            String msg = "First click " + firstClick.toString() 
+                    + " should have caused an exception, not given " 
+                    + spec.toString();
+            fail(msg);
+        } catch (IllegalArgumentException iae) {
+            System.out.println("First click " + firstClick.toString() 
+                    + " correctly caused IllegalArgumentException");
+            System.out.println("\"" + iae.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for first click " 
+                    + firstClick.toString();
+            fail(msg);
+        }
+    }
+    
+}
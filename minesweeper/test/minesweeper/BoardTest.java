@@ -18,8 +18,11 @@ package minesweeper;
 
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.Random;
+import java.util.SplittableRandom;
 
 import org.junit.Test;
 import static org.junit.Assert.*;
@@ -228,6 +231,143 @@ public class BoardTest {
         }
     }
 
+    /**
+     * Another test of reveal function, of class Board. On a board only one 
+     * row high, revealing an empty position at one end should uncover 
+     * everything up to the number next to the mine at the other end.
+     */
+    @Test
+    public void testRevealEmptySwathSingleRow() {
+        Position corner = new Position(0, 9);
+        HashSet<Position> mineLocs = new HashSet<>();
+        mineLocs.add(corner);
+        Board board = new Board(corner, mineLocs);
+        board.reveal(POSITION_ZERO);
+        for (int y = 0; y < 8; y++) {
+            assertEquals(PositionStatus.REVEALED_EMPTY, 
+                    board.query(new Position(0, y)));
+        }
+        assertEquals(PositionStatus.REVEALED_EMPTY_NEAR_1, 
+                board.query(new Position(0, 8)));
+        assertEquals(PositionStatus.COVERED, board.query(corner));
+    }
+    
+    /**
+     * Another test of reveal function, of class Board. A flagged position 
+     * should stay flagged even if an empty swath reaches it.
+     */
+    @Test
+    public void testRevealEmptySwathLeavesFlags() {
+        Position corner = new Position(4, 4);
+        Position flagged = new Position(2, 2);
+        Board board = new Board(corner, new HashSet<>());
+        board.flag(flagged);
+        board.reveal(POSITION_ZERO);
+        assertEquals(PositionStatus.FLAGGED, board.query(flagged));
+        assertEquals(PositionStatus.REVEALED_EMPTY, board.query(corner));
+    }
+    
+    private static int countMinesAround(Position position, Position corner, 
+            HashSet<Position> mineLocs) {
+        int count = 0;
+        for (Position neighbor : position.getNeighbors(corner)) {
+            if (mineLocs.contains(neighbor)) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Another test of reveal function, of class Board. Revealing a position 
+     * with no neighboring mines should uncover exactly what a search outward 
+     * from that position would, and nothing else.
+     */
+    @Test
+    public void testRevealOpeningMatchesSearch() {
+        Random random = new Random(6174L);
+        Position corner = new Position(39, 59);
+        for (int trial = 0; trial < 20; trial++) {
+            HashSet<Position> mineLocs = new HashSet<>();
+            while (mineLocs.size() < 150) {
+                mineLocs.add(Position.random(corner, random));
+            }
+            Position initial = Position.random(corner, random);
+            while (mineLocs.contains(initial) 
+                    || countMinesAround(initial, corner, mineLocs) > 0) {
+                initial = Position.random(corner, random);
+            }
+            HashSet<Position> expected = new HashSet<>();
+            ArrayList<Position> pending = new ArrayList<>();
+            expected.add(initial);
+            pending.add(initial);
+            while (!pending.isEmpty()) {
+                Position curr = pending.remove(pending.size() - 1);
+                for (Position neighbor : curr.getNeighbors(corner)) {
+                    if (!mineLocs.contains(neighbor) 
+                            && expected.add(neighbor) 
+                            && countMinesAround(neighbor, corner, mineLocs) 
+                                    == 0) {
+                        pending.add(neighbor);
+                    }
+                }
+            }
+            Board board = new Board(corner, mineLocs);
+            board.reveal(initial);
+            for (Position curr = POSITION_ZERO; curr.isWithinBounds(corner); 
+                    curr = curr.nextColumnWithReset(corner)) {
+                PositionStatus expStatus = PositionStatus.COVERED;
+                if (expected.contains(curr)) {
+                    expStatus = PositionStatus.values()[countMinesAround(curr, 
+                            corner, mineLocs)];
+                }
+                String msg = "Status of " + curr.toString() 
+                        + " after revealing " + initial.toString();
+                assertEquals(msg, expStatus, board.query(curr));
+            }
+        }
+    }
+    
+    /**
+     * Another test of reveal function, of class Board. Flags across an 
+     * opening keep a reveal from crossing them, and once they're taken away, 
+     * revealing the other side should uncover the rest of the opening.
+     */
+    @Test
+    public void testRevealOpeningCutShortByFlags() {
+        Position corner = new Position(4, 8);
+        Position mineLoc = new Position(0, 8);
+        HashSet<Position> mineLocs = new HashSet<>();
+        mineLocs.add(mineLoc);
+        Board board = new Board(corner, mineLocs);
+        for (int x = 0; x < 5; x++) {
+            board.flag(new Position(x, 3));
+        }
+        board.reveal(POSITION_ZERO);
+        for (int x = 0; x < 5; x++) {
+            assertEquals(PositionStatus.REVEALED_EMPTY, 
+                    board.query(new Position(x, 2)));
+            assertEquals(PositionStatus.FLAGGED, 
+                    board.query(new Position(x, 3)));
+            assertEquals(PositionStatus.COVERED, 
+                    board.query(new Position(x, 4)));
+        }
+        for (int x = 0; x < 5; x++) {
+            board.unflag(new Position(x, 3));
+        }
+        board.reveal(new Position(4, 8));
+        assertEquals(1, board.getCoveredCount());
+        assertEquals(PositionStatus.COVERED, board.query(mineLoc));
+        for (int x = 0; x < 5; x++) {
+            assertEquals(PositionStatus.REVEALED_EMPTY, 
+                    board.query(new Position(x, 3)));
+            assertEquals(PositionStatus.REVEALED_EMPTY, 
+                    board.query(new Position(x, 4)));
+        }
+        assertEquals(PositionStatus.REVEALED_EMPTY_NEAR_1, 
+                board.query(new Position(1, 7)));
+    }
+    
     /**
      * Another test of reveal function, of class Board.
      */
@@ -589,6 +729,252 @@ public class BoardTest {
         assert !board.gameUnderway() : msg;
     }
     
+    /**
+     * Another test of makeBoard function, of class Board. Two boards made with 
+     * generators seeded alike and played alike should have their mines in the 
+     * same places, which both show once a mine is stepped on.
+     */
+    @Test
+    public void testMakeBoardWithGenerator() {
+        Position corner = new Position(8, 8);
+        Board first = Board.makeBoard(10, corner, new Random(1729L));
+        Board second = Board.makeBoard(10, corner, new Random(1729L));
+        for (Position curr = new Position(4, 4); first.gameUnderway(); 
+                curr = curr.nextColumnWithReset(corner)) {
+            if (!curr.isWithinBounds(corner)) {
+                curr = POSITION_ZERO;
+            }
+            if (first.query(curr).equals(PositionStatus.COVERED)) {
+                boolean mined = first.reveal(curr).isPresent();
+                assertEquals(mined, second.reveal(curr).isPresent());
+            }
+        }
+        int mines = 0;
+        for (Position curr = POSITION_ZERO; curr.isWithinBounds(corner); 
+                curr = curr.nextColumnWithReset(corner)) {
+            PositionStatus status = first.query(curr);
+            assertEquals(status, second.query(curr));
+            if (status.equals(PositionStatus.REVEALED_MINED) 
+                    || status.equals(PositionStatus.DETONATED)) {
+                mines++;
+            }
+        }
+        assertEquals(10, mines);
+    }
+    
+    /**
+     * Another test of makeBoard function, of class Board. Two boards made from 
+     * the same seed and played alike should have their mines in the same 
+     * places, and should have the same game code.
+     */
+    @Test
+    public void testMakeBoardWithSeed() {
+        Position corner = new Position(15, 29);
+        Board first = Board.makeBoard(99, corner, 1729L);
+        Board second = Board.makeBoard(99, corner, 1729L);
+        GameCode expected = new GameCode(corner, 99, 1729L);
+        assertEquals(Optional.of(expected), first.getGameCode());
+        assertEquals(first.getGameCode(), second.getGameCode());
+        Position curr = new Position(7, 14);
+        while (first.gameUnderway()) {
+            if (first.query(curr).equals(PositionStatus.COVERED)) {
+                boolean mined = first.reveal(curr).isPresent();
+                assertEquals(mined, second.reveal(curr).isPresent());
+            }
+            curr = curr.nextColumnWithReset(corner);
+            if (!curr.isWithinBounds(corner)) {
+                curr = POSITION_ZERO;
+            }
+        }
+        for (curr = POSITION_ZERO; curr.isWithinBounds(corner); 
+                curr = curr.nextColumnWithReset(corner)) {
+            assertEquals(first.query(curr), second.query(curr));
+        }
+    }
+    
+    /**
+     * Another test of makeBoard function, of class Board. Boards made from 
+     * streams split off one generator should place their mines independently, 
+     * and boards made from generators seeded alike should match.
+     */
+    @Test
+    public void testMakeBoardWithSplittableGenerator() {
+        Position corner = new Position(8, 8);
+        SplittableRandom random = new SplittableRandom(1729L);
+        SplittableRandom again = new SplittableRandom(1729L);
+        Board first = Board.makeBoard(10, corner, random);
+        Board second = Board.makeBoard(10, corner, random);
+        Board copy = Board.makeBoard(10, corner, again);
+        assert !first.getGameCode().isPresent() 
+                : "Board from a generator should not have a game code";
+        Position firstClick = new Position(4, 4);
+        first.reveal(firstClick);
+        second.reveal(firstClick);
+        copy.reveal(firstClick);
+        boolean different = false;
+        for (Position curr = POSITION_ZERO; curr.isWithinBounds(corner); 
+                curr = curr.nextColumnWithReset(corner)) {
+            assertEquals(first.query(curr), copy.query(curr));
+            if (!first.query(curr).equals(second.query(curr))) {
+                different = true;
+            }
+        }
+        assert different : "Boards from split streams should differ";
+    }
+    
+    /**
+     * Test of getGameCode function, of class Board. A board made from a shared 
+     * generator or from given mine locations has no code. Once the first move 
+     * has placed the mines, the code should include that move.
+     */
+    @Test
+    public void testGetGameCode() {
+        System.out.println("getGameCode");
+        Position corner = new Position(8, 8);
+        assertEquals(Optional.empty(), 
+                Board.makeBoard(10, corner).getGameCode());
+        assertEquals(Optional.empty(), 
+                new Board(corner, new HashSet<>()).getGameCode());
+        GameCode code = GameCode.parse("9-9-10-1C1");
+        Board board = code.makeBoard();
+        assertEquals(Optional.of(code), board.getGameCode());
+        Position firstClick = new Position(4, 7);
+        board.reveal(firstClick);
+        assertEquals(Optional.of(GameCode.parse("9-9-10-1C1-4-7")), 
+                board.getGameCode());
+    }
+    
+    /**
+     * Another test of makeBoard function, of class Board. The first position 
+     * revealed should never have a mine, nor, on a board with room to spare, 
+     * should its neighbors.
+     */
+    @Test
+    public void testMakeBoardFirstClickIsSafe() {
+        Position corner = new Position(8, 8);
+        Random random = new Random(1063L);
+        for (int i = 0; i < 500; i++) {
+            Board board = Board.makeBoard(60, corner, random);
+            Position firstClick = Position.random(corner, random);
+            String msg = "First click " + firstClick.toString() 
+                    + " should not have had a mine";
+            Optional<Mine> option = board.reveal(firstClick);
+            assertFalse(msg, option.isPresent());
+            assertEquals(PositionStatus.REVEALED_EMPTY, 
+                    board.query(firstClick));
+        }
+    }
+    
+    /**
+     * Another test of makeBoard function, of class Board. If there is no room 
+     * to keep the first click's neighbors clear, the first click itself 
+     * should still be clear.
+     */
+    @Test
+    public void testMakeBoardFirstClickIsSafeWhenCrowded() {
+        Position corner = new Position(8, 8);
+        Position firstClick = new Position(4, 4);
+        Board board = Board.makeBoard(80, corner);
+        Optional<Mine> option = board.reveal(firstClick);
+        assertFalse("First click should not have had a mine", 
+                option.isPresent());
+        assertEquals(PositionStatus.REVEALED_EMPTY_NEAR_8, 
+                board.query(firstClick));
+    }
+    
+    /**
+     * Another test of makeBoard function, of class Board. Making a board 
+     * should not take time or memory in proportion to its size, so even a 
+     * board with almost a billion positions should be made right away.
+     */
+    @Test
+    public void testMakeBoardDefersWork() {
+        Position corner = new Position(29999, 29999);
+        Board board = Board.makeBoard(1000, corner);
+        assertEquals(900000000, board.getCoveredCount());
+        assertEquals(0, board.getFlagCount());
+        assertEquals(0, board.getFrontierSize());
+        Position position = new Position(15000, 15000);
+        assertEquals(PositionStatus.COVERED, board.query(position));
+        assertEquals(8, board.coveredNeighborCount(position));
+        assertEquals(3, board.coveredNeighborCount(corner));
+        assert board.gameUnderway() : "Game should be underway";
+    }
+    
+    /**
+     * Another test of makeBoard function, of class Board. Flagging before 
+     * revealing anything places the mines, and the flag should then be 
+     * graded against them like any other.
+     */
+    @Test
+    public void testMakeBoardFlagFirst() {
+        Position corner = new Position(8, 8);
+        Board board = Board.makeBoard(10, corner, new Random(1729L));
+        board.flag(POSITION_ZERO);
+        assertEquals(PositionStatus.FLAGGED, board.query(POSITION_ZERO));
+        assertEquals(1, board.getFlagCount());
+        board.unflag(POSITION_ZERO);
+        assertEquals(PositionStatus.COVERED, board.query(POSITION_ZERO));
+        Position curr = POSITION_ZERO;
+        while (board.gameUnderway()) {
+            if (board.query(curr).equals(PositionStatus.COVERED)) {
+                board.reveal(curr);
+            }
+            curr = curr.nextColumnWithReset(corner);
+        }
+        assert !board.gameWon() : "Revealing everything should hit a mine";
+    }
+    
+    /**
+     * Test of makeNoGuessBoard function, of class Board. The first click 
+     * should open up an area, since neither it nor its neighbors have mines.
+     */
+    @Test
+    public void testMakeNoGuessBoard() {
+        System.out.println("makeNoGuessBoard");
+        Position corner = new Position(15, 29);
+        Position firstClick = new Position(7, 14);
+        Board board = Board.makeNoGuessBoard(99, corner, firstClick);
+        assertEquals(99, board.getMineCount());
+        Optional<Mine> option = board.reveal(firstClick);
+        String msg = "First click " + firstClick.toString() 
+                + " should not have had a mine";
+        assert !option.isPresent() : msg;
+        assertEquals(PositionStatus.REVEALED_EMPTY, 
+                board.query(firstClick));
+        assert board.gameUnderway() || board.gameWon() 
+                : "Game should not have been lost";
+    }
+    
+    /**
+     * Another test of makeNoGuessBoard function, of class Board. Two boards 
+     * made with generators seeded alike should have their mines in the same 
+     * places.
+     */
+    @Test
+    public void testMakeNoGuessBoardWithGenerator() {
+        Position corner = new Position(8, 8);
+        Position firstClick = new Position(4, 4);
+        Board first = Board.makeNoGuessBoard(10, corner, firstClick, 
+                new Random(1729L));
+        Board second = Board.makeNoGuessBoard(10, corner, firstClick, 
+                new Random(1729L));
+        for (Position curr = POSITION_ZERO; curr.isWithinBounds(corner); 
+                curr = curr.nextColumnWithReset(corner)) {
+            assertEquals(first.query(curr), second.query(curr));
+            if (first.query(curr).equals(PositionStatus.COVERED)) {
+                boolean mined = first.reveal(curr).isPresent();
+                assertEquals(mined, second.reveal(curr).isPresent());
+                if (mined) {
+                    first = Board.makeNoGuessBoard(10, corner, firstClick, 
+                            new Random(1729L));
+                    second = Board.makeNoGuessBoard(10, corner, firstClick, 
+                            new Random(1729L));
+                }
+            }
+        }
+    }
+    
     /**
      * Another test of makeBoard function, of class Board.
      */
@@ -641,6 +1027,68 @@ public class BoardTest {
         }
     }
     
+    /**
+     * Test of getMaxCorner function, of class Board.
+     */
+    @Test
+    public void testGetMaxCorner() {
+        System.out.println("getMaxCorner");
+        Position maxPos = PositionTest.makePosition();
+        Board board = new Board(maxPos, new HashSet<>());
+        assertEquals(maxPos, board.getMaxCorner());
+    }
+    
+    /**
+     * Test of getMineCount function, of class Board.
+     */
+    @Test
+    public void testGetMineCount() {
+        System.out.println("getMineCount");
+        Position maxPos = new Position(9, 25);
+        Board board = Board.makeBoard(26, maxPos);
+        assertEquals(26, board.getMineCount());
+    }
+    
+    /**
+     * Test of addStatusChangeListener procedure, of class Board. The listener 
+     * should hear of every position uncovered by a cascade, each exactly once.
+     */
+    @Test
+    public void testAddStatusChangeListener() {
+        System.out.println("addStatusChangeListener");
+        Position maxPos = new Position(5, 5);
+        HashSet<Position> mineLocs = new HashSet<>();
+        mineLocs.add(maxPos);
+        Board board = new Board(maxPos, mineLocs);
+        ArrayList<Position> changed = new ArrayList<>();
+        board.addStatusChangeListener((position, previous, current) -> {
+            assertEquals(PositionStatus.COVERED, previous);
+            assertEquals(current, board.query(position));
+            changed.add(position);
+        });
+        board.reveal(POSITION_ZERO);
+        assertEquals(35, changed.size());
+        assertEquals(35, new HashSet<>(changed).size());
+        assert !changed.contains(maxPos) : "Mine should not have been revealed";
+    }
+    
+    /**
+     * Test of removeStatusChangeListener procedure, of class Board.
+     */
+    @Test
+    public void testRemoveStatusChangeListener() {
+        System.out.println("removeStatusChangeListener");
+        Board board = new Board(new Position(3, 3), new HashSet<>());
+        ArrayList<Position> changed = new ArrayList<>();
+        StatusChangeListener listener 
+                = (position, previous, current) -> changed.add(position);
+        board.addStatusChangeListener(listener);
+        board.flag(POSITION_ZERO);
+        board.removeStatusChangeListener(listener);
+        board.unflag(POSITION_ZERO);
+        assertEquals(1, changed.size());
+    }
+    
     /**
      * Test of gameUnderway function, of class Board.
      */
@@ -752,6 +1200,364 @@ public class BoardTest {
         assert board.gameWon() : msg;
     }
     
+    /**
+     * Makes a board of three rows and five columns with mines at (0, 1) and 
+     * (0, 3), and reveals the bottom left corner, which uncovers the bottom 
+     * two rows. The middle row then shows 1, 1, 2, 1, 1.
+     */
+    private static Board makeOneTwoOneBoard() {
+        HashSet<Position> mineLocs = new HashSet<>();
+        mineLocs.add(new Position(0, 1));
+        mineLocs.add(new Position(0, 3));
+        Board board = new Board(new Position(2, 4), mineLocs);
+        board.reveal(new Position(2, 0));
+        return board;
+    }
+    
+    private static HashSet<Position> collect(Iterator<Position> iterator) {
+        HashSet<Position> set = new HashSet<>();
+        while (iterator.hasNext()) {
+            set.add(iterator.next());
+        }
+        return set;
+    }
+    
+    /**
+     * Test of frontierIterator function, of class Board. Before the first 
+     * move, the frontier is empty. After the bottom two rows are uncovered, 
+     * the frontier is the top row, until part of it is flagged.
+     */
+    @Test
+    public void testFrontierIterator() {
+        System.out.println("frontierIterator");
+        HashSet<Position> mineLocs = new HashSet<>();
+        Board board = new Board(new Position(2, 4), mineLocs);
+        assert !board.frontierIterator().hasNext() 
+                : "Frontier should start out empty";
+        board = makeOneTwoOneBoard();
+        HashSet<Position> expected = new HashSet<>();
+        for (int y = 0; y < 5; y++) {
+            expected.add(new Position(0, y));
+        }
+        assertEquals(expected, collect(board.frontierIterator()));
+        assertEquals(5, board.getFrontierSize());
+        Position flagged = new Position(0, 1);
+        board.flag(flagged);
+        expected.remove(flagged);
+        assertEquals(expected, collect(board.frontierIterator()));
+        assertEquals(4, board.getFrontierSize());
+    }
+    
+    /**
+     * Test of frontierIterator function, of class Board. The iterator should 
+     * not allow the frontier to be changed.
+     */
+    @Test(expected = UnsupportedOperationException.class)
+    public void testFrontierIteratorIsReadOnly() {
+        Iterator<Position> iterator = makeOneTwoOneBoard().frontierIterator();
+        iterator.next();
+        iterator.remove();
+    }
+    
+    /**
+     * Test of activeNumberIterator function, of class Board. The numbers in 
+     * the middle row all have covered neighbors, until the top row is 
+     * resolved.
+     */
+    @Test
+    public void testActiveNumberIterator() {
+        System.out.println("activeNumberIterator");
+        Board board = makeOneTwoOneBoard();
+        HashSet<Position> expected = new HashSet<>();
+        for (int y = 0; y < 5; y++) {
+            expected.add(new Position(1, y));
+        }
+        assertEquals(expected, collect(board.activeNumberIterator()));
+        assertEquals(5, board.getActiveNumberCount());
+        board.reveal(new Position(0, 0));
+        board.flag(new Position(0, 1));
+        expected.remove(new Position(1, 0));
+        assertEquals(expected, collect(board.activeNumberIterator()));
+        assertEquals(4, board.getActiveNumberCount());
+    }
+    
+    /**
+     * Test of getCoveredCount and getFlagCount functions, of class Board.
+     */
+    @Test
+    public void testGetCoveredCount() {
+        System.out.println("getCoveredCount");
+        Board board = makeOneTwoOneBoard();
+        assertEquals(5, board.getCoveredCount());
+        assertEquals(0, board.getFlagCount());
+        board.flag(new Position(0, 1));
+        assertEquals(4, board.getCoveredCount());
+        assertEquals(1, board.getFlagCount());
+        board.unflag(new Position(0, 1));
+        assertEquals(5, board.getCoveredCount());
+        assertEquals(0, board.getFlagCount());
+    }
+    
+    /**
+     * Test of coveredNeighborCount function, of class Board.
+     */
+    @Test
+    public void testCoveredNeighborCount() {
+        System.out.println("coveredNeighborCount");
+        Board board = makeOneTwoOneBoard();
+        Position two = new Position(1, 2);
+        assertEquals(3, board.coveredNeighborCount(two));
+        board.flag(new Position(0, 1));
+        assertEquals(2, board.coveredNeighborCount(two));
+        assertEquals(0, board.coveredNeighborCount(new Position(2, 2)));
+    }
+    
+    /**
+     * Test of remainingMineCount function, of class Board.
+     */
+    @Test
+    public void testRemainingMineCount() {
+        System.out.println("remainingMineCount");
+        Board board = makeOneTwoOneBoard();
+        Position two = new Position(1, 2);
+        assertEquals(2, board.remainingMineCount(two));
+        board.flag(new Position(0, 1));
+        assertEquals(1, board.remainingMineCount(two));
+        board.flag(new Position(0, 2));
+        assertEquals(0, board.remainingMineCount(two));
+        assertEquals(0, board.remainingMineCount(new Position(2, 2)));
+    }
+    
+    /**
+     * Test of remainingMineCount function, of class Board. A covered position 
+     * doesn't show a number.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testRemainingMineCountRejectsCovered() {
+        Board board = makeOneTwoOneBoard();
+        int count = board.remainingMineCount(POSITION_ZERO);
+        System.out.println("Should not have given " + count);
+    }
+    
+    /**
+     * Test of getStateHash function, of class Board. Boards that show the 
+     * same thing should have the same hash, no matter the order of the moves 
+     * that got them there, and undoing a flag should undo its effect on the 
+     * hash.
+     */
+    @Test
+    public void testGetStateHash() {
+        System.out.println("getStateHash");
+        Board board = makeOneTwoOneBoard();
+        Board other = makeOneTwoOneBoard();
+        assertEquals(board.getStateHash(), other.getStateHash());
+        long initial = board.getStateHash();
+        Position first = new Position(0, 1);
+        Position second = new Position(0, 2);
+        board.flag(first);
+        assert board.getStateHash() != initial 
+                : "Flagging should change the hash";
+        board.flag(second);
+        other.flag(second);
+        other.flag(first);
+        assertEquals(board.getStateHash(), other.getStateHash());
+        board.unflag(second);
+        other.unflag(second);
+        assertEquals(board.getStateHash(), other.getStateHash());
+        board.unflag(first);
+        assertEquals(initial, board.getStateHash());
+    }
+    
+    /**
+     * Test of getStateHash function, of class Board. Boards of different 
+     * dimensions or with different numbers of mines should have different 
+     * hashes even before the first move.
+     */
+    @Test
+    public void testGetStateHashDependsOnSetup() {
+        HashSet<Position> mineLocs = new HashSet<>();
+        mineLocs.add(POSITION_ZERO);
+        HashSet<Long> hashes = new HashSet<>();
+        hashes.add(new Board(new Position(9, 9), mineLocs).getStateHash());
+        hashes.add(new Board(new Position(9, 8), mineLocs).getStateHash());
+        hashes.add(new Board(new Position(8, 9), mineLocs).getStateHash());
+        mineLocs.add(new Position(5, 5));
+        hashes.add(new Board(new Position(9, 9), mineLocs).getStateHash());
+        assertEquals(4, hashes.size());
+    }
+    
+    /**
+     * Plays random moves on two boards alike until the first is over, 
+     * checking after each move that they still look alike.
+     */
+    private static void playAlike(Board board, Board other, Random random) {
+        Position corner = board.getMaxCorner();
+        while (board.gameUnderway()) {
+            Position position = Position.random(corner, random);
+            PositionStatus status = board.query(position);
+            if (status.equals(PositionStatus.FLAGGED)) {
+                board.unflag(position);
+                other.unflag(position);
+            } else if (status.equals(PositionStatus.COVERED)) {
+                if (random.nextInt(4) == 0) {
+                    board.flag(position);
+                    other.flag(position);
+                } else {
+                    board.reveal(position);
+                    other.reveal(position);
+                }
+            }
+            assertAlike(board, other);
+        }
+    }
+    
+    private static void assertAlike(Board board, Board other) {
+        Position corner = board.getMaxCorner();
+        for (Position curr = POSITION_ZERO; curr.isWithinBounds(corner); 
+                curr = curr.nextColumnWithReset(corner)) {
+            assertEquals(other.query(curr), board.query(curr));
+        }
+        assertEquals(other.getStateHash(), board.getStateHash());
+        assertEquals(other.getFrontierSize(), board.getFrontierSize());
+        assertEquals(other.getActiveNumberCount(), 
+                board.getActiveNumberCount());
+        assertEquals(other.getCoveredCount(), board.getCoveredCount());
+        assertEquals(other.getFlagCount(), board.getFlagCount());
+        assertEquals(other.getMineCount(), board.getMineCount());
+        assertEquals(other.gameUnderway(), board.gameUnderway());
+        assertEquals(other.gameWon(), board.gameWon());
+    }
+    
+    /**
+     * Test of reset procedure, of class Board. A board played to the end and 
+     * then reset should play just like a new board made from the same seed.
+     */
+    @Test
+    public void testReset() {
+        System.out.println("reset");
+        Position corner = new Position(8, 8);
+        Random random = new Random(1729L);
+        Board board = Board.makeBoard(10, corner, 0L);
+        playAlike(Board.makeBoard(10, corner, 0L), board, random);
+        for (long seed = 1; seed < 20; seed++) {
+            board.reset(seed);
+            Board expected = Board.makeBoard(10, corner, seed);
+            assertAlike(expected, board);
+            assertEquals(expected.getGameCode(), board.getGameCode());
+            playAlike(expected, board, random);
+        }
+    }
+    
+    /**
+     * Another test of reset procedure, of class Board. Listeners should stay 
+     * registered, and hear of each position going back to covered.
+     */
+    @Test
+    public void testResetNotifiesListeners() {
+        Position maxPos = new Position(5, 5);
+        HashSet<Position> mineLocs = new HashSet<>();
+        mineLocs.add(maxPos);
+        Board board = new Board(maxPos, mineLocs);
+        HashSet<Position> uncovered = new HashSet<>();
+        board.addStatusChangeListener((position, previous, current) -> {
+            if (current.equals(PositionStatus.COVERED)) {
+                boolean removed = uncovered.remove(position);
+                assertTrue(position.toString() + " was not uncovered", 
+                        removed);
+            } else if (previous.equals(PositionStatus.COVERED)) {
+                uncovered.add(position);
+            }
+        });
+        board.flag(new Position(0, 5));
+        board.reveal(POSITION_ZERO);
+        assertEquals(35, uncovered.size());
+        board.reset(1729L);
+        assertEquals(0, uncovered.size());
+        board.reveal(POSITION_ZERO);
+        assert !uncovered.isEmpty() : "Listener should still be registered";
+    }
+    
+    /**
+     * Another test of reset procedure, of class Board. A board reset with 
+     * given mine locations, even a different number of them, should play just 
+     * like a new board with those mines.
+     */
+    @Test
+    public void testResetWithMineLocations() {
+        Position corner = new Position(11, 13);
+        Random random = new Random(35L);
+        Board board = Board.makeBoard(20, corner, 35L);
+        for (int game = 0; game < 10; game++) {
+            HashSet<Position> mineLocs = new HashSet<>();
+            while (mineLocs.size() < 15 + game) {
+                mineLocs.add(Position.random(corner, random));
+            }
+            board.reset(mineLocs);
+            Board expected = new Board(corner, mineLocs);
+            assertAlike(expected, board);
+            assert !board.getGameCode().isPresent() 
+                    : "Board with given mines should not have a game code";
+            playAlike(expected, board, random);
+        }
+    }
+    
+    /**
+     * Another test of reset procedure, of class Board. Mine locations out of 
+     * bounds should be rejected.
+     */
+    @Test
+    public void testResetRejectsOutOfBoundsMines() {
+        Position maxPos = PositionTest.makePosition();
+        Position badMineLoc = maxPos.nextColumn().nextRow();
+        HashSet<Position> mineLocs = new HashSet<>();
+        mineLocs.add(badMineLoc);
+        Board board = Board.makeBoard(10, maxPos, 1729L);
+        try {
+            board.reset(mineLocs);
+            String msg = "Should not have been able to reset with mine at " 
+                    + badMineLoc.toString() 
+                    + ", which is beyond maximum position " 
+                    + maxPos.toString();
+            fail(msg);
+        } catch (IllegalArgumentException iae) {
+            System.out.println("Trying to reset with mine at " 
+                    + badMineLoc.toString() 
+                    + " correctly caused IllegalArgumentException");
+            System.out.println("\"" + iae.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for mine location " 
+                    + badMineLoc.toString();
+            fail(msg);
+        }
+    }
+    
+    /**
+     * Another test of reset procedure, of class Board. A game code for a 
+     * board of different dimensions should be rejected.
+     */
+    @Test
+    public void testResetRejectsCodeForOtherDimensions() {
+        Board board = Board.makeBoard(10, new Position(8, 8), 1729L);
+        GameCode code = new GameCode(new Position(15, 15), 40, 1729L);
+        try {
+            board.reset(code);
+            String msg = "Should not have been able to reset 9 by 9 board " 
+                    + "with code " + code.toString();
+            fail(msg);
+        } catch (IllegalArgumentException iae) {
+            System.out.println("Trying to reset 9 by 9 board with code " 
+                    + code.toString() 
+                    + " correctly caused IllegalArgumentException");
+            System.out.println("\"" + iae.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for code " 
+                    + code.toString();
+            fail(msg);
+        }
+    }
+    
     /**
      * Test of the constructor.
      */
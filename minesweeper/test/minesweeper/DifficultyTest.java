@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the Difficulty enumerated type.
+ * @author Alonso del Arte
+ */
+public class DifficultyTest {
+    
+    /**
+     * Test of mineCount function, of class Difficulty. The default 10 &times; 
+     * 26 board should get 10, 26 and 52 mines.
+     */
+    @Test
+    public void testMineCount() {
+        System.out.println("mineCount");
+        Position corner = new Position(9, 25);
+        assertEquals(10, Difficulty.EASY.mineCount(corner));
+        assertEquals(26, Difficulty.MEDIUM.mineCount(corner));
+        assertEquals(52, Difficulty.HARD.mineCount(corner));
+    }
+    
+    /**
+     * Another test of mineCount function, of class Difficulty. Huge boards 
+     * should not overflow.
+     */
+    @Test
+    public void testMineCountHugeBoard() {
+        Position corner = new Position(Integer.MAX_VALUE - 1, 
+                Integer.MAX_VALUE - 1);
+        assertEquals(Integer.MAX_VALUE, Difficulty.HARD.mineCount(corner));
+    }
+    
+    /**
+     * Test of fromOption function, of class Difficulty.
+     */
+    @Test
+    public void testFromOption() {
+        System.out.println("fromOption");
+        for (Difficulty level : Difficulty.values()) {
+            assertEquals(level, Difficulty.fromOption(level.getOption()));
+            assertEquals(level, 
+                    Difficulty.fromOption(level.getOption().toUpperCase()));
+        }
+        assertEquals(Difficulty.MEDIUM, Difficulty.fromOption("-nightmare"));
+    }
+    
+}
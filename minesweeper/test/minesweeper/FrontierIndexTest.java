@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the FrontierIndex class.
+ * @author Alonso del Arte
+ */
+public class FrontierIndexTest {
+    
+    private static final Position ORIGIN = new Position(0, 0);
+    
+    private static boolean isNumber(PositionStatus status) {
+        return status.ordinal() > 0 
+                && status.ordinal() <= PositionStatus.REVEALED_EMPTY_NEAR_8
+                        .ordinal();
+    }
+    
+    /**
+     * Checks everything the index keeps against what a scan of the board 
+     * gives.
+     */
+    private static void check(Board board, FrontierIndex index) {
+        Position corner = board.getMaxCorner();
+        HashSet<Position> frontier = new HashSet<>();
+        HashSet<Position> active = new HashSet<>();
+        int covered = 0;
+        int flagged = 0;
+        for (Position curr = ORIGIN; curr.isWithinBounds(corner); 
+                curr = curr.nextColumnWithReset(corner)) {
+            PositionStatus status = board.query(curr);
+            int coveredNeighbors = 0;
+            int flaggedNeighbors = 0;
+            boolean nextToNumber = false;
+            for (Position neighbor : curr.getNeighbors(corner)) {
+                PositionStatus neighborStatus = board.query(neighbor);
+                if (neighborStatus.equals(PositionStatus.COVERED)) {
+                    coveredNeighbors++;
+                } else if (neighborStatus.equals(PositionStatus.FLAGGED)) {
+                    flaggedNeighbors++;
+                }
+                nextToNumber |= isNumber(neighborStatus);
+            }
+            String msg = "Counts around " + curr.toString();
+            assertEquals(msg, coveredNeighbors, 
+                    index.coveredNeighborCount(curr));
+            assertEquals(msg, flaggedNeighbors, 
+                    index.flaggedNeighborCount(curr));
+            if (status.equals(PositionStatus.COVERED)) {
+                covered++;
+                if (nextToNumber) {
+                    frontier.add(curr);
+                }
+            } else if (status.equals(PositionStatus.FLAGGED)) {
+                flagged++;
+            } else if (isNumber(status) && coveredNeighbors > 0) {
+                active.add(curr);
+            }
+        }
+        assertEquals(frontier, index.getFrontier());
+        assertEquals(active, index.getActiveNumbers());
+        assertEquals(covered, index.getCoveredCount());
+        assertEquals(flagged, index.getFlaggedCount());
+    }
+    
+    /**
+     * Test of update function, of class FrontierIndex. An index kept up to 
+     * date through random games, including flags, unflags, cascades and the 
+     * mines shown at the end of a lost game, should always agree with a scan 
+     * of the board.
+     */
+    @Test
+    public void testUpdate() {
+        System.out.println("update");
+        Position corner = new Position(11, 13);
+        Random random = new Random(35L);
+        for (int game = 0; game < 20; game++) {
+            HashSet<Position> mineLocs = new HashSet<>();
+            while (mineLocs.size() < 25) {
+                mineLocs.add(new Position(random.nextInt(12), 
+                        random.nextInt(14)));
+            }
+            Board board = new Board(corner, mineLocs);
+            FrontierIndex index = new FrontierIndex(corner);
+            board.addStatusChangeListener(index::update);
+            check(board, index);
+            while (board.gameUnderway()) {
+                Position position = new Position(random.nextInt(12), 
+                        random.nextInt(14));
+                PositionStatus status = board.query(position);
+                if (status.equals(PositionStatus.FLAGGED)) {
+                    board.unflag(position);
+                } else if (status.equals(PositionStatus.COVERED)) {
+                    if (random.nextInt(4) == 0) {
+                        board.flag(position);
+                    } else {
+                        board.reveal(position);
+                    }
+                }
+                check(board, index);
+            }
+        }
+    }
+    
+    /**
+     * Test of clear procedure, of class FrontierIndex. After clearing, an 
+     * index should agree with a scan of a new board, and keep agreeing as a 
+     * game is played on that board.
+     */
+    @Test
+    public void testClear() {
+        System.out.println("clear");
+        Position corner = new Position(9, 9);
+        Random random = new Random(53L);
+        FrontierIndex index = new FrontierIndex(corner);
+        index.clear();
+        for (int game = 0; game < 5; game++) {
+            HashSet<Position> mineLocs = new HashSet<>();
+            while (mineLocs.size() < 12) {
+                mineLocs.add(Position.random(corner, random));
+            }
+            Board board = new Board(corner, mineLocs);
+            check(board, index);
+            board.addStatusChangeListener(index::update);
+            while (board.gameUnderway()) {
+                Position position = Position.random(corner, random);
+                PositionStatus status = board.query(position);
+                if (status.equals(PositionStatus.COVERED)) {
+                    if (random.nextInt(5) == 0) {
+                        board.flag(position);
+                    } else {
+                        board.reveal(position);
+                    }
+                }
+            }
+            check(board, index);
+            index.clear();
+        }
+    }
+    
+}
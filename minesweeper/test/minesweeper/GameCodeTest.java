@@ -0,0 +1,257 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper;
+
+import java.util.Optional;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the GameCode class.
+ * @author Alonso del Arte
+ */
+public class GameCodeTest {
+    
+    private static final Position EXPERT_CORNER = new Position(15, 29);
+    
+    /**
+     * Test of getMaxCorner, getMineCount, getSeed, getFirstMove and 
+     * isFirstMoveFlagged functions, of class GameCode.
+     */
+    @Test
+    public void testGetters() {
+        System.out.println("getMaxCorner, getMineCount, getSeed, " 
+                + "getFirstMove, isFirstMoveFlagged");
+        GameCode code = new GameCode(EXPERT_CORNER, 99, 1729L);
+        assertEquals(EXPERT_CORNER, code.getMaxCorner());
+        assertEquals(99, code.getMineCount());
+        assertEquals(1729L, code.getSeed());
+        assertEquals(Optional.empty(), code.getFirstMove());
+        assertFalse(code.isFirstMoveFlagged());
+        Position position = new Position(8, 15);
+        GameCode played = code.withFirstMove(position, true);
+        assertEquals(1729L, played.getSeed());
+        assertEquals(Optional.of(position), played.getFirstMove());
+        assertTrue(played.isFirstMoveFlagged());
+    }
+    
+    /**
+     * Test of makeBoard function, of class GameCode. The code of a board 
+     * after its first move should make the same board, with the first move 
+     * already made.
+     */
+    @Test
+    public void testMakeBoard() {
+        System.out.println("makeBoard");
+        GameCode code = new GameCode(EXPERT_CORNER, 99, -42L);
+        Board first = code.makeBoard();
+        assertEquals(EXPERT_CORNER, first.getMaxCorner());
+        assertEquals(99, first.getMineCount());
+        Position firstClick = new Position(0, 0);
+        Optional<Mine> option = first.reveal(firstClick);
+        assertFalse("First click should be safe", option.isPresent());
+        GameCode played = first.getGameCode().get();
+        assertEquals(Optional.of(firstClick), played.getFirstMove());
+        Board second = GameCode.parse(played.toString()).makeBoard();
+        assertEquals(Optional.of(played), second.getGameCode());
+        for (Position curr = firstClick; curr.isWithinBounds(EXPERT_CORNER); 
+                curr = curr.nextColumnWithReset(EXPERT_CORNER)) {
+            assertEquals(first.query(curr), second.query(curr));
+        }
+        Position curr = firstClick;
+        while (first.gameUnderway()) {
+            if (first.query(curr).equals(PositionStatus.COVERED)) {
+                boolean mined = first.reveal(curr).isPresent();
+                assertEquals(mined, second.reveal(curr).isPresent());
+            }
+            curr = curr.nextRow();
+            if (!curr.isWithinBounds(EXPERT_CORNER)) {
+                curr = new Position(0, curr.getY() + 1);
+            }
+        }
+        for (curr = firstClick; curr.isWithinBounds(EXPERT_CORNER); 
+                curr = curr.nextColumnWithReset(EXPERT_CORNER)) {
+            assertEquals(first.query(curr), second.query(curr));
+        }
+    }
+    
+    /**
+     * Another test of makeBoard function, of class GameCode. The code of a 
+     * board whose first move was a flag should make a board with the same 
+     * mines and that position flagged.
+     */
+    @Test
+    public void testMakeBoardFlagFirst() {
+        Board first = Board.makeBoard(99, EXPERT_CORNER, 1729L);
+        Position flagged = new Position(3, 4);
+        first.flag(flagged);
+        GameCode played = first.getGameCode().get();
+        assertEquals("16-30-99-1C1-3-4-F", played.toString());
+        Board second = GameCode.parse(played.toString()).makeBoard();
+        assertEquals(PositionStatus.FLAGGED, second.query(flagged));
+        Position curr = new Position(0, 0);
+        while (first.gameUnderway()) {
+            if (first.query(curr).equals(PositionStatus.COVERED)) {
+                boolean mined = first.reveal(curr).isPresent();
+                assertEquals(mined, second.reveal(curr).isPresent());
+            }
+            curr = curr.nextColumnWithReset(EXPERT_CORNER);
+        }
+        for (curr = new Position(0, 0); curr.isWithinBounds(EXPERT_CORNER); 
+                curr = curr.nextColumnWithReset(EXPERT_CORNER)) {
+            assertEquals(first.query(curr), second.query(curr));
+        }
+    }
+    
+    /**
+     * Test of toString function, of class GameCode.
+     */
+    @Test
+    public void testToString() {
+        System.out.println("toString");
+        assertEquals("16-30-99-1C1", 
+                new GameCode(EXPERT_CORNER, 99, 1729L).toString());
+        assertEquals("9-9-10-0", 
+                new GameCode(new Position(8, 8), 10, 0L).toString());
+        assertEquals("9-9-10-3W5E11264SGSF", 
+                new GameCode(new Position(8, 8), 10, -1L).toString());
+        GameCode code = new GameCode(EXPERT_CORNER, 99, 1729L);
+        Position position = new Position(8, 15);
+        assertEquals("16-30-99-1C1-8-15", 
+                code.withFirstMove(position, false).toString());
+        assertEquals("16-30-99-1C1-8-15-F", 
+                code.withFirstMove(position, true).toString());
+    }
+    
+    /**
+     * Test of parse function, of class GameCode. Parsing a code's text should 
+     * give back an equal code, whatever the seed.
+     */
+    @Test
+    public void testParse() {
+        System.out.println("parse");
+        long[] seeds = {0L, 1L, 1729L, -1L, Long.MIN_VALUE, Long.MAX_VALUE, 
+            0x123456789ABCDEFL};
+        for (long seed : seeds) {
+            GameCode expected = new GameCode(EXPERT_CORNER, 99, seed);
+            GameCode actual = GameCode.parse(expected.toString());
+            assertEquals(expected, actual);
+        }
+        GameCode code = new GameCode(EXPERT_CORNER, 99, 1729L);
+        assertEquals(code, GameCode.parse(" 16-30-99-1c1 "));
+        Position position = new Position(15, 0);
+        assertEquals(code.withFirstMove(position, false), 
+                GameCode.parse("16-30-99-1C1-15-0"));
+        assertEquals(code.withFirstMove(position, true), 
+                GameCode.parse("16-30-99-1c1-15-0-f"));
+    }
+    
+    /**
+     * Another test of parse function, of class GameCode. Text that isn't a 
+     * code should be rejected.
+     */
+    @Test
+    public void testParseRejectsBadText() {
+        String[] badCodes = {"", "16-30-99", "16-30-99-1C1-7", "16-30-X-1C1", 
+            "0-30-99-1C1", "16-30-481-1C1", "16-30-99-!", "16-30--99-1C1", 
+            "16-30-99-1C1-16-0", "16-30-99-1C1-0-30", "16-30-99-1C1-8-X", 
+            "16-30-99-1C1-8-15-G", "16-30-99-1C1-8-15-F-F"};
+        for (String badCode : badCodes) {
+            try {
+                GameCode code = GameCode.parse(badCode);
+                String msg = "Text \"" + badCode 
+                        + "\" should have been rejected, not parsed as " 
+                        + code.toString();
+                fail(msg);
+            } catch (IllegalArgumentException iae) {
+                System.out.println("Text \"" + badCode 
+                        + "\" correctly caused IllegalArgumentException");
+                System.out.println("\"" + iae.getMessage() + "\"");
+            } catch (RuntimeException re) {
+                String msg = re.getClass().getName() 
+                        + " is the wrong exception to throw for text \"" 
+                        + badCode + "\"";
+                fail(msg);
+            }
+        }
+    }
+    
+    /**
+     * Test of equals function, of class GameCode.
+     */
+    @Test
+    public void testEquals() {
+        System.out.println("equals");
+        GameCode code = new GameCode(EXPERT_CORNER, 99, 1729L);
+        assertEquals(code, new GameCode(new Position(15, 29), 99, 1729L));
+        assertNotEquals(code, new GameCode(EXPERT_CORNER, 99, 1730L));
+        assertNotEquals(code, new GameCode(EXPERT_CORNER, 98, 1729L));
+        assertNotEquals(code, new GameCode(new Position(29, 15), 99, 1729L));
+        Position position = new Position(8, 15);
+        GameCode played = code.withFirstMove(position, false);
+        assertNotEquals(code, played);
+        assertNotEquals(played, code);
+        assertEquals(played, code.withFirstMove(position, false));
+        assertNotEquals(played, code.withFirstMove(position, true));
+        assertNotEquals(played, code.withFirstMove(new Position(8, 14), false));
+        assertNotEquals(code, null);
+        assertNotEquals(code, code.toString());
+    }
+    
+    /**
+     * Test of hashCode function, of class GameCode.
+     */
+    @Test
+    public void testHashCode() {
+        System.out.println("hashCode");
+        GameCode code = new GameCode(EXPERT_CORNER, 99, 1729L);
+        assertEquals(code.hashCode(), 
+                new GameCode(EXPERT_CORNER, 99, 1729L).hashCode());
+        assertNotEquals(code.hashCode(), 
+                new GameCode(EXPERT_CORNER, 99, 1730L).hashCode());
+        Position position = new Position(8, 15);
+        assertEquals(code.withFirstMove(position, false).hashCode(), 
+                code.withFirstMove(position, false).hashCode());
+        assertNotEquals(code.hashCode(), 
+                code.withFirstMove(position, false).hashCode());
+    }
+    
+    /**
+     * Test of constructor, of class GameCode. More mines than the board can 
+     * hold should be rejected.
+     */
+    @Test
+    public void testConstructorRejectsTooManyMines() {
+        try {
+            GameCode code = new GameCode(new Position(8, 8), 82, 0L);
+            String msg = "82 mines on 81 positions should have caused an " 
+                    + "exception, not given " + code.toString();
+            fail(msg);
+        } catch (IllegalArgumentException iae) {
+            System.out.println("82 mines on 81 positions correctly caused " 
+                    + "IllegalArgumentException");
+            System.out.println("\"" + iae.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for 82 mines on 81 " 
+                    + "positions";
+            fail(msg);
+        }
+    }
+    
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the LiveMetrics class.
+ * @author Alonso del Arte
+ */
+public class LiveMetricsTest {
+    
+    private static final Position ORIGIN = new Position(0, 0);
+    
+    /**
+     * Test of statusChanged procedure, of class LiveMetrics. Each opening 
+     * counts once, no matter how many of its positions get uncovered.
+     */
+    @Test
+    public void testStatusChanged() {
+        System.out.println("statusChanged");
+        Board board = TestBoards.twoOpenings();
+        LiveMetrics metrics = new LiveMetrics(board);
+        board.reveal(new Position(0, 2));
+        assertEquals(1, metrics.getSolvedThreeBV());
+        board.reveal(new Position(2, 0));
+        assertEquals(2, metrics.getSolvedThreeBV());
+        board.flag(ORIGIN);
+        assertEquals(2, metrics.getSolvedThreeBV());
+    }
+    
+    /**
+     * Test of getSolvedThreeBV function, of class LiveMetrics. Isolated 
+     * numbers count as they're uncovered, but a detonated mine doesn't count.
+     */
+    @Test
+    public void testGetSolvedThreeBV() {
+        System.out.println("getSolvedThreeBV");
+        Board board = TestBoards.isolatedNumbers();
+        LiveMetrics metrics = new LiveMetrics(board);
+        assertEquals(0, metrics.getSolvedThreeBV());
+        board.reveal(ORIGIN);
+        assertEquals(1, metrics.getSolvedThreeBV());
+        board.reveal(new Position(0, 4));
+        assertEquals(2, metrics.getSolvedThreeBV());
+        board.reveal(new Position(0, 1));
+        assertEquals(2, metrics.getSolvedThreeBV());
+    }
+    
+    /**
+     * Test of getSolvedThreeBV function, of class LiveMetrics, on a board 
+     * made without its mines. The metrics should pick up the mines once the 
+     * first click places them.
+     */
+    @Test
+    public void testGetSolvedThreeBVOnDeferredBoard() {
+        Board board = Board.makeBoard(10, new Position(8, 8), 1729L);
+        LiveMetrics metrics = new LiveMetrics(board);
+        board.reveal(new Position(4, 4));
+        assertEquals(1, metrics.getSolvedThreeBV());
+    }
+    
+    /**
+     * Test of recordClick procedure, of class LiveMetrics.
+     */
+    @Test
+    public void testRecordClick() {
+        System.out.println("recordClick");
+        Board board = TestBoards.isolatedNumbers();
+        LiveMetrics metrics = new LiveMetrics(board);
+        assertEquals(0, metrics.getClickCount());
+        board.reveal(ORIGIN);
+        metrics.recordClick();
+        assertEquals(1, metrics.getClickCount());
+        board.flag(new Position(0, 1));
+        metrics.recordClick();
+        assertEquals(2, metrics.getClickCount());
+    }
+    
+    /**
+     * Test of getElapsedNanos function, of class LiveMetrics. The clock 
+     * should stop once the game is over.
+     */
+    @Test
+    public void testGetElapsedNanos() {
+        System.out.println("getElapsedNanos");
+        Board board = TestBoards.isolatedNumbers();
+        LiveMetrics metrics = new LiveMetrics(board);
+        assertEquals(0L, metrics.getElapsedNanos());
+        board.reveal(ORIGIN);
+        metrics.recordClick();
+        board.reveal(new Position(0, 1));
+        metrics.recordClick();
+        long elapsed = metrics.getElapsedNanos();
+        assert elapsed >= 0L : "Elapsed time should not be negative";
+        assertEquals(elapsed, metrics.getElapsedNanos());
+    }
+    
+    /**
+     * Test of getThreeBVPerSecond function, of class LiveMetrics.
+     */
+    @Test
+    public void testGetThreeBVPerSecond() throws InterruptedException {
+        System.out.println("getThreeBVPerSecond");
+        Board board = TestBoards.isolatedNumbers();
+        LiveMetrics metrics = new LiveMetrics(board);
+        assertEquals(0.0, metrics.getThreeBVPerSecond(), 0.0);
+        board.reveal(ORIGIN);
+        metrics.recordClick();
+        Thread.sleep(20L);
+        board.reveal(new Position(0, 2));
+        metrics.recordClick();
+        double expected = 2 * 1.0E9 / metrics.getElapsedNanos();
+        double actual = metrics.getThreeBVPerSecond();
+        assert actual > 0.0 : "3BV per second should be positive";
+        assert actual <= expected : "3BV per second " + actual 
+                + " should not exceed " + expected;
+    }
+    
+    /**
+     * Test of getEfficiency function, of class LiveMetrics. Flagging takes a 
+     * click without solving any of the 3BV.
+     */
+    @Test
+    public void testGetEfficiency() {
+        System.out.println("getEfficiency");
+        Board board = TestBoards.isolatedNumbers();
+        LiveMetrics metrics = new LiveMetrics(board);
+        assertEquals(0.0, metrics.getEfficiency(), 0.0);
+        board.reveal(ORIGIN);
+        metrics.recordClick();
+        board.reveal(new Position(0, 2));
+        metrics.recordClick();
+        assertEquals(1.0, metrics.getEfficiency(), 1.0E-12);
+        board.flag(new Position(0, 1));
+        metrics.recordClick();
+        board.reveal(new Position(0, 4));
+        metrics.recordClick();
+        assertEquals(0.75, metrics.getEfficiency(), 1.0E-12);
+    }
+    
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the MineSweeper class.
+ * @author Alonso del Arte
+ */
+public class MineSweeperTest {
+    
+    /**
+     * Test of makeGameArgs function, of class MineSweeper. A game code should 
+     * be passed on to the graphical game along with the board dimensions and 
+     * difficulty.
+     */
+    @Test
+    public void testMakeGameArgs() {
+        System.out.println("makeGameArgs");
+        String code = "code=16-30-99-1C1";
+        String[] args = {"-w", "16", "-h", "30", "-hard", code};
+        List<String> parsedArgs = Arrays.asList(MineSweeper
+                .makeGameArgs(args));
+        assertTrue(parsedArgs.contains("width = 16"));
+        assertTrue(parsedArgs.contains("height = 30"));
+        assertTrue(parsedArgs.contains("-hard"));
+        String msg = "Arguments " + parsedArgs.toString() + " should include " 
+                + code;
+        assertTrue(msg, parsedArgs.contains(code));
+    }
+    
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import minesweeper.solver.MineProbabilities;
+import minesweeper.solver.ProbabilitySolver;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the NoGuessGenerator class.
+ * @author Alonso del Arte
+ */
+public class NoGuessGeneratorTest {
+    
+    private static final Position EXPERT_CORNER = new Position(15, 29);
+    
+    private static final Position EXPERT_CLICK = new Position(7, 14);
+    
+    private static final int EXPERT_MINES = 99;
+    
+    /**
+     * Plays a board out from the first click, revealing only positions with 
+     * no chance of having a mine. Fails the test if it ever has to guess.
+     */
+    private static void assertSolvableWithoutGuessing(Board board, 
+            Position firstClick) {
+        ProbabilitySolver solver = new ProbabilitySolver();
+        Optional<Mine> option = board.reveal(firstClick);
+        String msg = "First click " + firstClick.toString() 
+                + " should not have had a mine";
+        assertFalse(msg, option.isPresent());
+        Position corner = board.getMaxCorner();
+        while (board.getCoveredCount() > board.getMineCount()) {
+            MineProbabilities probabilities 
+                    = solver.computeProbabilities(board);
+            Set<Position> safe = new HashSet<>();
+            for (Position curr = new Position(0, 0); 
+                    curr.isWithinBounds(corner); 
+                    curr = curr.nextColumnWithReset(corner)) {
+                if (board.query(curr).equals(PositionStatus.COVERED) 
+                        && probabilities.getProbability(curr) == 0.0) {
+                    safe.add(curr);
+                }
+            }
+            msg = "Should be able to go on without guessing with " 
+                    + board.getCoveredCount() + " positions still covered";
+            assertFalse(msg, safe.isEmpty());
+            Iterator<Position> iterator = safe.iterator();
+            while (iterator.hasNext()) {
+                Position position = iterator.next();
+                if (board.query(position).equals(PositionStatus.COVERED)) {
+                    msg = "Position " + position.toString() 
+                            + " was supposed to be safe";
+                    Optional<Mine> result = board.reveal(position);
+                    assertFalse(msg, result.isPresent());
+                }
+            }
+        }
+    }
+    
+    /**
+     * Test of generate function, of class NoGuessGenerator. Boards at expert 
+     * density should be solvable from the first click without guessing.
+     */
+    @Test
+    public void testGenerate() {
+        System.out.println("generate");
+        NoGuessGenerator generator = new NoGuessGenerator();
+        for (long seed = 0; seed < 10; seed++) {
+            Board board = generator.generate(EXPERT_MINES, EXPERT_CORNER, 
+                    EXPERT_CLICK, seed);
+            assertEquals(EXPERT_MINES, board.getMineCount());
+            assertSolvableWithoutGuessing(board, EXPERT_CLICK);
+        }
+        assertEquals(10L, generator.getBoardCount());
+        assert generator.getAttemptCount() >= 10L 
+                : "Should have made at least one attempt per board";
+    }
+    
+    /**
+     * Another test of generate function, of class NoGuessGenerator. A first 
+     * click in a corner should work too.
+     */
+    @Test
+    public void testGenerateFromCorner() {
+        NoGuessGenerator generator = new NoGuessGenerator();
+        Position corner = new Position(15, 15);
+        Position firstClick = new Position(0, 0);
+        for (long seed = 0; seed < 10; seed++) {
+            Board board = generator.generate(40, corner, firstClick, seed);
+            assertSolvableWithoutGuessing(board, firstClick);
+        }
+    }
+    
+    /**
+     * Test of generateMineLocations function, of class NoGuessGenerator. The 
+     * first click and its neighbors should be clear of mines.
+     */
+    @Test
+    public void testGenerateMineLocations() {
+        System.out.println("generateMineLocations");
+        NoGuessGenerator generator = new NoGuessGenerator();
+        HashSet<Position> clear = EXPERT_CLICK.getNeighbors(EXPERT_CORNER);
+        clear.add(EXPERT_CLICK);
+        for (long seed = 0; seed < 10; seed++) {
+            HashSet<Position> mines 
+                    = generator.generateMineLocations(EXPERT_MINES, 
+                            EXPERT_CORNER, EXPERT_CLICK, seed);
+            assertEquals(EXPERT_MINES, mines.size());
+            for (Position position : clear) {
+                String msg = "Position " + position.toString() 
+                        + " next to first click should be clear";
+                assert !mines.contains(position) : msg;
+            }
+        }
+    }
+    
+    /**
+     * Another test of generateMineLocations function, of class 
+     * NoGuessGenerator. The same seed should give the same mines, no matter 
+     * how many threads look for them.
+     */
+    @Test
+    public void testGenerateMineLocationsIsReproducible() {
+        NoGuessGenerator single = new NoGuessGenerator(new ForkJoinPool(1), 
+                NoGuessGenerator.DEFAULT_ATTEMPT_LIMIT);
+        NoGuessGenerator several = new NoGuessGenerator(new ForkJoinPool(4), 
+                NoGuessGenerator.DEFAULT_ATTEMPT_LIMIT);
+        for (long seed = 0; seed < 10; seed++) {
+            HashSet<Position> expected = single.generateMineLocations(
+                    EXPERT_MINES, EXPERT_CORNER, EXPERT_CLICK, seed);
+            HashSet<Position> actual = several.generateMineLocations(
+                    EXPERT_MINES, EXPERT_CORNER, EXPERT_CLICK, seed);
+            assertEquals(expected, actual);
+        }
+        HashSet<Position> first = single.generateMineLocations(EXPERT_MINES, 
+                EXPERT_CORNER, EXPERT_CLICK, 1L);
+        HashSet<Position> second = single.generateMineLocations(EXPERT_MINES, 
+                EXPERT_CORNER, EXPERT_CLICK, 2L);
+        assertNotEquals(first, second);
+    }
+    
+    /**
+     * Another test of generateMineLocations function, of class 
+     * NoGuessGenerator. If no board turns up within the attempt limit, the 
+     * generator should say so.
+     */
+    @Test
+    public void testGenerateMineLocationsGivesUp() {
+        NoGuessGenerator generator 
+                = new NoGuessGenerator(ForkJoinPool.commonPool(), 100);
+        Position corner = new Position(8, 8);
+        Position firstClick = new Position(4, 4);
+        try {
+            HashSet<Position> mines = generator.generateMineLocations(79, 
+                    corner, firstClick, 0L);
+            String msg = "Should not have found board without guessing " 
+                    + "with 79 mines on 81 positions, but found " 
+                    + mines.toString();
+            fail(msg);
+        } catch (IllegalStateException ise) {
+            System.out.println("Impossible request correctly caused " 
+                    + "IllegalStateException");
+            System.out.println("\"" + ise.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for impossible request";
+            fail(msg);
+        }
+        assertEquals(100L, generator.getAttemptCount());
+    }
+    
+    /**
+     * Another test of generateMineLocations function, of class 
+     * NoGuessGenerator. A first click off the board should be rejected.
+     */
+    @Test
+    public void testGenerateMineLocationsRejectsClickOffBoard() {
+        NoGuessGenerator generator = new NoGuessGenerator();
+        Position firstClick = new Position(16, 14);
+        try {
+            HashSet<Position> mines 
+                    = generator.generateMineLocations(EXPERT_MINES, 
+                            EXPERT_CORNER, firstClick, 0L);
+            String msg = "First click " + firstClick.toString() 
+                    + " should have caused an exception, not given " 
+                    + mines.toString();
+            fail(msg);
+        } catch (IllegalArgumentException iae) {
+            System.out.println("First click " + firstClick.toString() 
+                    + " correctly caused IllegalArgumentException");
+            System.out.println("\"" + iae.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for first click " 
+                    + firstClick.toString();
+            fail(msg);
+        }
+    }
+    
+    /**
+     * Another test of generateMineLocations function, of class 
+     * NoGuessGenerator. Mines on every position, leaving no room for the 
+     * first click, should be rejected.
+     */
+    @Test
+    public void testGenerateMineLocationsRejectsTooManyMines() {
+        NoGuessGenerator generator = new NoGuessGenerator();
+        Position corner = new Position(8, 8);
+        try {
+            HashSet<Position> mines = generator.generateMineLocations(81, 
+                    corner, new Position(4, 4), 0L);
+            String msg = "81 mines on 81 positions should have caused an " 
+                    + "exception, not given " + mines.toString();
+            fail(msg);
+        } catch (IllegalArgumentException iae) {
+            System.out.println("81 mines on 81 positions correctly caused " 
+                    + "IllegalArgumentException");
+            System.out.println("\"" + iae.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for 81 mines on 81 " 
+                    + "positions";
+            fail(msg);
+        }
+    }
+    
+    /**
+     * Another test of generateMineLocations function, of class 
+     * NoGuessGenerator. With a 3BV range, the boards should have a 3BV in 
+     * that range and still be solvable without guessing.
+     */
+    @Test
+    public void testGenerateMineLocationsWithThreeBVRange() {
+        NoGuessGenerator generator = new NoGuessGenerator();
+        Position corner = new Position(15, 15);
+        Position firstClick = new Position(7, 7);
+        for (long seed = 0; seed < 5; seed++) {
+            HashSet<Position> mines = generator.generateMineLocations(40, 
+                    corner, firstClick, seed, 35, 40);
+            int threeBV = BoardMetrics.of(new Board(corner, mines))
+                    .getThreeBV();
+            String msg = "3BV " + threeBV + " should be from 35 to 40";
+            assert threeBV >= 35 && threeBV <= 40 : msg;
+            assertSolvableWithoutGuessing(new Board(corner, mines), 
+                    firstClick);
+        }
+    }
+    
+    /**
+     * Another test of generateMineLocations function, of class 
+     * NoGuessGenerator. A 3BV range with its minimum above its maximum 
+     * should be rejected.
+     */
+    @Test
+    public void testGenerateMineLocationsRejectsBadThreeBVRange() {
+        NoGuessGenerator generator = new NoGuessGenerator();
+        try {
+            HashSet<Position> mines 
+                    = generator.generateMineLocations(EXPERT_MINES, 
+                            EXPERT_CORNER, EXPERT_CLICK, 0L, 150, 100);
+            String msg = "3BV range from 150 to 100 should have caused an " 
+                    + "exception, not given " + mines.toString();
+            fail(msg);
+        } catch (IllegalArgumentException iae) {
+            System.out.println("3BV range from 150 to 100 correctly caused " 
+                    + "IllegalArgumentException");
+            System.out.println("\"" + iae.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for 3BV range from " 
+                    + "150 to 100";
+            fail(msg);
+        }
+    }
+    
+    /**
+     * Test of constructor, of class NoGuessGenerator. An attempt limit less 
+     * than 1 should be rejected.
+     */
+    @Test
+    public void testConstructorRejectsBadLimit() {
+        try {
+            NoGuessGenerator generator 
+                    = new NoGuessGenerator(ForkJoinPool.commonPool(), 0);
+            String msg = "Attempt limit 0 should have caused an exception, " 
+                    + "not given " + generator.toString();
+            fail(msg);
+        } catch (IllegalArgumentException iae) {
+            System.out.println("Attempt limit 0 correctly caused " 
+                    + "IllegalArgumentException");
+            System.out.println("\"" + iae.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for attempt limit 0";
+            fail(msg);
+        }
+    }
+    
+}
@@ -0,0 +1,231 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the OpeningIndex class.
+ * @author Alonso del Arte
+ */
+public class OpeningIndexTest {
+    
+    private static final Position ORIGIN = new Position(0, 0);
+    
+    private static HashMap<Position, Integer> countNeighbors(Position corner, 
+            HashSet<Position> mineLocs) {
+        HashMap<Position, Integer> counts = new HashMap<>();
+        for (Position mineLoc : mineLocs) {
+            for (Position neighbor : mineLoc.getNeighbors(corner)) {
+                counts.merge(neighbor, 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+    
+    private static OpeningIndex makeIndex(Position corner, 
+            HashSet<Position> mineLocs) {
+        return new OpeningIndex(corner, mineLocs, 
+                countNeighbors(corner, mineLocs));
+    }
+    
+    private static HashSet<Position> openingCells(OpeningIndex index, 
+            int opening) {
+        HashSet<Position> positions = new HashSet<>();
+        for (int i = index.start(opening); i < index.end(opening); i++) {
+            positions.add(index.positionOf(index.getCells()[i]));
+        }
+        return positions;
+    }
+    
+    /**
+     * Test of openingOf function, of class OpeningIndex. Positions with mines 
+     * or with neighboring mines don't belong to any opening as such.
+     */
+    @Test
+    public void testOpeningOf() {
+        System.out.println("openingOf");
+        Position corner = new Position(4, 4);
+        HashSet<Position> mineLocs = new HashSet<>();
+        for (int x = 0; x < 5; x++) {
+            mineLocs.add(new Position(x, 2));
+        }
+        OpeningIndex index = makeIndex(corner, mineLocs);
+        assertEquals(-1, index.openingOf(new Position(2, 2)));
+        assertEquals(-1, index.openingOf(new Position(2, 1)));
+        int left = index.openingOf(ORIGIN);
+        int right = index.openingOf(corner);
+        assert left >= 0 : "Left column should be in an opening";
+        assert right >= 0 : "Right column should be in an opening";
+        assert left != right : "Mined column should separate openings";
+        for (int x = 1; x < 5; x++) {
+            assertEquals(left, index.openingOf(new Position(x, 0)));
+            assertEquals(right, index.openingOf(new Position(x, 4)));
+        }
+    }
+    
+    /**
+     * Test of getOpeningCount function, of class OpeningIndex.
+     */
+    @Test
+    public void testGetOpeningCount() {
+        System.out.println("getOpeningCount");
+        Position corner = new Position(4, 4);
+        HashSet<Position> mineLocs = new HashSet<>();
+        for (int x = 0; x < 5; x++) {
+            mineLocs.add(new Position(x, 2));
+        }
+        assertEquals(2, makeIndex(corner, mineLocs).getOpeningCount());
+        assertEquals(1, makeIndex(corner, new HashSet<>()).getOpeningCount());
+        mineLocs.add(new Position(2, 0));
+        mineLocs.add(new Position(2, 4));
+        assertEquals(4, makeIndex(corner, mineLocs).getOpeningCount());
+    }
+    
+    /**
+     * Test of isIsolatedNumber function, of class OpeningIndex.
+     */
+    @Test
+    public void testIsIsolatedNumber() {
+        System.out.println("isIsolatedNumber");
+        Position corner = new Position(0, 5);
+        HashSet<Position> mineLocs = new HashSet<>();
+        mineLocs.add(new Position(0, 1));
+        mineLocs.add(new Position(0, 3));
+        OpeningIndex index = makeIndex(corner, mineLocs);
+        assert index.isIsolatedNumber(ORIGIN) : "(0, 0) should be isolated";
+        assert index.isIsolatedNumber(new Position(0, 2)) 
+                : "(0, 2) should be isolated";
+        assert !index.isIsolatedNumber(new Position(0, 4)) 
+                : "(0, 4) borders opening at (0, 5)";
+        assert !index.isIsolatedNumber(corner) 
+                : "(0, 5) has no neighboring mines";
+        assert !index.isIsolatedNumber(new Position(0, 1)) 
+                : "(0, 1) has a mine";
+    }
+    
+    /**
+     * Test of getIsolatedNumberCount function, of class OpeningIndex.
+     */
+    @Test
+    public void testGetIsolatedNumberCount() {
+        System.out.println("getIsolatedNumberCount");
+        Position corner = new Position(0, 5);
+        HashSet<Position> mineLocs = new HashSet<>();
+        mineLocs.add(new Position(0, 1));
+        mineLocs.add(new Position(0, 3));
+        assertEquals(2, makeIndex(corner, mineLocs).getIsolatedNumberCount());
+        assertEquals(0, makeIndex(corner, new HashSet<>())
+                .getIsolatedNumberCount());
+    }
+    
+    /**
+     * Test of getCells function, of class OpeningIndex. A numbered position 
+     * bordering two openings should be listed with both of them.
+     */
+    @Test
+    public void testGetCells() {
+        System.out.println("getCells");
+        Position corner = new Position(2, 2);
+        HashSet<Position> mineLocs = new HashSet<>();
+        mineLocs.add(ORIGIN);
+        mineLocs.add(corner);
+        OpeningIndex index = makeIndex(corner, mineLocs);
+        assertEquals(2, index.getOpeningCount());
+        assertEquals(8, index.getCells().length);
+        HashSet<Position> expected = new HashSet<>();
+        expected.add(new Position(0, 1));
+        expected.add(new Position(0, 2));
+        expected.add(new Position(1, 1));
+        expected.add(new Position(1, 2));
+        int upper = index.openingOf(new Position(0, 2));
+        assertEquals(expected, openingCells(index, upper));
+        expected.clear();
+        expected.add(new Position(1, 0));
+        expected.add(new Position(1, 1));
+        expected.add(new Position(2, 0));
+        expected.add(new Position(2, 1));
+        int lower = index.openingOf(new Position(2, 0));
+        assertEquals(expected, openingCells(index, lower));
+    }
+    
+    /**
+     * Another test of getCells function, of class OpeningIndex. On random 
+     * boards, each opening should hold just what a search outward from any 
+     * of its positions with no neighboring mines reaches.
+     */
+    @Test
+    public void testGetCellsMatchesSearch() {
+        Random random = new Random(8128L);
+        Position corner = new Position(29, 44);
+        for (int trial = 0; trial < 10; trial++) {
+            HashSet<Position> mineLocs = new HashSet<>();
+            while (mineLocs.size() < 120) {
+                mineLocs.add(Position.random(corner, random));
+            }
+            HashMap<Position, Integer> counts 
+                    = countNeighbors(corner, mineLocs);
+            OpeningIndex index = new OpeningIndex(corner, mineLocs, counts);
+            HashSet<Position> seen = new HashSet<>();
+            int found = 0;
+            for (Position curr = ORIGIN; curr.isWithinBounds(corner); 
+                    curr = curr.nextColumnWithReset(corner)) {
+                if (mineLocs.contains(curr) || counts.containsKey(curr)) {
+                    assertEquals(-1, index.openingOf(curr));
+                    continue;
+                }
+                if (!seen.add(curr)) {
+                    continue;
+                }
+                found++;
+                HashSet<Position> expected = new HashSet<>();
+                HashSet<Position> pending = new HashSet<>();
+                expected.add(curr);
+                pending.add(curr);
+                while (!pending.isEmpty()) {
+                    Position next = pending.iterator().next();
+                    pending.remove(next);
+                    for (Position neighbor : next.getNeighbors(corner)) {
+                        if (!mineLocs.contains(neighbor) 
+                                && expected.add(neighbor) 
+                                && !counts.containsKey(neighbor)) {
+                            seen.add(neighbor);
+                            pending.add(neighbor);
+                        }
+                    }
+                }
+                HashSet<Position> actual 
+                        = openingCells(index, index.openingOf(curr));
+                String msg = "Opening of " + curr.toString();
+                assertEquals(msg, expected, actual);
+                for (Position position : actual) {
+                    int cell = position.getX() * (corner.getY() + 1) 
+                            + position.getY();
+                    int number = counts.getOrDefault(position, 0);
+                    assertEquals(number, index.numberAt(cell));
+                }
+            }
+            assertEquals(found, index.getOpeningCount());
+        }
+    }
+    
+}
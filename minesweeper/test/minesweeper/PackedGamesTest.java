@@ -0,0 +1,361 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the PackedGames class.
+ * @author Alonso del Arte
+ */
+public class PackedGamesTest {
+    
+    private static final Position ORIGIN = new Position(0, 0);
+    
+    private static final Position CORNER = new Position(8, 8);
+    
+    private static final Position CENTER = new Position(4, 4);
+    
+    private static void assertSameStatuses(Board board, PackedGames games, 
+            int game, String context) {
+        Position corner = board.getMaxCorner();
+        for (Position curr = ORIGIN; curr.isWithinBounds(corner); 
+                curr = curr.nextColumnWithReset(corner)) {
+            String msg = "Status of " + curr.toString() + " " + context;
+            assertEquals(msg, board.query(curr), games.query(game, curr));
+        }
+        assertEquals(context, board.gameUnderway(), games.gameUnderway(game));
+        assertEquals(context, board.gameWon(), games.gameWon(game));
+    }
+    
+    private static Class<?> attempt(Runnable move) {
+        try {
+            move.run();
+            return null;
+        } catch (RuntimeException re) {
+            return re.getClass();
+        }
+    }
+    
+    /**
+     * Plays random moves on a board and on a packed game with the same seed, 
+     * checking after each that the two agree on everything.
+     */
+    private static void playAlongside(Position corner, int mines, long seed, 
+            Random random) {
+        PackedGames games = new PackedGames(3, corner, mines);
+        games.newGame(1, seed);
+        Board board = Board.makeBoard(mines, corner, seed);
+        int moveCount = 0;
+        while (board.gameUnderway() && moveCount < 400) {
+            Position position = Position.random(corner, random);
+            int kind = random.nextInt(4);
+            Class<?> expected;
+            Class<?> actual;
+            if (kind < 2) {
+                expected = attempt(() -> board.reveal(position));
+                actual = attempt(() -> games.reveal(1, position));
+            } else if (kind == 2) {
+                expected = attempt(() -> board.flag(position));
+                actual = attempt(() -> games.flag(1, position));
+            } else {
+                expected = attempt(() -> board.unflag(position));
+                actual = attempt(() -> games.unflag(1, position));
+            }
+            String context = "after move " + moveCount + " of kind " + kind 
+                    + " at " + position.toString() + " with seed " + seed;
+            assertEquals(context, expected, actual);
+            assertSameStatuses(board, games, 1, context);
+            moveCount++;
+        }
+        assert games.gameUnderway(0) : "Other games should be untouched";
+        assert games.gameUnderway(2) : "Other games should be untouched";
+    }
+    
+    /**
+     * Test of newGame procedure, of class PackedGames. Starting a game over 
+     * should cover everything again.
+     */
+    @Test
+    public void testNewGame() {
+        System.out.println("newGame");
+        PackedGames games = new PackedGames(4, CORNER, 10);
+        games.newGame(2, 1729L);
+        games.reveal(2, CENTER);
+        games.flag(2, ORIGIN);
+        games.newGame(2, 1729L);
+        for (Position curr = ORIGIN; curr.isWithinBounds(CORNER); 
+                curr = curr.nextColumnWithReset(CORNER)) {
+            assertEquals(PositionStatus.COVERED, games.query(2, curr));
+        }
+        assert games.gameUnderway(2) : "New game should be underway";
+    }
+    
+    /**
+     * Test of query function, of class PackedGames. The first reveal should 
+     * be safe and, with its neighbors kept clear, empty.
+     */
+    @Test
+    public void testQuery() {
+        System.out.println("query");
+        PackedGames games = new PackedGames(2, CORNER, 10);
+        games.newGame(0, 1729L);
+        assertEquals(PositionStatus.COVERED, games.query(0, CENTER));
+        games.reveal(0, CENTER);
+        assertEquals(PositionStatus.REVEALED_EMPTY, games.query(0, CENTER));
+        assertEquals(PositionStatus.COVERED, games.query(1, CENTER));
+    }
+    
+    /**
+     * Test of reveal function, of class PackedGames. Revealing should do 
+     * exactly what it does on a board made from the same seed.
+     */
+    @Test
+    public void testReveal() {
+        System.out.println("reveal");
+        for (long seed = 0; seed < 20; seed++) {
+            PackedGames games = new PackedGames(1, CORNER, 10);
+            games.newGame(0, seed);
+            Board board = Board.makeBoard(10, CORNER, seed);
+            assertEquals(board.reveal(CENTER).isPresent(), 
+                    games.reveal(0, CENTER));
+            assertSameStatuses(board, games, 0, "with seed " + seed);
+        }
+    }
+    
+    /**
+     * Another test of reveal function, of class PackedGames. Revealing a 
+     * position twice should be rejected.
+     */
+    @Test
+    public void testNoRevealForAlreadyRevealed() {
+        PackedGames games = new PackedGames(1, CORNER, 10);
+        games.newGame(0, 1729L);
+        games.reveal(0, CENTER);
+        try {
+            boolean mined = games.reveal(0, CENTER);
+            String msg = "Revealing " + CENTER.toString() 
+                    + " twice should have caused an exception, not given " 
+                    + mined;
+            fail(msg);
+        } catch (IllegalStateException ise) {
+            System.out.println("Revealing " + CENTER.toString() 
+                    + " twice correctly caused IllegalStateException");
+            System.out.println("\"" + ise.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for revealing twice";
+            fail(msg);
+        }
+    }
+    
+    /**
+     * Another test of reveal function, of class PackedGames. A position out 
+     * of bounds should be rejected.
+     */
+    @Test
+    public void testNoRevealOutOfBounds() {
+        PackedGames games = new PackedGames(1, CORNER, 10);
+        games.newGame(0, 1729L);
+        Position position = new Position(9, 0);
+        try {
+            boolean mined = games.reveal(0, position);
+            String msg = "Revealing " + position.toString() 
+                    + " should have caused an exception, not given " + mined;
+            fail(msg);
+        } catch (NoSuchElementException nsee) {
+            System.out.println("Revealing " + position.toString() 
+                    + " correctly caused NoSuchElementException");
+            System.out.println("\"" + nsee.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for revealing " 
+                    + position.toString();
+            fail(msg);
+        }
+    }
+    
+    /**
+     * Test of flag procedure, of class PackedGames. Random play with flags 
+     * and reveals should go just as it does on boards made from the same 
+     * seeds, including wins and losses.
+     */
+    @Test
+    public void testFlag() {
+        System.out.println("flag");
+        Random random = new Random(6174L);
+        for (long seed = 0; seed < 40; seed++) {
+            playAlongside(CORNER, 10, seed, random);
+        }
+    }
+    
+    /**
+     * Test of unflag procedure, of class PackedGames. Random play on a board 
+     * with few positions and many mines gives plenty of flags and unflags, 
+     * and games won by flagging.
+     */
+    @Test
+    public void testUnflag() {
+        System.out.println("unflag");
+        Random random = new Random(8128L);
+        Position corner = new Position(2, 3);
+        for (long seed = 0; seed < 200; seed++) {
+            playAlongside(corner, 3, seed, random);
+        }
+        PackedGames games = new PackedGames(1, corner, 12);
+        games.newGame(0, 0L);
+        for (Position curr = ORIGIN; curr.isWithinBounds(corner); 
+                curr = curr.nextColumnWithReset(corner)) {
+            games.flag(0, curr);
+        }
+        assert games.gameWon(0) : "Flagging every mine should win";
+    }
+    
+    /**
+     * Another test of unflag procedure, of class PackedGames. Boards whose 
+     * number of positions isn't a multiple of 64 and boards that take 
+     * several words should work just as well.
+     */
+    @Test
+    public void testUnflagOnOtherSizes() {
+        Random random = new Random(496L);
+        for (long seed = 0; seed < 15; seed++) {
+            playAlongside(new Position(4, 12), 9, seed, random);
+            playAlongside(new Position(15, 15), 40, seed, random);
+            playAlongside(new Position(7, 7), 10, seed, random);
+        }
+    }
+    
+    /**
+     * Test of gameUnderway function, of class PackedGames.
+     */
+    @Test
+    public void testGameUnderway() {
+        System.out.println("gameUnderway");
+        PackedGames games = new PackedGames(1, CORNER, 80);
+        games.newGame(0, 1729L);
+        assert games.gameUnderway(0) : "New game should be underway";
+        games.reveal(0, CENTER);
+        Position next = ORIGIN;
+        while (!games.query(0, next).equals(PositionStatus.COVERED)) {
+            next = next.nextColumnWithReset(CORNER);
+        }
+        boolean detonated = games.reveal(0, next);
+        assertTrue("Should have detonated a mine", detonated);
+        assert !games.gameUnderway(0) : "Game should be over";
+        assertEquals(PositionStatus.DETONATED, games.query(0, next));
+    }
+    
+    /**
+     * Test of gameWon function, of class PackedGames.
+     */
+    @Test
+    public void testGameWon() {
+        System.out.println("gameWon");
+        PackedGames games = new PackedGames(1, CORNER, 80);
+        games.newGame(0, 1729L);
+        games.reveal(0, CENTER);
+        assert !games.gameWon(0) : "Game should not be won yet";
+        for (Position curr = ORIGIN; curr.isWithinBounds(CORNER); 
+                curr = curr.nextColumnWithReset(CORNER)) {
+            if (!curr.equals(CENTER)) {
+                games.flag(0, curr);
+            }
+        }
+        assert games.gameWon(0) : "Flagging every mine should win";
+        assert !games.gameUnderway(0) : "Won game should be over";
+    }
+    
+    /**
+     * Test of getGameCount function, of class PackedGames.
+     */
+    @Test
+    public void testGetGameCount() {
+        System.out.println("getGameCount");
+        assertEquals(1000, 
+                new PackedGames(1000, CORNER, 10).getGameCount());
+    }
+    
+    /**
+     * Test of getMaxCorner function, of class PackedGames.
+     */
+    @Test
+    public void testGetMaxCorner() {
+        System.out.println("getMaxCorner");
+        assertEquals(CORNER, new PackedGames(10, CORNER, 10).getMaxCorner());
+    }
+    
+    /**
+     * Test of getMineCount function, of class PackedGames.
+     */
+    @Test
+    public void testGetMineCount() {
+        System.out.println("getMineCount");
+        assertEquals(10, new PackedGames(10, CORNER, 10).getMineCount());
+    }
+    
+    /**
+     * Test of query function, of class PackedGames. A game number out of 
+     * range should be rejected.
+     */
+    @Test
+    public void testQueryRejectsBadGame() {
+        PackedGames games = new PackedGames(10, CORNER, 10);
+        try {
+            PositionStatus status = games.query(10, CENTER);
+            String msg = "Game 10 of 10 should have caused an exception, " 
+                    + "not given " + status.toString();
+            fail(msg);
+        } catch (IndexOutOfBoundsException ioobe) {
+            System.out.println("Game 10 of 10 correctly caused " 
+                    + "IndexOutOfBoundsException");
+            System.out.println("\"" + ioobe.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for game 10 of 10";
+            fail(msg);
+        }
+    }
+    
+    /**
+     * Test of constructor, of class PackedGames. More mines than positions 
+     * should be rejected.
+     */
+    @Test
+    public void testConstructorRejectsTooManyMines() {
+        try {
+            PackedGames games = new PackedGames(10, CORNER, 82);
+            String msg = "82 mines on 81 positions should have caused an " 
+                    + "exception, not given " + games.toString();
+            fail(msg);
+        } catch (IllegalArgumentException iae) {
+            System.out.println("82 mines on 81 positions correctly caused " 
+                    + "IllegalArgumentException");
+            System.out.println("\"" + iae.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for 82 mines on 81 " 
+                    + "positions";
+            fail(msg);
+        }
+    }
+    
+}
@@ -19,6 +19,7 @@ package minesweeper;
 import java.awt.Point;
 import java.util.HashSet;
 import java.util.Random;
+import java.util.SplittableRandom;
 
 import org.junit.Test;
 
@@ -328,6 +329,60 @@ public class PositionTest {
         }
     }
     
+    /**
+     * Another test of random function, of class Position. With a given 
+     * generator, the positions should be within bounds, and two generators 
+     * with the same seed should give the same positions.
+     */
+    @Test
+    public void testRandomWithGenerator() {
+        Position boundingCorner = new Position(15, 29);
+        Random first = new Random(1729L);
+        Random second = new Random(1729L);
+        HashSet<Position> seen = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            Position position = Position.random(boundingCorner, first);
+            String msg = "Position " + position.toString() 
+                    + " should be within bounds defined by " 
+                    + boundingCorner.toString();
+            assert position.isWithinBounds(boundingCorner) : msg;
+            assertEquals(position, Position.random(boundingCorner, second));
+            seen.add(position);
+        }
+        assert seen.size() > 400 : "Positions should vary";
+    }
+    
+    /**
+     * Another test of random function, of class Position. Generators split 
+     * alike off generators seeded alike should give the same positions, and 
+     * the streams split off one generator should differ from each other.
+     */
+    @Test
+    public void testRandomWithSplittableGenerator() {
+        Position boundingCorner = new Position(15, 29);
+        SplittableRandom first = new SplittableRandom(1729L).split();
+        SplittableRandom second = new SplittableRandom(1729L).split();
+        SplittableRandom sibling = new SplittableRandom(1729L);
+        sibling.split();
+        sibling = sibling.split();
+        HashSet<Position> seen = new HashSet<>();
+        int matches = 0;
+        for (int i = 0; i < 1000; i++) {
+            Position position = Position.random(boundingCorner, first);
+            String msg = "Position " + position.toString() 
+                    + " should be within bounds defined by " 
+                    + boundingCorner.toString();
+            assert position.isWithinBounds(boundingCorner) : msg;
+            assertEquals(position, Position.random(boundingCorner, second));
+            if (position.equals(Position.random(boundingCorner, sibling))) {
+                matches++;
+            }
+            seen.add(position);
+        }
+        assert seen.size() > 400 : "Positions should vary";
+        assert matches < 20 : "Split streams should be independent";
+    }
+    
     @Test
     public void testConstructorRejectsNegativeX() {
         try {
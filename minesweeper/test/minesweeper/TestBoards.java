@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Makes boards with known mine locations, for tests in other packages, which 
+ * can't call the <code>Board</code> constructor directly.
+ * @author Alonso del Arte
+ */
+public class TestBoards {
+    
+    /**
+     * Makes a board with mines at the given positions.
+     * @param corner The bottom right corner. For example, (9, 25).
+     * @param mineLocations Where to put the mines.
+     * @return A new board.
+     */
+    public static Board withMines(Position corner, 
+            Collection<Position> mineLocations) {
+        return new Board(corner, new HashSet<>(mineLocations));
+    }
+    
+    /**
+     * Chooses mine locations pseudorandomly, keeping a given position and its 
+     * neighbors free of mines so that revealing it uncovers an opening.
+     * @param corner The bottom right corner. For example, (15, 29).
+     * @param count How many mines. For example, 99.
+     * @param start The position to keep clear. For example, (8, 15).
+     * @param random The source of pseudorandom numbers. A seeded 
+     * <code>Random</code> gives the same mines every time.
+     * @return A set of <code>count</code> mine locations.
+     */
+    public static HashSet<Position> randomMines(Position corner, int count, 
+            Position start, Random random) {
+        HashSet<Position> keepClear = start.getNeighbors(corner);
+        keepClear.add(start);
+        HashSet<Position> mines = new HashSet<>();
+        while (mines.size() < count) {
+            Position position = new Position(random.nextInt(corner.getX() + 1), 
+                    random.nextInt(corner.getY() + 1));
+            if (!keepClear.contains(position)) {
+                mines.add(position);
+            }
+        }
+        return mines;
+    }
+    
+    /**
+     * Makes a 3 by 3 board with mines in opposite corners. The other two 
+     * corners start two openings of four positions each, which share the 
+     * center, so the 3BV is 2.
+     * @return A new board.
+     */
+    public static Board twoOpenings() {
+        Position corner = new Position(2, 2);
+        HashSet<Position> mineLocs = new HashSet<>();
+        mineLocs.add(new Position(0, 0));
+        mineLocs.add(corner);
+        return new Board(corner, mineLocs);
+    }
+    
+    /**
+     * Makes a board one row high with mines in the second and fourth 
+     * positions. There are no openings, and each of the other three positions 
+     * is an isolated number, so the 3BV is 3.
+     * @return A new board.
+     */
+    public static Board isolatedNumbers() {
+        Position corner = new Position(0, 4);
+        HashSet<Position> mineLocs = new HashSet<>();
+        mineLocs.add(new Position(0, 1));
+        mineLocs.add(new Position(0, 3));
+        return new Board(corner, mineLocs);
+    }
+    
+    /**
+     * Gives the mine locations of the board made by {@link #oneTwoOne()}.
+     * @return A new list with (0, 1) and (0, 3).
+     */
+    public static List<Position> oneTwoOneMines() {
+        List<Position> mines = new ArrayList<>();
+        mines.add(new Position(0, 1));
+        mines.add(new Position(0, 3));
+        return mines;
+    }
+    
+    /**
+     * Makes a board of three rows and five columns with mines at (0, 1) and 
+     * (0, 3), and reveals (2, 0). That uncovers the bottom two rows, leaving 
+     * the numbers 1, 1, 2, 1, 1 under the covered top row.
+     * @return A new board.
+     */
+    public static Board oneTwoOne() {
+        Board board = withMines(new Position(2, 4), oneTwoOneMines());
+        board.reveal(new Position(2, 0));
+        return board;
+    }
+    
+    /**
+     * Reveals the first covered position without a mine. If there is none, 
+     * which happens when the last mines are walled in by other mines, flags 
+     * the first covered mine instead. Tests use this to keep a game going 
+     * when an engine under test deduces nothing.
+     * @param board The board to move on. The game should be underway.
+     * @param mines Where the board's mines are.
+     * @return The position revealed or flagged.
+     */
+    public static Position makeSafeMove(Board board, Set<Position> mines) {
+        Position corner = board.getMaxCorner();
+        Position coveredMine = null;
+        for (Position curr = new Position(0, 0); curr.isWithinBounds(corner); 
+                curr = curr.nextColumnWithReset(corner)) {
+            if (board.query(curr).equals(PositionStatus.COVERED)) {
+                if (!mines.contains(curr)) {
+                    board.reveal(curr);
+                    return curr;
+                }
+                if (coveredMine == null) {
+                    coveredMine = curr;
+                }
+            }
+        }
+        board.flag(coveredMine);
+        return coveredMine;
+    }
+    
+}
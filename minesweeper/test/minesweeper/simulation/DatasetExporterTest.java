@@ -0,0 +1,264 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.simulation;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+
+import minesweeper.Position;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the DatasetExporter class.
+ * @author Alonso del Arte
+ */
+public class DatasetExporterTest {
+    
+    private static final Position CORNER = new Position(8, 8);
+    
+    private static byte[] exportToBytes(DatasetExporter exporter, long boards, 
+            DatasetExporter.Format format) throws IOException {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        WritableByteChannel channel = Channels.newChannel(stream);
+        format.writeHeader(channel);
+        exporter.export(boards, channel);
+        return stream.toByteArray();
+    }
+    
+    private static String[] sortedRows(byte[] bytes) {
+        String[] lines = new String(bytes, StandardCharsets.US_ASCII)
+                .split("\n");
+        String[] rows = Arrays.copyOfRange(lines, 1, lines.length);
+        Arrays.sort(rows);
+        return rows;
+    }
+    
+    /**
+     * Test of export function, of class DatasetExporter. In CSV format, there 
+     * should be a header line and then one line per board, each with the 
+     * 3BV equal to the openings plus the isolated numbers.
+     */
+    @Test
+    public void testExport() throws IOException {
+        System.out.println("export");
+        DatasetExporter exporter = new DatasetExporter(
+                StandardStrategy.DEDUCTION, CORNER, 10, 2, 1729L, 
+                DatasetExporter.Format.CSV);
+        byte[] bytes = exportToBytes(exporter, 200, 
+                DatasetExporter.Format.CSV);
+        String[] lines = new String(bytes, StandardCharsets.US_ASCII)
+                .split("\n");
+        assertEquals(201, lines.length);
+        assert lines[0].startsWith("game,seed,rows,columns,mines,density") 
+                : "First line should be header";
+        HashSet<Long> games = new HashSet<>();
+        for (int i = 1; i < lines.length; i++) {
+            String[] fields = lines[i].split(",");
+            assertEquals(12, fields.length);
+            games.add(Long.parseLong(fields[0]));
+            assertEquals("9", fields[2]);
+            assertEquals("9", fields[3]);
+            assertEquals("10", fields[4]);
+            assertEquals("0.123457", fields[5]);
+            int openings = Integer.parseInt(fields[6]);
+            int isolated = Integer.parseInt(fields[7]);
+            assertEquals(openings + isolated, Integer.parseInt(fields[8]));
+            assert fields[11].equals("0") || fields[11].equals("1") 
+                    : "Won should be 0 or 1, not " + fields[11];
+        }
+        assertEquals(200, games.size());
+    }
+    
+    /**
+     * Another test of export function, of class DatasetExporter. The binary 
+     * format should have fixed-size records after its header.
+     */
+    @Test
+    public void testExportBinary() throws IOException {
+        DatasetExporter exporter = new DatasetExporter(
+                StandardStrategy.DEDUCTION, CORNER, 10, 2, 1729L, 
+                DatasetExporter.Format.BINARY);
+        byte[] bytes = exportToBytes(exporter, 150, 
+                DatasetExporter.Format.BINARY);
+        assertEquals(12 + 150 * DatasetExporter.RECORD_BYTES, bytes.length);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        byte[] magic = new byte[4];
+        buffer.get(magic);
+        assertEquals("MSDS", new String(magic, StandardCharsets.US_ASCII));
+        assertEquals(1, buffer.getInt());
+        assertEquals(DatasetExporter.RECORD_BYTES, buffer.getInt());
+        HashSet<Long> games = new HashSet<>();
+        while (buffer.hasRemaining()) {
+            games.add(buffer.getLong());
+            buffer.getLong();
+            assertEquals(9, buffer.getInt());
+            assertEquals(9, buffer.getInt());
+            assertEquals(10, buffer.getInt());
+            int openings = buffer.getInt();
+            int isolated = buffer.getInt();
+            assertEquals(openings + isolated, buffer.getInt());
+            buffer.getInt();
+            int guesses = buffer.getInt();
+            assertTrue("Guesses should not be negative", guesses >= 0);
+            byte won = buffer.get();
+            assert won == 0 || won == 1 : "Won should be 0 or 1, not " + won;
+        }
+        assertEquals(150, games.size());
+    }
+    
+    /**
+     * Another test of export function, of class DatasetExporter. The rows 
+     * should be the same no matter how many threads make them, though they 
+     * may come in a different order.
+     */
+    @Test
+    public void testExportIsReproducible() throws IOException {
+        DatasetExporter single = new DatasetExporter(
+                StandardStrategy.DEDUCTION, CORNER, 10, 1, 42L, 
+                DatasetExporter.Format.CSV);
+        DatasetExporter several = new DatasetExporter(
+                StandardStrategy.DEDUCTION, CORNER, 10, 3, 42L, 
+                DatasetExporter.Format.CSV);
+        String[] expected = sortedRows(exportToBytes(single, 300, 
+                DatasetExporter.Format.CSV));
+        String[] actual = sortedRows(exportToBytes(several, 300, 
+                DatasetExporter.Format.CSV));
+        assertArrayEquals(expected, actual);
+    }
+    
+    /**
+     * Another test of export function, of class DatasetExporter. Exporting 
+     * to a file should write the header and every row, and the number of 
+     * bytes given should match the file's size.
+     */
+    @Test
+    public void testExportToFile() throws IOException {
+        DatasetExporter exporter = new DatasetExporter(
+                StandardStrategy.DEDUCTION, CORNER, 10, 2, 1729L, 
+                DatasetExporter.Format.BINARY);
+        Path path = Files.createTempFile("boards", ".bin");
+        try {
+            long bytes = exporter.export(1000, path);
+            assertEquals(12 + 1000 * DatasetExporter.RECORD_BYTES, bytes);
+            assertEquals(bytes, Files.size(path));
+        } finally {
+            Files.delete(path);
+        }
+    }
+    
+    /**
+     * Another test of export function, of class DatasetExporter. A negative 
+     * number of boards should be rejected.
+     */
+    @Test
+    public void testExportRejectsNegativeCount() throws IOException {
+        DatasetExporter exporter = new DatasetExporter(
+                StandardStrategy.DEDUCTION, CORNER, 10, 2, 1729L, 
+                DatasetExporter.Format.CSV);
+        WritableByteChannel channel 
+                = Channels.newChannel(new ByteArrayOutputStream());
+        try {
+            long bytes = exporter.export(-1, channel);
+            String msg = "Board count -1 should have caused an exception, " 
+                    + "not given " + bytes + " bytes";
+            fail(msg);
+        } catch (IllegalArgumentException iae) {
+            System.out.println("Board count -1 correctly caused " 
+                    + "IllegalArgumentException");
+            System.out.println("\"" + iae.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for board count -1";
+            fail(msg);
+        }
+    }
+    
+    /**
+     * Another test of export function, of class DatasetExporter. A channel 
+     * that fails should have its exception passed on, without leaving the 
+     * generating threads stuck.
+     */
+    @Test
+    public void testExportPassesOnChannelFailure() {
+        DatasetExporter exporter = new DatasetExporter(
+                StandardStrategy.DEDUCTION, CORNER, 10, 2, 1729L, 
+                DatasetExporter.Format.CSV);
+        WritableByteChannel channel = new WritableByteChannel() {
+            
+            @Override
+            public int write(ByteBuffer src) throws IOException {
+                throw new IOException("Disk full, for testing purposes");
+            }
+            
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+            
+            @Override
+            public void close() {
+            }
+            
+        };
+        try {
+            long bytes = exporter.export(100000, channel);
+            String msg = "Failing channel should have caused an exception, " 
+                    + "not taken " + bytes + " bytes";
+            fail(msg);
+        } catch (IOException ioe) {
+            System.out.println("Failing channel correctly caused IOException");
+            System.out.println("\"" + ioe.getMessage() + "\"");
+        }
+    }
+    
+    /**
+     * Test of constructor, of class DatasetExporter. A thread count less than 
+     * 1 should be rejected.
+     */
+    @Test
+    public void testConstructorRejectsBadThreadCount() {
+        try {
+            DatasetExporter exporter = new DatasetExporter(
+                    StandardStrategy.DEDUCTION, CORNER, 10, 0, 1729L, 
+                    DatasetExporter.Format.CSV);
+            String msg = "Thread count 0 should have caused an exception, " 
+                    + "not given " + exporter.toString();
+            fail(msg);
+        } catch (IllegalArgumentException iae) {
+            System.out.println("Thread count 0 correctly caused " 
+                    + "IllegalArgumentException");
+            System.out.println("\"" + iae.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for thread count 0";
+            fail(msg);
+        }
+    }
+    
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.simulation;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the MoveCounter class.
+ * @author Alonso del Arte
+ */
+public class MoveCounterTest {
+    
+    /**
+     * Test of countMove and countGuess procedures, of class MoveCounter.
+     */
+    @Test
+    public void testCount() {
+        System.out.println("countMove, countGuess");
+        MoveCounter counter = new MoveCounter();
+        assertEquals(0L, counter.getMoveCount());
+        assertEquals(0L, counter.getGuessCount());
+        for (int i = 0; i < 7; i++) {
+            counter.countMove();
+        }
+        counter.countGuess();
+        counter.countGuess();
+        assertEquals(7L, counter.getMoveCount());
+        assertEquals(2L, counter.getGuessCount());
+    }
+    
+    /**
+     * Test of reset procedure, of class MoveCounter.
+     */
+    @Test
+    public void testReset() {
+        System.out.println("reset");
+        MoveCounter counter = new MoveCounter();
+        counter.countMove();
+        counter.countGuess();
+        counter.reset();
+        assertEquals(0L, counter.getMoveCount());
+        assertEquals(0L, counter.getGuessCount());
+    }
+    
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.simulation;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the SimulationResults class.
+ * @author Alonso del Arte
+ */
+public class SimulationResultsTest {
+    
+    private static final double TEST_DELTA = 0.0000001;
+    
+    /**
+     * Test of record procedure, of class SimulationResults.
+     */
+    @Test
+    public void testRecord() {
+        System.out.println("record");
+        SimulationResults results = new SimulationResults();
+        results.record(true, 100, 1);
+        results.record(false, 20, 2);
+        results.record(true, 60, 0);
+        results.record(false, 20, 1);
+        assertEquals(4L, results.getGameCount());
+        assertEquals(2L, results.getWinCount());
+        assertEquals(0.5, results.getWinRate(), TEST_DELTA);
+        assertEquals(1.0, results.getGuessesPerGame(), TEST_DELTA);
+        assertEquals(200L, results.getMoveCount());
+    }
+    
+    /**
+     * Another test of record procedure, of class SimulationResults. Games 
+     * recorded from several threads at once should all be counted.
+     */
+    @Test
+    public void testRecordFromSeveralThreads() throws InterruptedException {
+        SimulationResults results = new SimulationResults();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(() -> {
+                for (int i = 0; i < 10000; i++) {
+                    results.record(i % 2 == 0, 3, 1);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40000L, results.getGameCount());
+        assertEquals(20000L, results.getWinCount());
+        assertEquals(120000L, results.getMoveCount());
+    }
+    
+    /**
+     * Test of getMovesPerSecond function, of class SimulationResults.
+     */
+    @Test
+    public void testGetMovesPerSecond() {
+        System.out.println("getMovesPerSecond");
+        SimulationResults results = new SimulationResults();
+        assertEquals(0.0, results.getMovesPerSecond(), TEST_DELTA);
+        assertEquals(0.0, results.getWinRate(), TEST_DELTA);
+        assertEquals(0.0, results.getGuessesPerGame(), TEST_DELTA);
+        results.record(true, 3000, 0);
+        results.addElapsedTime(2000000000L);
+        assertEquals(1500.0, results.getMovesPerSecond(), TEST_DELTA);
+    }
+    
+    /**
+     * Test of toString function, of class SimulationResults.
+     */
+    @Test
+    public void testToString() {
+        System.out.println("toString");
+        SimulationResults results = new SimulationResults();
+        results.record(true, 10, 1);
+        results.record(false, 10, 2);
+        results.addElapsedTime(1000000000L);
+        String s = results.toString();
+        assert s.startsWith("2 games, 50") : "Summary \"" + s 
+                + "\" should start with game count and win rate";
+        assert s.contains("1.50 guesses per game") : "Summary \"" + s 
+                + "\" should include guesses per game";
+        assert s.contains("20 moves per second") : "Summary \"" + s 
+                + "\" should include moves per second";
+    }
+    
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.simulation;
+
+import minesweeper.Position;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the Simulator class.
+ * @author Alonso del Arte
+ */
+public class SimulatorTest {
+    
+    private static final Position CORNER = new Position(8, 8);
+    
+    /**
+     * Test of run function, of class Simulator. Every game should be counted, 
+     * and the results should not depend on the number of threads.
+     */
+    @Test
+    public void testRun() {
+        System.out.println("run");
+        Simulator single = new Simulator(StandardStrategy.DEDUCTION, CORNER, 
+                10, 1, 1729L);
+        SimulationResults expected = single.run(1000);
+        assertEquals(1000L, expected.getGameCount());
+        Simulator several = new Simulator(StandardStrategy.DEDUCTION, CORNER, 
+                10, 3, 1729L);
+        SimulationResults actual = several.run(1000);
+        assertEquals(expected.getGameCount(), actual.getGameCount());
+        assertEquals(expected.getWinCount(), actual.getWinCount());
+        assertEquals(expected.getMoveCount(), actual.getMoveCount());
+        assertEquals(expected.getGuessesPerGame(), 
+                actual.getGuessesPerGame(), 0.0);
+        assert actual.getMovesPerSecond() > 0.0 
+                : "Moves per second should be positive";
+    }
+    
+    /**
+     * Another test of run function, of class Simulator. A different seed 
+     * should give different games.
+     */
+    @Test
+    public void testRunDifferentSeed() {
+        SimulationResults first = new Simulator(StandardStrategy.RANDOM, 
+                CORNER, 10, 2, 1L).run(500);
+        SimulationResults second = new Simulator(StandardStrategy.RANDOM, 
+                CORNER, 10, 2, 2L).run(500);
+        assertNotEquals(first.getMoveCount(), second.getMoveCount());
+    }
+    
+    /**
+     * Another test of run function, of class Simulator. A negative number of 
+     * games should be rejected.
+     */
+    @Test
+    public void testRunRejectsNegativeGameCount() {
+        Simulator simulator = new Simulator(StandardStrategy.RANDOM, CORNER, 
+                10, 1, 0L);
+        try {
+            SimulationResults results = simulator.run(-1);
+            String msg = "Game count -1 should have caused an exception, " 
+                    + "not given " + results.toString();
+            fail(msg);
+        } catch (IllegalArgumentException iae) {
+            System.out.println("Game count -1 correctly caused " 
+                    + "IllegalArgumentException");
+            System.out.println("\"" + iae.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for game count -1";
+            fail(msg);
+        }
+    }
+    
+    /**
+     * Test of gameSeed function, of class Simulator. Different games should 
+     * get different seeds.
+     */
+    @Test
+    public void testGameSeed() {
+        System.out.println("gameSeed");
+        assertEquals(Simulator.gameSeed(5L, 7L), Simulator.gameSeed(5L, 7L));
+        assertNotEquals(Simulator.gameSeed(5L, 7L), 
+                Simulator.gameSeed(5L, 8L));
+        assertNotEquals(Simulator.gameSeed(5L, 7L), 
+                Simulator.gameSeed(6L, 7L));
+    }
+    
+    /**
+     * Test of constructor, of class Simulator. Too many mines should be 
+     * rejected.
+     */
+    @Test
+    public void testConstructorRejectsTooManyMines() {
+        try {
+            Simulator simulator = new Simulator(StandardStrategy.RANDOM, 
+                    CORNER, 82, 1, 0L);
+            String msg = "82 mines on 81 positions should have caused an " 
+                    + "exception, not given " + simulator.toString();
+            fail(msg);
+        } catch (IllegalArgumentException iae) {
+            System.out.println("82 mines on 81 positions correctly caused " 
+                    + "IllegalArgumentException");
+            System.out.println("\"" + iae.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for 82 mines on 81 " 
+                    + "positions";
+            fail(msg);
+        }
+    }
+    
+    /**
+     * Another test of constructor, of class Simulator. A thread count less 
+     * than 1 should be rejected.
+     */
+    @Test
+    public void testConstructorRejectsNoThreads() {
+        try {
+            Simulator simulator = new Simulator(StandardStrategy.RANDOM, 
+                    CORNER, 10, 0, 0L);
+            String msg = "Thread count 0 should have caused an exception, " 
+                    + "not given " + simulator.toString();
+            fail(msg);
+        } catch (IllegalArgumentException iae) {
+            System.out.println("Thread count 0 correctly caused " 
+                    + "IllegalArgumentException");
+            System.out.println("\"" + iae.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for thread count 0";
+            fail(msg);
+        }
+    }
+    
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.simulation;
+
+import java.util.Random;
+
+import minesweeper.Board;
+import minesweeper.Position;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the StandardStrategy enumerated type.
+ * @author Alonso del Arte
+ */
+public class StandardStrategyTest {
+    
+    private static final Position CORNER = new Position(8, 8);
+    
+    /**
+     * Plays games with a strategy and gives the number won.
+     */
+    private static int playGames(StandardStrategy strategy, int games, 
+            MoveCounter counter) {
+        Random random = new Random(1063L);
+        int wins = 0;
+        for (int game = 0; game < games; game++) {
+            Board board = Board.makeBoard(10, CORNER, random);
+            strategy.play(board, random, counter);
+            String msg = strategy + " should have played the game to the end";
+            assert !board.gameUnderway() : msg;
+            if (board.gameWon()) {
+                wins++;
+            }
+        }
+        return wins;
+    }
+    
+    /**
+     * Test of play procedure, of class StandardStrategy. Random play should 
+     * end every game, with every reveal a guess.
+     */
+    @Test
+    public void testPlayRandom() {
+        System.out.println("play");
+        MoveCounter counter = new MoveCounter();
+        playGames(StandardStrategy.RANDOM, 50, counter);
+        assert counter.getGuessCount() > 0 : "Should have guessed";
+        assert counter.getMoveCount() >= counter.getGuessCount() 
+                : "Every guess should also be a move";
+    }
+    
+    /**
+     * Another test of play procedure, of class StandardStrategy. Deduction 
+     * should win more often than random play, and guess less.
+     */
+    @Test
+    public void testPlayDeduction() {
+        MoveCounter randomCounter = new MoveCounter();
+        int randomWins = playGames(StandardStrategy.RANDOM, 200, 
+                randomCounter);
+        MoveCounter deductionCounter = new MoveCounter();
+        int deductionWins = playGames(StandardStrategy.DEDUCTION, 200, 
+                deductionCounter);
+        String msg = "Deduction won " + deductionWins 
+                + " games, should have won more than random play's " 
+                + randomWins;
+        assert deductionWins > randomWins : msg;
+        assert deductionCounter.getGuessCount() 
+                < randomCounter.getGuessCount() 
+                : "Deduction should guess less than random play";
+    }
+    
+    /**
+     * Another test of play procedure, of class StandardStrategy. Playing by 
+     * probability should win at least about as often as deduction alone.
+     */
+    @Test
+    public void testPlayProbability() {
+        int deductionWins = playGames(StandardStrategy.DEDUCTION, 100, 
+                new MoveCounter());
+        int probabilityWins = playGames(StandardStrategy.PROBABILITY, 100, 
+                new MoveCounter());
+        String msg = "Probability won " + probabilityWins 
+                + " games, should have won about as many as deduction's " 
+                + deductionWins;
+        assert probabilityWins >= deductionWins - 5 : msg;
+    }
+    
+    /**
+     * Test of getOption function, of class StandardStrategy.
+     */
+    @Test
+    public void testGetOption() {
+        System.out.println("getOption");
+        assertEquals("-random", StandardStrategy.RANDOM.getOption());
+        assertEquals("-deduction", StandardStrategy.DEDUCTION.getOption());
+        assertEquals("-probability", 
+                StandardStrategy.PROBABILITY.getOption());
+    }
+    
+    /**
+     * Test of fromOption function, of class StandardStrategy.
+     */
+    @Test
+    public void testFromOption() {
+        System.out.println("fromOption");
+        for (StandardStrategy strategy : StandardStrategy.values()) {
+            assertEquals(strategy, 
+                    StandardStrategy.fromOption(strategy.getOption()));
+            assertEquals(strategy, StandardStrategy.fromOption(strategy
+                    .getOption().toUpperCase()));
+        }
+        assertEquals(StandardStrategy.DEDUCTION, 
+                StandardStrategy.fromOption("-nonsense"));
+    }
+    
+}
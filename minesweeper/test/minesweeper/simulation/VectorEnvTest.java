@@ -0,0 +1,312 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.simulation;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import minesweeper.Position;
+import minesweeper.PositionStatus;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the VectorEnv class.
+ * @author Alonso del Arte
+ */
+public class VectorEnvTest {
+    
+    private static final Position CORNER = new Position(8, 8);
+    
+    private static final int CELLS = 81;
+    
+    private static final int CENTER = 40;
+    
+    private static final byte COVERED 
+            = (byte) PositionStatus.COVERED.ordinal();
+    
+    private static void assertAllCovered(VectorEnv env, int game) {
+        ByteBuffer observations = env.getObservations();
+        for (int cell = 0; cell < CELLS; cell++) {
+            String msg = "Cell " + cell + " of game " + game 
+                    + " should be covered";
+            assertEquals(msg, COVERED, 
+                    observations.get(game * CELLS + cell));
+        }
+    }
+    
+    /**
+     * Test of reset procedure, of class VectorEnv.
+     */
+    @Test
+    public void testReset() {
+        System.out.println("reset");
+        try (VectorEnv env = new VectorEnv(4, CORNER, 10, 1, 100, 1729L)) {
+            int[] actions = new int[4];
+            Arrays.fill(actions, CENTER);
+            env.step(actions);
+            env.reset();
+            for (int game = 0; game < 4; game++) {
+                assertAllCovered(env, game);
+                assertEquals(0.0F, env.getRewards()[game], 0.0F);
+                assert !env.getDones()[game] : "Game should not be done";
+            }
+        }
+    }
+    
+    /**
+     * Test of step procedure, of class VectorEnv. Revealing the center of 
+     * each board is safe, and since its neighbors are kept clear too, it 
+     * should show as empty.
+     */
+    @Test
+    public void testStep() {
+        System.out.println("step");
+        try (VectorEnv env = new VectorEnv(4, CORNER, 10, 2, 100, 1729L)) {
+            int[] actions = new int[4];
+            Arrays.fill(actions, CENTER);
+            env.step(actions);
+            for (int game = 0; game < 4; game++) {
+                assertEquals(VectorEnv.PROGRESS_REWARD, 
+                        env.getRewards()[game], 0.0F);
+                assert !env.getDones()[game] : "Game should not be done";
+                assertEquals((byte) PositionStatus.REVEALED_EMPTY.ordinal(), 
+                        env.getObservations().get(game * CELLS + CENTER));
+            }
+            env.step(actions);
+            for (int game = 0; game < 4; game++) {
+                assertEquals(VectorEnv.INVALID_MOVE_REWARD, 
+                        env.getRewards()[game], 0.0F);
+            }
+        }
+    }
+    
+    /**
+     * Another test of step procedure, of class VectorEnv. Flag actions should 
+     * flag a covered position and unflag a flagged one.
+     */
+    @Test
+    public void testStepFlag() {
+        try (VectorEnv env = new VectorEnv(2, CORNER, 10, 1, 100, 1729L)) {
+            int[] actions = {CELLS, CELLS + 80};
+            env.step(actions);
+            assertEquals((byte) PositionStatus.FLAGGED.ordinal(), 
+                    env.getObservations().get(0));
+            assertEquals((byte) PositionStatus.FLAGGED.ordinal(), 
+                    env.getObservations().get(CELLS + 80));
+            assertEquals(0.0F, env.getRewards()[0], 0.0F);
+            env.step(actions);
+            assertEquals(COVERED, env.getObservations().get(0));
+            assertEquals(COVERED, env.getObservations().get(CELLS + 80));
+            actions[0] = 2 * CELLS;
+            actions[1] = -1;
+            env.step(actions);
+            assertEquals(VectorEnv.INVALID_MOVE_REWARD, env.getRewards()[0], 
+                    0.0F);
+            assertEquals(VectorEnv.INVALID_MOVE_REWARD, env.getRewards()[1], 
+                    0.0F);
+        }
+    }
+    
+    /**
+     * Another test of step procedure, of class VectorEnv. A game that's lost 
+     * should start over with a new board. With all but two positions mined, 
+     * the second reveal is almost sure to find a mine, and with this seed it 
+     * does.
+     */
+    @Test
+    public void testStepStartsOverAfterLoss() {
+        try (VectorEnv env = new VectorEnv(3, CORNER, 79, 1, 100, 1729L)) {
+            int[] actions = new int[3];
+            Arrays.fill(actions, CENTER);
+            env.step(actions);
+            Arrays.fill(actions, 0);
+            env.step(actions);
+            for (int game = 0; game < 3; game++) {
+                assertEquals(VectorEnv.LOSS_REWARD, env.getRewards()[game], 
+                        0.0F);
+                assert env.getDones()[game] : "Game should be done";
+                assertAllCovered(env, game);
+            }
+            assertEquals(3L, env.getEpisodeCount());
+            assertEquals(0L, env.getWinCount());
+        }
+    }
+    
+    /**
+     * Another test of step procedure, of class VectorEnv. With no mines, the 
+     * first reveal uncovers everything, which wins.
+     */
+    @Test
+    public void testStepWins() {
+        try (VectorEnv env = new VectorEnv(2, CORNER, 0, 1, 100, 1729L)) {
+            int[] actions = {CENTER, 0};
+            env.step(actions);
+            for (int game = 0; game < 2; game++) {
+                assertEquals(VectorEnv.WIN_REWARD, env.getRewards()[game], 
+                        0.0F);
+                assert env.getDones()[game] : "Game should be done";
+                assertAllCovered(env, game);
+            }
+            assertEquals(2L, env.getWinCount());
+        }
+    }
+    
+    /**
+     * Another test of step procedure, of class VectorEnv. A game that runs 
+     * out of moves should end.
+     */
+    @Test
+    public void testStepEndsAtLimit() {
+        try (VectorEnv env = new VectorEnv(1, CORNER, 10, 1, 3, 1729L)) {
+            int[] actions = {-1};
+            env.step(actions);
+            env.step(actions);
+            assert !env.getDones()[0] : "Game should not be done yet";
+            env.step(actions);
+            assert env.getDones()[0] : "Game should be done after 3 moves";
+            assertEquals(1L, env.getEpisodeCount());
+        }
+    }
+    
+    /**
+     * Another test of step procedure, of class VectorEnv. The same actions 
+     * should give the same results on one thread as on several.
+     */
+    @Test
+    public void testStepIsReproducible() {
+        int games = 64;
+        try (VectorEnv single = new VectorEnv(games, CORNER, 10, 1, 200, 42L);
+                VectorEnv several = new VectorEnv(games, CORNER, 10, 4, 200, 
+                        42L)) {
+            Random random = new Random(8128L);
+            int[] actions = new int[games];
+            for (int step = 0; step < 300; step++) {
+                for (int game = 0; game < games; game++) {
+                    actions[game] = random.nextInt(2 * CELLS);
+                }
+                single.step(actions);
+                several.step(actions);
+                assertArrayEquals(single.getRewards(), several.getRewards(), 
+                        0.0F);
+                assertArrayEquals(single.getDones(), several.getDones());
+                assertEquals(single.getObservations(), 
+                        several.getObservations());
+            }
+            assertEquals(single.getEpisodeCount(), several.getEpisodeCount());
+            assert single.getEpisodeCount() > 0L 
+                    : "Some games should have ended in 300 steps";
+        }
+    }
+    
+    /**
+     * Another test of step procedure, of class VectorEnv. The wrong number 
+     * of actions should be rejected.
+     */
+    @Test
+    public void testStepRejectsWrongActionCount() {
+        try (VectorEnv env = new VectorEnv(4, CORNER, 10, 1, 100, 1729L)) {
+            env.step(new int[3]);
+            fail("Three actions for four games should have caused exception");
+        } catch (IllegalArgumentException iae) {
+            System.out.println("Three actions for four games correctly " 
+                    + "caused IllegalArgumentException");
+            System.out.println("\"" + iae.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for three actions " 
+                    + "for four games";
+            fail(msg);
+        }
+    }
+    
+    /**
+     * Test of close procedure, of class VectorEnv. A closed environment 
+     * should not take any more steps.
+     */
+    @Test
+    public void testClose() {
+        System.out.println("close");
+        VectorEnv env = new VectorEnv(8, CORNER, 10, 4, 100, 1729L);
+        env.close();
+        env.close();
+        try {
+            env.step(new int[8]);
+            fail("Closed environment should not have taken a step");
+        } catch (IllegalStateException ise) {
+            System.out.println("Stepping closed environment correctly " 
+                    + "caused IllegalStateException");
+            System.out.println("\"" + ise.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for stepping closed " 
+                    + "environment";
+            fail(msg);
+        }
+    }
+    
+    /**
+     * Test of getGameCount function, of class VectorEnv.
+     */
+    @Test
+    public void testGetGameCount() {
+        System.out.println("getGameCount");
+        try (VectorEnv env = new VectorEnv(12, CORNER, 10, 3, 100, 1729L)) {
+            assertEquals(12, env.getGameCount());
+            assertEquals(12, env.getRewards().length);
+            assertEquals(12, env.getDones().length);
+        }
+    }
+    
+    /**
+     * Test of getCellCount function, of class VectorEnv.
+     */
+    @Test
+    public void testGetCellCount() {
+        System.out.println("getCellCount");
+        try (VectorEnv env = new VectorEnv(12, CORNER, 10, 3, 100, 1729L)) {
+            assertEquals(CELLS, env.getCellCount());
+            assertEquals(12 * CELLS, env.getObservations().capacity());
+            assert env.getObservations().isDirect() 
+                    : "Observations should be in a direct buffer";
+        }
+    }
+    
+    /**
+     * Test of constructor, of class VectorEnv. A thread count less than 1 
+     * should be rejected.
+     */
+    @Test
+    public void testConstructorRejectsBadThreadCount() {
+        try (VectorEnv env = new VectorEnv(4, CORNER, 10, 0, 100, 1729L)) {
+            String msg = "Thread count 0 should have caused an exception, " 
+                    + "not given " + env.toString();
+            fail(msg);
+        } catch (IllegalArgumentException iae) {
+            System.out.println("Thread count 0 correctly caused " 
+                    + "IllegalArgumentException");
+            System.out.println("\"" + iae.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for thread count 0";
+            fail(msg);
+        }
+    }
+    
+}
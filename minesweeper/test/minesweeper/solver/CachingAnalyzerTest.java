@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.util.Optional;
+
+import minesweeper.Board;
+import minesweeper.Position;
+import minesweeper.PositionStatus;
+import minesweeper.TestBoards;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the CachingAnalyzer class.
+ * @author Alonso del Arte
+ */
+public class CachingAnalyzerTest {
+    
+    /**
+     * Test of analyze function, of class CachingAnalyzer. Asking about the 
+     * same state twice, even on different boards, should hit the cache and 
+     * give the same analysis.
+     */
+    @Test
+    public void testAnalyze() {
+        System.out.println("analyze");
+        CachingAnalyzer analyzer = new CachingAnalyzer(16);
+        Analysis analysis = analyzer.analyze(TestBoards.oneTwoOne());
+        assertSame(analysis, analyzer.analyze(TestBoards.oneTwoOne()));
+        assertEquals(1L, analyzer.getCache().getHitCount());
+        assertEquals(1L, analyzer.getCache().getMissCount());
+        assertEquals(3, analysis.getDeductions().getSafePositions().size());
+        assertEquals(2, analysis.getDeductions().getMinePositions().size());
+    }
+    
+    /**
+     * Test of analyze function, of class CachingAnalyzer. A move should lead 
+     * to a new analysis, and undoing it should lead back to the old one.
+     */
+    @Test
+    public void testAnalyzeAfterMove() {
+        CachingAnalyzer analyzer = new CachingAnalyzer(16);
+        Board board = TestBoards.oneTwoOne();
+        Analysis before = analyzer.analyze(board);
+        Position mine = new Position(0, 1);
+        board.flag(mine);
+        Analysis after = analyzer.analyze(board);
+        assertNotSame(before, after);
+        assert !after.getDeductions().getMinePositions().contains(mine) 
+                : "Flagged position is no longer covered";
+        board.unflag(mine);
+        assertSame(before, analyzer.analyze(board));
+    }
+    
+    /**
+     * Test of the hint given by analyze, of class CachingAnalyzer. With safe 
+     * positions to choose from, the hint should be the first of them.
+     */
+    @Test
+    public void testHint() {
+        Analysis analysis 
+                = new CachingAnalyzer(16).analyze(TestBoards.oneTwoOne());
+        assertEquals(Optional.of(new Position(0, 0)), analysis.getHint());
+    }
+    
+    /**
+     * Test of the hint given by analyze, of class CachingAnalyzer. Before the 
+     * first move, every position is equally likely to have a mine, and the 
+     * hint should be a covered position.
+     */
+    @Test
+    public void testHintBeforeFirstMove() {
+        Board board = Board.makeBoard(10, new Position(8, 8));
+        Optional<Position> hint = new CachingAnalyzer(16).analyze(board)
+                .getHint();
+        assert hint.isPresent() : "There should be a hint";
+        assertEquals(PositionStatus.COVERED, board.query(hint.get()));
+    }
+    
+}
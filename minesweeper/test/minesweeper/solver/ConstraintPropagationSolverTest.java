@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+import minesweeper.Board;
+import minesweeper.Position;
+import minesweeper.PositionStatus;
+import minesweeper.TestBoards;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the ConstraintPropagationSolver class.
+ * @author Alonso del Arte
+ */
+public class ConstraintPropagationSolverTest {
+    
+    private static final Position ORIGIN = new Position(0, 0);
+    
+    /**
+     * Test of solve function, of class ConstraintPropagationSolver. On a 
+     * single row with a mine at the end, revealing the other end should let 
+     * the solver flag the mine and win.
+     */
+    @Test
+    public void testSolve() {
+        System.out.println("solve");
+        Position corner = new Position(0, 9);
+        ArrayList<Position> mines = new ArrayList<>();
+        mines.add(corner);
+        Board board = TestBoards.withMines(corner, mines);
+        ConstraintPropagationSolver solver 
+                = new ConstraintPropagationSolver(board);
+        assertEquals(0, solver.solve());
+        board.reveal(ORIGIN);
+        assert solver.hasWork() : "Revealing should give the solver work";
+        assertEquals(1, solver.solve());
+        assert board.gameWon() : "Solver should have won the game";
+        assertEquals(1, solver.getMovesMade());
+    }
+    
+    /**
+     * Another test of solve function, of class ConstraintPropagationSolver. 
+     * Numbers already showing when the solver is constructed should be taken 
+     * into account.
+     */
+    @Test
+    public void testSolvePicksUpExistingNumbers() {
+        Position corner = new Position(2, 2);
+        ArrayList<Position> mines = new ArrayList<>();
+        mines.add(corner);
+        Board board = TestBoards.withMines(corner, mines);
+        board.reveal(ORIGIN);
+        ConstraintPropagationSolver solver 
+                = new ConstraintPropagationSolver(board);
+        solver.solve();
+        assertEquals(PositionStatus.FLAGGED, board.query(corner));
+        assert board.gameWon() : "Solver should have won the game";
+    }
+    
+    /**
+     * Another test of solve function, of class ConstraintPropagationSolver. On 
+     * pseudorandom boards, the solver must never detonate a mine nor place a 
+     * wrong flag, however far it gets.
+     */
+    @Test
+    public void testSolveNeverMakesMistakes() {
+        Random random = new Random(20221019L);
+        Position corner = new Position(15, 29);
+        Position start = new Position(8, 15);
+        for (int game = 0; game < 50; game++) {
+            HashSet<Position> mines = TestBoards.randomMines(corner, 60, start, 
+                    random);
+            Board board = TestBoards.withMines(corner, mines);
+            ConstraintPropagationSolver solver 
+                    = new ConstraintPropagationSolver(board);
+            board.reveal(start);
+            solver.solve();
+            assert board.gameUnderway() || board.gameWon() 
+                    : "Solver should not have detonated a mine";
+            for (Position curr = ORIGIN; curr.isWithinBounds(corner); 
+                    curr = curr.nextColumnWithReset(corner)) {
+                if (board.query(curr).equals(PositionStatus.FLAGGED)) {
+                    String msg = "Flag on " + curr.toString() 
+                            + " should be on a mine";
+                    assert mines.contains(curr) : msg;
+                }
+            }
+            if (board.gameUnderway()) {
+                assert !solver.hasWork() : "Solver should have run out of work";
+            }
+        }
+    }
+    
+    /**
+     * Test of detach procedure, of class ConstraintPropagationSolver.
+     */
+    @Test
+    public void testDetach() {
+        System.out.println("detach");
+        Position corner = new Position(0, 9);
+        ArrayList<Position> mines = new ArrayList<>();
+        mines.add(corner);
+        Board board = TestBoards.withMines(corner, mines);
+        ConstraintPropagationSolver solver 
+                = new ConstraintPropagationSolver(board);
+        solver.detach();
+        board.reveal(ORIGIN);
+        assert !solver.hasWork() : "Detached solver should not hear of moves";
+        assertEquals(0, solver.solve());
+    }
+    
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import minesweeper.Board;
+import minesweeper.Position;
+import minesweeper.PositionStatus;
+import minesweeper.TestBoards;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the EndgameSolver class.
+ * @author Alonso del Arte
+ */
+public class EndgameSolverTest {
+    
+    private static final Position ORIGIN = new Position(0, 0);
+    
+    private static final double TEST_DELTA = 0.000001;
+    
+    private static ArrayList<Position> coveredPositions(Board board) {
+        ArrayList<Position> covered = new ArrayList<>();
+        Position corner = board.getMaxCorner();
+        for (Position curr = ORIGIN; curr.isWithinBounds(corner); 
+                curr = curr.nextColumnWithReset(corner)) {
+            if (board.query(curr).equals(PositionStatus.COVERED)) {
+                covered.add(curr);
+            }
+        }
+        return covered;
+    }
+    
+    private static int observe(HashSet<Position> layout, Position position, 
+            Position corner) {
+        int count = 0;
+        for (Position neighbor : position.getNeighbors(corner)) {
+            if (layout.contains(neighbor)) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * Lists every set of the covered positions with as many mines as remain 
+     * that agrees with each revealed number, without any pruning.
+     */
+    private static List<HashSet<Position>> layouts(Board board) {
+        ArrayList<Position> covered = coveredPositions(board);
+        Position corner = board.getMaxCorner();
+        int mines = board.getMineCount() - board.getFlagCount();
+        List<HashSet<Position>> layouts = new ArrayList<>();
+        for (int bits = 0; bits < (1 << covered.size()); bits++) {
+            if (Integer.bitCount(bits) != mines) {
+                continue;
+            }
+            HashSet<Position> layout = new HashSet<>();
+            for (int i = 0; i < covered.size(); i++) {
+                if ((bits & (1 << i)) != 0) {
+                    layout.add(covered.get(i));
+                }
+            }
+            boolean agrees = true;
+            for (Position curr = ORIGIN; curr.isWithinBounds(corner) && agrees; 
+                    curr = curr.nextColumnWithReset(corner)) {
+                int number = BoardView.numberOf(board.query(curr));
+                if (number >= 0) {
+                    int flags = 0;
+                    for (Position neighbor : curr.getNeighbors(corner)) {
+                        if (board.query(neighbor)
+                                .equals(PositionStatus.FLAGGED)) {
+                            flags++;
+                        }
+                    }
+                    agrees = observe(layout, curr, corner) == number - flags;
+                }
+            }
+            if (agrees) {
+                layouts.add(layout);
+            }
+        }
+        return layouts;
+    }
+    
+    private static double reveal(List<HashSet<Position>> layouts, 
+            Position position, List<Position> covered, Position corner) {
+        HashMap<Integer, List<HashSet<Position>>> groups = new HashMap<>();
+        for (HashSet<Position> layout : layouts) {
+            if (!layout.contains(position)) {
+                groups.computeIfAbsent(observe(layout, position, corner), 
+                        k -> new ArrayList<>()).add(layout);
+            }
+        }
+        double total = 0.0;
+        for (List<HashSet<Position>> group : groups.values()) {
+            total += (double) group.size() / layouts.size() 
+                    * bestValue(group, covered, corner);
+        }
+        return total;
+    }
+    
+    private static boolean tellsNothing(List<HashSet<Position>> layouts, 
+            Position position, Position corner) {
+        HashSet<Integer> observations = new HashSet<>();
+        for (HashSet<Position> layout : layouts) {
+            if (layout.contains(position)) {
+                return false;
+            }
+            observations.add(observe(layout, position, corner));
+        }
+        return observations.size() == 1;
+    }
+    
+    /**
+     * Works out the win probability by trying every move at every level, 
+     * except safe moves that would show the same number in every layout.
+     */
+    private static double bestValue(List<HashSet<Position>> layouts, 
+            List<Position> covered, Position corner) {
+        if (layouts.size() == 1) {
+            return 1.0;
+        }
+        double best = 0.0;
+        for (Position position : covered) {
+            if (!tellsNothing(layouts, position, corner)) {
+                best = Math.max(best, 
+                        reveal(layouts, position, covered, corner));
+            }
+        }
+        return best;
+    }
+    
+    /**
+     * Test of solve method, of class EndgameSolver. With one mine left 
+     * between two positions that tell nothing about each other, the game is 
+     * a coin flip.
+     */
+    @Test
+    public void testSolve() {
+        System.out.println("solve");
+        ArrayList<Position> mines = new ArrayList<>();
+        mines.add(new Position(0, 2));
+        Board board = TestBoards.withMines(new Position(1, 2), mines);
+        board.reveal(ORIGIN);
+        assertEquals(2, board.getCoveredCount());
+        EndgameSolver solver = new EndgameSolver();
+        EndgameResult result = solver.solve(board);
+        assertEquals(2, result.getLayoutCount());
+        assertEquals(0.5, result.getWinProbability(), TEST_DELTA);
+        Map<Position, Double> probabilities = result.getWinProbabilities();
+        assertEquals(2, probabilities.size());
+        assertEquals(0.5, probabilities.get(new Position(0, 2)), TEST_DELTA);
+        assertEquals(0.5, probabilities.get(new Position(1, 2)), TEST_DELTA);
+        assertEquals(new Position(0, 2), result.getBestMove().get());
+    }
+    
+    /**
+     * Another test of solve method, of class EndgameSolver. In a corner of 
+     * four positions with a 1 showing, every position shows 1 whichever of 
+     * the other three is mined, so the player can't do better than guess 
+     * twice, winning a third of the time.
+     */
+    @Test
+    public void testSolveNoInformation() {
+        ArrayList<Position> mines = new ArrayList<>();
+        mines.add(new Position(0, 1));
+        Board board = TestBoards.withMines(new Position(1, 1), mines);
+        board.reveal(new Position(1, 0));
+        EndgameResult result = new EndgameSolver().solve(board);
+        assertEquals(3, result.getLayoutCount());
+        assertEquals(3, result.getWinProbabilities().size());
+        for (double probability : result.getWinProbabilities().values()) {
+            assertEquals(1.0 / 3, probability, TEST_DELTA);
+        }
+    }
+    
+    /**
+     * Another test of solve method, of class EndgameSolver. A position known 
+     * to be safe whose number tells where the last mine is wins for sure, and 
+     * known mines are not candidates.
+     */
+    @Test
+    public void testSolveKnownOutcome() {
+        Position corner = new Position(0, 3);
+        ArrayList<Position> mines = new ArrayList<>();
+        mines.add(ORIGIN);
+        Board board = TestBoards.withMines(corner, mines);
+        board.reveal(new Position(0, 1));
+        EndgameResult result = new EndgameSolver().solve(board);
+        assertEquals(2, result.getLayoutCount());
+        assertEquals(corner, result.getBestMove().get());
+        assertEquals(1.0, result.getWinProbability(), TEST_DELTA);
+        assertEquals(0.5, result.getWinProbabilities().get(ORIGIN), 
+                TEST_DELTA);
+        mines.add(corner);
+        board = TestBoards.withMines(corner, mines);
+        board.reveal(new Position(0, 1));
+        board.reveal(new Position(0, 2));
+        result = new EndgameSolver().solve(board);
+        assertEquals(1, result.getLayoutCount());
+        assertFalse(result.getBestMove().isPresent());
+        assertEquals(1.0, result.getWinProbability(), TEST_DELTA);
+    }
+    
+    /**
+     * Another test of solve method, of class EndgameSolver. On small boards 
+     * partway through a game, the win probabilities should match those found 
+     * by trying every move at every level without memos or bounds.
+     */
+    @Test
+    public void testSolveMatchesExhaustiveSearch() {
+        Random random = new Random(37);
+        Position corner = new Position(3, 4);
+        EndgameSolver solver = new EndgameSolver();
+        int checked = 0;
+        for (int game = 0; game < 40; game++) {
+            Position start = new Position(random.nextInt(4), 
+                    random.nextInt(5));
+            HashSet<Position> mines = TestBoards.randomMines(corner, 4, start, 
+                    random);
+            Board board = TestBoards.withMines(corner, mines);
+            board.reveal(start);
+            ArrayList<Position> covered = coveredPositions(board);
+            while (covered.size() > 11) {
+                covered.removeAll(mines);
+                board.reveal(covered.get(random.nextInt(covered.size())));
+                covered = coveredPositions(board);
+            }
+            if (covered.size() == mines.size()) {
+                continue;
+            }
+            List<HashSet<Position>> layouts = layouts(board);
+            EndgameResult result = solver.solve(board);
+            assertEquals(layouts.size(), result.getLayoutCount());
+            for (Map.Entry<Position, Double> entry 
+                    : result.getWinProbabilities().entrySet()) {
+                double expected = layouts.size() == 1 ? 1.0 
+                        : reveal(layouts, entry.getKey(), covered, corner);
+                String msg = "Win probability of " + entry.getKey() 
+                        + " should be " + expected;
+                assertEquals(msg, expected, entry.getValue(), TEST_DELTA);
+            }
+            checked++;
+        }
+        assert checked > 20 : "Should have checked more than 20 endgames";
+    }
+    
+    /**
+     * Another test of solve method, of class EndgameSolver. A board with too 
+     * many covered positions should be rejected.
+     */
+    @Test
+    public void testSolveRejectsLargeBoard() {
+        Board board = TestBoards.withMines(new Position(9, 9), 
+                new ArrayList<>());
+        try {
+            EndgameResult result = new EndgameSolver().solve(board);
+            String msg = "Trying to solve a board with 100 covered positions " 
+                    + "should have caused an exception, not given best move " 
+                    + result.getBestMove();
+            fail(msg);
+        } catch (IllegalArgumentException iae) {
+            System.out.println("Trying to solve a board with 100 covered " 
+                    + "positions correctly caused IllegalArgumentException");
+            System.out.println("\"" + iae.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for trying to solve " 
+                    + "a board with 100 covered positions";
+            fail(msg);
+        }
+    }
+    
+    /**
+     * Test of constructor, of class EndgameSolver. A layout limit less than 1 
+     * should be rejected.
+     */
+    @Test
+    public void testConstructorRejectsBadLimit() {
+        try {
+            EndgameSolver solver = new EndgameSolver(null, 0);
+            String msg = "Layout limit 0 should have caused an exception, " 
+                    + "not given " + solver.toString();
+            fail(msg);
+        } catch (IllegalArgumentException iae) {
+            System.out.println("Layout limit 0 correctly caused " 
+                    + "IllegalArgumentException");
+            System.out.println("\"" + iae.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for layout limit 0";
+            fail(msg);
+        }
+    }
+    
+}
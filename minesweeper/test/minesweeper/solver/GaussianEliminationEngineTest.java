@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import minesweeper.Board;
+import minesweeper.Position;
+import minesweeper.PositionStatus;
+import minesweeper.TestBoards;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the GaussianEliminationEngine class.
+ * @author Alonso del Arte
+ */
+public class GaussianEliminationEngineTest {
+    
+    private static final Position ORIGIN = new Position(0, 0);
+    
+    /**
+     * Test of deduce function, of class GaussianEliminationEngine. The numbers 
+     * 1, 1, 2, 1, 1 under a covered row can't be worked out one number at a 
+     * time, but subtracting the first constraint from the second shows the 
+     * middle of the first three positions to be safe, and the rest follows.
+     */
+    @Test
+    public void testDeduce() {
+        System.out.println("deduce");
+        Board board = TestBoards.oneTwoOne();
+        ConstraintPropagationSolver propagation 
+                = new ConstraintPropagationSolver(board);
+        assertEquals(0, propagation.solve());
+        propagation.detach();
+        DeductionEngine engine = new GaussianEliminationEngine();
+        Deductions deductions = engine.deduce(board);
+        HashSet<Position> expectedSafe = new HashSet<>();
+        expectedSafe.add(ORIGIN);
+        expectedSafe.add(new Position(0, 2));
+        expectedSafe.add(new Position(0, 4));
+        assertEquals(expectedSafe, deductions.getSafePositions());
+        assertEquals(new HashSet<>(TestBoards.oneTwoOneMines()), 
+                deductions.getMinePositions());
+    }
+    
+    /**
+     * Test of deduce function, of class GaussianEliminationEngine. Before 
+     * anything is revealed, nothing can be deduced.
+     */
+    @Test
+    public void testDeduceNothingRevealed() {
+        Board board = Board.makeBoard(10, new Position(8, 8));
+        Deductions deductions = new GaussianEliminationEngine().deduce(board);
+        assert deductions.isEmpty() : "Nothing should be deduced from nothing";
+    }
+    
+    /**
+     * Test of deduce function, of class GaussianEliminationEngine. Whatever 
+     * the engine deduces should have probability 0 or 1 according to the 
+     * probability solver, all the way through a number of games. The games 
+     * are played by making the deduced moves and, when there are none, 
+     * revealing a position known to be safe from the mine locations.
+     */
+    @Test
+    public void testDeduceAgreesWithProbabilities() {
+        Position corner = new Position(8, 8);
+        Position start = new Position(4, 4);
+        Random random = new Random(32L);
+        GaussianEliminationEngine engine = new GaussianEliminationEngine();
+        ProbabilitySolver solver = new ProbabilitySolver();
+        int deducedTotal = 0;
+        for (int game = 0; game < 20; game++) {
+            HashSet<Position> mines = TestBoards.randomMines(corner, 12, start, 
+                    random);
+            Board board = TestBoards.withMines(corner, mines);
+            board.reveal(start);
+            while (board.gameUnderway()) {
+                Deductions deductions = engine.deduce(board);
+                Deductions exact = solver.deduce(board);
+                for (Position position : deductions.getSafePositions()) {
+                    assert exact.getSafePositions().contains(position) 
+                            : position.toString() + " should be safe";
+                    assert !mines.contains(position) 
+                            : position.toString() + " has a mine";
+                }
+                for (Position position : deductions.getMinePositions()) {
+                    assert exact.getMinePositions().contains(position) 
+                            : position.toString() + " should be mined";
+                    assert mines.contains(position) 
+                            : position.toString() + " has no mine";
+                }
+                if (deductions.isEmpty()) {
+                    TestBoards.makeSafeMove(board, mines);
+                } else {
+                    deducedTotal += deductions.getSafePositions().size() 
+                            + deductions.getMinePositions().size();
+                    for (Position position : deductions.getSafePositions()) {
+                        if (board.query(position)
+                                .equals(PositionStatus.COVERED)) {
+                            board.reveal(position);
+                        }
+                    }
+                    deductions.getMinePositions().forEach(board::flag);
+                }
+            }
+            assert board.gameWon() : "Playing only safe moves should win";
+        }
+        assert deducedTotal > 100 : "Engine should have deduced plenty, not " 
+                + deducedTotal;
+    }
+    
+}
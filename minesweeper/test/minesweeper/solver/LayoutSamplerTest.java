@@ -0,0 +1,347 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import minesweeper.Board;
+import minesweeper.Position;
+import minesweeper.PositionStatus;
+import minesweeper.TestBoards;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the LayoutSampler class.
+ * @author Alonso del Arte
+ */
+public class LayoutSamplerTest {
+    
+    private static final Position ORIGIN = new Position(0, 0);
+    
+    private static final double TEST_DELTA = 0.01;
+    
+    /**
+     * Plays a pseudorandom game on a 9 by 9 board with 10 mines part of the 
+     * way, revealing a few positions without mines and flagging a few with.
+     */
+    private static Board midGame(Random random) {
+        Position corner = new Position(8, 8);
+        Position start = new Position(random.nextInt(9), random.nextInt(9));
+        HashSet<Position> mines = TestBoards.randomMines(corner, 10, start, 
+                random);
+        Board board = TestBoards.withMines(corner, mines);
+        board.reveal(start);
+        for (int i = 0; i < 6 && board.gameUnderway(); i++) {
+            Position guess = new Position(random.nextInt(9), 
+                    random.nextInt(9));
+            if (board.query(guess).equals(PositionStatus.COVERED)) {
+                if (mines.contains(guess)) {
+                    board.flag(guess);
+                } else {
+                    board.reveal(guess);
+                }
+            }
+        }
+        return board;
+    }
+    
+    private static HashSet<Position> toPositions(long[] layout, 
+            List<Position> covered) {
+        HashSet<Position> mines = new HashSet<>();
+        for (int i = 0; i < covered.size(); i++) {
+            if ((layout[i >>> 6] & (1L << i)) != 0) {
+                mines.add(covered.get(i));
+            }
+        }
+        return mines;
+    }
+    
+    /**
+     * Checks that a layout agrees with every revealed number and has as many 
+     * mines as remain to be flagged.
+     */
+    private static void assertConsistent(Board board, 
+            HashSet<Position> layout) {
+        assertEquals(board.getMineCount() - board.getFlagCount(), 
+                layout.size());
+        Position corner = board.getMaxCorner();
+        for (Position curr = ORIGIN; curr.isWithinBounds(corner); 
+                curr = curr.nextColumnWithReset(corner)) {
+            int number = BoardView.numberOf(board.query(curr));
+            if (number >= 0) {
+                int count = 0;
+                for (Position neighbor : curr.getNeighbors(corner)) {
+                    PositionStatus status = board.query(neighbor);
+                    if (layout.contains(neighbor) 
+                            || status.equals(PositionStatus.FLAGGED)) {
+                        count++;
+                    }
+                }
+                String msg = "Layout " + layout + " should agree with " 
+                        + number + " at " + curr;
+                assertEquals(msg, number, count);
+            }
+            if (layout.contains(curr)) {
+                assertEquals(PositionStatus.COVERED, board.query(curr));
+            }
+        }
+    }
+    
+    /**
+     * Draws many layouts and checks the frequency of a mine at each covered 
+     * position against the exact probability.
+     */
+    private static void assertFrequencies(Board board, LayoutSampler sampler, 
+            int draws, double delta) {
+        MineProbabilities expected 
+                = new ProbabilitySolver().computeProbabilities(board);
+        List<Position> covered = sampler.getCoveredPositions();
+        int[] tallies = new int[covered.size()];
+        long[] layout = new long[sampler.getWordCount()];
+        Random random = new Random(draws);
+        for (int d = 0; d < draws; d++) {
+            sampler.sample(random, layout);
+            if (d < 100) {
+                assertConsistent(board, toPositions(layout, covered));
+            }
+            for (int i = 0; i < tallies.length; i++) {
+                if ((layout[i >>> 6] & (1L << i)) != 0) {
+                    tallies[i]++;
+                }
+            }
+        }
+        for (int i = 0; i < tallies.length; i++) {
+            Position position = covered.get(i);
+            String msg = "Frequency of mine at " + position 
+                    + " should be close to the exact probability";
+            assertEquals(msg, expected.getProbability(position), 
+                    (double) tallies[i] / draws, delta);
+        }
+    }
+    
+    /**
+     * Test of sample function, of class LayoutSampler. Over many draws, each 
+     * position should be mined about as often as the exact probability says.
+     */
+    @Test
+    public void testSample() {
+        System.out.println("sample");
+        Random random = new Random(38L);
+        for (int game = 0; game < 10; game++) {
+            Board board = midGame(random);
+            if (board.gameUnderway()) {
+                LayoutSampler sampler = new LayoutSampler(board);
+                assert sampler.isExact() : "Small board should be enumerated";
+                assertFrequencies(board, sampler, 50000, TEST_DELTA);
+            }
+        }
+    }
+    
+    /**
+     * Another test of sample function, of class LayoutSampler. On a board 
+     * small enough to list every layout, each layout should be drawn about 
+     * equally often, even though the layouts put different numbers of mines 
+     * on the frontier.
+     */
+    @Test
+    public void testSampleUniform() {
+        Position corner = new Position(2, 3);
+        ArrayList<Position> mines = new ArrayList<>();
+        mines.add(new Position(0, 3));
+        mines.add(new Position(2, 3));
+        mines.add(new Position(2, 2));
+        Board board = TestBoards.withMines(corner, mines);
+        board.reveal(ORIGIN);
+        LayoutSampler sampler = new LayoutSampler(board);
+        HashMap<HashSet<Position>, Integer> tallies = new HashMap<>();
+        Random random = new Random(2022L);
+        int draws = 60000;
+        for (int d = 0; d < draws; d++) {
+            HashSet<Position> layout = sampler.sample(random);
+            tallies.merge(layout, 1, Integer::sum);
+        }
+        for (HashSet<Position> layout : tallies.keySet()) {
+            assertConsistent(board, layout);
+        }
+        Map<Position, Double> frontier = new ProbabilitySolver()
+                .computeProbabilities(board).getFrontierProbabilities();
+        assertEquals(frontier.size(), sampler.getFrontierSize());
+        double expected = 1.0 / tallies.size();
+        for (Map.Entry<HashSet<Position>, Integer> entry 
+                : tallies.entrySet()) {
+            String msg = "Layout " + entry.getKey() + " should be drawn about " 
+                    + expected + " of the time";
+            assertEquals(msg, expected, (double) entry.getValue() / draws, 
+                    TEST_DELTA);
+        }
+    }
+    
+    /**
+     * Another test of sample function, of class LayoutSampler. With an 
+     * enumeration limit of 0, every component goes to the Markov chain, which 
+     * should still give close to the exact probabilities in the long run.
+     */
+    @Test
+    public void testSampleMarkovChain() {
+        Random random = new Random(1031L);
+        int checked = 0;
+        while (checked < 5) {
+            Board board = midGame(random);
+            if (!board.gameUnderway() || board.getFrontierSize() == 0) {
+                continue;
+            }
+            LayoutSampler sampler = new LayoutSampler(board, 0);
+            assertFalse(sampler.isExact());
+            assertFrequencies(board, sampler, 50000, 3 * TEST_DELTA);
+            checked++;
+        }
+    }
+    
+    /**
+     * Another test of sample function, of class LayoutSampler. On small 
+     * boards the first satisfying assignment of the frontier often has a 
+     * number of mines that the rest of the board can't make up, such as on 
+     * the 3 by 4 and 4 by 4 boards from seeds 231, 250 and 381. Wherever an 
+     * exact sampler can be made, the Markov chain should also find a 
+     * starting point and give consistent layouts.
+     */
+    @Test
+    public void testSampleMarkovChainSmallBoards() {
+        Random random = new Random(1032L);
+        for (int rows = 3; rows <= 4; rows++) {
+            Position corner = new Position(rows - 1, 3);
+            for (int mines = 1; mines <= 8; mines++) {
+                for (long seed = 0; seed < 400; seed++) {
+                    Board board = Board.makeBoard(mines, corner, seed);
+                    board.reveal(ORIGIN);
+                    if (!board.gameUnderway()) {
+                        continue;
+                    }
+                    try {
+                        new LayoutSampler(board);
+                    } catch (IllegalStateException ise) {
+                        continue;
+                    }
+                    LayoutSampler sampler = new LayoutSampler(board, 0);
+                    for (int d = 0; d < 10; d++) {
+                        assertConsistent(board, sampler.sample(random));
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Test of sampleFrontier function, of class LayoutSampler.
+     */
+    @Test
+    public void testSampleFrontier() {
+        System.out.println("sampleFrontier");
+        Random random = new Random(1033L);
+        Board board = midGame(random);
+        while (!board.gameUnderway() || board.getFrontierSize() == 0) {
+            board = midGame(random);
+        }
+        LayoutSampler sampler = new LayoutSampler(board);
+        int size = sampler.getFrontierSize();
+        long[] layout = new long[sampler.getWordCount()];
+        for (int d = 0; d < 1000; d++) {
+            int others = sampler.sampleFrontier(random, layout);
+            int onFrontier = 0;
+            for (int i = 0; i < size; i++) {
+                if ((layout[i >>> 6] & (1L << i)) != 0) {
+                    onFrontier++;
+                }
+            }
+            assertEquals(board.getMineCount() - board.getFlagCount(), 
+                    onFrontier + others);
+        }
+    }
+    
+    /**
+     * Test of getCoveredPositions function, of class LayoutSampler. The 
+     * frontier should come first.
+     */
+    @Test
+    public void testGetCoveredPositions() {
+        System.out.println("getCoveredPositions");
+        Board board = midGame(new Random(1039L));
+        LayoutSampler sampler = new LayoutSampler(board);
+        List<Position> covered = sampler.getCoveredPositions();
+        assertEquals(board.getCoveredCount(), covered.size());
+        assertEquals(board.getCoveredCount(), 
+                new HashSet<>(covered).size());
+        HashSet<Position> frontier = new HashSet<>();
+        board.frontierIterator().forEachRemaining(frontier::add);
+        assertEquals(frontier, 
+                new HashSet<>(covered.subList(0, sampler.getFrontierSize())));
+        assertEquals((covered.size() + 63) / 64, sampler.getWordCount());
+    }
+    
+    /**
+     * Test of copy function, of class LayoutSampler. The copy should draw 
+     * layouts that agree with the board, and so should the original 
+     * afterwards.
+     */
+    @Test
+    public void testCopy() {
+        System.out.println("copy");
+        Random random = new Random(1049L);
+        Board board = midGame(random);
+        while (!board.gameUnderway() || board.getFrontierSize() == 0) {
+            board = midGame(random);
+        }
+        LayoutSampler sampler = new LayoutSampler(board, 0);
+        LayoutSampler copy = sampler.copy();
+        for (int d = 0; d < 100; d++) {
+            assertConsistent(board, copy.sample(random));
+            assertConsistent(board, sampler.sample(random));
+        }
+    }
+    
+    /**
+     * Test of constructor, of class LayoutSampler. A negative enumeration 
+     * limit should be rejected.
+     */
+    @Test
+    public void testConstructorRejectsNegativeLimit() {
+        Board board = midGame(new Random(1051L));
+        try {
+            LayoutSampler sampler = new LayoutSampler(board, -1);
+            String msg = "Enumeration limit -1 should have caused an " 
+                    + "exception, not given " + sampler.toString();
+            fail(msg);
+        } catch (IllegalArgumentException iae) {
+            System.out.println("Enumeration limit -1 correctly caused " 
+                    + "IllegalArgumentException");
+            System.out.println("\"" + iae.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for enumeration " 
+                    + "limit -1";
+            fail(msg);
+        }
+    }
+    
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import minesweeper.Board;
+import minesweeper.Position;
+import minesweeper.PositionStatus;
+import minesweeper.TestBoards;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the MonteCarloPlayer class.
+ * @author Alonso del Arte
+ */
+public class MonteCarloPlayerTest {
+    
+    private static final Position BEGINNER_CORNER = new Position(8, 8);
+    
+    private static Board beginnerBoard(Random random) {
+        Position start = new Position(random.nextInt(9), random.nextInt(9));
+        HashSet<Position> mines = TestBoards.randomMines(BEGINNER_CORNER, 10, 
+                start, random);
+        Board board = TestBoards.withMines(BEGINNER_CORNER, mines);
+        board.reveal(start);
+        return board;
+    }
+    
+    /**
+     * Test of chooseMove function, of class MonteCarloPlayer. When a position 
+     * is certainly safe, it should be chosen without searching.
+     */
+    @Test
+    public void testChooseMove() {
+        System.out.println("chooseMove");
+        Board board = TestBoards.oneTwoOne();
+        MonteCarloPlayer player = new MonteCarloPlayer(1000, 
+                ForkJoinPool.commonPool(), 1, 0L);
+        Position move = player.chooseMove(board);
+        assertFalse(TestBoards.oneTwoOneMines().contains(move));
+        assertEquals(PositionStatus.COVERED, board.query(move));
+        assertEquals(0L, player.getRolloutCount());
+    }
+    
+    /**
+     * Another test of chooseMove function, of class MonteCarloPlayer. When 
+     * the player has to guess, the guess should be a covered position not 
+     * much more likely to be mined than the safest.
+     */
+    @Test
+    public void testChooseMoveGuess() {
+        Random random = new Random(39L);
+        MonteCarloPlayer player = new MonteCarloPlayer(20, 
+                ForkJoinPool.commonPool(), 2, 39L);
+        ProbabilitySolver solver = new ProbabilitySolver();
+        int guesses = 0;
+        while (guesses < 5) {
+            Board board = beginnerBoard(random);
+            MineProbabilities probabilities 
+                    = solver.computeProbabilities(board);
+            if (!board.gameUnderway() 
+                    || !probabilities.getSafePositions().isEmpty() 
+                    || probabilities.getFrontierProbabilities().isEmpty()) {
+                continue;
+            }
+            double lowest = probabilities.getOtherProbability();
+            for (double p : probabilities.getFrontierProbabilities()
+                    .values()) {
+                lowest = Math.min(lowest, p);
+            }
+            Position move = player.chooseMove(board);
+            assertEquals(PositionStatus.COVERED, board.query(move));
+            double chosen = probabilities.getProbability(move);
+            String msg = "Guess " + move + " with probability " + chosen 
+                    + " should not be much riskier than " + lowest;
+            assert chosen <= lowest + 0.2 : msg;
+            guesses++;
+        }
+        assert player.getRolloutCount() > 0 : "Should have run rollouts";
+        assert player.getRolloutsPerSecond() > 0.0 
+                : "Rollout rate should be positive";
+    }
+    
+    /**
+     * Test of play function, of class MonteCarloPlayer. On beginner boards, 
+     * the player should win most games, and keep count.
+     */
+    @Test
+    public void testPlay() {
+        System.out.println("play");
+        Random random = new Random(1061L);
+        MonteCarloPlayer player = new MonteCarloPlayer(5, 
+                ForkJoinPool.commonPool(), 1, 1061L);
+        int wins = 0;
+        for (int game = 0; game < 10; game++) {
+            Board board = beginnerBoard(random);
+            boolean won = player.play(board);
+            assertFalse(board.gameUnderway());
+            assertEquals(board.gameWon(), won);
+            if (won) {
+                wins++;
+            }
+        }
+        assertEquals(10L, player.getGamesPlayed());
+        assertEquals(wins, player.getGamesWon());
+        assertEquals(wins / 10.0, player.getWinRate(), 0.0000001);
+        String msg = "Should have won at least 6 of 10 games, won " + wins;
+        assert wins >= 6 : msg;
+    }
+    
+    /**
+     * Test of getWinRate function, of class MonteCarloPlayer. Before any games 
+     * are played, the rate should be 0.
+     */
+    @Test
+    public void testGetWinRate() {
+        System.out.println("getWinRate");
+        MonteCarloPlayer player = new MonteCarloPlayer(10, 0L);
+        assertEquals(0.0, player.getWinRate(), 0.0);
+        assertEquals(0.0, player.getRolloutsPerSecond(), 0.0);
+    }
+    
+    /**
+     * Test of constructor, of class MonteCarloPlayer. A negative time budget 
+     * should be rejected.
+     */
+    @Test
+    public void testConstructorRejectsNegativeTime() {
+        try {
+            MonteCarloPlayer player = new MonteCarloPlayer(-1, 0L);
+            String msg = "Time per move -1 ms should have caused an " 
+                    + "exception, not given " + player.toString();
+            fail(msg);
+        } catch (IllegalArgumentException iae) {
+            System.out.println("Time per move -1 ms correctly caused " 
+                    + "IllegalArgumentException");
+            System.out.println("\"" + iae.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for time per move " 
+                    + "-1 ms";
+            fail(msg);
+        }
+    }
+    
+    /**
+     * Another test of constructor, of class MonteCarloPlayer. A tree count 
+     * less than 1 should be rejected.
+     */
+    @Test
+    public void testConstructorRejectsNoTrees() {
+        try {
+            MonteCarloPlayer player = new MonteCarloPlayer(10, 
+                    ForkJoinPool.commonPool(), 0, 0L);
+            String msg = "Tree count 0 should have caused an exception, not " 
+                    + "given " + player.toString();
+            fail(msg);
+        } catch (IllegalArgumentException iae) {
+            System.out.println("Tree count 0 correctly caused " 
+                    + "IllegalArgumentException");
+            System.out.println("\"" + iae.getMessage() + "\"");
+        } catch (RuntimeException re) {
+            String msg = re.getClass().getName() 
+                    + " is the wrong exception to throw for tree count 0";
+            fail(msg);
+        }
+    }
+    
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the PairPatternTable class.
+ * @author Alonso del Arte
+ */
+public class PairPatternTableTest {
+    
+    /**
+     * Test of getInstance function, of class PairPatternTable. The shipped 
+     * resource should be the same as a freshly generated table; if it isn't, 
+     * it needs to be generated again with the main function.
+     * @throws IOException If the resource can't be read.
+     */
+    @Test
+    public void testGetInstance() throws IOException {
+        System.out.println("getInstance");
+        assertNotNull(PairPatternTable.class
+                .getResourceAsStream(PairPatternTable.RESOURCE_NAME));
+        assertEquals(PairPatternTable.generate(), 
+                PairPatternTable.getInstance());
+    }
+    
+    /**
+     * Test of write and read functions, of class PairPatternTable.
+     * @throws IOException If the table can't be written or read back.
+     */
+    @Test
+    public void testWriteAndRead() throws IOException {
+        System.out.println("write");
+        PairPatternTable table = PairPatternTable.generate();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        table.write(out);
+        PairPatternTable copy = PairPatternTable.read(
+                new ByteArrayInputStream(out.toByteArray()));
+        assertEquals(table, copy);
+    }
+    
+    /**
+     * Test of read function, of class PairPatternTable. A stream that isn't 
+     * a table should be rejected.
+     * @throws IOException If the table can't be written.
+     */
+    @Test(expected = IOException.class)
+    public void testReadRejectsOtherData() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        GZIPOutputStream gzip 
+                = new GZIPOutputStream(out);
+        gzip.write(new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        gzip.close();
+        PairPatternTable table = PairPatternTable.read(
+                new ByteArrayInputStream(out.toByteArray()));
+        System.out.println("Should not have read " + table.toString());
+    }
+    
+    /**
+     * Test of lookup function, of class PairPatternTable. A 1 seeing 
+     * positions 3 and 5 next to a 1 seeing 3, 5 and 7 means 7 is safe. A 1 
+     * seeing 3 and 5 next to a 2 seeing 3, 5 and 8 means 8 is mined.
+     */
+    @Test
+    public void testLookup() {
+        System.out.println("lookup");
+        PairPatternTable table = PairPatternTable.getInstance();
+        int covered = (1 << 3) | (1 << 5) | (1 << 7);
+        int entry = table.lookup(covered, 1, 1);
+        assertEquals(1 << 7, PairPatternTable.safeMask(entry));
+        assertEquals(0, PairPatternTable.mineMask(entry));
+        covered = (1 << 3) | (1 << 5) | (1 << 8);
+        entry = table.lookup(covered, 1, 2);
+        assertEquals(0, PairPatternTable.safeMask(entry));
+        assertEquals(1 << 8, PairPatternTable.mineMask(entry));
+    }
+    
+    /**
+     * Test of lookup function, of class PairPatternTable. Counts that are out 
+     * of range or can't be met should give nothing.
+     */
+    @Test
+    public void testLookupImpossible() {
+        PairPatternTable table = PairPatternTable.getInstance();
+        int covered = (1 << 3) | (1 << 5);
+        assertEquals(0, table.lookup(covered, 3, 0));
+        assertEquals(0, table.lookup(covered, -1, 0));
+        assertEquals(0, table.lookup(covered, 0, 9));
+    }
+    
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Random;
+
+import minesweeper.Board;
+import minesweeper.Position;
+import minesweeper.PositionStatus;
+import minesweeper.TestBoards;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the PatternEngine class.
+ * @author Alonso del Arte
+ */
+public class PatternEngineTest {
+    
+    private static final Position ORIGIN = new Position(0, 0);
+    
+    /**
+     * Test of deduce function, of class PatternEngine. The numbers 1, 1, 2, 
+     * 1, 1 under a covered row are worked out completely by pairs.
+     */
+    @Test
+    public void testDeduce() {
+        System.out.println("deduce");
+        Board board = TestBoards.oneTwoOne();
+        Deductions deductions = new PatternEngine().deduce(board);
+        HashSet<Position> expectedSafe = new HashSet<>();
+        expectedSafe.add(ORIGIN);
+        expectedSafe.add(new Position(0, 2));
+        expectedSafe.add(new Position(0, 4));
+        assertEquals(expectedSafe, deductions.getSafePositions());
+        assertEquals(new HashSet<>(TestBoards.oneTwoOneMines()), 
+                deductions.getMinePositions());
+    }
+    
+    /**
+     * Test of deduce function, of class PatternEngine. The same pattern 
+     * turned on its side should be worked out the same way.
+     */
+    @Test
+    public void testDeduceVertical() {
+        Position corner = new Position(4, 2);
+        ArrayList<Position> mines = new ArrayList<>();
+        mines.add(new Position(1, 0));
+        mines.add(new Position(3, 0));
+        Board board = TestBoards.withMines(corner, mines);
+        board.reveal(new Position(0, 2));
+        Deductions deductions = new PatternEngine().deduce(board);
+        HashSet<Position> expectedSafe = new HashSet<>();
+        expectedSafe.add(ORIGIN);
+        expectedSafe.add(new Position(2, 0));
+        expectedSafe.add(new Position(4, 0));
+        assertEquals(expectedSafe, deductions.getSafePositions());
+        assertEquals(new HashSet<>(mines), deductions.getMinePositions());
+    }
+    
+    /**
+     * Test of deduce and deduceAround functions, of class PatternEngine. 
+     * Whatever the patterns show should be borne out by the probability 
+     * solver, and what turns up around the last move should be part of what 
+     * turns up on the whole board.
+     */
+    @Test
+    public void testDeduceAgreesWithProbabilities() {
+        Position corner = new Position(15, 15);
+        Position start = new Position(8, 8);
+        Random random = new Random(34L);
+        PatternEngine engine = new PatternEngine();
+        ProbabilitySolver solver = new ProbabilitySolver();
+        int deducedTotal = 0;
+        for (int game = 0; game < 10; game++) {
+            HashSet<Position> mines = TestBoards.randomMines(corner, 40, start, 
+                    random);
+            Board board = TestBoards.withMines(corner, mines);
+            board.reveal(start);
+            Position lastMove = start;
+            while (board.gameUnderway()) {
+                Deductions deductions = engine.deduce(board);
+                Deductions exact = solver.deduce(board);
+                assert exact.getSafePositions()
+                        .containsAll(deductions.getSafePositions()) 
+                        : "Safe positions should be safe: " + deductions;
+                assert exact.getMinePositions()
+                        .containsAll(deductions.getMinePositions()) 
+                        : "Mined positions should be mined: " + deductions;
+                Deductions around = engine.deduceAround(board, lastMove);
+                assert deductions.getSafePositions()
+                        .containsAll(around.getSafePositions()) 
+                        : "Local safe positions should be found globally";
+                assert deductions.getMinePositions()
+                        .containsAll(around.getMinePositions()) 
+                        : "Local mines should be found globally";
+                deducedTotal += deductions.getSafePositions().size() 
+                        + deductions.getMinePositions().size();
+                lastMove = null;
+                for (Position position : deductions.getSafePositions()) {
+                    if (board.query(position).equals(PositionStatus.COVERED)) {
+                        board.reveal(position);
+                        lastMove = position;
+                    }
+                }
+                for (Position position : deductions.getMinePositions()) {
+                    board.flag(position);
+                    lastMove = position;
+                }
+                if (lastMove == null) {
+                    lastMove = TestBoards.makeSafeMove(board, mines);
+                }
+            }
+            assert board.gameWon() : "Playing only safe moves should win";
+        }
+        assert deducedTotal > 200 : "Engine should have deduced plenty, not " 
+                + deducedTotal;
+    }
+    
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+
+import minesweeper.Board;
+import minesweeper.Position;
+import minesweeper.PositionStatus;
+import minesweeper.TestBoards;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the ProbabilitySolver class.
+ * @author Alonso del Arte
+ */
+public class ProbabilitySolverTest {
+    
+    private static final double TEST_DELTA = 0.000000001;
+    
+    private static final Position ORIGIN = new Position(0, 0);
+    
+    /**
+     * Computes probabilities the slow way, by trying every way of putting the 
+     * remaining mines on the covered positions.
+     */
+    private static Map<Position, Double> bruteForce(Board board) {
+        Position corner = board.getMaxCorner();
+        ArrayList<Position> covered = new ArrayList<>();
+        HashSet<Position> flagged = new HashSet<>();
+        ArrayList<Position> numbers = new ArrayList<>();
+        for (Position curr = ORIGIN; curr.isWithinBounds(corner); 
+                curr = curr.nextColumnWithReset(corner)) {
+            PositionStatus status = board.query(curr);
+            if (status.equals(PositionStatus.COVERED)) {
+                covered.add(curr);
+            } else if (status.equals(PositionStatus.FLAGGED)) {
+                flagged.add(curr);
+            } else if (BoardView.numberOf(status) > 0) {
+                numbers.add(curr);
+            }
+        }
+        int remaining = board.getMineCount() - flagged.size();
+        int n = covered.size();
+        double[] mineTallies = new double[n];
+        double total = 0.0;
+        for (long mask = 0; mask < (1L << n); mask++) {
+            if (Long.bitCount(mask) != remaining) {
+                continue;
+            }
+            HashSet<Position> mines = new HashSet<>(flagged);
+            for (int i = 0; i < n; i++) {
+                if ((mask & (1L << i)) != 0) {
+                    mines.add(covered.get(i));
+                }
+            }
+            boolean consistent = true;
+            for (Position number : numbers) {
+                int count = 0;
+                for (Position neighbor : number.getNeighbors(corner)) {
+                    if (mines.contains(neighbor)) {
+                        count++;
+                    }
+                }
+                if (count != BoardView.numberOf(board.query(number))) {
+                    consistent = false;
+                    break;
+                }
+            }
+            if (consistent) {
+                total++;
+                for (int i = 0; i < n; i++) {
+                    if ((mask & (1L << i)) != 0) {
+                        mineTallies[i]++;
+                    }
+                }
+            }
+        }
+        HashMap<Position, Double> result = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            result.put(covered.get(i), mineTallies[i] / total);
+        }
+        return result;
+    }
+    
+    /**
+     * Test of computeProbabilities function, of class ProbabilitySolver. With 
+     * one mine and a 1 touching all three covered positions, each position 
+     * should have probability one third.
+     */
+    @Test
+    public void testComputeProbabilities() {
+        System.out.println("computeProbabilities");
+        Position corner = new Position(1, 1);
+        ArrayList<Position> mines = new ArrayList<>();
+        mines.add(new Position(0, 1));
+        Board board = TestBoards.withMines(corner, mines);
+        board.reveal(new Position(1, 0));
+        MineProbabilities probabilities 
+                = new ProbabilitySolver().computeProbabilities(board);
+        assertEquals(1.0 / 3, probabilities.getProbability(ORIGIN), 
+                TEST_DELTA);
+        assertEquals(1.0 / 3, probabilities.getProbability(corner), 
+                TEST_DELTA);
+        assertEquals(3, probabilities.getFrontierProbabilities().size());
+    }
+    
+    /**
+     * Another test of computeProbabilities function, of class 
+     * ProbabilitySolver. The total number of mines should be taken into 
+     * account for positions away from the frontier.
+     */
+    @Test
+    public void testComputeProbabilitiesAwayFromFrontier() {
+        Position corner = new Position(2, 2);
+        ArrayList<Position> mines = new ArrayList<>();
+        mines.add(new Position(1, 1));
+        mines.add(new Position(2, 2));
+        mines.add(new Position(0, 2));
+        Board board = TestBoards.withMines(corner, mines);
+        board.reveal(ORIGIN);
+        MineProbabilities probabilities 
+                = new ProbabilitySolver().computeProbabilities(board);
+        assertEquals(1.0 / 3, probabilities.getProbability(new Position(0, 1)), 
+                TEST_DELTA);
+        assertEquals(2.0 / 5, probabilities.getOtherProbability(), TEST_DELTA);
+    }
+    
+    /**
+     * Another test of computeProbabilities function, of class 
+     * ProbabilitySolver. On small pseudorandom boards, the probabilities 
+     * should match those found by brute force.
+     */
+    @Test
+    public void testComputeProbabilitiesMatchesBruteForce() {
+        Random random = new Random(1019L);
+        Position corner = new Position(4, 5);
+        int checked = 0;
+        while (checked < 40) {
+            Position start = new Position(random.nextInt(5), random.nextInt(6));
+            HashSet<Position> mines = TestBoards.randomMines(corner, 7, start, 
+                    random);
+            Board board = TestBoards.withMines(corner, mines);
+            board.reveal(start);
+            for (int i = 0; i < 3 && board.gameUnderway(); i++) {
+                Position guess = new Position(random.nextInt(5), 
+                        random.nextInt(6));
+                PositionStatus status = board.query(guess);
+                if (status.equals(PositionStatus.COVERED) 
+                        && !mines.contains(guess)) {
+                    board.reveal(guess);
+                } else if (status.equals(PositionStatus.COVERED)) {
+                    board.flag(guess);
+                }
+            }
+            if (!board.gameUnderway()) {
+                continue;
+            }
+            Map<Position, Double> expected = bruteForce(board);
+            if (expected.size() > 22) {
+                continue;
+            }
+            MineProbabilities actual 
+                    = new ProbabilitySolver().computeProbabilities(board);
+            for (Map.Entry<Position, Double> entry : expected.entrySet()) {
+                assertEquals(entry.getKey().toString(), entry.getValue(), 
+                        actual.getProbability(entry.getKey()), TEST_DELTA);
+            }
+            checked++;
+        }
+    }
+    
+    /**
+     * Test of getSafePositions and getMinePositions functions, of class 
+     * MineProbabilities.
+     */
+    @Test
+    public void testSafeAndMinePositions() {
+        System.out.println("getSafePositions, getMinePositions");
+        Position corner = new Position(0, 9);
+        Position frontierMine = new Position(0, 6);
+        ArrayList<Position> mines = new ArrayList<>();
+        mines.add(corner);
+        mines.add(frontierMine);
+        Board board = TestBoards.withMines(corner, mines);
+        board.reveal(ORIGIN);
+        board.reveal(new Position(0, 7));
+        MineProbabilities probabilities 
+                = new ProbabilitySolver().computeProbabilities(board);
+        HashSet<Position> expected = new HashSet<>();
+        expected.add(frontierMine);
+        assertEquals(expected, probabilities.getMinePositions());
+        expected.clear();
+        expected.add(new Position(0, 8));
+        assertEquals(expected, probabilities.getSafePositions());
+        assertEquals(1.0, probabilities.getOtherProbability(), TEST_DELTA);
+    }
+    
+    /**
+     * Another test of computeProbabilities function, of class 
+     * ProbabilitySolver. Wrong flags can leave no arrangement of mines that 
+     * agrees with the board.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testComputeProbabilitiesInconsistentBoard() {
+        Position corner = new Position(0, 9);
+        ArrayList<Position> mines = new ArrayList<>();
+        mines.add(corner);
+        mines.add(new Position(0, 5));
+        Board board = TestBoards.withMines(corner, mines);
+        board.reveal(ORIGIN);
+        board.flag(new Position(0, 6));
+        board.flag(new Position(0, 7));
+        MineProbabilities probabilities 
+                = new ProbabilitySolver().computeProbabilities(board);
+        System.out.println("Should not have computed " 
+                + probabilities.toString());
+    }
+    
+}
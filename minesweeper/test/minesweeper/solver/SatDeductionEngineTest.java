@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import minesweeper.Board;
+import minesweeper.Position;
+import minesweeper.PositionStatus;
+import minesweeper.TestBoards;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the SatDeductionEngine class.
+ * @author Alonso del Arte
+ */
+public class SatDeductionEngineTest {
+    
+    private static final Position ORIGIN = new Position(0, 0);
+    
+    /**
+     * Test of isProvablySafe function, of class SatDeductionEngine. Queries 
+     * on a board that hasn't changed should reuse the encoding, and a change 
+     * to the board should bring about a new one.
+     */
+    @Test
+    public void testIsProvablySafe() {
+        System.out.println("isProvablySafe");
+        Board board = TestBoards.oneTwoOne();
+        SatDeductionEngine engine = new SatDeductionEngine(board);
+        boolean safe = engine.isProvablySafe(ORIGIN);
+        assertTrue("(0, 0) should be safe", safe);
+        safe = engine.isProvablySafe(new Position(0, 2));
+        assertTrue("(0, 2) should be safe", safe);
+        safe = engine.isProvablySafe(new Position(0, 3));
+        assertFalse("(0, 3) should not be safe", safe);
+        safe = engine.isProvablySafe(new Position(1, 1));
+        assertFalse("Revealed position should not count as safe", safe);
+        assertEquals(1, engine.getEncodingCount());
+        board.reveal(ORIGIN);
+        safe = engine.isProvablySafe(new Position(0, 4));
+        assertTrue("(0, 4) should still be safe", safe);
+        assertEquals(2, engine.getEncodingCount());
+        engine.detach();
+    }
+    
+    /**
+     * Test of isProvablyMined function, of class SatDeductionEngine.
+     */
+    @Test
+    public void testIsProvablyMined() {
+        System.out.println("isProvablyMined");
+        SatDeductionEngine engine 
+                = new SatDeductionEngine(TestBoards.oneTwoOne());
+        boolean mined = engine.isProvablyMined(new Position(0, 1));
+        assertTrue("(0, 1) should be mined", mined);
+        mined = engine.isProvablyMined(new Position(0, 2));
+        assertFalse("(0, 2) should not be mined", mined);
+    }
+    
+    /**
+     * Test of deduce function, of class SatDeductionEngine. The deductions 
+     * should be exactly the positions the probability solver gives 
+     * probability 0 or 1, all the way through a number of games.
+     */
+    @Test
+    public void testDeduce() {
+        System.out.println("deduce");
+        Position corner = new Position(8, 8);
+        Position start = new Position(4, 4);
+        Random random = new Random(33L);
+        ProbabilitySolver solver = new ProbabilitySolver();
+        for (int game = 0; game < 20; game++) {
+            HashSet<Position> mines = TestBoards.randomMines(corner, 14, start, 
+                    random);
+            Board board = TestBoards.withMines(corner, mines);
+            SatDeductionEngine engine = new SatDeductionEngine(board);
+            board.reveal(start);
+            while (board.gameUnderway()) {
+                Deductions deductions = engine.deduce(board);
+                Deductions exact = solver.deduce(board);
+                assertEquals(exact.getSafePositions(), 
+                        deductions.getSafePositions());
+                assertEquals(exact.getMinePositions(), 
+                        deductions.getMinePositions());
+                if (deductions.isEmpty()) {
+                    TestBoards.makeSafeMove(board, mines);
+                } else {
+                    for (Position position : deductions.getSafePositions()) {
+                        if (board.query(position)
+                                .equals(PositionStatus.COVERED)) {
+                            board.reveal(position);
+                        }
+                    }
+                    deductions.getMinePositions().forEach(board::flag);
+                }
+            }
+            assert board.gameWon() : "Playing only safe moves should win";
+            engine.detach();
+        }
+    }
+    
+    /**
+     * Test of deduce function, of class SatDeductionEngine. An engine should 
+     * refuse a board other than its own.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testDeduceOtherBoard() {
+        SatDeductionEngine engine 
+                = new SatDeductionEngine(TestBoards.oneTwoOne());
+        Deductions deductions = engine.deduce(TestBoards.oneTwoOne());
+        System.out.println("Should not have given " + deductions.toString());
+    }
+    
+}
@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the SatSolver class.
+ * @author Alonso del Arte
+ */
+public class SatSolverTest {
+    
+    private static boolean satisfies(SatSolver solver, int[][] clauses) {
+        for (int[] clause : clauses) {
+            boolean satisfied = false;
+            for (int literal : clause) {
+                if (solver.modelValue(literal >> 1) == ((literal & 1) == 0)) {
+                    satisfied = true;
+                }
+            }
+            if (!satisfied) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Test of solve function, of class SatSolver. Three pigeons don't fit in 
+     * two holes.
+     */
+    @Test
+    public void testSolvePigeonhole() {
+        System.out.println("solve");
+        SatSolver solver = new SatSolver();
+        int[][] inHole = new int[3][2];
+        for (int pigeon = 0; pigeon < 3; pigeon++) {
+            for (int hole = 0; hole < 2; hole++) {
+                inHole[pigeon][hole] = solver.newVariable();
+            }
+            solver.addClause(SatSolver.positive(inHole[pigeon][0]), 
+                    SatSolver.positive(inHole[pigeon][1]));
+        }
+        for (int hole = 0; hole < 2; hole++) {
+            for (int p = 0; p < 3; p++) {
+                for (int q = p + 1; q < 3; q++) {
+                    solver.addClause(SatSolver.negative(inHole[p][hole]), 
+                            SatSolver.negative(inHole[q][hole]));
+                }
+            }
+        }
+        assert !solver.solve() : "Three pigeons should not fit in two holes";
+    }
+    
+    /**
+     * Test of solve function, of class SatSolver. Random 3-SAT formulas with 
+     * few clauses per variable are almost always satisfiable, and the model 
+     * found should satisfy every clause. The answers should agree with trying 
+     * every assignment.
+     */
+    @Test
+    public void testSolveRandomFormulas() {
+        Random random = new Random(33L);
+        int variables = 12;
+        for (int trial = 0; trial < 200; trial++) {
+            int clauseCount = 30 + random.nextInt(40);
+            int[][] clauses = new int[clauseCount][3];
+            SatSolver solver = new SatSolver();
+            for (int v = 0; v < variables; v++) {
+                solver.newVariable();
+            }
+            for (int[] clause : clauses) {
+                for (int j = 0; j < 3; j++) {
+                    clause[j] = 2 * random.nextInt(variables) 
+                            + random.nextInt(2);
+                }
+                solver.addClause(clause);
+            }
+            boolean expected = false;
+            for (int mask = 0; mask < (1 << variables) && !expected; mask++) {
+                boolean all = true;
+                for (int[] clause : clauses) {
+                    boolean any = false;
+                    for (int literal : clause) {
+                        boolean value = (mask & (1 << (literal >> 1))) != 0;
+                        any |= value == ((literal & 1) == 0);
+                    }
+                    all &= any;
+                }
+                expected = all;
+            }
+            boolean actual = solver.solve();
+            assertEquals(expected, actual);
+            if (actual) {
+                assert satisfies(solver, clauses) 
+                        : "Model should satisfy every clause";
+            }
+        }
+    }
+    
+    /**
+     * Test of solve function, of class SatSolver. Assumptions should only 
+     * hold for the call they're given to.
+     */
+    @Test
+    public void testSolveWithAssumptions() {
+        SatSolver solver = new SatSolver();
+        int a = solver.newVariable();
+        int b = solver.newVariable();
+        solver.addClause(SatSolver.negative(a), SatSolver.positive(b));
+        assert solver.solve(SatSolver.positive(a)) : "a should be possible";
+        assert solver.modelValue(b) : "a implies b";
+        assert !solver.solve(SatSolver.positive(a), SatSolver.negative(b)) 
+                : "a and not b should be impossible";
+        assert solver.solve(SatSolver.negative(b)) 
+                : "Not b should still be possible";
+        assert !solver.modelValue(a) : "Not b implies not a";
+    }
+    
+    private static void checkCardinality(int n) {
+        for (int low = 0; low <= n; low++) {
+            for (int high = low; high <= n; high++) {
+                SatSolver solver = new SatSolver();
+                int[] literals = new int[n];
+                for (int i = 0; i < n; i++) {
+                    literals[i] = SatSolver.positive(solver.newVariable());
+                }
+                solver.addAtMost(literals, high);
+                solver.addAtLeast(literals, low);
+                int[] assumptions = new int[n];
+                for (int mask = 0; mask < (1 << n); mask++) {
+                    for (int i = 0; i < n; i++) {
+                        assumptions[i] = (mask & (1 << i)) != 0 ? literals[i] 
+                                : literals[i] ^ 1;
+                    }
+                    int count = Integer.bitCount(mask);
+                    boolean expected = count >= low && count <= high;
+                    String msg = "Between " + low + " and " + high 
+                            + " of mask " + mask;
+                    assertEquals(msg, expected, solver.solve(assumptions));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Test of addAtMost and addAtLeast functions, of class SatSolver. For 
+     * every assignment of five variables, the cardinality constraints should 
+     * be satisfiable exactly when the number of true variables is in range. 
+     * Five variables are encoded with a clause for each subset.
+     */
+    @Test
+    public void testCardinality() {
+        checkCardinality(5);
+    }
+    
+    /**
+     * Test of addAtMost and addAtLeast functions, of class SatSolver. Ten 
+     * variables are encoded with sequential counters.
+     */
+    @Test
+    public void testCardinalityWithCounters() {
+        checkCardinality(SatSolver.DIRECT_ENCODING_LIMIT + 2);
+    }
+    
+    /**
+     * Test of luby function, of class SatSolver.
+     */
+    @Test
+    public void testLuby() {
+        System.out.println("luby");
+        long[] expected = {1, 1, 2, 1, 1, 2, 4, 1, 1, 2, 1, 1, 2, 4, 8, 1};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], SatSolver.luby(i));
+        }
+    }
+    
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package minesweeper.solver;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the TranspositionCache class.
+ * @author Alonso del Arte
+ */
+public class TranspositionCacheTest {
+    
+    /**
+     * Test of get function, of class TranspositionCache.
+     */
+    @Test
+    public void testGet() {
+        System.out.println("get");
+        TranspositionCache<String> cache = new TranspositionCache<>(4);
+        assertNull(cache.get(1L));
+        cache.put(1L, "one");
+        assertEquals("one", cache.get(1L));
+        assertEquals(1L, cache.getHitCount());
+        assertEquals(1L, cache.getMissCount());
+    }
+    
+    /**
+     * Test of put function, of class TranspositionCache. When the cache is 
+     * full, the entry used least recently should go.
+     */
+    @Test
+    public void testPut() {
+        System.out.println("put");
+        TranspositionCache<String> cache = new TranspositionCache<>(3);
+        cache.put(1L, "one");
+        cache.put(2L, "two");
+        cache.put(3L, "three");
+        assertEquals("one", cache.get(1L));
+        cache.put(4L, "four");
+        assertEquals(3, cache.size());
+        assertNull(cache.get(2L));
+        assertEquals("one", cache.get(1L));
+        assertEquals("three", cache.get(3L));
+        assertEquals("four", cache.get(4L));
+    }
+    
+    /**
+     * Test of clear function, of class TranspositionCache.
+     */
+    @Test
+    public void testClear() {
+        System.out.println("clear");
+        TranspositionCache<String> cache = new TranspositionCache<>(3);
+        cache.put(1L, "one");
+        cache.get(1L);
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertEquals(1L, cache.getHitCount());
+    }
+    
+    /**
+     * Test of getCapacity function, of class TranspositionCache.
+     */
+    @Test
+    public void testGetCapacity() {
+        System.out.println("getCapacity");
+        assertEquals(1024, new TranspositionCache<>(1024).getCapacity());
+    }
+    
+    /**
+     * Test of constructor, of class TranspositionCache.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorRejectsZeroCapacity() {
+        TranspositionCache<String> cache = new TranspositionCache<>(0);
+        System.out.println("Should not have made cache " + cache.toString());
+    }
+    
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package ui.graphical;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import minesweeper.Board;
+import minesweeper.Position;
+import minesweeper.PositionStatus;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the BoardComponent class.
+ * @author Alonso del Arte
+ */
+public class BoardComponentTest {
+    
+    private static final int TILE_SIZE = 16;
+    
+    private static final TileCache TILES = new TileCache(TILE_SIZE);
+    
+    /**
+     * Test of positionAt function, of class BoardComponent.
+     */
+    @Test
+    public void testPositionAt() {
+        System.out.println("positionAt");
+        Position corner = new Position(9, 25);
+        Board board = Board.makeBoard(10, corner);
+        BoardComponent component = new BoardComponent(board, TILES);
+        assertEquals(new Position(0, 0), component.positionAt(0, 0));
+        assertEquals(new Position(2, 6), component.positionAt(100, 40));
+        assertEquals(corner, component.positionAt(26 * TILE_SIZE - 1, 
+                10 * TILE_SIZE - 1));
+        assertNull(component.positionAt(26 * TILE_SIZE, 0));
+        assertNull(component.positionAt(0, 10 * TILE_SIZE));
+        assertNull(component.positionAt(-1, 5));
+    }
+    
+    /**
+     * Test of getPreferredSize function, of class BoardComponent. The 
+     * component should be as large as the whole board, so that a scroll pane 
+     * can show any part of it.
+     */
+    @Test
+    public void testPreferredSizeCoversBoard() {
+        Position corner = new Position(7, 11);
+        Board board = Board.makeBoard(1, corner);
+        BoardComponent component = new BoardComponent(board, TILES);
+        assertEquals(12 * TILE_SIZE, component.getPreferredSize().width);
+        assertEquals(8 * TILE_SIZE, component.getPreferredSize().height);
+    }
+    
+    /**
+     * Test of paintComponent procedure, of class BoardComponent. Only the 
+     * positions within the clip should be painted, and they should be painted 
+     * with the tiles for their statuses.
+     */
+    @Test
+    public void testPaintComponent() {
+        System.out.println("paintComponent");
+        Position corner = new Position(3, 3);
+        Board board = Board.makeBoard(16, corner);
+        board.flag(new Position(1, 2));
+        BoardComponent component = new BoardComponent(board, TILES);
+        int side = 4 * TILE_SIZE;
+        BufferedImage image = new BufferedImage(side, side, 
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.MAGENTA);
+        g.fillRect(0, 0, side, side);
+        g.setClip(2 * TILE_SIZE, TILE_SIZE, TILE_SIZE, TILE_SIZE);
+        component.paintComponent(g);
+        g.dispose();
+        BufferedImage flagTile = TILES.getTile(PositionStatus.FLAGGED);
+        for (int i = 0; i < TILE_SIZE; i++) {
+            for (int j = 0; j < TILE_SIZE; j++) {
+                assertEquals(flagTile.getRGB(i, j), 
+                        image.getRGB(2 * TILE_SIZE + i, TILE_SIZE + j));
+            }
+        }
+        assertEquals(Color.MAGENTA.getRGB(), image.getRGB(0, 0));
+    }
+    
+    /**
+     * Test of applyPendingChanges procedure, of class BoardComponent. Changes 
+     * to the board should only be painted once they have been applied to the 
+     * component's snapshot.
+     */
+    @Test
+    public void testApplyPendingChanges() {
+        System.out.println("applyPendingChanges");
+        Position corner = new Position(3, 3);
+        Position position = new Position(1, 2);
+        Board board = Board.makeBoard(4, corner);
+        BoardComponent component = new BoardComponent(board, TILES);
+        board.flag(position);
+        int side = 4 * TILE_SIZE;
+        BufferedImage image = new BufferedImage(side, side, 
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setClip(0, 0, side, side);
+        component.paintComponent(g);
+        int x = 2 * TILE_SIZE + TILE_SIZE / 2;
+        int y = TILE_SIZE + TILE_SIZE / 2;
+        int half = TILE_SIZE / 2;
+        assertEquals(TILES.getTile(PositionStatus.COVERED).getRGB(half, half), 
+                image.getRGB(x, y));
+        component.applyPendingChanges();
+        component.paintComponent(g);
+        g.dispose();
+        assertEquals(TILES.getTile(PositionStatus.FLAGGED).getRGB(half, half), 
+                image.getRGB(x, y));
+    }
+    
+    /**
+     * Test of setMovesEnabled procedure, of class BoardComponent. With moves 
+     * disabled, a click should not start a move.
+     */
+    @Test
+    public void testSetMovesEnabled() {
+        System.out.println("setMovesEnabled");
+        Board board = Board.makeBoard(4, new Position(3, 3));
+        BoardComponent component = new BoardComponent(board, TILES);
+        assert !component.isMoveInProgress() : "No move should be underway";
+        component.setMovesEnabled(false);
+        component.dispatchEvent(new MouseEvent(component, 
+                MouseEvent.MOUSE_RELEASED, System.currentTimeMillis(), 0, 
+                TILE_SIZE / 2, TILE_SIZE / 2, 1, false, MouseEvent.BUTTON1));
+        assert !component.isMoveInProgress() 
+                : "Click should not have started a move";
+        assertEquals(PositionStatus.COVERED, 
+                board.query(new Position(0, 0)));
+    }
+    
+    /**
+     * Test of setMoveCallback procedure, of class BoardComponent. The callback 
+     * should hear that a click on a covered position made a move.
+     */
+    @Test
+    public void testSetMoveCallback() throws InterruptedException {
+        System.out.println("setMoveCallback");
+        Board board = Board.makeBoard(4, new Position(3, 3));
+        BoardComponent component = new BoardComponent(board, TILES);
+        CountDownLatch latch = new CountDownLatch(1);
+        boolean[] results = new boolean[1];
+        component.setMoveCallback(succeeded -> {
+            results[0] = succeeded;
+            latch.countDown();
+        });
+        component.dispatchEvent(new MouseEvent(component, 
+                MouseEvent.MOUSE_RELEASED, System.currentTimeMillis(), 0, 
+                TILE_SIZE / 2, TILE_SIZE / 2, 1, false, MouseEvent.BUTTON1));
+        boolean called = latch.await(10, TimeUnit.SECONDS);
+        assertTrue("Callback should have been called", called);
+        assertTrue("Reveal should have been reported as made", results[0]);
+        assertNotEquals(PositionStatus.COVERED, 
+                board.query(new Position(0, 0)));
+    }
+    
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package ui.graphical;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+import javax.imageio.ImageIO;
+
+import minesweeper.Board;
+import minesweeper.Position;
+import minesweeper.PositionStatus;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the DetailPyramid class.
+ * @author Alonso del Arte
+ */
+public class DetailPyramidTest {
+    
+    private static int[] countByQuerying(Board board, int level, 
+            Position position) {
+        int[] result = new int[3];
+        int side = 1 << level;
+        int startX = (position.getX() / side) * side;
+        int startY = (position.getY() / side) * side;
+        Position corner = board.getMaxCorner();
+        for (int x = startX; x < startX + side && x <= corner.getX(); x++) {
+            for (int y = startY; y < startY + side && y <= corner.getY(); y++) {
+                PositionStatus status = board.query(new Position(x, y));
+                switch (status) {
+                    case COVERED:
+                        result[0]++;
+                        break;
+                    case FLAGGED:
+                    case WRONGLY_FLAGGED:
+                        result[2]++;
+                        break;
+                    default:
+                        result[1]++;
+                }
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Test of getLevelCount function, of class DetailPyramid.
+     */
+    @Test
+    public void testGetLevelCount() {
+        System.out.println("getLevelCount");
+        Board board = Board.makeBoard(0, new Position(0, 0));
+        assertEquals(1, new DetailPyramid(board).getLevelCount());
+        board = Board.makeBoard(10, new Position(9, 25));
+        assertEquals(6, new DetailPyramid(board).getLevelCount());
+        board = Board.makeBoard(10, new Position(31, 31));
+        assertEquals(6, new DetailPyramid(board).getLevelCount());
+    }
+    
+    /**
+     * Test of blockCounts function, of class DetailPyramid. After a few moves, 
+     * the counts at every level should match what querying every position in 
+     * the block gives.
+     */
+    @Test
+    public void testBlockCountsStayUpToDate() {
+        System.out.println("blockCounts");
+        Position corner = new Position(36, 21);
+        Board board = Board.makeBoard(40, corner);
+        DetailPyramid pyramid = new DetailPyramid(board);
+        board.flag(new Position(3, 11));
+        board.flag(new Position(5, 20));
+        board.unflag(new Position(5, 20));
+        board.flag(new Position(7, 20));
+        Position curr = new Position(0, 0);
+        while (board.gameUnderway() && curr.isWithinBounds(corner)) {
+            if (board.query(curr).equals(PositionStatus.COVERED)) {
+                board.reveal(curr);
+            }
+            curr = curr.nextColumnWithReset(corner).nextColumnWithReset(corner);
+        }
+        for (int level = 0; level < pyramid.getLevelCount(); level++) {
+            for (int x = 0; x <= corner.getX(); x += 5) {
+                for (int y = 0; y <= corner.getY(); y += 3) {
+                    Position position = new Position(x, y);
+                    String msg = "Level " + level + " block with " 
+                            + position.toString();
+                    assertArrayEquals(msg, 
+                            countByQuerying(board, level, position), 
+                            pyramid.blockCounts(level, position));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Another test of blockCounts function, of class DetailPyramid.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testBlockCountsRejectsBadLevel() {
+        Board board = Board.makeBoard(10, new Position(9, 25));
+        DetailPyramid pyramid = new DetailPyramid(board);
+        int[] counts = pyramid.blockCounts(pyramid.getLevelCount(), 
+                new Position(0, 0));
+        System.out.println("Should not have gotten " + counts.length 
+                + " counts");
+    }
+    
+    /**
+     * Test of render procedure, of class DetailPyramid. A fully covered board 
+     * should render as a single color.
+     */
+    @Test
+    public void testRender() {
+        System.out.println("render");
+        Board board = Board.makeBoard(100, new Position(499, 299));
+        DetailPyramid pyramid = new DetailPyramid(board);
+        BufferedImage image = new BufferedImage(60, 100, 
+                BufferedImage.TYPE_INT_RGB);
+        pyramid.render(image);
+        int expected = image.getRGB(0, 0);
+        for (int px = 0; px < 60; px++) {
+            for (int py = 0; py < 100; py++) {
+                assertEquals(expected, image.getRGB(px, py));
+            }
+        }
+    }
+    
+    /**
+     * Test of exportPNG procedure, of class DetailPyramid.
+     * @throws IOException If the temporary file can't be written.
+     */
+    @Test
+    public void testExportPNG() throws IOException {
+        System.out.println("exportPNG");
+        Board board = Board.makeBoard(100, new Position(399, 799));
+        DetailPyramid pyramid = new DetailPyramid(board);
+        File file = File.createTempFile("pyramid", ".png");
+        file.deleteOnExit();
+        pyramid.exportPNG(file, 256);
+        BufferedImage image = ImageIO.read(file);
+        assertEquals(256, image.getWidth());
+        assertEquals(128, image.getHeight());
+    }
+    
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package ui.graphical;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+
+import javax.swing.JViewport;
+
+import minesweeper.Board;
+import minesweeper.Position;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the Minimap class.
+ * @author Alonso del Arte
+ */
+public class MinimapTest {
+    
+    private static final Position CORNER = new Position(7, 7);
+    
+    private static int paintCenter(Minimap minimap) {
+        BufferedImage image = new BufferedImage(40, 40, 
+                BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        minimap.paintComponent(g);
+        g.dispose();
+        return image.getRGB(20, 20);
+    }
+    
+    /**
+     * Test of setPyramid procedure, of class Minimap. After switching, the 
+     * minimap should draw the new pyramid, and should still be listening to 
+     * the main view only once.
+     */
+    @Test
+    public void testSetPyramid() {
+        System.out.println("setPyramid");
+        JViewport viewport = new JViewport();
+        int listenerCount = viewport.getChangeListeners().length;
+        Board covered = Board.makeBoard(0, CORNER);
+        Minimap minimap = new Minimap(new DetailPyramid(covered), viewport);
+        minimap.setSize(40, 40);
+        int coveredColor = paintCenter(minimap);
+        Board revealed = Board.makeBoard(0, CORNER);
+        revealed.reveal(new Position(0, 0));
+        DetailPyramid pyramid = new DetailPyramid(revealed);
+        minimap.setPyramid(pyramid);
+        assert pyramid == minimap.getPyramid() 
+                : "Minimap should have the new pyramid";
+        assert coveredColor != paintCenter(minimap) 
+                : "Minimap should draw the revealed board differently";
+        assertEquals(listenerCount + 1, viewport.getChangeListeners().length);
+    }
+    
+}
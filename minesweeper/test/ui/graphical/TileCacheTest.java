@@ -0,0 +1,84 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package ui.graphical;
+
+import java.awt.image.BufferedImage;
+import java.util.HashSet;
+
+import minesweeper.PositionStatus;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the TileCache class.
+ * @author Alonso del Arte
+ */
+public class TileCacheTest {
+    
+    /**
+     * Test of getTile function, of class TileCache. Each status should have 
+     * its own tile of the requested size.
+     */
+    @Test
+    public void testGetTile() {
+        System.out.println("getTile");
+        int size = 16;
+        TileCache cache = new TileCache(size);
+        HashSet<BufferedImage> images = new HashSet<>();
+        for (PositionStatus status : PositionStatus.values()) {
+            BufferedImage tile = cache.getTile(status);
+            assertEquals(size, tile.getWidth());
+            assertEquals(size, tile.getHeight());
+            images.add(tile);
+        }
+        assertEquals(PositionStatus.values().length, images.size());
+    }
+    
+    /**
+     * Another test of getTile function, of class TileCache. The same image 
+     * should be given each time, rather than a new rendering.
+     */
+    @Test
+    public void testGetTileGivesCachedImage() {
+        TileCache cache = new TileCache(24);
+        for (PositionStatus status : PositionStatus.values()) {
+            assertSame(cache.getTile(status), cache.getTile(status));
+        }
+    }
+    
+    /**
+     * Test of getTileSize function, of class TileCache.
+     */
+    @Test
+    public void testGetTileSize() {
+        System.out.println("getTileSize");
+        TileCache cache = new TileCache(20);
+        assertEquals(20, cache.getTileSize());
+    }
+    
+    /**
+     * Test of the constructor.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorRejectsTinyTiles() {
+        System.out.println("Constructor");
+        TileCache cache = new TileCache(3);
+        System.out.println("Should not have created " + cache.toString());
+    }
+    
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package ui.graphical;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.imageio.ImageIO;
+
+import minesweeper.Board;
+import minesweeper.Position;
+import minesweeper.PositionStatus;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the TiledExporter class.
+ * @author Alonso del Arte
+ */
+public class TiledExporterTest {
+    
+    private static final int TILE_SIZE = 8;
+    
+    private static final TileCache TILES = new TileCache(TILE_SIZE);
+    
+    /**
+     * Test of export procedure, of class TiledExporter. The exported image, 
+     * read back with <code>ImageIO</code>, should have the tile for each 
+     * position's status in the right place. The board is large enough to need 
+     * several strips and several tiles per strip.
+     * @throws IOException If the image can't be written or read back, which 
+     * should not happen with byte array streams.
+     */
+    @Test
+    public void testExport() throws IOException {
+        System.out.println("export");
+        Position corner = new Position(69, 150);
+        Board board = Board.makeBoard(500, corner);
+        Position curr = new Position(0, 0);
+        while (board.gameUnderway() && curr.isWithinBounds(corner)) {
+            PositionStatus status = board.query(curr);
+            if (status.equals(PositionStatus.COVERED)) {
+                if ((curr.getX() + curr.getY()) % 7 == 0) {
+                    board.flag(curr);
+                } else {
+                    board.reveal(curr);
+                }
+            }
+            curr = curr.nextColumnWithReset(corner);
+            for (int i = 0; i < 10; i++) {
+                curr = curr.nextColumnWithReset(corner);
+            }
+        }
+        TiledExporter exporter = new TiledExporter(board, TILES, 
+                new ForkJoinPool(3));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(out);
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(
+                out.toByteArray()));
+        assertEquals(151 * TILE_SIZE, image.getWidth());
+        assertEquals(70 * TILE_SIZE, image.getHeight());
+        for (int x = 0; x <= corner.getX(); x += 3) {
+            for (int y = 0; y <= corner.getY(); y += 5) {
+                BufferedImage tile = TILES.getTile(board.query(new Position(x, 
+                        y)));
+                for (int i = 0; i < TILE_SIZE; i += 3) {
+                    for (int j = 0; j < TILE_SIZE; j += 3) {
+                        assertEquals(tile.getRGB(i, j), 
+                                image.getRGB(y * TILE_SIZE + i, 
+                                        x * TILE_SIZE + j));
+                    }
+                }
+            }
+        }
+    }
+    
+    /**
+     * Test of getImageWidth and getImageHeight functions, of class 
+     * TiledExporter.
+     */
+    @Test
+    public void testImageDimensions() {
+        System.out.println("getImageWidth, getImageHeight");
+        Board board = Board.makeBoard(10, new Position(9, 25));
+        TiledExporter exporter = new TiledExporter(board, TILES);
+        assertEquals(26 * TILE_SIZE, exporter.getImageWidth());
+        assertEquals(10 * TILE_SIZE, exporter.getImageHeight());
+    }
+    
+}
@@ -94,6 +94,70 @@ public class GameTest {
         }
     }
     
+    /**
+     * Another test of the parsePosition function, of class Game. On boards 
+     * wider than 26 columns or taller than 10 rows, positions may take several 
+     * letters and several digits.
+     */
+    @Test
+    public void testParsePositionMultipleCharacters() {
+        assertEquals(new Position(123, 27), Game.parsePosition("AB123"));
+        assertEquals(new Position(123, 27), Game.parsePosition("123AB"));
+        assertEquals(new Position(10, 26), Game.parsePosition("aa10"));
+        assertEquals(new Position(0, 701), Game.parsePosition("ZZ0"));
+        assertEquals(new Position(7, 702), Game.parsePosition("AAA7"));
+    }
+    
+    /**
+     * Another test of the parsePosition function, of class Game. Letters and 
+     * digits interleaved, or numbers too large for <code>int</code>, should 
+     * give a position that is out of bounds rather than cause an exception.
+     */
+    @Test
+    public void testParsePositionRejectsGarbage() {
+        String[] badSpecs = {"", "A", "7", "A7B", "7A7", "A-7", 
+            "A99999999999", "ZZZZZZZZZZ7"};
+        for (String badSpec : badSpecs) {
+            Position badPosition = Game.parsePosition(badSpec);
+            assertEquals(Game.UNPARSEABLE_POSITION, badPosition);
+        }
+    }
+    
+    /**
+     * Test of the columnLabel function, of class Game.
+     */
+    @Test
+    public void testColumnLabel() {
+        System.out.println("columnLabel");
+        assertEquals("A", Game.columnLabel(0));
+        assertEquals("Z", Game.columnLabel(25));
+        assertEquals("AA", Game.columnLabel(26));
+        assertEquals("AB", Game.columnLabel(27));
+        assertEquals("ZZ", Game.columnLabel(701));
+        assertEquals("AAA", Game.columnLabel(702));
+        for (int column = 0; column < 1000; column++) {
+            String label = Game.columnLabel(column);
+            Position position = Game.parsePosition(label + "0");
+            assertEquals(column, position.getY());
+        }
+    }
+    
+    /**
+     * Test of the chooseNumberOfMines function, of class Game. The default 10 
+     * &times; 26 board should still get 10, 26 and 52 mines.
+     */
+    @Test
+    public void testChooseNumberOfMines() {
+        System.out.println("chooseNumberOfMines");
+        Position corner = new Position(9, 25);
+        assertEquals(10, Game.chooseNumberOfMines("-easy", corner));
+        assertEquals(26, Game.chooseNumberOfMines("-medium", corner));
+        assertEquals(52, Game.chooseNumberOfMines("-hard", corner));
+        assertEquals(26, Game.chooseNumberOfMines("-unknown", corner));
+        corner = new Position(31, 47);
+        assertEquals(153, Game.chooseNumberOfMines("-medium", corner));
+    }
+    
     /**
      * Test of the chooseColor function, of class Game.
      */
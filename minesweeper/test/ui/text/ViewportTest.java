@@ -0,0 +1,99 @@
+/*
+ * Copyright (C) 2021 Alonso del Arte
+ *
+ * This program is free software: you can redistribute it and/or modify it under 
+ * the terms of the GNU General Public License as published by the Free Software 
+ * Foundation, either version 3 of the License, or (at your option) any later 
+ * version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT 
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS 
+ * FOR A PARTICULAR PURPOSE. See the GNU General Public License for more 
+ * details.
+ *
+ * You should have received a copy of the GNU General Public License along with 
+ * this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package ui.text;
+
+import minesweeper.Position;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests of the Viewport class.
+ * @author Alonso del Arte
+ */
+public class ViewportTest {
+    
+    private static final Position LARGE_CORNER = new Position(999, 1999);
+    
+    /**
+     * Test of getRowCount and getColumnCount functions, of class Viewport. A 
+     * board smaller than the viewport should be shown in its entirety.
+     */
+    @Test
+    public void testSmallBoardFitsEntirely() {
+        System.out.println("getRowCount, getColumnCount");
+        Position corner = new Position(9, 25);
+        Viewport viewport = new Viewport(corner, 40, 100);
+        assertEquals(10, viewport.getRowCount());
+        assertEquals(26, viewport.getColumnCount());
+        assertEquals(0, viewport.getFirstRow());
+        assertEquals(9, viewport.getLastRow());
+        assertEquals(0, viewport.getFirstColumn());
+        assertEquals(25, viewport.getLastColumn());
+    }
+    
+    /**
+     * Test of follow procedure, of class Viewport.
+     */
+    @Test
+    public void testFollow() {
+        System.out.println("follow");
+        Viewport viewport = new Viewport(LARGE_CORNER, 8, 20);
+        Position cursor = new Position(500, 1000);
+        viewport.follow(cursor);
+        assert viewport.contains(cursor) : "Cursor should be visible";
+        assertEquals(8, viewport.getRowCount());
+        assertEquals(20, viewport.getColumnCount());
+        Position nearby = new Position(490, 975);
+        viewport.follow(nearby);
+        assertEquals(490, viewport.getFirstRow());
+        assertEquals(975, viewport.getFirstColumn());
+        viewport.follow(LARGE_CORNER);
+        assertEquals(999, viewport.getLastRow());
+        assertEquals(1999, viewport.getLastColumn());
+    }
+    
+    /**
+     * Test of scroll procedure, of class Viewport. The viewport should not go 
+     * beyond the edges of the board.
+     */
+    @Test
+    public void testScroll() {
+        System.out.println("scroll");
+        Viewport viewport = new Viewport(LARGE_CORNER, 8, 20);
+        viewport.scroll(-5, -5);
+        assertEquals(0, viewport.getFirstRow());
+        assertEquals(0, viewport.getFirstColumn());
+        viewport.scroll(8, 20);
+        assertEquals(8, viewport.getFirstRow());
+        assertEquals(20, viewport.getFirstColumn());
+        viewport.scroll(Integer.MAX_VALUE, Integer.MAX_VALUE);
+        assertEquals(992, viewport.getFirstRow());
+        assertEquals(1980, viewport.getFirstColumn());
+    }
+    
+    /**
+     * Test of the constructor.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testConstructorRejectsEmptyViewport() {
+        System.out.println("Constructor");
+        Viewport viewport = new Viewport(LARGE_CORNER, 0, 20);
+        System.out.println("Should not have created " + viewport.toString());
+    }
+    
+}